@@ -8,6 +8,7 @@ import main.model.project.Project;
 import main.model.user.HDBManager;
 import main.model.user.HDBOfficer;
 import main.model.user.Applicant;
+import main.utils.MailboxDirectorySink;
 import main.utils.Loader.ApplicantLoader;
 import main.utils.Loader.ManagerLoader;
 import main.utils.Loader.OfficerLoader;
@@ -33,6 +34,31 @@ public class Main {
             OfficerRegistrationRepository officerRegistrationRepository = new OfficerRegistrationRepository();
             EnquiryRepository enquiryRepository = new EnquiryRepository();
 
+            // Move long-closed projects and their data to cold storage before anything subscribes
+            ProjectArchiver projectArchiver = new ProjectArchiver(
+                projectRepository,
+                applicationRepository,
+                enquiryRepository,
+                officerRegistrationRepository
+            );
+            List<String> archivedProjects = projectArchiver.archiveClosedProjects();
+            if (!archivedProjects.isEmpty()) {
+                System.out.println("Archived " + archivedProjects.size() + " closed project(s) to data/archive");
+            }
+
+            // Publish repository changes to in-process subscribers
+            ChangeEventBus changeEventBus = new ChangeEventBus();
+            userRepository.publishTo(changeEventBus);
+            projectRepository.publishTo(changeEventBus);
+            applicationRepository.publishTo(changeEventBus);
+            officerRegistrationRepository.publishTo(changeEventBus);
+            enquiryRepository.publishTo(changeEventBus);
+
+            // Record applicant notifications and deliver them to their mailboxes in the background
+            NotificationOutbox notificationOutbox = new NotificationOutbox(new MailboxDirectorySink("mailbox"));
+            notificationOutbox.watch(changeEventBus, applicationRepository, enquiryRepository);
+            notificationOutbox.start();
+
             // Load data from CSV files
             List<HDBManager> managers = ManagerLoader.loadFromCsv("ManagerList.csv");
             List<HDBOfficer> officers = OfficerLoader.loadFromCsv("OfficerList.csv");
@@ -43,8 +69,9 @@ public class Main {
             officers.forEach(userRepository::save);
             applicants.forEach(userRepository::save);
 
-            // Load and save projects using project names as unique identifiers
-            if (projectRepository.findAll().isEmpty()) {
+            // Load and save projects using project names as unique identifiers; once any project
+            // exists, live or archived, the CSV has already been imported
+            if (projectRepository.findAll().isEmpty() && projectArchiver.isEmpty()) {
                 List<Project> projects = ProjectLoader.loadFromCsv("ProjectList.csv", userRepository, projectRepository);
                 projects.forEach(projectRepository::save);
             }
@@ -54,13 +81,15 @@ public class Main {
                 projectRepository, 
                 userRepository,
                 applicationRepository, 
-                enquiryRepository
+                enquiryRepository,
+                projectArchiver
             );
             
             ApplicationController applicationController = new ApplicationController(
                 applicationRepository,
                 projectRepository,
-                userRepository
+                userRepository,
+                projectArchiver
             );
             
             EnquiriesController enquiriesController = new EnquiriesController(
@@ -81,7 +110,9 @@ public class Main {
                 officerRegistrationRepository,
                 applicationRepository,
                 enquiryRepository,
-                userRepository
+                userRepository,
+                projectArchiver,
+                changeEventBus
             );
 
             HDBOfficerController hdbOfficerController = new HDBOfficerController(
@@ -90,6 +121,14 @@ public class Main {
                 userRepository
             );
 
+            CommandGateway commandGateway = new CommandGateway(
+                applicationController,
+                hdbOfficerController,
+                enquiriesController,
+                applicationRepository,
+                enquiryRepository,
+                new IdempotencyCache()
+            );
 
             // Initialize and start the UI
             WelcomeBoundary welcomeBoundary = new WelcomeBoundary(
@@ -103,7 +142,8 @@ public class Main {
                 enquiriesController,
                 officerRegistrationController,
                 hdbManagerController,
-                hdbOfficerController
+                hdbOfficerController,
+                commandGateway
             );
             
             welcomeBoundary.start();
@@ -3,7 +3,9 @@ package main.boundary;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import main.controller.AdmissionRejectedException;
 import main.controller.ApplicationController;
+import main.controller.CommandGateway;
 import main.controller.EnquiriesController;
 import main.controller.ProjectController;
 import main.model.application.Application;
@@ -35,6 +37,7 @@ public class ApplicantUI implements PasswordChanger{
     private final ProjectController projectController;
     private final ApplicationController applicationController;
     private final EnquiriesController enquiriesController;
+    private final CommandGateway commandGateway;
     private final UserRepository userRepository;
     private final PasswordService passwordService;
     private final PasswordUI passwordUI;
@@ -46,6 +49,7 @@ public class ApplicantUI implements PasswordChanger{
      * @param projectController Project controller instance
      * @param applicationController Application controller instance
      * @param enquiriesController Enquiries controller instance
+     * @param commandGateway Gateway for commands that must not run twice
      * @param passwordController Password controller instance
      * @param userRepository User repository instance
      */
@@ -53,12 +57,14 @@ public class ApplicantUI implements PasswordChanger{
                       ProjectController projectController,
                       ApplicationController applicationController,
                       EnquiriesController enquiriesController,
+                      CommandGateway commandGateway,
                       UserRepository userRepository) {
         this.scanner = new Scanner(System.in);
         this.currentApplicant = applicant;
         this.projectController = projectController;
         this.applicationController = applicationController;
         this.enquiriesController = enquiriesController;
+        this.commandGateway = commandGateway;
         this.userRepository = userRepository;
         this.passwordService = new PasswordService(
             userRepository, 
@@ -175,11 +181,28 @@ public class ApplicantUI implements PasswordChanger{
         if (choice == -1) return;
 
         String selectedFlatType = (String) flatTypes.keySet().toArray()[choice];
-        boolean success = applicationController.applyForProject(
-            currentApplicant.getID(),
-            projectName,
-            selectedFlatType
-        );
+        // One request ID for this submission and all its retries, so it is applied at most once
+        String requestId = CommandGateway.newRequestId();
+        boolean success;
+        while (true) {
+            try {
+                success = commandGateway.applyForProject(
+                    requestId,
+                    currentApplicant.getID(),
+                    projectName,
+                    selectedFlatType,
+                    position -> System.out.println("Many applications are being submitted. You are number "
+                        + position + " in the queue, please wait...")
+                );
+                break;
+            } catch (AdmissionRejectedException e) {
+                System.out.println("The system is busy. Please try again in "
+                    + Math.max(1, e.getRetryAfterMillis() / 1000) + " seconds.");
+                if (!ConsoleUtils.confirmAction("Retry this application? (Y/N): ")) {
+                    return;
+                }
+            }
+        }
 
         if (success) {
             System.out.println("Application submitted successfully!");
@@ -4,10 +4,12 @@ import main.model.application.Application;
 import main.model.application.ApplicationStatus;
 import main.model.project.Project;
 import main.model.user.Applicant;
+import main.repository.Page;
 import main.utils.ConsoleUtils;
 import main.utils.DateUtils;
 
 import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * Boundary class for displaying application information.
@@ -15,6 +17,15 @@ import java.util.List;
  */
 public class ApplicationViewer {
     
+    /**
+     * Displays applications one page at a time.
+     * @param pages Fetches the page of applications after a cursor
+     * @return true if any applications were shown
+     */
+    public static boolean displayApplications(BiFunction<String, Integer, Page<Application>> pages) {
+        return ConsoleUtils.pageThrough(pages, ApplicationViewer::displayApplications);
+    }
+
     /**
      * Displays a list of applications in a formatted table.
      * @param applications List of Application objects to display
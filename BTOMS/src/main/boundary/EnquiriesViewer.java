@@ -1,9 +1,11 @@
 package main.boundary;
 
 import java.util.List;
+import java.util.function.BiFunction;
 import main.model.enquiry.Enquiry;
 import main.model.project.Project;
 import main.model.user.User;
+import main.repository.Page;
 import main.repository.UserRepository;
 import main.utils.ConsoleUtils;
 import main.utils.DateUtils;
@@ -43,6 +45,16 @@ public class EnquiriesViewer {
         }
     }
 
+    /**
+     * Displays enquiries one page at a time.
+     * @param pages Fetches the page of enquiries after a cursor
+     * @param userRepository UserRepository for applicant name lookup
+     * @return true if any enquiries were shown
+     */
+    public static boolean displayEnquiries(BiFunction<String, Integer, Page<Enquiry>> pages, UserRepository userRepository) {
+        return ConsoleUtils.pageThrough(pages, page -> displayEnquiries(page, userRepository));
+    }
+
     /**
      * Displays unanswered enquiries in a formatted table.
      * @param enquiries List of Enquiry objects to display
@@ -123,6 +135,18 @@ public class EnquiriesViewer {
         displayEnquiries(enquiries, userRepository);
     }
 
+    /**
+     * Displays enquiries for a specific project one page at a time.
+     * @param pages Fetches the page of the project's enquiries after a cursor
+     * @param project The Project object associated with the enquiries
+     * @param userRepository UserRepository for applicant name lookup
+     * @return true if any enquiries were shown
+     */
+    public static boolean displayProjectEnquiries(BiFunction<String, Integer, Page<Enquiry>> pages, Project project,
+                                                  UserRepository userRepository) {
+        return ConsoleUtils.pageThrough(pages, page -> displayProjectEnquiries(page, project, userRepository));
+    }
+
     /**
      * Displays enquiries for a specific applicant.
      * @param enquiries List of Enquiry objects to display
@@ -138,6 +162,23 @@ public class EnquiriesViewer {
         displayEnquiries(enquiries, userRepository);
     }
 
+    /**
+     * Displays groups of similar enquiries, numbered from 1.
+     * @param clusters Groups of similar enquiries
+     * @param userRepository UserRepository for applicant name lookup
+     */
+    public static void displayEnquiryClusters(List<List<Enquiry>> clusters, UserRepository userRepository) {
+        if (clusters == null || clusters.isEmpty()) {
+            System.out.println("No groups of similar enquiries found.");
+            return;
+        }
+        for (int i = 0; i < clusters.size(); i++) {
+            List<Enquiry> cluster = clusters.get(i);
+            System.out.println("\n===== Group " + (i + 1) + " (" + cluster.size() + " similar enquiries) =====");
+            displayEnquiries(cluster, userRepository);
+        }
+    }
+
     /**
      * Displays a form for replying to an enquiry.
      * @param enquiry The Enquiry object to reply to
@@ -4,7 +4,9 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 import main.controller.*;
+import main.model.ballot.BallotResult;
 import main.model.enquiry.Enquiry;
+import main.model.project.FlatType;
 import main.model.project.Neighborhood;
 import main.model.project.Project;
 import main.model.registration.OfficerRegistration;
@@ -34,6 +36,7 @@ public class HDBManagerUI implements PasswordChanger{
     private final ApplicationController applicationController;
     private final EnquiriesController enquiriesController;
     private final OfficerRegistrationController officerRegistrationController;
+    private final CommandGateway commandGateway;
     private final UserRepository userRepository;
     private final ApplicationRepository applicationRepository;
     private final PasswordService passwordService;
@@ -48,6 +51,7 @@ public class HDBManagerUI implements PasswordChanger{
                         ApplicationController applicationController,
                         EnquiriesController enquiriesController,
                         OfficerRegistrationController officerRegistrationController,
+                        CommandGateway commandGateway,
                         UserRepository userRepository,
                         ApplicationRepository applicationRepository) {
         this.scanner = new Scanner(System.in);
@@ -57,6 +61,7 @@ public class HDBManagerUI implements PasswordChanger{
         this.applicationController = applicationController;
         this.enquiriesController = enquiriesController;
         this.officerRegistrationController = officerRegistrationController;
+        this.commandGateway = commandGateway;
         this.userRepository = userRepository;
         this.applicationRepository = applicationRepository;
         this.passwordService = new PasswordService(
@@ -86,8 +91,11 @@ public class HDBManagerUI implements PasswordChanger{
             System.out.println("11. View Enquiries");
             System.out.println("12. Reply to Enquiries");
             System.out.println("13. Change Password");
+            System.out.println("14. Run BTO Ballot");
+            System.out.println("15. View Project Dashboards");
+            System.out.println("16. View Application Statistics");
             System.out.println("0. Logout");
-            choice = ConsoleUtils.readIntWithValidation("Enter your choice: ", "Invalid choice", 0, 13);
+            choice = ConsoleUtils.readIntWithValidation("Enter your choice: ", "Invalid choice", 0, 16);
             processMenuChoice(choice);
         } while (choice != 0);
     }
@@ -111,6 +119,9 @@ public class HDBManagerUI implements PasswordChanger{
             case 11 -> viewEnquiries();
             case 12 -> replyToEnquiries();
             case 13 -> changePassword(currentManager);
+            case 14 -> runBallot();
+            case 15 -> viewProjectDashboards();
+            case 16 -> viewApplicationStatistics();
             case 0 -> System.out.println("Logging out...");
             default -> System.out.println("Invalid choice. Please try again.");
         }
@@ -491,8 +502,7 @@ public class HDBManagerUI implements PasswordChanger{
      * Displays all projects in the system.
      */
     private void viewAllProjects() {
-        List<Project> allProjects = projectController.getAllProjects();
-        ProjectViewer.displayProjectsWithVisibility(allProjects);
+        ProjectViewer.displayProjectsWithVisibility(projectController::getProjectPage);
         String projectName = ConsoleUtils.readOptionalInput("\nEnter project name to view details (or 0 to return): ");
         if (!projectName.equals("0") && !projectName.isEmpty()) {
             Project project = projectController.getProjectByName(projectName);
@@ -534,9 +544,9 @@ public class HDBManagerUI implements PasswordChanger{
         String projectName = ConsoleUtils.readNonEmptyString("\nEnter Project Name (or 0 to exit): ");
         if (projectName.equals("0")) return;
     
-        List<OfficerRegistration> registrations = officerRegistrationController.getPendingRegistrationsByProject(projectName);
-        OfficerRegistrationViewer.displayRegistrations(registrations);
-        if (registrations == null || registrations.isEmpty()) {
+        boolean shown = OfficerRegistrationViewer.displayRegistrations(
+            (after, limit) -> officerRegistrationController.getPendingRegistrationPage(projectName, after, limit));
+        if (!shown) {
             System.out.println("No registrations available.");
             ConsoleUtils.pressEnterToContinue();
             return;
@@ -551,8 +561,8 @@ public class HDBManagerUI implements PasswordChanger{
         if (choice == 0) return;
     
         if (choice == 1) {
-            officerRegistrationController.approveRegistration(regId, currentManager.getID());
-            System.out.println("Registration successfully approved!");
+            boolean approved = officerRegistrationController.approveRegistration(regId, currentManager.getID());
+            System.out.println(approved ? "Registration successfully approved!" : "Failed to approve registration.");
             ConsoleUtils.pressEnterToContinue();
         } else if (choice == 2) {
             String remarks = ConsoleUtils.readNonEmptyString("Enter rejection remarks (or 0 to cancel): ");
@@ -573,18 +583,22 @@ public class HDBManagerUI implements PasswordChanger{
         String projectName = ConsoleUtils.readNonEmptyString("\nEnter Project Name (or 0 to exit): ");
         if (projectName.equals("0")) return;
     
-        List<Application> applications = hdbManagerController.getApplicationsByProject(projectName);
-        ApplicationViewer.displayApplications(applications);
-        if (applications.isEmpty()) {
+        boolean shown = ApplicationViewer.displayApplications(
+            (after, limit) -> hdbManagerController.getApplicationPage(projectName, after, limit));
+        if (!shown) {
             System.out.println("No applications found.");
             ConsoleUtils.pressEnterToContinue();
             return;
         }
     
         // Allow user to exit at application selection
-        String appId = ConsoleUtils.readNonEmptyString("Enter Application ID (or 0 to exit): ");
+        String appId = ConsoleUtils.readNonEmptyString("Enter Application ID (B for batch decisions, 0 to exit): ");
         if (appId.equals("0")) return;
-    
+        if (appId.equalsIgnoreCase("B")) {
+            batchDecideApplications(hdbManagerController.getApplicationsByProject(projectName));
+            return;
+        }
+
         System.out.println("1. Approve\n2. Reject\n0. Cancel");
         int choice = ConsoleUtils.readIntWithValidation("Choice: ", "Invalid choice", 0, 2);
         if (choice == 0) return;
@@ -603,6 +617,39 @@ public class HDBManagerUI implements PasswordChanger{
             hdbManagerController.rejectApplication(appId, currentManager.getID(), "Rejected by manager");
         }
     }
+
+    /**
+     * Collects a decision for each pending application and submits them as one batch.
+     * The batch is applied only if every decision is valid.
+     * @param applications The applications of the selected project
+     */
+    private void batchDecideApplications(List<Application> applications) {
+        List<ApplicationDecision> decisions = new ArrayList<>();
+        for (Application app : applications) {
+            if (app.getStatus() != ApplicationStatus.PENDING) continue;
+            String input = ConsoleUtils.readNonEmptyString(
+                app.getApplicationId() + " (" + app.getApplicantName() + ", " + app.getFlatType() + ") - "
+                + "A=Approve, R=Reject, S=Skip: ").trim().toUpperCase();
+            if (input.equals("A")) {
+                decisions.add(new ApplicationDecision(app.getApplicationId(), ApplicationDecision.Decision.APPROVE, null));
+            } else if (input.equals("R")) {
+                decisions.add(new ApplicationDecision(app.getApplicationId(), ApplicationDecision.Decision.REJECT, "Rejected by manager"));
+            }
+        }
+        if (decisions.isEmpty()) {
+            System.out.println("No decisions to submit.");
+            return;
+        }
+
+        List<String> errors = hdbManagerController.processApplicationDecisions(decisions, currentManager.getID());
+        if (errors.isEmpty()) {
+            System.out.println(decisions.size() + " decision(s) applied successfully!");
+        } else {
+            System.out.println("Batch rejected, no changes were made:");
+            errors.forEach(error -> System.out.println(" - " + error));
+        }
+        ConsoleUtils.pressEnterToContinue();
+    }
     
     
     /**
@@ -632,17 +679,130 @@ public class HDBManagerUI implements PasswordChanger{
         }
     }
 
+    /**
+     * Allows the manager to run the ballot for a closed project.
+     * The seed is printed so that the draw can be reproduced for auditing.
+     */
+    private void runBallot() {
+        List<Project> myProjects = projectController.getProjectsByManager(currentManager.getID());
+        ProjectViewer.displayProjects(myProjects);
+
+        String projectName = ConsoleUtils.readNonEmptyString("\nEnter Project Name (or 0 to exit): ");
+        if (projectName.equals("0")) return;
+
+        String seedInput = ConsoleUtils.readOptionalInput("Enter ballot seed (leave blank for a random seed): ").trim();
+        long seed;
+        try {
+            seed = seedInput.isEmpty() ? System.nanoTime() : Long.parseLong(seedInput);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid seed.");
+            return;
+        }
+
+        BallotResult result = hdbManagerController.runBallot(projectName, currentManager.getID(), seed);
+        if (result != null) {
+            System.out.println(result);
+        }
+        ConsoleUtils.pressEnterToContinue();
+    }
+
+    /**
+     * Displays the dashboard counters of each project managed by the manager,
+     * optionally followed by a consistency check of the counters.
+     */
+    private void viewProjectDashboards() {
+        List<Project> myProjects = projectController.getProjectsByManager(currentManager.getID());
+        if (myProjects.isEmpty()) {
+            System.out.println("You are not managing any projects.");
+            return;
+        }
+        for (Project project : myProjects) {
+            System.out.println("\n" + hdbManagerController.getProjectDashboard(project.getProjectName(), currentManager.getID()));
+        }
+        if (ConsoleUtils.confirmAction("\nRun consistency check? (Y/N): ")) {
+            List<String> diffs = hdbManagerController.verifyDashboards();
+            if (diffs.isEmpty()) {
+                System.out.println("Dashboards are consistent.");
+            } else {
+                System.out.println(diffs.size() + " inconsistent dashboard(s):");
+                diffs.forEach(System.out::println);
+            }
+        }
+        ConsoleUtils.pressEnterToContinue();
+    }
+
+    /**
+     * Displays application counts by status and flat type for each project managed by the
+     * manager, optionally limited to applications submitted in a date range.
+     */
+    private void viewApplicationStatistics() {
+        Date from = readOptionalDate("Count applications submitted from (dd/MM/yyyy, blank for no limit): ");
+        Date to = readOptionalDate("Count applications submitted until (dd/MM/yyyy, blank for no limit): ");
+        Map<String, Map<ApplicationStatus, Long>> counts =
+            hdbManagerController.getApplicationCountsByProject(currentManager.getID(), from, to);
+        if (counts.isEmpty()) {
+            System.out.println("No applications found for your projects.");
+            return;
+        }
+        List<String> headers = new ArrayList<>(List.of("Project"));
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            if (status != ApplicationStatus.NONE) headers.add(status.toString());
+        }
+        for (FlatType type : FlatType.values()) {
+            headers.add(type.toString());
+        }
+        int[] widths = new int[headers.size()];
+        widths[0] = 20;
+        for (int i = 1; i < widths.length; i++) {
+            widths[i] = Math.max(headers.get(i).length(), 6);
+        }
+        ConsoleUtils.displayTableHeader(headers.toArray(new String[0]), widths);
+        for (Map.Entry<String, Map<ApplicationStatus, Long>> entry : counts.entrySet()) {
+            List<String> row = new ArrayList<>(List.of(entry.getKey()));
+            for (ApplicationStatus status : ApplicationStatus.values()) {
+                if (status != ApplicationStatus.NONE) row.add(String.valueOf(entry.getValue().get(status)));
+            }
+            Map<FlatType, Long> byFlatType = hdbManagerController.getApplicationCountsByFlatType(entry.getKey(), from, to);
+            for (FlatType type : FlatType.values()) {
+                row.add(String.valueOf(byFlatType.get(type)));
+            }
+            ConsoleUtils.displayTableRow(row.toArray(new String[0]), widths);
+        }
+        ConsoleUtils.pressEnterToContinue();
+    }
+
+    /**
+     * Reads an optional date, asking again until it is blank or valid.
+     */
+    private Date readOptionalDate(String prompt) {
+        while (true) {
+            String input = ConsoleUtils.readOptionalInput(prompt);
+            if (input.isEmpty()) return null;
+            Date date = DateUtils.parseDate(input);
+            if (date != null) return date;
+            System.out.println("Invalid date. Please use dd/MM/yyyy.");
+        }
+    }
+
     /**
      * Allows the manager to generate reports for a project.
      */
     private void generateReports() {
         List<Project> myProjects = projectController.getProjectsByManager(currentManager.getID());
         ProjectViewer.displayProjects(myProjects);
-        String projectName = ConsoleUtils.readNonEmptyString("\nEnter Project Name (or 0 to exit): ");
+        String projectName = ConsoleUtils.readNonEmptyString("\nEnter Project Name (ALL for all your projects, 0 to exit): ");
         if (projectName.equals("0")) return;
         Map<String, Object> filters = collectReportFilters();
-        String report = projectController.generateProjectReport(projectName, filters);
-        System.out.println("\n=== Report ===\n" + report);
+        if (projectName.equalsIgnoreCase("ALL")) {
+            String summaryPath = projectController.generateAllProjectReports(currentManager.getID(), filters);
+            System.out.println(summaryPath != null ? "Reports generated. Summary saved to " + summaryPath : "No reports generated.");
+        } else if (ConsoleUtils.confirmAction("Save report to file instead of printing? (Y/N): ")) {
+            String filePath = projectController.generateProjectReportToFile(projectName, filters);
+            System.out.println(filePath != null ? "Report saved to " + filePath : "Failed to generate report.");
+        } else {
+            String report = projectController.generateProjectReport(projectName, filters);
+            System.out.println("\n=== Report ===\n" + report);
+        }
         ConsoleUtils.pressEnterToContinue();
     }
 
@@ -667,9 +827,16 @@ public class HDBManagerUI implements PasswordChanger{
      * Displays all enquiries in the system.
      */
     private boolean viewEnquiries() {
-        List<Enquiry> allEnquiries = enquiriesController.getAllEnquiries();
-        EnquiriesViewer.displayEnquiries(allEnquiries, userRepository);
-        if (allEnquiries == null || allEnquiries.isEmpty()) {
+        String keywords = ConsoleUtils.readOptionalInput("Search keywords (press Enter to list all): ");
+        boolean shown;
+        if (keywords.isEmpty()) {
+            shown = EnquiriesViewer.displayEnquiries(enquiriesController::getEnquiryPage, userRepository);
+        } else {
+            List<Enquiry> matches = enquiriesController.searchEnquiries(keywords, null, null);
+            EnquiriesViewer.displayEnquiries(matches, userRepository);
+            shown = !matches.isEmpty();
+        }
+        if (!shown) {
             System.out.println("No enquiries available.");
             ConsoleUtils.pressEnterToContinue();
             return false;
@@ -685,15 +852,44 @@ public class HDBManagerUI implements PasswordChanger{
             // No enquiries to reply to, return to menu
             return;
         }
-        String enquiryId = ConsoleUtils.readNonEmptyString("\nEnter Enquiry ID (or 0 to exit): ");
+        String enquiryId = ConsoleUtils.readNonEmptyString("\nEnter Enquiry ID, G to reply to a group of similar enquiries (or 0 to exit): ");
         if (enquiryId.equals("0")) return;
+        if (enquiryId.equalsIgnoreCase("G")) {
+            replyToSimilarEnquiries();
+            return;
+        }
         String reply = ConsoleUtils.readNonEmptyString("Enter your reply (or 0 to return): ");
         if (reply.equals("0")) return;
-        boolean success = enquiriesController.replyToEnquiry(enquiryId, currentManager.getID(), reply);
+        boolean success = commandGateway.replyToEnquiry(CommandGateway.newRequestId(), enquiryId, currentManager.getID(), reply);
         System.out.println(success ? "Reply submitted." : "Failed to submit reply.");
         ConsoleUtils.pressEnterToContinue();
     }
 
+    /**
+     * Lets the manager answer a group of similar unanswered enquiries of a project with one reply.
+     */
+    private void replyToSimilarEnquiries() {
+        String projectName = ConsoleUtils.readNonEmptyString("Enter project name: ");
+        List<List<Enquiry>> clusters = enquiriesController.getSimilarUnansweredEnquiries(projectName);
+        EnquiriesViewer.displayEnquiryClusters(clusters, userRepository);
+        if (clusters.isEmpty()) {
+            ConsoleUtils.pressEnterToContinue();
+            return;
+        }
+        int choice = ConsoleUtils.readIntWithValidation("\nEnter group number (or 0 to cancel): ",
+            "Invalid group number.", 0, clusters.size());
+        if (choice == 0) return;
+        String reply = ConsoleUtils.readNonEmptyString("Enter your reply (or 0 to return): ");
+        if (reply.equals("0")) return;
+        List<String> enquiryIds = new ArrayList<>();
+        for (Enquiry enquiry : clusters.get(choice - 1)) {
+            enquiryIds.add(enquiry.getEnquiryId());
+        }
+        boolean success = enquiriesController.replyToEnquiries(enquiryIds, currentManager.getID(), reply);
+        System.out.println(success ? "Reply submitted to " + enquiryIds.size() + " enquiries." : "Failed to submit reply.");
+        ConsoleUtils.pressEnterToContinue();
+    }
+
     /**
      * Initiates the password change process for the specified user.
      * <p>
@@ -4,8 +4,11 @@ import java.text.SimpleDateFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Scanner;
+import java.util.stream.Collectors;
 
+import main.controller.AdmissionRejectedException;
 import main.controller.ApplicationController;
+import main.controller.CommandGateway;
 import main.controller.EnquiriesController;
 import main.controller.HDBOfficerController;
 import main.controller.OfficerRegistrationController;
@@ -45,6 +48,7 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
     private final EnquiriesController enquiriesController;
     private final OfficerRegistrationController officerRegistrationController;
     private final HDBOfficerController hdbOfficerController;
+    private final CommandGateway commandGateway;
     private final UserRepository userRepository;
     private final PasswordService passwordService;
     private final PasswordUI passwordUI;
@@ -58,6 +62,7 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
                         EnquiriesController enquiriesController,
                         OfficerRegistrationController officerRegistrationController,
                         HDBOfficerController hdbOfficerController,
+                        CommandGateway commandGateway,
                         UserRepository userRepository) {
         this.scanner = new Scanner(System.in);
         this.currentOfficer = officer;
@@ -66,6 +71,7 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
         this.enquiriesController = enquiriesController;
         this.officerRegistrationController = officerRegistrationController;
         this.hdbOfficerController = hdbOfficerController;
+        this.commandGateway = commandGateway;
         this.userRepository = userRepository;
         this.passwordService = new PasswordService(
             userRepository, 
@@ -299,7 +305,8 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
     }
     
     // Update application and project
-    boolean success = hdbOfficerController.bookFlat(
+    boolean success = commandGateway.bookFlat(
+        CommandGateway.newRequestId(),
         application.getApplicationId(),
         currentOfficer.getID(),
         flatType
@@ -341,12 +348,22 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
             System.out.println("Project information not found.");
             return;
         }
-        List<Enquiry> enquiries = enquiriesController.getEnquiriesByProject(project.getProjectName());
-        if (enquiries.isEmpty()) {
+        String keywords = ConsoleUtils.readOptionalInput("Search keywords (press Enter to list all): ");
+        boolean shown;
+        if (keywords.isEmpty()) {
+            shown = EnquiriesViewer.displayProjectEnquiries((after, limit) ->
+                enquiriesController.getProjectEnquiryPage(project.getProjectName(), after, limit), project, userRepository);
+        } else {
+            List<Enquiry> matches = enquiriesController.searchEnquiries(keywords, project.getProjectName(), null);
+            shown = !matches.isEmpty();
+            if (shown) {
+                EnquiriesViewer.displayProjectEnquiries(matches, project, userRepository);
+            }
+        }
+        if (!shown) {
             System.out.println("No enquiries found for this project.");
             return;
         }
-        EnquiriesViewer.displayProjectEnquiries(enquiries, project, userRepository);
         String enquiryId = ConsoleUtils.readOptionalInput("\nEnter enquiry ID to view details (or 0 to return): ");
         if (!enquiryId.equals("0") && !enquiryId.isEmpty()) {
             Enquiry enquiry = enquiriesController.getEnquiryById(enquiryId);
@@ -381,23 +398,76 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
             return;
         }
         EnquiriesViewer.displayUnansweredEnquiries(enquiries, userRepository);
-        String enquiryId = ConsoleUtils.readOptionalInput("\nEnter enquiry ID to reply (or 0 to cancel): ");
-        if (enquiryId.equals("0") || enquiryId.isEmpty()) return;
-        Enquiry enquiry = enquiries.stream().filter(e -> e.getEnquiryId().equals(enquiryId)).findFirst().orElse(null);
-        if (enquiry == null) {
-            System.out.println("Enquiry not found.");
+        int overdue = enquiriesController.countOverdueEnquiries(project.getProjectName());
+        if (overdue > 0) {
+            System.out.println(overdue + " enquiries are past their reply deadline.");
+        }
+        String input = ConsoleUtils.readOptionalInput("\nEnter enquiry ID to reply, N for the oldest available enquiry, "
+            + "G to reply to a group of similar enquiries (or 0 to cancel): ");
+        if (input.equals("0") || input.isEmpty()) return;
+        if (input.equalsIgnoreCase("G")) {
+            replyToSimilarEnquiries(project);
             return;
         }
+        Enquiry enquiry;
+        if (input.equalsIgnoreCase("N")) {
+            enquiry = enquiriesController.claimNextEnquiry(project.getProjectName(), currentOfficer.getID());
+            if (enquiry == null) {
+                System.out.println("All unanswered enquiries are being answered by other officers.");
+                return;
+            }
+            EnquiriesViewer.displayEnquiryDetails(enquiry, project, userRepository);
+        } else {
+            enquiry = enquiries.stream().filter(e -> e.getEnquiryId().equals(input)).findFirst().orElse(null);
+            if (enquiry == null) {
+                System.out.println("Enquiry not found.");
+                return;
+            }
+            if (!enquiriesController.claimEnquiry(enquiry.getEnquiryId(), currentOfficer.getID())) {
+                System.out.println("This enquiry is being answered by another officer.");
+                return;
+            }
+        }
+        String enquiryId = enquiry.getEnquiryId();
         System.out.print("Enter your reply: ");
         String replyText = scanner.nextLine();
         if (replyText.trim().isEmpty()) {
             System.out.println("Reply cannot be empty.");
+            enquiriesController.releaseEnquiry(enquiryId, currentOfficer.getID());
             return;
         }
-        boolean success = enquiriesController.replyToEnquiry(enquiryId, currentOfficer.getID(), replyText);
+        boolean success = commandGateway.replyToEnquiry(CommandGateway.newRequestId(), enquiryId, currentOfficer.getID(), replyText);
         if (success) {
             System.out.println("Reply submitted successfully!");
             LogUtils.auditLog(currentOfficer.getID(), "Reply", "Replied to enquiry " + enquiryId);
+        } else {
+            System.out.println("Failed to submit reply. Please try again.");
+            enquiriesController.releaseEnquiry(enquiryId, currentOfficer.getID());
+        }
+    }
+
+    /**
+     * Lets the officer answer a group of similar unanswered enquiries with one reply.
+     * @param project The project handled by the officer
+     */
+    private void replyToSimilarEnquiries(Project project) {
+        List<List<Enquiry>> clusters = enquiriesController.getSimilarUnansweredEnquiries(project.getProjectName());
+        EnquiriesViewer.displayEnquiryClusters(clusters, userRepository);
+        if (clusters.isEmpty()) return;
+        int choice = ConsoleUtils.readIntWithValidation("\nEnter group number (or 0 to cancel): ",
+            "Invalid group number.", 0, clusters.size());
+        if (choice == 0) return;
+        List<Enquiry> cluster = clusters.get(choice - 1);
+        System.out.print("Enter your reply: ");
+        String replyText = scanner.nextLine();
+        if (replyText.trim().isEmpty()) {
+            System.out.println("Reply cannot be empty.");
+            return;
+        }
+        List<String> enquiryIds = cluster.stream().map(Enquiry::getEnquiryId).collect(Collectors.toList());
+        if (enquiriesController.replyToEnquiries(enquiryIds, currentOfficer.getID(), replyText)) {
+            System.out.println("Reply submitted to " + enquiryIds.size() + " enquiries.");
+            LogUtils.auditLog(currentOfficer.getID(), "Reply", "Replied to enquiries " + enquiryIds);
         } else {
             System.out.println("Failed to submit reply. Please try again.");
         }
@@ -508,7 +578,21 @@ public class HDBOfficerUI implements PasswordChanger,UserLookupService{
         }
         int flatTypeChoice = ConsoleUtils.readIntWithValidation("Select Flat Type: ", "Invalid choice.", 1, eligibleFlatTypes.size()) - 1;
         String selectedFlatType = eligibleFlatTypes.get(flatTypeChoice);
-        boolean success = applicationController.applyForProject(currentOfficer.getID(), projectName, selectedFlatType);
+        // One request ID for this submission and all its retries, so it is applied at most once
+        String requestId = CommandGateway.newRequestId();
+        boolean success;
+        while (true) {
+            try {
+                success = commandGateway.applyForProject(requestId, currentOfficer.getID(), projectName, selectedFlatType,
+                    position -> System.out.println("Many applications are being submitted. You are number " + position + " in the queue, please wait..."));
+                break;
+            } catch (AdmissionRejectedException e) {
+                System.out.println("The system is busy. Please try again in " + Math.max(1, e.getRetryAfterMillis() / 1000) + " seconds.");
+                if (!ConsoleUtils.confirmAction("Retry this application? (Y/N): ")) {
+                    return;
+                }
+            }
+        }
         if (success) {
             System.out.println("Application submitted successfully!");
             LogUtils.auditLog(currentOfficer.getID(), "Apply", "Applied for project " + projectName + " with flat type " + selectedFlatType);
@@ -1,10 +1,12 @@
 package main.boundary;
 
 import java.util.List;
+import java.util.function.BiFunction;
 import main.model.project.Project;
 import main.model.registration.OfficerRegistration;
 import main.model.registration.RegistrationStatus;
 import main.model.user.HDBOfficer;
+import main.repository.Page;
 import main.utils.ConsoleUtils;
 import main.utils.DateUtils;
 
@@ -38,6 +40,15 @@ public class OfficerRegistrationViewer {
         }
     }
 
+    /**
+     * Displays officer registrations one page at a time.
+     * @param pages Fetches the page of registrations after a cursor
+     * @return true if any registrations were shown
+     */
+    public static boolean displayRegistrations(BiFunction<String, Integer, Page<OfficerRegistration>> pages) {
+        return ConsoleUtils.pageThrough(pages, OfficerRegistrationViewer::displayRegistrations);
+    }
+
     /**
      * Displays registrations with project name information.
      * @param registrations List of OfficerRegistration objects to display
@@ -1,11 +1,14 @@
 package main.boundary;
 
 import main.model.project.Project;
+import main.repository.Page;
+import main.utils.ConsoleUtils;
 
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 
 /**
  * Utility class for displaying project information in the CLI.
@@ -112,6 +115,19 @@ project.getRemainingFlats().forEach((type, count) ->
         displayProjects(projects, true);
     }
 
+    /**
+     * Displays projects with their visibility status one page at a time.
+     * @param pages Fetches the page of projects after a cursor
+     * @return true if any projects were shown
+     */
+    public static boolean displayProjectsWithVisibility(BiFunction<String, Integer, Page<Project>> pages) {
+        boolean shown = ConsoleUtils.pageThrough(pages, ProjectViewer::displayProjectsWithVisibility);
+        if (!shown) {
+            System.out.println("No projects to display.");
+        }
+        return shown;
+    }
+
     /**
      * Displays only projects the user is eligible to apply for, based on age and marital status.
      * @param projects List of Project objects
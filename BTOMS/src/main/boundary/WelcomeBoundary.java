@@ -32,6 +32,7 @@ public class WelcomeBoundary {
     private final OfficerRegistrationController officerRegistrationController;
     private final HDBManagerController hdbManagerController;
     private final HDBOfficerController hdbOfficerController;
+    private final CommandGateway commandGateway;
 
     /**
      * Constructs the WelcomeBoundary with all required repositories and controllers.
@@ -46,7 +47,8 @@ public class WelcomeBoundary {
                            EnquiriesController enquiriesController,
                            OfficerRegistrationController officerRegistrationController,
                            HDBManagerController hdbManagerController,
-                           HDBOfficerController hdbOfficerController) {
+                           HDBOfficerController hdbOfficerController,
+                           CommandGateway commandGateway) {
         this.userRepository = userRepository;
         this.projectRepository = projectRepository;
         this.applicationRepository = applicationRepository;
@@ -58,6 +60,7 @@ public class WelcomeBoundary {
         this.officerRegistrationController = officerRegistrationController;
         this.hdbManagerController = hdbManagerController;
         this.hdbOfficerController = hdbOfficerController;
+        this.commandGateway = commandGateway;
     }
 
     /**
@@ -89,15 +92,15 @@ public class WelcomeBoundary {
             // Route to correct UI based on user type
             if (user instanceof HDBManager manager) {
                 HDBManagerUI managerUI = new HDBManagerUI(
-                        manager, hdbManagerController, projectController, applicationController, enquiriesController, officerRegistrationController, userRepository, applicationRepository);
+                        manager, hdbManagerController, projectController, applicationController, enquiriesController, officerRegistrationController, commandGateway, userRepository, applicationRepository);
                 managerUI.managerUI();
             } else if (user instanceof HDBOfficer officer) {
                 HDBOfficerUI officerUI = new HDBOfficerUI(
-                        officer, projectController, applicationController, enquiriesController, officerRegistrationController, hdbOfficerController, userRepository);
+                        officer, projectController, applicationController, enquiriesController, officerRegistrationController, hdbOfficerController, commandGateway, userRepository);
                 officerUI.officerUI();
             } else if (user instanceof Applicant applicant) {
                 ApplicantUI applicantUI = new ApplicantUI(
-                        applicant, projectController, applicationController, enquiriesController, userRepository);
+                        applicant, projectController, applicationController, enquiriesController, commandGateway, userRepository);
                 applicantUI.applicantUI();
             } else {
                 System.out.println("Unknown user type. Exiting.");
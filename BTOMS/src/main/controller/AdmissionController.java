@@ -0,0 +1,331 @@
+package main.controller;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntConsumer;
+
+/**
+ * Limits how fast requests are let through to an endpoint, so that a surge (e.g., everyone
+ * applying the moment a popular project opens) is spread out or turned away early instead
+ * of piling up on the repositories.
+ * <p>
+ * Each configured endpoint has a token bucket: tokens refill at a fixed rate up to a burst
+ * size, and every admitted request takes one. A request that finds no token waits in a
+ * bounded first-come-first-served waiting room and is told its position as it moves up.
+ * While anyone is waiting, new requests join the back of the room rather than taking a
+ * token, so nobody is overtaken.
+ * </p>
+ * <p>
+ * Requests are shed with an {@link AdmissionRejectedException} before any work is done when
+ * the waiting room is full or the expected wait exceeds the endpoint's maximum wait, and a
+ * waiter that is still not admitted by then gives up the same way. Limits can be changed at
+ * any time with {@link #configure}; endpoints that were never configured are not limited.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class AdmissionController {
+    /** How often a waiter is told its position. */
+    public static final long POSITION_UPDATE_MILLIS = 1000;
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Sets the limits of an endpoint. Takes effect immediately, including for requests
+     * already waiting.
+     * @param endpoint Name of the endpoint
+     * @param permitsPerSecond Rate at which requests are admitted
+     * @param burst Number of requests that can be admitted at once after a quiet period
+     * @param queueCapacity Maximum number of requests in the waiting room
+     * @param maxWaitMillis Longest a request may wait before it is turned away
+     * @throws IllegalArgumentException if a limit is not positive
+     */
+    public void configure(String endpoint, double permitsPerSecond, int burst, int queueCapacity,
+                          long maxWaitMillis) {
+        if (!(permitsPerSecond > 0) || burst <= 0 || queueCapacity <= 0 || maxWaitMillis <= 0) {
+            throw new IllegalArgumentException("Admission limits must be positive");
+        }
+        endpoints.computeIfAbsent(endpoint, Endpoint::new)
+            .setLimits(permitsPerSecond, burst, queueCapacity, TimeUnit.MILLISECONDS.toNanos(maxWaitMillis));
+    }
+
+    /**
+     * Runs a request once it is admitted to its endpoint.
+     * @param endpoint Name of the endpoint
+     * @param action The request
+     * @param onPosition Told the request's position in the waiting room (1 is next) whenever
+     *                   it changes while waiting; may be null
+     * @return The result of the request
+     * @throws AdmissionRejectedException if the request was shed or waited too long
+     */
+    public boolean execute(String endpoint, BooleanSupplier action, IntConsumer onPosition) {
+        Endpoint limits = endpoints.get(endpoint);
+        if (limits != null) {
+            limits.admit(onPosition);
+        }
+        return action.getAsBoolean();
+    }
+
+    /**
+     * @param endpoint Name of the endpoint
+     * @return Number of requests admitted, immediately or after waiting
+     */
+    public long getAdmittedCount(String endpoint) {
+        Endpoint limits = endpoints.get(endpoint);
+        return limits == null ? 0 : limits.admitted.sum();
+    }
+
+    /**
+     * @param endpoint Name of the endpoint
+     * @return Number of requests that had to enter the waiting room
+     */
+    public long getQueuedCount(String endpoint) {
+        Endpoint limits = endpoints.get(endpoint);
+        return limits == null ? 0 : limits.queued.sum();
+    }
+
+    /**
+     * @param endpoint Name of the endpoint
+     * @return Number of requests turned away on arrival
+     */
+    public long getShedCount(String endpoint) {
+        Endpoint limits = endpoints.get(endpoint);
+        return limits == null ? 0 : limits.shed.sum();
+    }
+
+    /**
+     * @param endpoint Name of the endpoint
+     * @return Number of requests turned away after waiting too long or being interrupted
+     */
+    public long getTimedOutCount(String endpoint) {
+        Endpoint limits = endpoints.get(endpoint);
+        return limits == null ? 0 : limits.timedOut.sum();
+    }
+
+    /**
+     * @param endpoint Name of the endpoint
+     * @return Number of requests currently in the waiting room
+     */
+    public int getQueueLength(String endpoint) {
+        Endpoint limits = endpoints.get(endpoint);
+        return limits == null ? 0 : limits.queueLength();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("AdmissionController[");
+        String separator = "";
+        for (Endpoint limits : endpoints.values()) {
+            sb.append(separator).append(limits);
+            separator = ", ";
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Token bucket and waiting room of one endpoint. All state is guarded by {@link #lock}.
+     */
+    private static final class Endpoint {
+        final String name;
+        final ReentrantLock lock = new ReentrantLock();
+        final ArrayDeque<Waiter> waiting = new ArrayDeque<>();
+
+        double permitsPerSecond;
+        int burst;
+        int queueCapacity;
+        long maxWaitNanos;
+
+        double tokens;
+        long refilledAt;
+        long nextTicket;
+
+        final LongAdder admitted = new LongAdder();
+        final LongAdder queued = new LongAdder();
+        final LongAdder shed = new LongAdder();
+        final LongAdder timedOut = new LongAdder();
+
+        Endpoint(String name) {
+            this.name = name;
+            this.refilledAt = System.nanoTime();
+        }
+
+        void setLimits(double permitsPerSecond, int burst, int queueCapacity, long maxWaitNanos) {
+            lock.lock();
+            try {
+                boolean first = this.burst == 0;
+                refill(System.nanoTime());
+                this.permitsPerSecond = permitsPerSecond;
+                this.burst = burst;
+                this.queueCapacity = queueCapacity;
+                this.maxWaitNanos = maxWaitNanos;
+                tokens = first ? burst : Math.min(tokens, burst);
+                signalHead();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Returns once the caller may proceed, or throws if it is turned away.
+         */
+        void admit(IntConsumer onPosition) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                refill(now);
+                if (waiting.isEmpty() && tokens >= 1) {
+                    tokens -= 1;
+                    admitted.increment();
+                    return;
+                }
+                int position = waiting.size() + 1;
+                if (position > queueCapacity) {
+                    shed.increment();
+                    throw new AdmissionRejectedException(name, "waiting room is full", expectedWaitMillis(position));
+                }
+                long expectedWaitNanos = expectedWaitNanos(position);
+                if (expectedWaitNanos > maxWaitNanos) {
+                    shed.increment();
+                    throw new AdmissionRejectedException(name, "expected wait is too long",
+                        TimeUnit.NANOSECONDS.toMillis(expectedWaitNanos));
+                }
+                Waiter waiter = new Waiter(nextTicket++, lock.newCondition());
+                waiting.addLast(waiter);
+                queued.increment();
+                await(waiter, now + maxWaitNanos, onPosition);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Waits in the room until the waiter is at the front and a token is available.
+         */
+        private void await(Waiter waiter, long deadline, IntConsumer onPosition) {
+            int reportedPosition = 0;
+            while (true) {
+                long now = System.nanoTime();
+                long waitNanos;
+                Waiter head = waiting.peekFirst();
+                if (head == waiter) {
+                    refill(now);
+                    if (tokens >= 1) {
+                        tokens -= 1;
+                        waiting.pollFirst();
+                        admitted.increment();
+                        signalHead();
+                        return;
+                    }
+                    waitNanos = (long) Math.ceil((1 - tokens) / permitsPerSecond * 1e9);
+                } else {
+                    waitNanos = TimeUnit.MILLISECONDS.toNanos(POSITION_UPDATE_MILLIS);
+                }
+                long remaining = deadline - now;
+                if (remaining <= 0) {
+                    leave(waiter);
+                    timedOut.increment();
+                    throw new AdmissionRejectedException(name, "waited too long", 0);
+                }
+                int position = (int) (waiter.ticket - head.ticket) + 1;
+                if (onPosition != null && position != reportedPosition) {
+                    reportedPosition = position;
+                    lock.unlock();
+                    try {
+                        onPosition.accept(position);
+                    } finally {
+                        lock.lock();
+                    }
+                    continue;
+                }
+                try {
+                    waiter.turn.awaitNanos(Math.min(waitNanos, remaining));
+                } catch (InterruptedException e) {
+                    leave(waiter);
+                    timedOut.increment();
+                    Thread.currentThread().interrupt();
+                    throw new AdmissionRejectedException(name, "interrupted while waiting", 0);
+                }
+            }
+        }
+
+        /**
+         * Removes a waiter that gives up. Positions are counted by ticket number, so a waiter
+         * leaving from the middle is still counted by those behind it until it would have
+         * reached the front.
+         */
+        private void leave(Waiter waiter) {
+            boolean wasHead = waiting.peekFirst() == waiter;
+            waiting.remove(waiter);
+            if (wasHead) {
+                signalHead();
+            }
+        }
+
+        private void signalHead() {
+            Waiter head = waiting.peekFirst();
+            if (head != null) {
+                head.turn.signal();
+            }
+        }
+
+        private void refill(long now) {
+            if (permitsPerSecond > 0) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) / 1e9 * permitsPerSecond);
+            }
+            refilledAt = now;
+        }
+
+        /**
+         * Time until a request at the given position would get its token at the current rate.
+         */
+        private long expectedWaitNanos(int position) {
+            return (long) (Math.max(0, position - tokens) / permitsPerSecond * 1e9);
+        }
+
+        private long expectedWaitMillis(int position) {
+            return TimeUnit.NANOSECONDS.toMillis(expectedWaitNanos(position));
+        }
+
+        int queueLength() {
+            lock.lock();
+            try {
+                return waiting.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public String toString() {
+            lock.lock();
+            try {
+                return String.format("%s[rate=%.1f/s, burst=%d, waiting=%d/%d, admitted=%d, queued=%d, shed=%d, timedOut=%d]",
+                    name, permitsPerSecond, burst, waiting.size(), queueCapacity,
+                    admitted.sum(), queued.sum(), shed.sum(), timedOut.sum());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * A request in the waiting room.
+     */
+    private static final class Waiter {
+        final long ticket;
+        final Condition turn;
+
+        Waiter(long ticket, Condition turn) {
+            this.ticket = ticket;
+            this.turn = turn;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package main.controller;
+
+/**
+ * Thrown when a request is turned away by the {@link AdmissionController} because the
+ * endpoint is overloaded.
+ * <p>
+ * Nothing has been done on behalf of the request, so the caller can safely retry it later,
+ * with the same request ID if it went through the {@link CommandGateway}.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+    private final long retryAfterMillis;
+
+    /**
+     * Creates the exception.
+     * @param endpoint Name of the endpoint
+     * @param reason Why the request was turned away
+     * @param retryAfterMillis Suggested time to wait before retrying
+     */
+    public AdmissionRejectedException(String endpoint, String reason, long retryAfterMillis) {
+        super(endpoint + " is busy: " + reason);
+        this.endpoint = endpoint;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return Name of the endpoint
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return Suggested time to wait before retrying, in milliseconds
+     */
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -3,12 +3,15 @@ package main.controller;
 import java.util.List;
 import main.model.application.Application;
 import main.model.application.ApplicationStatus;
+import main.model.project.FlatType;
 import main.model.project.Project;
 import main.model.registration.RegistrationStatus;
 import main.model.user.Applicant;
 import main.model.user.HDBOfficer;
 import main.model.user.User;
+import main.repository.ActiveApplicationRegistry;
 import main.repository.ApplicationRepository;
+import main.repository.ProjectArchiver;
 import main.repository.ProjectRepository;
 import main.repository.UserRepository;
 import main.utils.IDGenerator;
@@ -26,19 +29,25 @@ public class ApplicationController {
     private final ApplicationRepository applicationRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final ProjectArchiver projectArchiver;
+    private final ActiveApplicationRegistry activeApplications;
 
     /**
      * Constructs an ApplicationController with required repositories.
      * @param applicationRepository Repository for applications
      * @param projectRepository Repository for projects
      * @param userRepository Repository for users
+     * @param projectArchiver Archive of closed projects, whose bookings still count
      */
     public ApplicationController(ApplicationRepository applicationRepository, 
                                 ProjectRepository projectRepository,
-                                UserRepository userRepository) {
+                                UserRepository userRepository,
+                                ProjectArchiver projectArchiver) {
         this.applicationRepository = applicationRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
+        this.projectArchiver = projectArchiver;
+        this.activeApplications = new ActiveApplicationRegistry(applicationRepository);
     }
 
     /**
@@ -68,7 +77,7 @@ public class ApplicationController {
     Project project = projectRepository.findByName(projectName);
     if (project == null || 
         !project.isVisible() || 
-        project.getRemainingFlats().getOrDefault(flatType, 0) <= 0) {
+        project.remaining(FlatType.find(flatType)) <= 0) {
         return false;
     }
 
@@ -78,21 +87,23 @@ public class ApplicationController {
         return false;
     }
 
-    // Check existing applications
-    if (hasActiveApplication(userNRIC)) {
+    // Reserve the applicant's single active-application slot; concurrent duplicates fail here
+    String applicationId = IDGenerator.generateApplicationId();
+    if (!activeApplications.reserve(userNRIC, applicationId)) {
         System.out.println("User already has an active application");
         return false;
     }
 
     // Create application
-    String applicationId = IDGenerator.generateApplicationId();
     Application application = new Application(applicationId, userNRIC, projectName, userRepository);
     application.setFlatType(flatType);
     application.setStatus(ApplicationStatus.PENDING);
 
     boolean success = applicationRepository.save(application);
 
-    if (success) {
+    if (!success) {
+        activeApplications.cancel(userNRIC, applicationId);
+    } else {
         // Update user's applied project
         applicant.setAppliedProjectName(projectName);
         userRepository.update(applicant);
@@ -122,8 +133,14 @@ public class ApplicationController {
             application.getStatus() == ApplicationStatus.PENDING_WITHDRAWAL) {
             return false;
         }
-        application.setStatus(ApplicationStatus.PENDING_WITHDRAWAL);
-        return applicationRepository.update(application);
+        // Re-checked on the latest version, in case a manager decided meanwhile
+        return applicationRepository.modify(application.getApplicationId(), latest -> {
+            if (latest.getStatus().isFinalized() || latest.getStatus() == ApplicationStatus.PENDING_WITHDRAWAL) {
+                return false;
+            }
+            latest.setStatus(ApplicationStatus.PENDING_WITHDRAWAL);
+            return true;
+        });
     }
     
 
@@ -141,11 +158,15 @@ public class ApplicationController {
         if (project == null || !project.getManagerInCharge().equals(managerNRIC)) return false;
 
         // Check flat availability
-        String flatType = application.getFlatType();
-        if (project.getRemainingFlats().getOrDefault(flatType, 0) <= 0) return false;
+        if (project.remaining(FlatType.find(application.getFlatType())) <= 0) return false;
 
-        application.setStatus(ApplicationStatus.SUCCESSFUL);
-        return applicationRepository.update(application);
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.getStatus() != ApplicationStatus.PENDING) {
+                return false;
+            }
+            latest.setStatus(ApplicationStatus.SUCCESSFUL);
+            return true;
+        });
     }
 
     /**
@@ -161,8 +182,13 @@ public class ApplicationController {
         Project project = projectRepository.findByName(application.getProjectName());
         if (project == null || !project.getManagerInCharge().equals(managerNRIC)) return false;
 
-        application.setStatus(ApplicationStatus.UNSUCCESSFUL);
-        return applicationRepository.update(application);
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.getStatus() != ApplicationStatus.PENDING) {
+                return false;
+            }
+            latest.setStatus(ApplicationStatus.UNSUCCESSFUL);
+            return true;
+        });
     }
 
     /**
@@ -183,14 +209,22 @@ public class ApplicationController {
             return false;
         }
 
-        // Handle flat inventory if booked
-        if (application.getStatus() == ApplicationStatus.BOOKED) {
-            project.incrementFlatCount(application.getFlatType());
-            projectRepository.update(project);
+        boolean[] wasBooked = new boolean[1];
+        boolean withdrawn = applicationRepository.modify(applicationId, latest -> {
+            if (latest.getStatus() != ApplicationStatus.PENDING_WITHDRAWAL) {
+                return false;
+            }
+            wasBooked[0] = latest.getPreviousStatus() == ApplicationStatus.BOOKED;
+            latest.setStatus(ApplicationStatus.WITHDRAWN);
+            return true;
+        });
+
+        // Handle flat inventory if booked, on the latest inventory so concurrent bookings are kept
+        if (withdrawn && wasBooked[0]) {
+            FlatType type = FlatType.find(application.getFlatType());
+            projectRepository.modify(project.getProjectName(), latest -> latest.incrementFlatCount(type));
         }
-
-        application.setStatus(ApplicationStatus.WITHDRAWN);
-        return applicationRepository.update(application);
+        return withdrawn;
     }
 
      /**
@@ -221,9 +255,13 @@ public class ApplicationController {
         }
 
         // Revert to previous status before withdrawal request
-        ApplicationStatus previousStatus = application.getPreviousStatus(); // Assume this method exists
-        application.setStatus(previousStatus);
-        return applicationRepository.update(application);
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.getStatus() != ApplicationStatus.PENDING_WITHDRAWAL) {
+                return false;
+            }
+            latest.setStatus(latest.getPreviousStatus());
+            return true;
+        });
     }
 
     /**
@@ -243,14 +281,30 @@ public class ApplicationController {
         if (project == null || !project.getOfficers().contains(officerNRIC)) return false;
 
         // Validate flat availability
-        if (project.getRemainingFlats().getOrDefault(flatType, 0) <= 0) return false;
+        FlatType type = FlatType.find(flatType);
+        if (project.remaining(type) <= 0) return false;
 
-        // Update application and project
-        application.setStatus(ApplicationStatus.BOOKED);
-        application.setFlatType(flatType);
-        project.decrementFlatCount(flatType);
-
-        return applicationRepository.update(application) && projectRepository.update(project);
+        // Take the flat on the latest inventory first, so that concurrent bookings cannot
+        // oversell, then book the application; the flat is given back if that fails
+        if (!projectRepository.modify(projectName, latest -> latest.decrementFlatCount(type))) {
+            return false;
+        }
+        boolean booked = false;
+        try {
+            booked = applicationRepository.modify(application.getApplicationId(), latest -> {
+                if (latest.getStatus() != ApplicationStatus.SUCCESSFUL) {
+                    return false;
+                }
+                latest.setStatus(ApplicationStatus.BOOKED);
+                latest.setFlatType(flatType);
+                return true;
+            });
+        } finally {
+            if (!booked) {
+                projectRepository.modify(projectName, latest -> latest.incrementFlatCount(type));
+            }
+        }
+        return booked;
     }
 
     /**
@@ -277,21 +331,19 @@ public class ApplicationController {
      * @return true if applicant has active applications, false otherwise
      */
     public boolean hasActiveApplication(String applicantNRIC) {
-        List<Application> applications = applicationRepository.findByApplicant(applicantNRIC);
-        return applications.stream()
-            .anyMatch(app -> !app.getStatus().isFinalized() && 
-                            app.getStatus() != ApplicationStatus.WITHDRAWN);
+        return activeApplications.hasActiveApplication(applicantNRIC);
     }
 
      /**
-     * Checks for booked applications.
+     * Checks for booked applications, including those of archived projects.
      * @param applicantNRIC NRIC of the applicant
-     * @return true if applicant has active applications, false otherwise
+     * @return true if applicant has booked a flat, false otherwise
      */
     public boolean hasBooked(String applicantNRIC) {
         List<Application> applications = applicationRepository.findByApplicant(applicantNRIC);
         return applications.stream()
-            .anyMatch(app -> app.getStatus() == ApplicationStatus.BOOKED);
+            .anyMatch(app -> app.getStatus() == ApplicationStatus.BOOKED)
+            || projectArchiver.hasBooked(applicantNRIC);
     }
 
 }
@@ -0,0 +1,301 @@
+package main.controller;
+
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.ballot.BallotResult;
+import main.model.ballot.BallotTier;
+import main.model.project.FlatType;
+import main.model.project.Project;
+import main.model.user.MaritalStatus;
+import main.model.user.User;
+import main.repository.ApplicationRepository;
+import main.repository.ProjectRepository;
+import main.repository.UserRepository;
+import main.repository.VersionConflictException;
+import main.utils.LogUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Controller running the BTO ballot for a project after its application period has closed.
+ * <p>
+ * For each flat type, all PENDING applications are ordered by application ID and given a
+ * sort key made of their priority tier and a random draw. The draw comes from a
+ * {@link SplittableRandom} seeded from the ballot seed, the project name and the flat type,
+ * and split along a fixed fork-join task tree, so the same seed always yields the same
+ * queue regardless of the number of cores. The keys are sorted with
+ * {@link Arrays#parallelSort(long[])}; the first applications up to the number of
+ * remaining units not already promised to SUCCESSFUL applications become SUCCESSFUL and
+ * the rest UNSUCCESSFUL. All changes are
+ * persisted with a single batch update and the run is written to the audit log.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class BallotController {
+    /** Maximum number of configurable tiers (one more value is reserved for "no tier"). */
+    public static final int MAX_TIERS = 7;
+
+    /** Range size below which random keys are drawn sequentially. */
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    // Sort key layout: [63: 0][62..60: tier][59..24: random][23..0: index]
+    private static final int INDEX_BITS = 24;
+    private static final int RANDOM_BITS = 36;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long RANDOM_MASK = (1L << RANDOM_BITS) - 1;
+
+    private final ProjectRepository projectRepository;
+    private final ApplicationRepository applicationRepository;
+    private final UserRepository userRepository;
+
+    private List<BallotTier> tiers;
+
+    /**
+     * Constructs a BallotController with the default priority tiers
+     * (first-timers first, then married applicants).
+     *
+     * @param projectRepository Repository for project operations
+     * @param applicationRepository Repository for applications
+     * @param userRepository Repository for user lookups
+     */
+    public BallotController(ProjectRepository projectRepository,
+                            ApplicationRepository applicationRepository,
+                            UserRepository userRepository) {
+        this.projectRepository = projectRepository;
+        this.applicationRepository = applicationRepository;
+        this.userRepository = userRepository;
+        this.tiers = defaultTiers();
+    }
+
+    /**
+     * Returns the default priority tiers: first-time applicants (no flat booked under any
+     * other application), followed by married applicants.
+     * @return List of default tiers, highest priority first
+     */
+    public List<BallotTier> defaultTiers() {
+        List<BallotTier> defaults = new ArrayList<>();
+        defaults.add(new BallotTier("First-timers",
+            (app, user, bookedElsewhere) -> !bookedElsewhere.contains(app.getApplicantId())));
+        defaults.add(new BallotTier("Married couples",
+            (app, user) -> user != null && user.getMaritalStatus() == MaritalStatus.MARRIED));
+        return defaults;
+    }
+
+    /**
+     * Replaces the priority tiers used by subsequent ballots.
+     * @param tiers Tiers in priority order (highest first)
+     * @throws IllegalArgumentException if more than {@link #MAX_TIERS} tiers are given
+     */
+    public void setTiers(List<BallotTier> tiers) {
+        if (tiers.size() > MAX_TIERS) {
+            throw new IllegalArgumentException("At most " + MAX_TIERS + " ballot tiers are supported");
+        }
+        this.tiers = new ArrayList<>(tiers);
+    }
+
+    /**
+     * Returns the priority tiers currently in use.
+     * @return Copy of the tier list, highest priority first
+     */
+    public List<BallotTier> getTiers() {
+        return new ArrayList<>(tiers);
+    }
+
+    /**
+     * Runs the ballot for a project.
+     * <p>
+     * Only the manager in charge may run the ballot, and only after the project's
+     * application closing date. Running it twice has no further effect since only
+     * PENDING applications take part. The outcomes are applied to copies and committed
+     * with one versioned batch update, so if any application changed while the ballot ran,
+     * nothing is applied and the ballot can simply be run again.
+     * </p>
+     *
+     * @param projectName Name of the project to ballot
+     * @param managerId NRIC of the manager running the ballot
+     * @param seed Seed for the random draw; the same seed reproduces the same queue
+     * @return The ballot outcome, or null if the ballot could not be run
+     */
+    public BallotResult runBallot(String projectName, String managerId, long seed) {
+        Project project = projectRepository.findByName(projectName);
+        if (project == null || !project.getManagerInCharge().equals(managerId)) {
+            System.out.println("Error: Project not found or not managed by you.");
+            return null;
+        }
+        if (System.currentTimeMillis() <= project.getClosingDate().getTime()) {
+            System.out.println("Error: Ballot can only be run after the application closing date.");
+            return null;
+        }
+
+        List<BallotTier> activeTiers = tiers;
+        Set<String> bookedElsewhere = bookedApplicantsOutside(projectName);
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findAll()) {
+            users.put(user.getID(), user);
+        }
+
+        // Group pending applications by flat type
+        List<List<Application>> groups = new ArrayList<>();
+        for (int i = 0; i < FlatType.count(); i++) {
+            groups.add(new ArrayList<>());
+        }
+        // Flats already promised to successful applicants who have not booked yet
+        int[] promised = new int[FlatType.count()];
+        for (Application app : applicationRepository.findByProjectAndStatus(projectName, ApplicationStatus.SUCCESSFUL)) {
+            FlatType type = FlatType.find(app.getFlatType());
+            if (type != null) {
+                promised[type.ordinal()]++;
+            }
+        }
+        int skipped = 0;
+        for (Application app : applicationRepository.findByProjectAndStatus(projectName, ApplicationStatus.PENDING)) {
+            FlatType type = FlatType.find(app.getFlatType());
+            if (project.offers(type)) {
+                groups.get(type.ordinal()).add(app);
+            } else {
+                skipped++;
+            }
+        }
+
+        BallotResult result = new BallotResult(projectName, seed);
+        result.setSkipped(skipped);
+        List<Application> updated = new ArrayList<>();
+        for (FlatType type : project.getOfferedFlatTypes()) {
+            Application[] pending = groups.get(type.ordinal()).toArray(new Application[0]);
+            if (pending.length > INDEX_MASK) {
+                throw new IllegalStateException("Too many applications to ballot for " + type);
+            }
+            Arrays.parallelSort(pending, Comparator.comparing(Application::getApplicationId));
+
+            long[] keys = new long[pending.length];
+            SplittableRandom rng = new SplittableRandom(groupSeed(seed, projectName, type));
+            ForkJoinPool.commonPool().invoke(new DrawTask(pending, users, activeTiers, bookedElsewhere, keys, 0, pending.length, rng));
+            Arrays.parallelSort(keys);
+
+            int units = Math.max(0, project.remaining(type) - promised[type.ordinal()]);
+            List<String> winners = new ArrayList<>();
+            List<String> losers = new ArrayList<>();
+            for (int position = 0; position < keys.length; position++) {
+                Application app = applicationRepository.copyOf(pending[(int) (keys[position] & INDEX_MASK)]);
+                app.setBallotNumber(position + 1);
+                if (position < units) {
+                    app.setStatus(ApplicationStatus.SUCCESSFUL);
+                    winners.add(app.getApplicationId());
+                } else {
+                    app.setStatus(ApplicationStatus.UNSUCCESSFUL);
+                    app.setRemarks("Unsuccessful in ballot (queue number " + (position + 1) + ")");
+                    losers.add(app.getApplicationId());
+                }
+                updated.add(app);
+            }
+            result.addOutcome(type, winners, losers);
+        }
+
+        try {
+            if (!updated.isEmpty() && !applicationRepository.batchUpdate(updated)) {
+                System.out.println("Error: Failed to save ballot results.");
+                return null;
+            }
+        } catch (VersionConflictException e) {
+            System.out.println("Error: Application " + e.getEntityId()
+                + " was changed while the ballot ran. No results were saved; please run the ballot again.");
+            return null;
+        }
+        LogUtils.auditLog(managerId, "RUN_BALLOT", "project=" + projectName + ", seed=" + seed
+            + ", tiers=" + activeTiers + ", successful=" + result.getSuccessfulCount()
+            + ", unsuccessful=" + result.getUnsuccessfulCount() + ", skipped=" + skipped);
+        return result;
+    }
+
+    /**
+     * Collects the NRICs of applicants holding a BOOKED application in another project.
+     * @param projectName The project being balloted
+     * @return Set of applicant NRICs
+     */
+    private Set<String> bookedApplicantsOutside(String projectName) {
+        Set<String> booked = new HashSet<>();
+        for (Application app : applicationRepository.findByStatus(ApplicationStatus.BOOKED)) {
+            if (!app.getProjectName().equals(projectName)) {
+                booked.add(app.getApplicantId());
+            }
+        }
+        return booked;
+    }
+
+    /**
+     * Derives the seed of one (project, flat type) draw from the ballot seed.
+     */
+    private static long groupSeed(long seed, String projectName, FlatType type) {
+        long h = seed ^ (projectName.hashCode() * 0x9E3779B97F4A7C15L);
+        return h ^ ((type.ordinal() + 1) * 0xBF58476D1CE4E5B9L);
+    }
+
+    /**
+     * Fork-join task computing the sort keys of a range of applications.
+     * The random generator is split before forking, so the draw for each index
+     * depends only on the seed and the range, never on thread scheduling.
+     */
+    private static final class DrawTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Application[] pending;
+        private final Map<String, User> users;
+        private final List<BallotTier> tiers;
+        private final Set<String> bookedElsewhere;
+        private final long[] keys;
+        private final int from;
+        private final int to;
+        private final SplittableRandom rng;
+
+        DrawTask(Application[] pending, Map<String, User> users, List<BallotTier> tiers,
+                 Set<String> bookedElsewhere, long[] keys, int from, int to, SplittableRandom rng) {
+            this.pending = pending;
+            this.users = users;
+            this.tiers = tiers;
+            this.bookedElsewhere = bookedElsewhere;
+            this.keys = keys;
+            this.from = from;
+            this.to = to;
+            this.rng = rng;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    long tier = tierOf(pending[i]);
+                    long draw = rng.nextLong() & RANDOM_MASK;
+                    keys[i] = (tier << (RANDOM_BITS + INDEX_BITS)) | (draw << INDEX_BITS) | i;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            SplittableRandom leftRng = rng.split();
+            invokeAll(new DrawTask(pending, users, tiers, bookedElsewhere, keys, from, mid, leftRng),
+                      new DrawTask(pending, users, tiers, bookedElsewhere, keys, mid, to, rng));
+        }
+
+        private int tierOf(Application app) {
+            User user = users.get(app.getApplicantId());
+            for (int t = 0; t < tiers.size(); t++) {
+                if (tiers.get(t).matches(app, user, bookedElsewhere)) {
+                    return t;
+                }
+            }
+            return tiers.size();
+        }
+    }
+}
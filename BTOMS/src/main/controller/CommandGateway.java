@@ -0,0 +1,203 @@
+package main.controller;
+
+import main.model.Versioned;
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.enquiry.Enquiry;
+import main.repository.ApplicationRepository;
+import main.repository.EnquiryRepository;
+import main.repository.IdempotencyCache;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+/**
+ * Entry point for commands that must not take effect twice when a client retries them.
+ * <p>
+ * Each call carries a client request ID that stays the same across retries of one request.
+ * The first call runs the command on its controller; later calls with the same ID return the
+ * original result from the {@link IdempotencyCache} without running it again, even after a
+ * restart. Commands interrupted by a crash are settled when the gateway is created: a command
+ * whose change is found in the repositories is remembered as successful, any other is
+ * forgotten so that its retry runs it.
+ * </p>
+ * <p>
+ * Applications also pass through an {@link AdmissionController}, so that the rush when a
+ * popular project opens is admitted at a steady rate through a waiting room. A request that
+ * is turned away has not run and is not remembered, so it can be retried with the same ID.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class CommandGateway {
+    /** Command name of {@link #applyForProject(String, String, String, String)}. */
+    public static final String APPLY_FOR_PROJECT = "applyForProject";
+    /** Command name of {@link #bookFlat(String, String, String, String)}. */
+    public static final String BOOK_FLAT = "bookFlat";
+    /** Command name of {@link #replyToEnquiry(String, String, String, String)}. */
+    public static final String REPLY_TO_ENQUIRY = "replyToEnquiry";
+
+    /** Default rate at which applications are admitted. */
+    public static final double APPLY_PERMITS_PER_SECOND = 20;
+    /** Default number of applications admitted at once after a quiet period. */
+    public static final int APPLY_BURST = 50;
+    /** Default size of the applications waiting room. */
+    public static final int APPLY_QUEUE_CAPACITY = 1000;
+    /** Default longest wait for an application to be admitted. */
+    public static final long APPLY_MAX_WAIT_MILLIS = 60_000;
+
+    private final ApplicationController applicationController;
+    private final HDBOfficerController hdbOfficerController;
+    private final EnquiriesController enquiriesController;
+    private final ApplicationRepository applicationRepository;
+    private final EnquiryRepository enquiryRepository;
+    private final IdempotencyCache cache;
+    private final AdmissionController admissionController;
+
+    /**
+     * Constructs a CommandGateway in front of the given controllers and settles the commands
+     * the cache found interrupted.
+     * @param applicationController Controller for applications
+     * @param hdbOfficerController Controller for flat booking
+     * @param enquiriesController Controller for enquiries
+     * @param applicationRepository Repository of applications, to settle interrupted commands
+     * @param enquiryRepository Repository of enquiries, to settle interrupted commands
+     * @param cache Cache of recent command results
+     */
+    public CommandGateway(ApplicationController applicationController,
+                          HDBOfficerController hdbOfficerController,
+                          EnquiriesController enquiriesController,
+                          ApplicationRepository applicationRepository,
+                          EnquiryRepository enquiryRepository,
+                          IdempotencyCache cache) {
+        this.applicationController = applicationController;
+        this.hdbOfficerController = hdbOfficerController;
+        this.enquiriesController = enquiriesController;
+        this.applicationRepository = applicationRepository;
+        this.enquiryRepository = enquiryRepository;
+        this.cache = cache;
+        this.admissionController = new AdmissionController();
+        admissionController.configure(APPLY_FOR_PROJECT, APPLY_PERMITS_PER_SECOND, APPLY_BURST,
+            APPLY_QUEUE_CAPACITY, APPLY_MAX_WAIT_MILLIS);
+        settleInterrupted();
+    }
+
+    /**
+     * Settles the commands that were running when the system last stopped. Each command's
+     * subject identifies the entity it changes; the command took effect if that entity now
+     * shows its change made after the command started (an application submitted since, or a
+     * booking or reply committed on a later version than the one read before the command).
+     */
+    private void settleInterrupted() {
+        cache.settle(APPLY_FOR_PROJECT, (subject, startedAt) -> {
+            Application app = applicationRepository.findByApplicantAndProject(subject.get(0), subject.get(1));
+            return app != null && app.getApplicationDate().getTime() >= startedAt ? Boolean.TRUE : null;
+        });
+        cache.settle(BOOK_FLAT, (subject, startedAt) -> {
+            Application app = applicationRepository.findById(subject.get(0));
+            return app != null && app.getVersion() > Long.parseLong(subject.get(2))
+                && app.getStatus() == ApplicationStatus.BOOKED && subject.get(1).equals(app.getFlatType())
+                ? Boolean.TRUE : null;
+        });
+        cache.settle(REPLY_TO_ENQUIRY, (subject, startedAt) -> {
+            Enquiry enquiry = enquiryRepository.findById(subject.get(0));
+            return enquiry != null && enquiry.getVersion() > Long.parseLong(subject.get(2))
+                && enquiry.hasReply() && subject.get(1).equals(enquiry.getResponderId())
+                ? Boolean.TRUE : null;
+        });
+    }
+
+    /**
+     * Creates a new request ID for a client to use for one request and all its retries.
+     * @return A random request ID
+     */
+    public static String newRequestId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Returns the version of an entity as read before a command, for its in-flight marker.
+     */
+    private static String versionOf(Versioned entity) {
+        return String.valueOf(entity == null ? -1 : entity.getVersion());
+    }
+
+    /**
+     * Applies for a project at most once per request ID.
+     * @param requestId Client request ID
+     * @param applicantNRIC NRIC of the applicant
+     * @param projectName Name of the project
+     * @param flatType Type of flat applied for
+     * @return The result of the original application attempt
+     * @throws AdmissionRejectedException if the application was turned away because of load
+     * @see ApplicationController#applyForProject(String, String, String)
+     */
+    public boolean applyForProject(String requestId, String applicantNRIC, String projectName, String flatType) {
+        return applyForProject(requestId, applicantNRIC, projectName, flatType, null);
+    }
+
+    /**
+     * Applies for a project at most once per request ID, reporting the applicant's place in
+     * the waiting room while the application waits to be admitted.
+     * @param requestId Client request ID
+     * @param applicantNRIC NRIC of the applicant
+     * @param projectName Name of the project
+     * @param flatType Type of flat applied for
+     * @param onPosition Told the position in the waiting room whenever it changes; may be null
+     * @return The result of the original application attempt
+     * @throws AdmissionRejectedException if the application was turned away because of load
+     */
+    public boolean applyForProject(String requestId, String applicantNRIC, String projectName, String flatType,
+                                   IntConsumer onPosition) {
+        return cache.execute(requestId, APPLY_FOR_PROJECT, Arrays.asList(applicantNRIC, projectName),
+            () -> admissionController.execute(APPLY_FOR_PROJECT,
+                () -> applicationController.applyForProject(applicantNRIC, projectName, flatType), onPosition));
+    }
+
+    /**
+     * Books a flat at most once per request ID.
+     * @param requestId Client request ID
+     * @param applicationId ID of the successful application
+     * @param officerId NRIC of the handling officer
+     * @param flatType The flat type being booked
+     * @return The result of the original booking attempt
+     * @see HDBOfficerController#bookFlat(String, String, String)
+     */
+    public boolean bookFlat(String requestId, String applicationId, String officerId, String flatType) {
+        return cache.execute(requestId, BOOK_FLAT,
+            Arrays.asList(applicationId, flatType, versionOf(applicationRepository.findById(applicationId))),
+            () -> hdbOfficerController.bookFlat(applicationId, officerId, flatType));
+    }
+
+    /**
+     * Replies to an enquiry at most once per request ID.
+     * @param requestId Client request ID
+     * @param enquiryId ID of the enquiry
+     * @param responderId NRIC of the responder
+     * @param replyText The reply
+     * @return The result of the original reply attempt
+     * @see EnquiriesController#replyToEnquiry(String, String, String)
+     */
+    public boolean replyToEnquiry(String requestId, String enquiryId, String responderId, String replyText) {
+        return cache.execute(requestId, REPLY_TO_ENQUIRY,
+            Arrays.asList(enquiryId, responderId, versionOf(enquiryRepository.findById(enquiryId))),
+            () -> enquiriesController.replyToEnquiry(enquiryId, responderId, replyText));
+    }
+
+    /**
+     * @return The cache of command results, for its hit and miss counts
+     */
+    public IdempotencyCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return The admission controller, to adjust limits and read its counts
+     */
+    public AdmissionController getAdmissionController() {
+        return admissionController;
+    }
+}
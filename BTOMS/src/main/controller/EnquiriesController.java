@@ -4,13 +4,21 @@ import main.model.enquiry.Enquiry;
 import main.model.project.Project;
 import main.model.user.Applicant;
 import main.model.user.User;
+import main.repository.EnquiryDuplicateDetector;
 import main.repository.EnquiryRepository;
+import main.repository.EnquirySearchIndex;
+import main.repository.EnquiryWorkQueue;
+import main.repository.Page;
 import main.repository.ProjectRepository;
 import main.repository.UserRepository;
+import main.repository.VersionConflictException;
 import main.utils.IDGenerator;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 /**
  * Controller for managing enquiries in the BTO Management System.
@@ -25,6 +33,12 @@ public class EnquiriesController {
     private final EnquiryRepository enquiryRepository;
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
+    private final EnquirySearchIndex searchIndex;
+    private final EnquiryDuplicateDetector duplicateDetector;
+    private final EnquiryWorkQueue workQueue;
+
+    /** Maximum number of enquiries returned by a keyword search. */
+    public static final int MAX_SEARCH_RESULTS = 50;
     
     /**
      * Constructs an EnquiriesController with required repositories.
@@ -38,6 +52,9 @@ public class EnquiriesController {
         this.enquiryRepository = enquiryRepository;
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
+        this.searchIndex = new EnquirySearchIndex(enquiryRepository);
+        this.duplicateDetector = new EnquiryDuplicateDetector(enquiryRepository);
+        this.workQueue = new EnquiryWorkQueue(enquiryRepository);
     }
     
     /**
@@ -83,8 +100,14 @@ public class EnquiriesController {
         if (enquiry.hasReply()) {
             return false;
         }
-        enquiry.setEnquiryText(newEnquiryText);
-        return enquiryRepository.update(enquiry);
+        // Re-checked on the latest version, in case an officer replied meanwhile
+        return enquiryRepository.modify(enquiryId, latest -> {
+            if (latest.hasReply()) {
+                return false;
+            }
+            latest.setEnquiryText(newEnquiryText);
+            return true;
+        });
     }
     
     /**
@@ -120,6 +143,11 @@ public class EnquiriesController {
         if(enquiry.hasReply() == true){
             return false;
         }
+
+        // Another officer is answering this enquiry
+        if (workQueue.isClaimedByOther(enquiryId, responderId)) {
+            return false;
+        }
     
         Project project = projectRepository.findByName(enquiry.getProjectName());
         if (project == null) {
@@ -137,13 +165,85 @@ public class EnquiriesController {
         User responder = userRepository.findById(responderId);
         String responderName = responder != null ? responder.getName() : responderId;
     
-        // Set reply and responder name
-        enquiry.setReply(replyText, responderId);
-        enquiry.setResponderName(responderName);
-    
-        return enquiryRepository.update(enquiry);
+        // Set reply and responder name on the latest version; if another reply was
+        // committed meanwhile, this one is refused rather than overwriting it
+        return enquiryRepository.modify(enquiryId, latest -> {
+            if (latest.hasReply()) {
+                return false;
+            }
+            latest.setReply(replyText, responderId);
+            latest.setResponderName(responderName);
+            return true;
+        });
     }
     
+    /**
+     * Replies to a group of enquiries with the same text and persists them in one write.
+     * <p>
+     * The responder must be authorized for the project of every enquiry, and every enquiry
+     * must still be unanswered and not claimed by someone else; otherwise no enquiry is changed.
+     * Nothing is changed either if any enquiry is updated by someone else meanwhile.
+     * </p>
+     *
+     * @param enquiryIds The IDs of the enquiries to reply to
+     * @param responderId The NRIC of the staff member replying
+     * @param replyText The content of the reply
+     * @return true if all enquiries were replied to, false otherwise
+     */
+    public boolean replyToEnquiries(List<String> enquiryIds, String responderId, String replyText) {
+        if (enquiryIds == null || enquiryIds.isEmpty() || replyText == null || replyText.trim().isEmpty()) {
+            return false;
+        }
+        List<Enquiry> enquiries = new ArrayList<>();
+        Set<String> checkedProjects = new HashSet<>();
+        for (String enquiryId : new LinkedHashSet<>(enquiryIds)) {
+            Enquiry enquiry = enquiryRepository.findById(enquiryId);
+            if (enquiry == null || enquiry.hasReply() || workQueue.isClaimedByOther(enquiryId, responderId)) {
+                return false;
+            }
+            if (checkedProjects.add(enquiry.getProjectName())) {
+                Project project = projectRepository.findByName(enquiry.getProjectName());
+                if (project == null) {
+                    return false;
+                }
+                boolean isAuthorized = project.getManagerInCharge().equals(responderId) ||
+                    project.getOfficers().contains(responderId);
+                if (!isAuthorized) {
+                    return false;
+                }
+            }
+            enquiries.add(enquiry);
+        }
+
+        User responder = userRepository.findById(responderId);
+        String responderName = responder != null ? responder.getName() : responderId;
+        // Replies are set on copies and committed only if no enquiry changed since it was
+        // checked, so a concurrent reply is neither overwritten nor half-applied
+        List<Enquiry> replied = new ArrayList<>(enquiries.size());
+        for (Enquiry enquiry : enquiries) {
+            Enquiry copy = enquiryRepository.copyOf(enquiry);
+            copy.setReply(replyText, responderId);
+            copy.setResponderName(responderName);
+            replied.add(copy);
+        }
+        try {
+            return enquiryRepository.batchUpdate(replied);
+        } catch (VersionConflictException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Finds groups of near-duplicate unanswered enquiries for a project,
+     * so that each group can be answered with a single reply.
+     *
+     * @param projectName The name of the project
+     * @return Groups of at least two similar enquiries, largest first
+     */
+    public List<List<Enquiry>> getSimilarUnansweredEnquiries(String projectName) {
+        return duplicateDetector.findClusters(projectName);
+    }
+
     /**
      * Retrieves all enquiries for a specific project.
      * 
@@ -153,6 +253,18 @@ public class EnquiriesController {
     public List<Enquiry> getEnquiriesByProject(String projectName) {
         return enquiryRepository.findByProject(projectName);
     }
+
+    /**
+     * Retrieves one page of the enquiries for a project, in order of submission.
+     *
+     * @param projectName The name of the project
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of enquiries on the page
+     * @return The page of enquiries
+     */
+    public Page<Enquiry> getProjectEnquiryPage(String projectName, String after, int limit) {
+        return enquiryRepository.page(projectName, after, limit, EnquiryRepository.BY_PROJECT);
+    }
     
     /**
      * Retrieves all enquiries submitted by a specific applicant.
@@ -175,26 +287,66 @@ public class EnquiriesController {
     }
     
     /**
-     * Retrieves all unanswered enquiries across all projects.
+     * Retrieves all unanswered enquiries across all projects, oldest first.
      * 
      * @return List of unanswered enquiries
      */
     public List<Enquiry> getUnansweredEnquiries() {
-        return enquiryRepository.findAll().stream()
-                .filter(enquiry -> !enquiry.hasReply())
-                .collect(Collectors.toList());
+        return workQueue.getUnanswered();
     }
     
     /**
-     * Retrieves unanswered enquiries for a specific project.
+     * Retrieves unanswered enquiries for a specific project, oldest first.
      * 
      * @param projectName The name of the project
      * @return List of unanswered enquiries for the project
      */
     public List<Enquiry> getUnansweredEnquiriesByProject(String projectName) {
-        return enquiryRepository.findByProject(projectName).stream()
-                .filter(enquiry -> !enquiry.hasReply())
-                .collect(Collectors.toList());
+        return workQueue.getUnanswered(projectName);
+    }
+
+    /**
+     * Claims an unanswered enquiry so that no other officer answers it at the same time.
+     * The claim expires automatically if the enquiry is not answered in time.
+     *
+     * @param enquiryId The ID of the enquiry
+     * @param officerId The NRIC of the officer claiming it
+     * @return true if the officer now holds the claim, false if the enquiry is answered,
+     *         unknown or claimed by someone else
+     */
+    public boolean claimEnquiry(String enquiryId, String officerId) {
+        return workQueue.claim(enquiryId, officerId);
+    }
+
+    /**
+     * Claims the oldest unanswered enquiry of a project that nobody else is answering.
+     *
+     * @param projectName The name of the project
+     * @param officerId The NRIC of the officer claiming it
+     * @return The claimed enquiry, or null if none is available
+     */
+    public Enquiry claimNextEnquiry(String projectName, String officerId) {
+        return workQueue.claimNext(projectName, officerId);
+    }
+
+    /**
+     * Releases an officer's claim on an enquiry without answering it.
+     *
+     * @param enquiryId The ID of the enquiry
+     * @param officerId The NRIC of the officer holding the claim
+     */
+    public void releaseEnquiry(String enquiryId, String officerId) {
+        workQueue.release(enquiryId, officerId);
+    }
+
+    /**
+     * Counts the unanswered enquiries of a project that are past their reply deadline.
+     *
+     * @param projectName The name of the project
+     * @return Number of overdue enquiries
+     */
+    public int countOverdueEnquiries(String projectName) {
+        return workQueue.countOverdue(projectName);
     }
 
     /**
@@ -204,4 +356,27 @@ public class EnquiriesController {
     public List<Enquiry> getAllEnquiries() {
         return enquiryRepository.findAll();
     }
+
+    /**
+     * Retrieves one page of all enquiries, in order of submission.
+     *
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of enquiries on the page
+     * @return The page of enquiries
+     */
+    public Page<Enquiry> getEnquiryPage(String after, int limit) {
+        return enquiryRepository.page(after, limit, EnquiryRepository.BY_DATE);
+    }
+
+    /**
+     * Searches enquiries and replies by keywords, best match first.
+     *
+     * @param keywords The keywords to search for
+     * @param projectName Restrict to this project, or null for all projects
+     * @param answered true for answered only, false for unanswered only, null for both
+     * @return Up to {@value #MAX_SEARCH_RESULTS} matching enquiries
+     */
+    public List<Enquiry> searchEnquiries(String keywords, String projectName, Boolean answered) {
+        return searchIndex.search(keywords, projectName, answered, MAX_SEARCH_RESULTS);
+    }
 }
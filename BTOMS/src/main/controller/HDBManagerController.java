@@ -1,19 +1,26 @@
 package main.controller;
 
+import main.model.project.FlatType;
 import main.model.project.Neighborhood;
 import main.model.project.Project;
+import main.model.project.ProjectDashboard;
 import main.model.registration.OfficerRegistration;
 import main.model.registration.RegistrationStatus;
 import main.model.application.Application;
+import main.model.application.ApplicationDecision;
 import main.model.application.ApplicationStatus;
+import main.model.ballot.BallotResult;
 import main.model.enquiry.Enquiry;
 import main.repository.*;
 import main.utils.*;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Controller handling business logic for HDB Manager operations.
@@ -30,6 +37,10 @@ public class HDBManagerController {
     private final ApplicationRepository applicationRepository;
     private final EnquiryRepository enquiryRepository;
     private final UserRepository userRepository;
+    private final ProjectArchiver projectArchiver;
+    private final BallotController ballotController;
+    private final DashboardAggregates dashboardAggregates;
+    private final ApplicationColumns applicationColumns;
 
     /**
      * Constructs a new HDBManagerController with required repositories.
@@ -39,28 +50,41 @@ public class HDBManagerController {
      * @param applicationRepository Repository for applications
      * @param enquiryRepository Repository for enquiries
      * @param applicantRepository Repository for applicant entities
+     * @param projectArchiver Archive of closed projects, whose names stay taken
+     * @param changeEventBus Bus the repositories publish their changes to
      */
     public HDBManagerController(ProjectRepository projectRepository,
                                OfficerRegistrationRepository officerRegistrationRepo,
                                ApplicationRepository applicationRepository,
                                EnquiryRepository enquiryRepository,
-                               UserRepository userRepository
+                               UserRepository userRepository,
+                               ProjectArchiver projectArchiver,
+                               ChangeEventBus changeEventBus
                                ) {
         this.projectRepository = projectRepository;
         this.officerRegistrationRepo = officerRegistrationRepo;
         this.applicationRepository = applicationRepository;
         this.enquiryRepository = enquiryRepository;
         this.userRepository = userRepository;
+        this.projectArchiver = projectArchiver;
+        this.ballotController = new BallotController(projectRepository, applicationRepository, userRepository);
+        this.dashboardAggregates = new DashboardAggregates(changeEventBus, applicationRepository, enquiryRepository, officerRegistrationRepo);
+        this.applicationColumns = new ApplicationColumns(applicationRepository);
     }
 
     /**
      * Creates a new BTO project if the manager is available during the period.
+     * The name must not belong to an archived project.
      * 
      * @param project The project to create
      * @param managerId NRIC of the creating manager
      * @return true if creation succeeded, false otherwise
      */
     public boolean createProject(Project project, String managerId) {
+        if (projectArchiver.isArchived(project.getProjectName())) {
+            System.out.println("Error: An archived project is already named " + project.getProjectName() + ".");
+            return false;
+        }
         if (isManagerHandlingProjectDuringPeriod(managerId, project.getOpeningDate(), project.getClosingDate())) {
             return false;
         }
@@ -82,40 +106,47 @@ public class HDBManagerController {
         return false;
     }
 
-    // Store original values before updates
-    String originalProjectName = project.getProjectName();
-    Map<String, Integer> originalFlatTypes = new HashMap<>(project.getFlatTypes());
-
-    // Apply updates with type-safe casting
-    for (Map.Entry<String, Object> entry : updates.entrySet()) {
-        String field = entry.getKey();
-        Object value = entry.getValue();
-
-        switch (field) {
-            case "projectName" -> project.setProjectName((String) value);
-            case "neighborhood" -> handleNeighborhoodUpdate(project, value);
-            case "flatTypes" -> updateFlatTypes(project, value);
-            case "flatPrices" -> updateFlatPrices(project, value);
-            case "openingDate" -> project.setOpeningDate((Date) value);
-            case "closingDate" -> handleClosingDate(project, (Date) value);
-            case "officerSlots" -> project.setOfficerSlots((Integer) value);
-            case "visible" -> project.setVisible((Boolean) value);
-        }
-    }
-
-    // Validate dates after updates
-    if (project.getClosingDate().before(project.getOpeningDate())) {
-        System.out.println("Error: Closing date cannot be before opening date.");
+    // An archived project keeps its name, so it cannot be reused
+    Object newName = updates.get("projectName");
+    if (newName != null && !newName.equals(projectName) && projectArchiver.isArchived((String) newName)) {
+        System.out.println("Error: An archived project is already named " + newName + ".");
         return false;
     }
 
-    // Save project changes
-    boolean success = projectRepository.update(project);
-    
+    // Apply the updates to a copy of the latest project, so that flats booked meanwhile are kept
+    boolean success = projectRepository.modify(projectName, latest -> {
+        // Store original values before updates
+        Map<String, Integer> originalFlatTypes = new HashMap<>(latest.getFlatTypes());
+
+        // Apply updates with type-safe casting
+        for (Map.Entry<String, Object> entry : updates.entrySet()) {
+            String field = entry.getKey();
+            Object value = entry.getValue();
+
+            switch (field) {
+                case "projectName" -> latest.setProjectName((String) value);
+                case "neighborhood" -> handleNeighborhoodUpdate(latest, value);
+                case "flatTypes" -> updateFlatTypes(latest, value);
+                case "flatPrices" -> updateFlatPrices(latest, value);
+                case "openingDate" -> latest.setOpeningDate((Date) value);
+                case "closingDate" -> handleClosingDate(latest, (Date) value);
+                case "officerSlots" -> latest.setOfficerSlots((Integer) value);
+                case "visible" -> latest.setVisible((Boolean) value);
+            }
+        }
+
+        // Validate dates after updates
+        if (latest.getClosingDate().before(latest.getOpeningDate())) {
+            System.out.println("Error: Closing date cannot be before opening date.");
+            return false;
+        }
+        handleFlatTypeChanges(originalFlatTypes, latest);
+        return true;
+    });
+
     // Post-update synchronization
-    if (success) {
-        handleProjectRename(originalProjectName, project);
-        handleFlatTypeChanges(originalFlatTypes, project);
+    if (success && newName != null) {
+        handleProjectRename(projectName, (String) newName);
     }
 
         return success;
@@ -151,12 +182,6 @@ public class HDBManagerController {
     private void updateFlatTypes(Project project, Object value) {
         Map<String, Integer> flatTypes = (Map<String, Integer>) value;
         project.setFlatTypes(flatTypes);
-        
-        // Maintain remaining flats consistency
-        Map<String, Integer> remainingFlats = project.getRemainingFlats();
-        flatTypes.forEach((type, units) -> 
-            remainingFlats.putIfAbsent(type, units)
-        );
     }
 
     /**
@@ -192,15 +217,15 @@ public class HDBManagerController {
      * Performs bulk update of applications through the application repository.
      * 
      * @param originalName The original project name before rename
-     * @param updatedProject The project with new name configuration
+     * @param newName The new project name
      */
-    private void handleProjectRename(String originalName, Project updatedProject) {
-        if (!originalName.equals(updatedProject.getProjectName())) {
+    private void handleProjectRename(String originalName, String newName) {
+        if (!originalName.equals(newName)) {
             List<Application> applications = applicationRepository.findByProject(originalName);
-            applications.forEach(app -> {
-                app.setProjectName(updatedProject.getProjectName());
-                applicationRepository.update(app);
-            });
+            applications.forEach(app -> applicationRepository.modify(app.getApplicationId(), latest -> {
+                latest.setProjectName(newName);
+                return true;
+            }));
         }
     }
 
@@ -215,7 +240,7 @@ public class HDBManagerController {
         updatedProject.getFlatTypes().keySet().stream()
             .filter(type -> !originalTypes.containsKey(type))
             .forEach(type -> 
-                updatedProject.getRemainingFlats().put(type, updatedProject.getFlatTypes().get(type))
+                updatedProject.updateRemainingFlats(type, updatedProject.getFlatTypes().get(type))
             );
     }
 
@@ -249,8 +274,10 @@ public class HDBManagerController {
         if (project == null || !project.getManagerInCharge().equals(managerId)) {
             return false;
         }
-        project.setVisible(!project.isVisible());
-        return projectRepository.update(project);
+        return projectRepository.modify(projectName, latest -> {
+            latest.setVisible(!latest.isVisible());
+            return true;
+        });
     }
 
     /**
@@ -307,6 +334,18 @@ public class HDBManagerController {
         return applicationRepository.findByProject(projectName);
     }
 
+    /**
+     * Retrieves one page of the applications for a project, in order of submission.
+     * 
+     * @param projectName Name of the project
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of applications on the page
+     * @return The page of applications
+     */
+    public Page<Application> getApplicationPage(String projectName, String after, int limit) {
+        return applicationRepository.page(projectName, after, limit, ApplicationRepository.BY_PROJECT);
+    }
+
     /**
      * Approves a BTO application if flat supply is sufficient.
      * 
@@ -321,8 +360,14 @@ public class HDBManagerController {
             || application.isFinalized()) { // Add this check
             return false;
         }
-        application.setStatus(ApplicationStatus.SUCCESSFUL);
-        return applicationRepository.update(application);
+        // Re-checked on the latest version, in case another decision was committed meanwhile
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.isFinalized()) {
+                return false;
+            }
+            latest.setStatus(ApplicationStatus.SUCCESSFUL);
+            return true;
+        });
     }
     /**
      * Rejects a BTO application with remarks.
@@ -337,10 +382,121 @@ public class HDBManagerController {
         if (application == null || !isValidApplicationApprover(application, managerId) || application.isFinalized()) {
             return false;
         }
-        application.setStatus(ApplicationStatus.UNSUCCESSFUL);
-        application.setRemarks(remarks);
-        return applicationRepository.update(application);
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.isFinalized()) {
+                return false;
+            }
+            latest.setStatus(ApplicationStatus.UNSUCCESSFUL);
+            latest.setRemarks(remarks);
+            return true;
+        });
+    }
+
+    /**
+     * Approves or rejects a batch of applications atomically.
+     * <p>
+     * All decisions are validated in one pass before any application is modified: each
+     * application must exist, be PENDING, belong to a project managed by this manager and
+     * appear only once in the batch, and the approvals per project and flat type must not
+     * exceed the remaining flats. If any decision is invalid, or any application was changed
+     * by someone else before the batch is committed, nothing is applied; otherwise all
+     * decisions are applied and persisted with a single write.
+     * </p>
+     *
+     * @param decisions The decisions to apply
+     * @param managerId NRIC of the deciding manager
+     * @return List of validation errors; empty if the whole batch was applied
+     */
+    public List<String> processApplicationDecisions(List<ApplicationDecision> decisions, String managerId) {
+        List<String> errors = new ArrayList<>();
+        if (decisions == null || decisions.isEmpty()) {
+            return errors;
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (ApplicationDecision decision : decisions) {
+            if (!ids.add(decision.getApplicationId())) {
+                errors.add(decision.getApplicationId() + ": duplicate decision in batch");
+            }
+        }
+        Map<String, Application> applications = applicationRepository.findAllById(ids);
+        Map<String, Project> projects = new HashMap<>();
+        Map<Project, int[]> approvals = new HashMap<>();
+
+        for (ApplicationDecision decision : decisions) {
+            String id = decision.getApplicationId();
+            Application application = applications.get(id);
+            if (application == null) {
+                errors.add(id + ": application not found");
+                continue;
+            }
+            Project project = projects.computeIfAbsent(application.getProjectName(), projectRepository::findByName);
+            if (project == null || !project.getManagerInCharge().equals(managerId)) {
+                errors.add(id + ": not managed by you");
+                continue;
+            }
+            if (application.getStatus() != ApplicationStatus.PENDING) {
+                errors.add(id + ": status is " + application.getStatus() + ", expected PENDING");
+                continue;
+            }
+            if (decision.getDecision() == ApplicationDecision.Decision.APPROVE) {
+                FlatType type = FlatType.find(application.getFlatType());
+                if (!project.offers(type)) {
+                    errors.add(id + ": flat type " + application.getFlatType() + " not offered");
+                    continue;
+                }
+                int[] counts = approvals.computeIfAbsent(project, p -> new int[FlatType.count()]);
+                if (++counts[type.ordinal()] > project.remaining(type)) {
+                    errors.add(id + ": no " + type + " flats left in " + project.getProjectName());
+                }
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+
+        // Decisions are applied to copies, so the stored applications stay untouched unless
+        // the whole batch is committed; an application decided meanwhile fails the batch
+        List<Application> updated = new ArrayList<>(decisions.size());
+        for (ApplicationDecision decision : decisions) {
+            Application application = applicationRepository.copyOf(applications.get(decision.getApplicationId()));
+            application.setStatus(decision.getResultingStatus());
+            if (decision.getRemarks() != null) {
+                application.setRemarks(decision.getRemarks());
+            }
+            updated.add(application);
+        }
+        try {
+            if (!applicationRepository.batchUpdate(updated)) {
+                errors.add("Failed to save application decisions");
+            }
+        } catch (VersionConflictException e) {
+            errors.add(e.getEntityId() + ": changed by someone else meanwhile, please retry");
+        }
+        return errors;
     }
+    /**
+     * Runs the BTO ballot for a project whose application period has closed.
+     * 
+     * @param projectName Name of the project to ballot
+     * @param managerId NRIC of the manager in charge
+     * @param seed Seed for the random draw; the same seed reproduces the same result
+     * @return The ballot outcome, or null if the ballot could not be run
+     */
+    public BallotResult runBallot(String projectName, String managerId, long seed) {
+        return ballotController.runBallot(projectName, managerId, seed);
+    }
+
+    /**
+     * Returns the ballot controller, e.g. to configure its priority tiers.
+     * 
+     * @return The ballot controller used by this manager controller
+     */
+    public BallotController getBallotController() {
+        return ballotController;
+    }
+
     /**
      * Approves a withdrawal request and updates flat availability.
      * 
@@ -353,8 +509,13 @@ public class HDBManagerController {
         if (application == null || !isValidWithdrawalApprover(application, managerId)) {
             return false;
         }
-        application.setStatus(ApplicationStatus.WITHDRAWN);
-        return applicationRepository.update(application);
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.isFinalized()) {
+                return false;
+            }
+            latest.setStatus(ApplicationStatus.WITHDRAWN);
+            return true;
+        });
     }
 
     /**
@@ -370,9 +531,13 @@ public class HDBManagerController {
         if (application == null || !isValidWithdrawalApprover(application, managerId)) {
             return false;
         }
-        ApplicationStatus previousStatus = application.getPreviousStatus(); // Assume this method exists
-        application.setStatus(previousStatus);
-        return applicationRepository.update(application);
+        return applicationRepository.modify(applicationId, latest -> {
+            if (latest.getStatus() != ApplicationStatus.PENDING_WITHDRAWAL) {
+                return false;
+            }
+            latest.setStatus(latest.getPreviousStatus());
+            return true;
+        });
     }
 
     /**
@@ -388,6 +553,67 @@ public class HDBManagerController {
         return ReportGenerator.generate(project, applications, filters, userRepository);
     }
 
+    /**
+     * Returns the dashboard counters of a project managed by the specified manager.
+     * The counters are maintained incrementally, so this does not scan any repository.
+     * 
+     * @param projectName Name of the project
+     * @param managerId NRIC of the managing manager
+     * @return Dashboard snapshot, or null if the project is not managed by this manager
+     */
+    public ProjectDashboard getProjectDashboard(String projectName, String managerId) {
+        Project project = projectRepository.findByName(projectName);
+        if (project == null || !project.getManagerInCharge().equals(managerId)) {
+            return null;
+        }
+        return dashboardAggregates.getDashboard(projectName);
+    }
+
+    /**
+     * Rebuilds the dashboard counters from scratch and compares them with the
+     * incrementally maintained ones.
+     * 
+     * @return List of differences; empty if the dashboards are consistent
+     */
+    public List<String> verifyDashboards() {
+        return dashboardAggregates.verify();
+    }
+
+    /**
+     * Counts the applications to each project of a manager by status, optionally limited to
+     * applications submitted in a date range. Served from the columnar copy of the
+     * applications, so it does not walk application objects.
+     * 
+     * @param managerId NRIC of the managing manager
+     * @param from First submission day, or null for no lower bound
+     * @param to Last submission day, or null for no upper bound
+     * @return Status counts by project name, for the manager's projects with matching applications
+     */
+    public Map<String, Map<ApplicationStatus, Long>> getApplicationCountsByProject(String managerId, Date from, Date to) {
+        Map<String, Map<ApplicationStatus, Long>> counts =
+            applicationColumns.countByProjectAndStatus(ApplicationColumns.Filter.all().appliedBetween(from, to));
+        Set<String> managed = new HashSet<>();
+        for (Project project : projectRepository.findByManager(managerId)) {
+            managed.add(project.getProjectName());
+        }
+        counts.keySet().retainAll(managed);
+        return counts;
+    }
+
+    /**
+     * Counts the applications to a project by flat type, optionally limited to applications
+     * submitted in a date range.
+     * 
+     * @param projectName Name of the project
+     * @param from First submission day, or null for no lower bound
+     * @param to Last submission day, or null for no upper bound
+     * @return Count of each flat type
+     */
+    public Map<FlatType, Long> getApplicationCountsByFlatType(String projectName, Date from, Date to) {
+        return applicationColumns.countByFlatType(
+            ApplicationColumns.Filter.all().project(projectName).appliedBetween(from, to));
+    }
+
     /**
      * Retrieves all enquiries across all projects.
      * 
@@ -408,9 +634,15 @@ public class HDBManagerController {
     public boolean replyEnquiry(String enquiryId, String replyText, String managerId) {
         Enquiry enquiry = enquiryRepository.findById(enquiryId);
         if (enquiry == null) return false;
-        enquiry.setReply(replyText, managerId);
-        enquiry.setResponderId(managerId);
-        return enquiryRepository.update(enquiry);
+        // Set on the latest version; a reply committed meanwhile is not overwritten
+        return enquiryRepository.modify(enquiryId, latest -> {
+            if (latest.hasReply()) {
+                return false;
+            }
+            latest.setReply(replyText, managerId);
+            latest.setResponderId(managerId);
+            return true;
+        });
     }
 
     // Helper methods
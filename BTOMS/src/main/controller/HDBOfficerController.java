@@ -1,5 +1,6 @@
 package main.controller;
 
+import main.model.project.FlatType;
 import main.model.project.Project;
 import main.model.user.HDBOfficer;
 import main.model.application.Application;
@@ -53,23 +54,34 @@ public class HDBOfficerController {
             return false;
         }
 
-        // Get current remaining count
-        int remaining = project.getRemainingFlats().getOrDefault(flatType, 0);
-        
-        if (remaining <= 0) {
+        // Check current remaining count
+        FlatType type = FlatType.find(flatType);
+        if (project.remaining(type) <= 0) {
             return false;
         }
 
 
-        // Update application
-        application.setStatus(ApplicationStatus.BOOKED);
-        application.setFlatType(flatType);
-        
-        // Update project inventory
-        project.updateRemainingFlats(flatType, remaining - 1);
-
-        // Persist changes
-        return applicationRepository.update(application) && projectRepository.update(project);
+        // Take the flat on the latest inventory first, so that concurrent bookings cannot
+        // oversell, then book the application; the flat is given back if that fails
+        if (!projectRepository.modify(project.getProjectName(), latest -> latest.decrementFlatCount(type))) {
+            return false;
+        }
+        boolean booked = false;
+        try {
+            booked = applicationRepository.modify(applicationId, latest -> {
+                if (latest.getStatus() != ApplicationStatus.SUCCESSFUL) {
+                    return false;
+                }
+                latest.setStatus(ApplicationStatus.BOOKED);
+                latest.setFlatType(flatType);
+                return true;
+            });
+        } finally {
+            if (!booked) {
+                projectRepository.modify(project.getProjectName(), latest -> latest.incrementFlatCount(type));
+            }
+        }
+        return booked;
     }
 
     /**
@@ -10,9 +10,14 @@ import main.model.user.HDBOfficer;
 import main.model.user.User;
 import main.model.application.Application;
 import main.repository.OfficerRegistrationRepository;
+import main.repository.OfficerSlotReservations;
+import main.repository.Page;
+import main.repository.PageSort;
 import main.repository.ProjectRepository;
 import main.repository.UserRepository;
+import main.repository.VersionConflictException;
 import main.utils.DateUtils;
+import main.utils.IDGenerator;
 import main.repository.ApplicationRepository;
 
 /**
@@ -29,6 +34,7 @@ public class OfficerRegistrationController {
     private ProjectRepository projectRepository;
     private UserRepository userRepository;
     private ApplicationRepository applicationRepository;
+    private final OfficerSlotReservations officerSlots;
     
     /**
      * Constructs an OfficerRegistrationController with the required repositories.
@@ -45,6 +51,7 @@ public class OfficerRegistrationController {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.applicationRepository = applicationRepository;
+        this.officerSlots = new OfficerSlotReservations(projectRepository);
     }
     
     /**
@@ -96,7 +103,7 @@ public class OfficerRegistrationController {
 
         
         // Create and save the registration
-        String registrationId = generateRegistrationId();
+        String registrationId = IDGenerator.generateRegistrationId();
         OfficerRegistration registration = new OfficerRegistration(registrationId, officerNRIC, projectName);
         registration.setStatus(RegistrationStatus.PENDING);
         
@@ -108,15 +115,6 @@ public class OfficerRegistrationController {
                userRepository.update(officer);
     }
     
-    /**
-     * Generates a unique registration ID.
-     * 
-     * @return A unique registration ID
-     */
-    private String generateRegistrationId() {
-        return "REG" + System.currentTimeMillis();
-    }
-    
 
     
     /**
@@ -127,41 +125,91 @@ public class OfficerRegistrationController {
      * @return true if approval is successful, false otherwise
      */
     public boolean approveRegistration(String registrationId, String managerNRIC) {
-    OfficerRegistration registration = officerRegistrationRepository.findById(registrationId);
-    if (registration == null || 
-        registration.getStatus() != RegistrationStatus.PENDING) {
-        return false;
-    }
+        OfficerRegistration registration = officerRegistrationRepository.findById(registrationId);
+        if (registration == null || 
+            registration.getStatus() != RegistrationStatus.PENDING) {
+            return false;
+        }
 
-    Project project = projectRepository.findByName(registration.getProjectName());
-    HDBOfficer officer = (HDBOfficer) userRepository.findById(registration.getOfficerNRIC());
+        Project project = projectRepository.findByName(registration.getProjectName());
+        if (project == null || !project.getManagerInCharge().equals(managerNRIC)) {
+            return false;
+        }
+        User user = userRepository.findById(registration.getOfficerNRIC());
+        if (!(user instanceof HDBOfficer officer)) {
+            return false;
+        }
 
-    // Check for date overlaps using DateUtils
-    for (String existingProjectName : officer.getHandlingProjects()) {
-        Project existingProject = projectRepository.findByName(existingProjectName);
-        if (existingProject != null && DateUtils.isDateRangeOverlapping(
-            project.getOpeningDate(), 
-            project.getClosingDate(),
-            existingProject.getOpeningDate(), 
-            existingProject.getClosingDate()
-        )) {
-            System.out.println("Officer has overlapping project: " + existingProjectName);
+        // Reserve a slot first, so approvals for a full project are turned away at once
+        OfficerSlotReservations.Reservation reservation = officerSlots.reserve(project, officer.getID());
+        if (reservation == null) {
+            System.out.println("No officer slots left, or the officer is already being approved elsewhere.");
             return false;
         }
+        boolean committed = false;
+        try {
+            // Check for date overlaps; the reservation keeps other approvals of this officer out
+            for (String existingProjectName : officer.getHandlingProjects()) {
+                Project existingProject = projectRepository.findByName(existingProjectName);
+                if (existingProject != null && DateUtils.isDateRangeOverlapping(
+                    project.getOpeningDate(), 
+                    project.getClosingDate(),
+                    existingProject.getOpeningDate(), 
+                    existingProject.getClosingDate()
+                )) {
+                    System.out.println("Officer has overlapping project: " + existingProjectName);
+                    return false;
+                }
+            }
+            committed = officerSlots.commit(reservation,
+                () -> applyApproval(registration, officer, project.getProjectName()));
+            return committed;
+        } finally {
+            if (!committed) {
+                officerSlots.rollback(reservation);
+            }
+        }
     }
-    
-        // Update officer's details
-        officer.setHandlingProject(project.getProjectName(), projectRepository);
+
+    /**
+     * Records an approval on the project, the officer and the registration, undoing all
+     * three if any of them cannot be saved. Runs while the project's slots are locked.
+     * The officer is added to the latest project with a versioned update, so a flat booked
+     * meanwhile is kept; if the project keeps changing under it, the approval is abandoned.
+     * 
+     * @return true if the approval was recorded
+     */
+    private boolean applyApproval(OfficerRegistration registration, HDBOfficer officer, String projectName) {
+        if (!registration.isPending()) {
+            return false;
+        }
+        try {
+            if (!projectRepository.modify(projectName, latest -> latest.addOfficer(officer.getID(), officer.getName()))) {
+                return false;
+            }
+        } catch (VersionConflictException e) {
+            return false;
+        }
+        RegistrationStatus previousStatus = officer.getRegistrationStatus();
+        boolean handling = officer.setHandlingProject(projectName, projectRepository);
         officer.setRegistrationStatus(RegistrationStatus.APPROVED);
-        userRepository.update(officer); // Save changes
-    
-        // Update project
-        project.addOfficer(officer.getID(), officer.getName());
-        projectRepository.update(project);
-    
-        // Update registration status
         registration.setStatus(RegistrationStatus.APPROVED);
-        return officerRegistrationRepository.update(registration);
+        if (handling
+                && userRepository.update(officer)
+                && officerRegistrationRepository.update(registration)) {
+            return true;
+        }
+
+        // Roll back every step so the slot can be returned
+        if (handling) {
+            officer.removeHandlingProject(projectName);
+        }
+        officer.setRegistrationStatus(previousStatus);
+        registration.setStatus(RegistrationStatus.PENDING);
+        userRepository.update(officer);
+        officerRegistrationRepository.update(registration);
+        projectRepository.modify(projectName, latest -> latest.removeOfficer(officer.getID()));
+        return false;
     }
     
     
@@ -229,6 +277,19 @@ public class OfficerRegistrationController {
                 .filter(OfficerRegistration::isPending)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Gets one page of the pending registrations for a project, in order of submission.
+     * 
+     * @param projectName The name of the project
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of registrations on the page
+     * @return The page of pending registrations
+     */
+    public Page<OfficerRegistration> getPendingRegistrationPage(String projectName, String after, int limit) {
+        return officerRegistrationRepository.page(PageSort.partition(projectName, RegistrationStatus.PENDING),
+                after, limit, OfficerRegistrationRepository.BY_PROJECT_AND_STATUS);
+    }
     
     /**
      * Gets all registrations for an officer.
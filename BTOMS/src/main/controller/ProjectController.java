@@ -1,11 +1,19 @@
 package main.controller;
 
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import main.model.project.Project;
@@ -14,11 +22,15 @@ import main.model.user.User;
 import main.model.application.Application;
 import main.model.application.ApplicationStatus;
 import main.repository.ApplicationRepository;
+import main.repository.ArchivedProject;
 import main.repository.EnquiryRepository;
+import main.repository.Page;
+import main.repository.ProjectArchiver;
+import main.repository.ProjectQuery;
 import main.repository.ProjectRepository;
 import main.repository.UserRepository;
+import main.utils.ReportFilter;
 import main.utils.ReportGenerator;
-import main.utils.DateUtils;
 
 /**
  * Controller for project-related operations in the BTO Management System.
@@ -30,10 +42,14 @@ import main.utils.DateUtils;
  * @since 2025-04-17
  */
 public class ProjectController {
+    /** Maximum number of project reports written concurrently. */
+    public static final int MAX_REPORT_PARALLELISM = 4;
+
     private final ProjectRepository projectRepository;
     private final UserRepository userRepository;
     private final ApplicationRepository applicationRepository;
     private final EnquiryRepository enquiryRepository;
+    private final ProjectArchiver projectArchiver;
 
     /**
      * Constructs a ProjectController with all required repositories.
@@ -42,15 +58,18 @@ public class ProjectController {
      * @param applicationRepository Application repository
      * @param applicantRepository Applicant repository
      * @param enquiryRepository Enquiry repository
+     * @param projectArchiver Archive of closed projects, read back for reports
      */
     public ProjectController(ProjectRepository projectRepository,
                             UserRepository userRepository,
                             ApplicationRepository applicationRepository,
-                            EnquiryRepository enquiryRepository) {
+                            EnquiryRepository enquiryRepository,
+                            ProjectArchiver projectArchiver) {
         this.projectRepository = projectRepository;
         this.userRepository = userRepository;
         this.applicationRepository = applicationRepository;
         this.enquiryRepository = enquiryRepository;
+        this.projectArchiver = projectArchiver;
     }
 
     /**
@@ -70,6 +89,16 @@ public class ProjectController {
         return projectRepository.findAll();
     }
 
+    /**
+     * Gets one page of all projects, ordered by name.
+     * @param after Cursor from the previous page, or null for the first page
+     * @param limit Maximum number of projects on the page
+     * @return The page of projects
+     */
+    public Page<Project> getProjectPage(String after, int limit) {
+        return projectRepository.page(after, limit, ProjectRepository.BY_NAME);
+    }
+
     /**
      * Gets all projects managed by a specific manager.
      * @param managerNRIC Manager's NRIC
@@ -90,17 +119,11 @@ public class ProjectController {
 
     /**
      * Retrieves projects that are both visible and currently open.
-     * @return List of available projects
+     * Served from the repository's maintained view of visible, open projects.
+     * @return Unmodifiable list of available projects
      */
     public List<Project> getVisibleProjects() {
-        Date currentDate = new Date();
-        return projectRepository.findAll().stream()
-            .filter(project -> 
-                project.isVisible() && 
-                !currentDate.before(project.getOpeningDate()) && 
-                !currentDate.after(project.getClosingDate())
-            )
-            .collect(Collectors.toList());
+        return projectRepository.findVisibleOpenProjects();
     }
 
     /**
@@ -140,71 +163,188 @@ public List<Project> getHandlingProjects(String officerNRIC) {
      * @return List of filtered projects
      */
     public List<Project> getProjectsByFilter(Map<String, Object> filters) {
-        List<Project> allProjects = projectRepository.findAll();
-        List<Project> filteredProjects = new ArrayList<>();
-
-        for (Project project : allProjects) {
-            boolean match = true;
-
-            for (Map.Entry<String, Object> filter : filters.entrySet()) {
-                String key = filter.getKey();
-                Object value = filter.getValue();
-
-                switch (key) {
-                    case "neighborhood":
-                        if (!project.getNeighborhood().toString().equalsIgnoreCase((String) value)) {
-                            match = false;
-                        }
-                        break;
-                    case "flatType":
-                        if (!project.getFlatTypes().containsKey((String) value)) {
-                            match = false;
-                        }
-                        break;
-                    case "status":
-                        boolean isOpen = DateUtils.isDateBetween(new Date(),
-                            project.getOpeningDate(), project.getClosingDate());
-                        if ("open".equalsIgnoreCase((String) value) && !isOpen) match = false;
-                        if ("closed".equalsIgnoreCase((String) value) && isOpen) match = false;
-                        break;
-                }
-
-                if (!match) break;
-            }
-
-            if (match) {
-                filteredProjects.add(project);
-            }
-        }
+        return projectRepository.find(ProjectQuery.fromMap(filters));
+    }
 
-        return filteredProjects;
+    /**
+     * Gets projects matching a typed query.
+     * @param query The search criteria
+     * @return List of matching projects
+     */
+    public List<Project> getProjectsByQuery(ProjectQuery query) {
+        return projectRepository.find(query);
     }
 
     /**
      * Generates a formatted report of applicants for a given project, with filters.
+     * Archived projects are read back from their archive.
      * @param projectName The name of the project.
      * @param filters Map of filters to apply (e.g., "maritalStatus", "flatType").
      * @return The formatted report as a String.
      */
     public String generateProjectReport(String projectName, Map<String, Object> filters) {
-        // Get the actual Project object
-        Project project = projectRepository.findByName(projectName);
-        if (project == null) {
+        ReportSource source = reportSource(projectName);
+        if (source == null) {
             return "Error: Project not found";
         }
         
-        List<Application> applications = applicationRepository.findByProjectAndStatus(
-            projectName, 
-            ApplicationStatus.BOOKED
-        );
-        
         return ReportGenerator.generate(
-            project,      // Single Project object
-            applications, 
+            source.project,      // Single Project object
+            source.applications, 
             filters, 
             userRepository
         );
     }
-    
-    
-}
\ No newline at end of file
+
+    /**
+     * Streams the report of booked applicants for a given project, with filters, to a file
+     * in the reports directory. Rows are written as they are produced, so large projects
+     * do not need the whole report in memory. Archived projects are read back from their archive.
+     * @param projectName The name of the project.
+     * @param filters Map of filters to apply (e.g., "maritalStatus", "flatType").
+     * @return The path of the written report file, or null if the project was not found or writing failed.
+     */
+    public String generateProjectReportToFile(String projectName, Map<String, Object> filters) {
+        ReportSource source = reportSource(projectName);
+        if (source == null) {
+            return null;
+        }
+        String filePath = ReportGenerator.newReportFilePath("project_" + projectName);
+        if (filePath == null) {
+            return null;
+        }
+
+        try (Writer writer = new BufferedWriter(new FileWriter(filePath))) {
+            ReportGenerator.generate(source.project, source.applications, filters, userRepository, writer);
+            return filePath;
+        } catch (IOException e) {
+            System.out.println("Error generating report: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Generates the booked-applicant report of every project managed by a manager,
+     * including the archived ones.
+     * <p>
+     * Each report is written to its own file in the reports directory by a task on a
+     * dedicated fork-join pool capped at {@link #MAX_REPORT_PARALLELISM} threads, so a
+     * manager with many projects does not flood the disk with concurrent writers.
+     * All files of a batch share one timestamp. Each file has exactly the content that
+     * {@link #generateProjectReport(String, Map)} would return for that project. A summary
+     * file listing every project (sorted by name), its row count and its report file is
+     * written last. Each task reads back its own archived project, so at most
+     * {@link #MAX_REPORT_PARALLELISM} archives are in memory at once.
+     * </p>
+     * @param managerNRIC NRIC of the manager whose projects are reported
+     * @param filters Map of filters to apply (e.g., "maritalStatus", "flatType").
+     * @return The path of the summary file, or null if the manager has no projects or writing failed.
+     */
+    public String generateAllProjectReports(String managerNRIC, Map<String, Object> filters) {
+        Set<String> names = new HashSet<>(projectArchiver.findArchivedByManager(managerNRIC));
+        for (Project project : projectRepository.findByManager(managerNRIC)) {
+            names.add(project.getProjectName());
+        }
+        if (names.isEmpty()) {
+            return null;
+        }
+        List<String> projectNames = new ArrayList<>(names);
+        projectNames.sort(Comparator.naturalOrder());
+        String timestamp = ReportGenerator.reportTimestamp();
+        ReportFilter reportFilter = ReportFilter.fromMap(filters);
+
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (String projectName : projectNames) {
+            tasks.add(() -> writeProjectReport(projectName, reportFilter, timestamp));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(
+            Math.min(MAX_REPORT_PARALLELISM, Runtime.getRuntime().availableProcessors()));
+        List<Future<String>> results;
+        try {
+            results = pool.invokeAll(tasks);
+        } finally {
+            pool.shutdown();
+        }
+
+        String summaryPath = ReportGenerator.newReportFilePath("summary_" + managerNRIC, timestamp);
+        if (summaryPath == null) {
+            return null;
+        }
+        try (Writer writer = new BufferedWriter(new FileWriter(summaryPath))) {
+            writer.write("Report Summary for " + managerNRIC + "\n");
+            writer.write("Generated: " + timestamp + "\n\n");
+            for (int i = 0; i < projectNames.size(); i++) {
+                String line;
+                try {
+                    line = results.get(i).get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    line = "interrupted";
+                } catch (ExecutionException e) {
+                    line = "FAILED (" + e.getCause().getMessage() + ")";
+                }
+                writer.write(projectNames.get(i) + ": " + line + "\n");
+            }
+            return summaryPath;
+        } catch (IOException e) {
+            System.out.println("Error writing report summary: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the booked-applicant report of one project to the reports directory.
+     * @return Summary line with the row count and file path
+     * @throws IOException if the file cannot be written
+     */
+    private String writeProjectReport(String projectName, ReportFilter reportFilter, String timestamp) throws IOException {
+        ReportSource source = reportSource(projectName);
+        if (source == null) {
+            throw new IOException("project not found");
+        }
+        String filePath = ReportGenerator.newReportFilePath("project_" + projectName, timestamp);
+        if (filePath == null) {
+            throw new IOException("reports directory unavailable");
+        }
+        try (Writer writer = new BufferedWriter(new FileWriter(filePath))) {
+            int rows = ReportGenerator.generate(source.project, source.applications, reportFilter, userRepository, writer);
+            return rows + " row(s) -> " + filePath;
+        }
+    }
+
+    /**
+     * Finds a project and its booked applications for a report, in the repositories or
+     * else in the project archive.
+     * @return The project and its booked applications, or null if the project is not found
+     */
+    private ReportSource reportSource(String projectName) {
+        Project project = projectRepository.findByName(projectName);
+        if (project != null) {
+            return new ReportSource(project, applicationRepository.findByProjectAndStatus(
+                projectName,
+                ApplicationStatus.BOOKED
+            ));
+        }
+        ArchivedProject archived = projectArchiver.load(projectName);
+        if (archived == null) {
+            return null;
+        }
+        return new ReportSource(archived.getProject(), archived.getApplications().stream()
+            .filter(app -> app.getStatus() == ApplicationStatus.BOOKED)
+            .collect(Collectors.toList()));
+    }
+
+    /**
+     * A project and its booked applications, as reported on.
+     */
+    private static final class ReportSource {
+        private final Project project;
+        private final List<Application> applications;
+
+        private ReportSource(Project project, List<Application> applications) {
+            this.project = project;
+            this.applications = applications;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package main.model;
+
+/**
+ * An entity whose stored state carries a version number for optimistic concurrency control.
+ * <p>
+ * The version starts at 0 and is incremented by the repository each time an update of the
+ * entity is committed. A writer remembers the version it read and commits with
+ * {@code FileBasedRepository.update(entity, expectedVersion)}, which fails if anyone else
+ * committed in between instead of silently overwriting their change.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public interface Versioned {
+    /**
+     * Returns the number of committed updates of this entity.
+     * @return the version
+     */
+    long getVersion();
+
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    void setVersion(long version);
+}
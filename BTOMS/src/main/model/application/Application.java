@@ -1,9 +1,15 @@
 package main.model.application;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Date;
 
+import main.model.Versioned;
 import main.repository.UserRepository;
+import main.utils.StringInterner;
 import main.utils.UserLookupService;
 
 
@@ -19,8 +25,14 @@ import main.utils.UserLookupService;
  * @version 1.0
  * @since 2025-04-17
  */
-public class Application implements Serializable, UserLookupService {
+public class Application implements Serializable, UserLookupService, Versioned {
     private static final long serialVersionUID = 1L;
+
+    /** Format of {@link #writeTo(DataOutput)}; bumped when fields are added. */
+    private static final int RECORD_FORMAT = 1;
+
+    /** Number of committed updates, for optimistic concurrency control. */
+    private long version;
     
     /** Unique identifier for this application */
     private String applicationId;
@@ -52,6 +64,9 @@ public class Application implements Serializable, UserLookupService {
 
     private String withdrawalReason;
 
+    /** Queue number assigned by the ballot (1 = first in queue), or 0 if not balloted */
+    private int ballotNumber;
+
     /**
      * Constructs a new application with default pending status.
      * 
@@ -61,18 +76,24 @@ public class Application implements Serializable, UserLookupService {
      */
         public Application(String applicationId, String applicantId, String projectName, UserRepository userRepository) {
         this.applicationId = applicationId;
-        this.applicantId = applicantId;
-        this.projectName = projectName;
+        this.applicantId = StringInterner.intern(applicantId);
+        this.projectName = StringInterner.intern(projectName);
         this.status = ApplicationStatus.PENDING;
         this.applicationDate = new Date();
         this.statusUpdateDate = new Date();
         this.remarks = null;
         this.withdrawalReason = null;
         // Use the default method from UserLookupService to map NRIC to name
-        this.applicantName = lookupUserNameByNRIC(userRepository, applicantId);
+        this.applicantName = StringInterner.intern(lookupUserNameByNRIC(userRepository, applicantId));
     }
 
 
+    /**
+     * Creates an empty application to be filled by {@link #readFrom(DataInput)}.
+     */
+    private Application() {
+    }
+
     /**
      * Returns the unique application ID.
      * @return Application ID
@@ -102,7 +123,7 @@ public class Application implements Serializable, UserLookupService {
     }
 
     public void setProjectName(String projectName){
-        this.projectName = projectName;
+        this.projectName = StringInterner.intern(projectName);
     }
     /**
      * Returns the current application status.
@@ -167,7 +188,7 @@ public class Application implements Serializable, UserLookupService {
      * @param flatType The flat type (2-Room/3-Room)
      */
     public void setFlatType(String flatType) {
-        this.flatType = flatType;
+        this.flatType = StringInterner.intern(flatType);
     }
 
     /**
@@ -248,5 +269,117 @@ public class Application implements Serializable, UserLookupService {
         this.withdrawalReason = reason;
     }
 
+    /**
+     * Gets the queue number assigned to this application by the ballot.
+     * @return The ballot queue number, or 0 if the application has not been balloted.
+     */
+    public int getBallotNumber() {
+        return ballotNumber;
+    }
+
+    /**
+     * Sets the queue number assigned to this application by the ballot.
+     * @param ballotNumber The ballot queue number (1-based).
+     */
+    public void setBallotNumber(int ballotNumber) {
+        this.ballotNumber = ballotNumber;
+    }
+
+    /**
+     * Returns the number of committed updates of this application.
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
 
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Restores the fields and interns the strings that many applications share.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        applicantId = StringInterner.intern(applicantId);
+        applicantName = StringInterner.intern(applicantName);
+        projectName = StringInterner.intern(projectName);
+        flatType = StringInterner.intern(flatType);
+    }
+
+    /**
+     * Writes this application in a compact binary form, read back by {@link #readFrom(DataInput)}.
+     * <p>
+     * Unlike Java serialization there are no class descriptors, so a record is about a
+     * hundred bytes; used to keep finalized applications outside the heap.
+     * </p>
+     * @param out The output
+     * @throws IOException if the output fails, or a text field is too long to write
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeByte(RECORD_FORMAT);
+        out.writeLong(version);
+        writeString(out, applicationId);
+        writeString(out, applicantId);
+        writeString(out, applicantName);
+        writeString(out, projectName);
+        writeString(out, status == null ? null : status.name());
+        writeString(out, flatType);
+        out.writeLong(applicationDate == null ? Long.MIN_VALUE : applicationDate.getTime());
+        out.writeLong(statusUpdateDate == null ? Long.MIN_VALUE : statusUpdateDate.getTime());
+        writeString(out, previousStatus == null ? null : previousStatus.name());
+        writeString(out, remarks);
+        writeString(out, withdrawalReason);
+        out.writeInt(ballotNumber);
+    }
+
+    /**
+     * Reads an application written by {@link #writeTo(DataOutput)}.
+     * @param in The input
+     * @return The application, with its shared strings interned
+     * @throws IOException if the input fails or is not an application record
+     */
+    public static Application readFrom(DataInput in) throws IOException {
+        int format = in.readUnsignedByte();
+        if (format != RECORD_FORMAT) {
+            throw new IOException("Unknown application record format " + format);
+        }
+        Application app = new Application();
+        app.version = in.readLong();
+        app.applicationId = readString(in);
+        app.applicantId = StringInterner.intern(readString(in));
+        app.applicantName = StringInterner.intern(readString(in));
+        app.projectName = StringInterner.intern(readString(in));
+        String status = readString(in);
+        app.status = status == null ? null : ApplicationStatus.valueOf(status);
+        app.flatType = StringInterner.intern(readString(in));
+        long applied = in.readLong();
+        app.applicationDate = applied == Long.MIN_VALUE ? null : new Date(applied);
+        long updated = in.readLong();
+        app.statusUpdateDate = updated == Long.MIN_VALUE ? null : new Date(updated);
+        String previous = readString(in);
+        app.previousStatus = previous == null ? null : ApplicationStatus.valueOf(previous);
+        app.remarks = readString(in);
+        app.withdrawalReason = readString(in);
+        app.ballotNumber = in.readInt();
+        return app;
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
 }
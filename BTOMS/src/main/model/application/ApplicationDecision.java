@@ -0,0 +1,80 @@
+package main.model.application;
+
+/**
+ * Represents a manager's decision on a single BTO application, used for batch processing.
+ * <p>
+ * A decision is immutable and only describes the intended outcome; it is validated
+ * and applied by {@code HDBManagerController#processApplicationDecisions}.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ApplicationDecision {
+
+    /**
+     * The outcome a manager can choose for a pending application.
+     */
+    public enum Decision {
+        /** Approve the application (status becomes SUCCESSFUL). */
+        APPROVE,
+        /** Reject the application (status becomes UNSUCCESSFUL). */
+        REJECT
+    }
+
+    private final String applicationId;
+    private final Decision decision;
+    private final String remarks;
+
+    /**
+     * Constructs a new decision.
+     * @param applicationId The ID of the application the decision applies to
+     * @param decision The outcome to apply
+     * @param remarks Optional remarks recorded on the application (may be null)
+     * @throws IllegalArgumentException if the application ID or decision is missing
+     */
+    public ApplicationDecision(String applicationId, Decision decision, String remarks) {
+        if (applicationId == null || applicationId.isEmpty()) {
+            throw new IllegalArgumentException("Application ID is required");
+        }
+        if (decision == null) {
+            throw new IllegalArgumentException("Decision is required");
+        }
+        this.applicationId = applicationId;
+        this.decision = decision;
+        this.remarks = remarks;
+    }
+
+    /**
+     * Returns the ID of the application this decision applies to.
+     * @return Application ID
+     */
+    public String getApplicationId() {
+        return applicationId;
+    }
+
+    /**
+     * Returns the decided outcome.
+     * @return The decision
+     */
+    public Decision getDecision() {
+        return decision;
+    }
+
+    /**
+     * Returns the remarks to record with the decision.
+     * @return Remarks, or null if none
+     */
+    public String getRemarks() {
+        return remarks;
+    }
+
+    /**
+     * Returns the application status this decision results in.
+     * @return SUCCESSFUL for approvals, UNSUCCESSFUL for rejections
+     */
+    public ApplicationStatus getResultingStatus() {
+        return decision == Decision.APPROVE ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSFUL;
+    }
+}
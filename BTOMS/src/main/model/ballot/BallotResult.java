@@ -0,0 +1,120 @@
+package main.model.ballot;
+
+import main.model.project.FlatType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of a BTO ballot for one project.
+ * <p>
+ * For each flat type it records the application IDs in queue order, split into the
+ * successful ones (within the available units) and the unsuccessful ones. Together
+ * with the seed this is enough to audit and reproduce the ballot.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class BallotResult {
+    private final String projectName;
+    private final long seed;
+    private final Map<FlatType, List<String>> successful = new EnumMap<>(FlatType.class);
+    private final Map<FlatType, List<String>> unsuccessful = new EnumMap<>(FlatType.class);
+    private int skipped;
+
+    /**
+     * Constructs an empty result for a project.
+     * @param projectName Name of the balloted project
+     * @param seed Seed used for the random draw
+     */
+    public BallotResult(String projectName, long seed) {
+        this.projectName = projectName;
+        this.seed = seed;
+    }
+
+    /**
+     * Records the outcome for one flat type.
+     * @param flatType The flat type
+     * @param winners Application IDs marked SUCCESSFUL, in queue order
+     * @param losers Application IDs marked UNSUCCESSFUL, in queue order
+     */
+    public void addOutcome(FlatType flatType, List<String> winners, List<String> losers) {
+        successful.put(flatType, Collections.unmodifiableList(new ArrayList<>(winners)));
+        unsuccessful.put(flatType, Collections.unmodifiableList(new ArrayList<>(losers)));
+    }
+
+    /**
+     * Records the number of pending applications that could not be balloted
+     * (e.g. because their flat type is not offered by the project).
+     * @param skipped Number of skipped applications
+     */
+    public void setSkipped(int skipped) {
+        this.skipped = skipped;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns the successful application IDs for a flat type, in queue order.
+     * @param flatType The flat type
+     * @return Unmodifiable list of application IDs (empty if none)
+     */
+    public List<String> getSuccessful(FlatType flatType) {
+        return successful.getOrDefault(flatType, Collections.emptyList());
+    }
+
+    /**
+     * Returns the unsuccessful application IDs for a flat type, in queue order.
+     * @param flatType The flat type
+     * @return Unmodifiable list of application IDs (empty if none)
+     */
+    public List<String> getUnsuccessful(FlatType flatType) {
+        return unsuccessful.getOrDefault(flatType, Collections.emptyList());
+    }
+
+    /**
+     * Returns the total number of applications marked SUCCESSFUL.
+     * @return Number of successful applications
+     */
+    public int getSuccessfulCount() {
+        return successful.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Returns the total number of applications marked UNSUCCESSFUL.
+     * @return Number of unsuccessful applications
+     */
+    public int getUnsuccessfulCount() {
+        return unsuccessful.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Ballot for ").append(projectName).append(" (seed ").append(seed).append(")");
+        for (FlatType type : successful.keySet()) {
+            sb.append("\n  ").append(type).append(": ")
+              .append(getSuccessful(type).size()).append(" successful, ")
+              .append(getUnsuccessful(type).size()).append(" unsuccessful");
+        }
+        if (skipped > 0) {
+            sb.append("\n  ").append(skipped).append(" application(s) skipped (flat type not offered)");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package main.model.ballot;
+
+import main.model.application.Application;
+import main.model.user.User;
+
+import java.util.Set;
+import java.util.function.BiPredicate;
+
+/**
+ * A priority tier used by the BTO ballot.
+ * <p>
+ * Tiers are evaluated in order; an application is placed in the first tier whose
+ * predicate it satisfies, and applications in earlier tiers are always queued ahead
+ * of those in later tiers. Applications matching no tier are queued last.
+ * Within a tier the order is decided by the seeded random draw.
+ * </p>
+ * <p>
+ * Facts that belong to a single ballot run, such as who has already booked a flat, are
+ * passed to the tier's {@link Rule} by the run rather than captured by the tier, so a tier
+ * can be shared by runs of different projects.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     BallotTier married = new BallotTier("Married couples",
+ *         (app, user) -&gt; user.getMaritalStatus() == MaritalStatus.MARRIED);
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class BallotTier {
+    /**
+     * Test deciding whether an application belongs to a tier, given the state of the
+     * ballot run it takes part in.
+     */
+    @FunctionalInterface
+    public interface Rule {
+        /**
+         * Tests whether an application belongs to the tier.
+         * @param application The application being balloted
+         * @param applicant The applicant, or null if the user could not be found
+         * @param bookedElsewhere NRICs of applicants holding a BOOKED application in another
+         *                        project when the run started
+         * @return true if the application belongs to the tier
+         */
+        boolean test(Application application, User applicant, Set<String> bookedElsewhere);
+    }
+
+    private final String name;
+    private final Rule rule;
+
+    /**
+     * Constructs a new ballot tier that depends only on the application and applicant.
+     * @param name Display name of the tier (used in audit logs)
+     * @param predicate Test deciding whether an application (and its applicant, which may be null) belongs to this tier
+     */
+    public BallotTier(String name, BiPredicate<Application, User> predicate) {
+        this(name, (application, applicant, bookedElsewhere) -> predicate.test(application, applicant));
+    }
+
+    /**
+     * Constructs a new ballot tier whose rule also sees the state of the ballot run.
+     * @param name Display name of the tier (used in audit logs)
+     * @param rule Test deciding whether an application belongs to this tier
+     */
+    public BallotTier(String name, Rule rule) {
+        this.name = name;
+        this.rule = rule;
+    }
+
+    /**
+     * Returns the display name of this tier.
+     * @return Tier name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tests whether an application belongs to this tier.
+     * @param application The application being balloted
+     * @param applicant The applicant, or null if the user could not be found
+     * @param bookedElsewhere NRICs of applicants holding a BOOKED application in another
+     *                        project when the run started
+     * @return true if the application belongs to this tier
+     */
+    public boolean matches(Application application, User applicant, Set<String> bookedElsewhere) {
+        return rule.test(application, applicant, bookedElsewhere);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -1,5 +1,9 @@
 package main.model.enquiry;
 
+import main.model.Versioned;
+import main.utils.StringInterner;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Date;
 
@@ -11,9 +15,12 @@ import java.util.Date;
  * @version 1.0
  * @since 2025-04-20
  */
-public class Enquiry implements Serializable {
+public class Enquiry implements Serializable, Versioned {
     private static final long serialVersionUID = 1L;
 
+    /** Number of committed updates, for optimistic concurrency control. */
+    private long version;
+
     /**
      * Unique identifier for this enquiry.
      */
@@ -74,8 +81,8 @@ public class Enquiry implements Serializable {
      */
     public Enquiry(String enquiryId, String applicantId, String projectName, String enquiryText) {
         this.enquiryId = enquiryId;
-        this.applicantId = applicantId;
-        this.projectName = projectName;
+        this.applicantId = StringInterner.intern(applicantId);
+        this.projectName = StringInterner.intern(projectName);
         this.enquiryText = enquiryText;
         this.enquiryDate = new Date();
     }
@@ -97,7 +104,7 @@ public class Enquiry implements Serializable {
 
     /** @param applicantName Name of the applicant (for display) */
     public void setApplicantName(String applicantName) {
-        this.applicantName = applicantName;
+        this.applicantName = StringInterner.intern(applicantName);
     }
 
     /** @return Name of the project this enquiry is about */
@@ -132,7 +139,7 @@ public class Enquiry implements Serializable {
      */
     public void setReply(String replyText, String responderId) {
         this.replyText = replyText;
-        this.responderId = responderId;
+        this.responderId = StringInterner.intern(responderId);
         this.replyDate = new Date();
     }
 
@@ -148,12 +155,12 @@ public class Enquiry implements Serializable {
 
     /** @param responderName Name of the responder */
     public void setResponderName(String responderName) {
-        this.responderName = responderName;
+        this.responderName = StringInterner.intern(responderName);
     }
 
     /** @param responderId NRIC of the responder */
     public void setResponderId(String responderId) {
-        this.responderId = responderId;
+        this.responderId = StringInterner.intern(responderId);
     }
 
     /** @return Date and time when the reply was made */
@@ -168,4 +175,34 @@ public class Enquiry implements Serializable {
     public boolean hasReply() {
         return replyText != null && !replyText.isEmpty();
     }
+
+    /**
+     * Returns the number of committed updates of this enquiry.
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Restores the fields and interns the strings that many enquiries share.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        applicantId = StringInterner.intern(applicantId);
+        applicantName = StringInterner.intern(applicantName);
+        projectName = StringInterner.intern(projectName);
+        responderId = StringInterner.intern(responderId);
+        responderName = StringInterner.intern(responderName);
+    }
 }
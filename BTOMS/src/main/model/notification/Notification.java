@@ -0,0 +1,63 @@
+package main.model.notification;
+
+import java.util.Date;
+
+/**
+ * A message to an applicant about a change to one of their applications or enquiries.
+ * <p>
+ * Notifications are recorded in the notification outbox when the change is made and
+ * delivered later, in batches, to a notification sink.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class Notification {
+    private final long notificationId;
+    private final String recipientId;
+    private final Date createdDate;
+    private final String subject;
+    private final String message;
+
+    /**
+     * Constructs a notification.
+     * @param notificationId Unique notification ID
+     * @param recipientId NRIC of the recipient
+     * @param createdDate When the notification was recorded
+     * @param subject Short subject line
+     * @param message Message text
+     */
+    public Notification(long notificationId, String recipientId, Date createdDate, String subject, String message) {
+        this.notificationId = notificationId;
+        this.recipientId = recipientId;
+        this.createdDate = createdDate;
+        this.subject = subject;
+        this.message = message;
+    }
+
+    public long getNotificationId() {
+        return notificationId;
+    }
+
+    public String getRecipientId() {
+        return recipientId;
+    }
+
+    public Date getCreatedDate() {
+        return createdDate;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return subject + ": " + message;
+    }
+}
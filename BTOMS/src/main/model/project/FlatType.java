@@ -0,0 +1,96 @@
+package main.model.project;
+
+/**
+ * Enumeration of the flat types offered in BTO projects.
+ * <p>
+ * The ordinal of each constant is used by {@link Project} to index its per-flat-type
+ * unit, price and availability arrays, so lookups never box or hash.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     FlatType type = FlatType.fromString("2-Room");
+ *     int left = project.remaining(type);
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-16
+ */
+public enum FlatType {
+    /** Two-room flat. */
+    TWO_ROOM("2-Room"),
+    /** Three-room flat. */
+    THREE_ROOM("3-Room");
+
+    /** Cached copy of {@link #values()} to avoid cloning the array on every lookup. */
+    private static final FlatType[] VALUES = values();
+
+    /**
+     * The display name of the flat type, as used in CSV files and the UI.
+     */
+    private final String displayName;
+
+    /**
+     * Constructs a FlatType enum constant with the given display name.
+     * @param displayName The user-friendly name for the flat type.
+     */
+    FlatType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    /**
+     * Returns the user-friendly display name of this flat type.
+     * @return the display name of the flat type
+     */
+    @Override
+    public String toString() {
+        return displayName;
+    }
+
+    /**
+     * Returns the number of flat types, i.e. the length of per-flat-type arrays.
+     * @return the number of flat type constants
+     */
+    public static int count() {
+        return VALUES.length;
+    }
+
+    /**
+     * Returns the FlatType with the given ordinal.
+     * @param ordinal The ordinal of the flat type
+     * @return The corresponding FlatType
+     */
+    public static FlatType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Returns the FlatType matching the given string (case-insensitive), or {@code null}.
+     * @param text The string to look up (e.g., "3-Room")
+     * @return The corresponding FlatType, or {@code null} if there is no match
+     */
+    public static FlatType find(String text) {
+        if (text == null) return null;
+        for (FlatType type : VALUES) {
+            if (type.displayName.equalsIgnoreCase(text) || type.name().equalsIgnoreCase(text)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the FlatType matching the given string (case-insensitive).
+     * @param text The string to parse (e.g., "2-Room")
+     * @return The corresponding FlatType
+     * @throws IllegalArgumentException if no matching flat type is found
+     */
+    public static FlatType fromString(String text) {
+        FlatType type = find(text);
+        if (type == null) {
+            throw new IllegalArgumentException("No flat type found for: " + text);
+        }
+        return type;
+    }
+}
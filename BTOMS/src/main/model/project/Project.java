@@ -1,11 +1,21 @@
 package main.model.project;
 
+import main.model.Versioned;
+import main.utils.StringInterner;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Represents a Build-To-Order (BTO) project in the BTO Management System.
@@ -16,8 +26,11 @@ import java.util.Map;
  * @version 1.0
  * @since 2025-04-16
  */
-public class Project implements Serializable {
+public class Project implements Serializable, Versioned {
     private static final long serialVersionUID = 1L;
+
+    /** Number of committed updates, for optimistic concurrency control. */
+    private long version;
     
     
     /**
@@ -31,19 +44,33 @@ public class Project implements Serializable {
     private Neighborhood neighborhood;
     
     /**
-     * Maps flat type (e.g., "2-Room", "3-Room") to the total number of units.
+     * Bit set of the flat types offered by this project, indexed by {@link FlatType#ordinal()}.
      */
-    private Map<String, Integer> flatTypes;
+    private int offeredFlatTypes;
 
-     /**
-     * Maps flat type (e.g., "2-Room") to its price.
+    /**
+     * Total number of units per flat type, indexed by {@link FlatType#ordinal()}.
      */
-    private Map<String, Integer> flatPrices;
-    
+    private int[] totalUnits;
+
+    /**
+     * Price per unit for each flat type, indexed by {@link FlatType#ordinal()}.
+     */
+    private int[] unitPrices;
+
     /**
-     * Maps flat type to the number of remaining units available.
+     * Number of remaining units available per flat type, indexed by {@link FlatType#ordinal()}.
      */
-    private Map<String, Integer> remainingFlats;
+    private int[] remainingUnits;
+
+    /** Read-only view of {@link #totalUnits}, created on first use. */
+    private transient Map<String, Integer> flatTypesView;
+
+    /** Read-only view of {@link #unitPrices}, created on first use. */
+    private transient Map<String, Integer> flatPricesView;
+
+    /** Read-only view of {@link #remainingUnits}, created on first use. */
+    private transient Map<String, Integer> remainingFlatsView;
     
     /**
      * The application opening date for this project.
@@ -110,16 +137,16 @@ public class Project implements Serializable {
                   Map<String, Integer> flatUnits, Map<String, Integer> flatPrices,
                   Date openingDate, Date closingDate, 
                   String managerNRIC, String managerDisplayName, int officerSlots) {
-        this.projectName = projectName;
+        this.projectName = StringInterner.intern(projectName);
         this.neighborhood = neighborhood;
-        this.flatTypes = new HashMap<>(flatUnits);
-        this.flatPrices = new HashMap<>(flatPrices);
+        this.unitPrices = new int[FlatType.count()];
+        setFlatTypes(flatUnits != null ? flatUnits : new HashMap<>());
+        setFlatPrices(flatPrices != null ? flatPrices : new HashMap<>());
         this.appOpenDate = openingDate;
         this.appCloseDate = closingDate;
-        this.managerInCharge = managerNRIC;          // Store NRIC
-        this.managerDisplayName = managerDisplayName;       // Store name
+        this.managerInCharge = StringInterner.intern(managerNRIC);          // Store NRIC
+        this.managerDisplayName = StringInterner.intern(managerDisplayName);       // Store name
         this.officerSlots = officerSlots;
-        this.remainingFlats = flatUnits != null ? new HashMap<>(flatUnits) : new HashMap<>();
         // Other initialization
         this.officerDetails = new HashMap<>();
 
@@ -139,7 +166,7 @@ public class Project implements Serializable {
      * @param projectName the new project name
      */
     public void setProjectName(String projectName) {
-        this.projectName = projectName;
+        this.projectName = StringInterner.intern(projectName);
     }
     
     /**
@@ -159,48 +186,155 @@ public class Project implements Serializable {
     }
     
     /**
-     * Returns a copy of the map of flat types and their total units.
+     * Returns a read-only view of the flat types and their total units.
      * @return a map of flat types to total units
      */
     public Map<String, Integer> getFlatTypes() {
-        return new HashMap<>(flatTypes);
+        if (flatTypesView == null) {
+            flatTypesView = new FlatCountView(FlatColumn.TOTAL);
+        }
+        return flatTypesView;
     }
-    
+
     /**
      * Sets the flat types and their total units for this project.
-     * Also resets the remaining flats to the new totals.
+     * Also resets the remaining flats to the new totals. Keys that are not a known
+     * flat type are skipped with a warning.
      * @param flatTypes the new map of flat types to total units
      */
     public void setFlatTypes(Map<String, Integer> flatTypes) {
-        this.flatTypes = new HashMap<>(flatTypes);
-        this.remainingFlats = new HashMap<>(flatTypes);
+        int offered = 0;
+        int[] units = new int[FlatType.count()];
+        for (Map.Entry<String, Integer> entry : flatTypes.entrySet()) {
+            FlatType type = knownFlatType(entry.getKey());
+            if (type == null) {
+                continue;
+            }
+            offered |= 1 << type.ordinal();
+            units[type.ordinal()] = entry.getValue() != null ? entry.getValue() : 0;
+        }
+        this.offeredFlatTypes = offered;
+        this.totalUnits = units;
+        this.remainingUnits = units.clone();
     }
-    
-    // Add getter for prices
+
+    /**
+     * Returns a read-only view of the flat types and their unit prices.
+     * @return a map of flat types to unit prices
+     */
     public Map<String, Integer> getFlatPrices() {
-        return new HashMap<>(flatPrices);
+        if (flatPricesView == null) {
+            flatPricesView = new FlatCountView(FlatColumn.PRICE);
+        }
+        return flatPricesView;
     }
 
-    // Add setter for prices
+    /**
+     * Sets the unit price of each flat type in the given map.
+     * Flat types absent from the map keep their current price. Keys that are not a known
+     * flat type are skipped with a warning.
+     * @param flatPrices map of flat types to unit prices
+     */
     public void setFlatPrices(Map<String, Integer> flatPrices) {
-        this.flatPrices = flatPrices;
+        for (Map.Entry<String, Integer> entry : flatPrices.entrySet()) {
+            FlatType type = knownFlatType(entry.getKey());
+            if (type != null) {
+                unitPrices[type.ordinal()] = entry.getValue() != null ? entry.getValue() : 0;
+            }
+        }
     }
-    
+
+    /**
+     * Resolves a flat type key from a CSV row, UI entry or old data file.
+     * @return The flat type, or null (with a warning) if the key is not a known flat type
+     */
+    private FlatType knownFlatType(String key) {
+        FlatType type = FlatType.find(key);
+        if (type == null) {
+            System.err.println("Ignoring unknown flat type \"" + key + "\" for project " + projectName);
+        }
+        return type;
+    }
+
     /**
-     * Returns a copy of the map of flat types and their remaining units.
+     * Returns a read-only view of the flat types and their remaining units.
      * @return a map of flat types to remaining units
      */
     public Map<String, Integer> getRemainingFlats() {
-        return new HashMap<>(remainingFlats);
+        if (remainingFlatsView == null) {
+            remainingFlatsView = new FlatCountView(FlatColumn.REMAINING);
+        }
+        return remainingFlatsView;
     }
-    
+
+    /**
+     * Returns whether this project offers the given flat type.
+     * @param flatType the flat type to check
+     * @return true if the flat type is offered, false otherwise
+     */
+    public boolean offers(FlatType flatType) {
+        return flatType != null && (offeredFlatTypes & (1 << flatType.ordinal())) != 0;
+    }
+
+    /**
+     * Returns the flat types offered by this project.
+     * @return a new set of the offered flat types
+     */
+    public Set<FlatType> getOfferedFlatTypes() {
+        EnumSet<FlatType> offered = EnumSet.noneOf(FlatType.class);
+        for (int i = 0; i < FlatType.count(); i++) {
+            if ((offeredFlatTypes & (1 << i)) != 0) {
+                offered.add(FlatType.ofOrdinal(i));
+            }
+        }
+        return offered;
+    }
+
+    /**
+     * Returns the total number of units of a flat type.
+     * @param flatType the flat type
+     * @return the total units, or 0 if the flat type is not offered
+     */
+    public int totalUnits(FlatType flatType) {
+        return offers(flatType) ? totalUnits[flatType.ordinal()] : 0;
+    }
+
+    /**
+     * Returns the unit price of a flat type.
+     * @param flatType the flat type
+     * @return the unit price, or 0 if the flat type is not offered
+     */
+    public int price(FlatType flatType) {
+        return offers(flatType) ? unitPrices[flatType.ordinal()] : 0;
+    }
+
+    /**
+     * Returns the number of remaining units of a flat type.
+     * @param flatType the flat type
+     * @return the remaining units, or 0 if the flat type is not offered
+     */
+    public int remaining(FlatType flatType) {
+        return offers(flatType) ? remainingUnits[flatType.ordinal()] : 0;
+    }
+
     /**
      * Updates the remaining units for a specific flat type.
      * @param flatType the flat type to update
-     * @param count the new remaining count
+     * @param newCount the new remaining count
+     * @throws IllegalArgumentException if the flat type is unknown
      */
     public void updateRemainingFlats(String flatType, int newCount) {
-        remainingFlats.put(flatType, newCount); // Direct update without existence check
+        updateRemainingFlats(FlatType.fromString(flatType), newCount);
+    }
+
+    /**
+     * Updates the remaining units for a specific flat type, offering it if it was not yet offered.
+     * @param flatType the flat type to update
+     * @param newCount the new remaining count
+     */
+    public void updateRemainingFlats(FlatType flatType, int newCount) {
+        offeredFlatTypes |= 1 << flatType.ordinal();
+        remainingUnits[flatType.ordinal()] = newCount;
     }
     
     /**
@@ -248,7 +382,7 @@ public class Project implements Serializable {
      * @param managerInCharge the new HDB Manager NRIC
      */
     public void setManagerInCharge(String managerInCharge) {
-        this.managerInCharge = managerInCharge;
+        this.managerInCharge = StringInterner.intern(managerInCharge);
     }
 
      // Add getter for display name
@@ -307,7 +441,7 @@ public class Project implements Serializable {
             return false;
         }
         
-        officerDetails.put(officerNRIC, officerName);
+        officerDetails.put(StringInterner.intern(officerNRIC), StringInterner.intern(officerName));
         remainingOfficerSlots--;
         return true;
     }
@@ -324,7 +458,7 @@ public class Project implements Serializable {
         }
         
         // Add officer with default name "Unknown"
-        officerDetails.put(officerNRIC, "Unknown");
+        officerDetails.put(StringInterner.intern(officerNRIC), "Unknown");
         remainingOfficerSlots--;
         return true;
     }
@@ -430,22 +564,39 @@ public class Project implements Serializable {
      * @return true if the count was decremented, false otherwise
      */
     public boolean decrementFlatCount(String flatType) {
-        if (remainingFlats.containsKey(flatType) && remainingFlats.get(flatType) > 0) {
-            remainingFlats.put(flatType, remainingFlats.get(flatType) - 1);
+        return decrementFlatCount(FlatType.find(flatType));
+    }
+
+    /**
+     * Decrements the remaining flat count for a given flat type if available.
+     * @param flatType the flat type to decrement
+     * @return true if the count was decremented, false otherwise
+     */
+    public boolean decrementFlatCount(FlatType flatType) {
+        if (offers(flatType) && remainingUnits[flatType.ordinal()] > 0) {
+            remainingUnits[flatType.ordinal()]--;
             return true;
         }
         return false;
     }
-    
+
     /**
      * Increments the remaining flat count for a given flat type if not exceeding the total.
      * @param flatType the flat type to increment
      * @return true if the count was incremented, false otherwise
      */
     public boolean incrementFlatCount(String flatType) {
-        if (remainingFlats.containsKey(flatType) && 
-            remainingFlats.get(flatType) < flatTypes.get(flatType)) {
-            remainingFlats.put(flatType, remainingFlats.get(flatType) + 1);
+        return incrementFlatCount(FlatType.find(flatType));
+    }
+
+    /**
+     * Increments the remaining flat count for a given flat type if not exceeding the total.
+     * @param flatType the flat type to increment
+     * @return true if the count was incremented, false otherwise
+     */
+    public boolean incrementFlatCount(FlatType flatType) {
+        if (offers(flatType) && remainingUnits[flatType.ordinal()] < totalUnits[flatType.ordinal()]) {
+            remainingUnits[flatType.ordinal()]++;
             return true;
         }
         return false;
@@ -456,8 +607,8 @@ public class Project implements Serializable {
      * @return true if the current date is within the application period, false otherwise
      */
     public boolean isOpen() {
-        Date now = new Date();
-        return now.after(appOpenDate) && now.before(appCloseDate);
+        long now = System.currentTimeMillis();
+        return now > appOpenDate.getTime() && now < appCloseDate.getTime();
     }
 
     /**
@@ -468,5 +619,156 @@ public class Project implements Serializable {
         return officerDetails.size();
     }
 
-    
+    /**
+     * Restores the fields and interns the names and NRICs that other entities share,
+     * including the officers' names and NRICs.
+     * <p>
+     * Projects saved before the flat data moved to arrays stored it in three maps
+     * ({@code flatTypes}, {@code flatPrices}, {@code remainingFlats}); those are converted.
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        version = fields.get("version", 0L);
+        projectName = (String) fields.get("projectName", null);
+        neighborhood = (Neighborhood) fields.get("neighborhood", null);
+        appOpenDate = (Date) fields.get("appOpenDate", null);
+        appCloseDate = (Date) fields.get("appCloseDate", null);
+        managerInCharge = (String) fields.get("managerInCharge", null);
+        managerDisplayName = (String) fields.get("managerDisplayName", null);
+        officerSlots = fields.get("officerSlots", 0);
+        remainingOfficerSlots = fields.get("remainingOfficerSlots", 0);
+        officerDetails = (Map<String, String>) fields.get("officerDetails", null);
+        visible = fields.get("visible", false);
+        applications = (List<String>) fields.get("applications", null);
+        enquiries = (List<String>) fields.get("enquiries", null);
+        if (fields.defaulted("totalUnits")) {
+            Map<String, Integer> oldUnits = (Map<String, Integer>) fields.get("flatTypes", null);
+            Map<String, Integer> oldPrices = (Map<String, Integer>) fields.get("flatPrices", null);
+            Map<String, Integer> oldRemaining = (Map<String, Integer>) fields.get("remainingFlats", null);
+            unitPrices = new int[FlatType.count()];
+            setFlatTypes(oldUnits != null ? oldUnits : new HashMap<>());
+            setFlatPrices(oldPrices != null ? oldPrices : new HashMap<>());
+            if (oldRemaining != null) {
+                for (Map.Entry<String, Integer> entry : oldRemaining.entrySet()) {
+                    FlatType type = knownFlatType(entry.getKey());
+                    if (type != null) {
+                        remainingUnits[type.ordinal()] = entry.getValue() != null ? entry.getValue() : 0;
+                    }
+                }
+            }
+        } else {
+            offeredFlatTypes = fields.get("offeredFlatTypes", 0);
+            totalUnits = (int[]) fields.get("totalUnits", null);
+            unitPrices = (int[]) fields.get("unitPrices", null);
+            remainingUnits = (int[]) fields.get("remainingUnits", null);
+        }
+        projectName = StringInterner.intern(projectName);
+        managerInCharge = StringInterner.intern(managerInCharge);
+        managerDisplayName = StringInterner.intern(managerDisplayName);
+        if (officerDetails != null) {
+            Map<String, String> interned = new HashMap<>();
+            officerDetails.forEach((nric, name) ->
+                interned.put(StringInterner.intern(nric), StringInterner.intern(name)));
+            officerDetails = interned;
+        }
+    }
+
+    /**
+     * The per-flat-type arrays that a {@link FlatCountView} can expose.
+     */
+    private enum FlatColumn { TOTAL, PRICE, REMAINING }
+
+    /**
+     * Read-only map view over one of the per-flat-type arrays, keyed by flat type name.
+     * Lookups resolve the key to a {@link FlatType} and read the array slot directly,
+     * so callers of {@link #getFlatTypes()} and friends no longer copy a map per call.
+     */
+    private final class FlatCountView extends AbstractMap<String, Integer> {
+        private final FlatColumn column;
+
+        FlatCountView(FlatColumn column) {
+            this.column = column;
+        }
+
+        private int valueOf(FlatType type) {
+            switch (column) {
+                case TOTAL: return totalUnits[type.ordinal()];
+                case PRICE: return unitPrices[type.ordinal()];
+                default: return remainingUnits[type.ordinal()];
+            }
+        }
+
+        @Override
+        public Integer get(Object key) {
+            FlatType type = key instanceof String ? FlatType.find((String) key) : null;
+            return offers(type) ? valueOf(type) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && offers(FlatType.find((String) key));
+        }
+
+        @Override
+        public int size() {
+            return Integer.bitCount(offeredFlatTypes);
+        }
+
+        @Override
+        public Set<Map.Entry<String, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return FlatCountView.this.size();
+                }
+
+                @Override
+                public Iterator<Map.Entry<String, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int next = advance(0);
+
+                        private int advance(int from) {
+                            while (from < FlatType.count() && (offeredFlatTypes & (1 << from)) == 0) {
+                                from++;
+                            }
+                            return from;
+                        }
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < FlatType.count();
+                        }
+
+                        @Override
+                        public Map.Entry<String, Integer> next() {
+                            if (!hasNext()) throw new NoSuchElementException();
+                            FlatType type = FlatType.ofOrdinal(next);
+                            next = advance(next + 1);
+                            return new SimpleImmutableEntry<>(type.toString(), valueOf(type));
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * Returns the number of committed updates of this project.
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,117 @@
+package main.model.project;
+
+import main.model.application.ApplicationStatus;
+
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of the dashboard counters of one project.
+ * <p>
+ * Holds the number of applications per status, the number of booked units per flat
+ * type, the number of unanswered enquiries and the number of pending officer
+ * registrations, as maintained by {@code DashboardAggregates}.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ProjectDashboard {
+    private final String projectName;
+    private final int[] applicationsByStatus;
+    private final int[] bookedUnits;
+    private final int unansweredEnquiries;
+    private final int pendingRegistrations;
+
+    /**
+     * Constructs a dashboard snapshot. The arrays are copied.
+     * @param projectName Name of the project
+     * @param applicationsByStatus Application counts indexed by {@link ApplicationStatus#ordinal()}
+     * @param bookedUnits Booked unit counts indexed by {@link FlatType#ordinal()}
+     * @param unansweredEnquiries Number of enquiries without a reply
+     * @param pendingRegistrations Number of pending officer registrations
+     */
+    public ProjectDashboard(String projectName, int[] applicationsByStatus, int[] bookedUnits,
+                            int unansweredEnquiries, int pendingRegistrations) {
+        this.projectName = projectName;
+        this.applicationsByStatus = applicationsByStatus.clone();
+        this.bookedUnits = bookedUnits.clone();
+        this.unansweredEnquiries = unansweredEnquiries;
+        this.pendingRegistrations = pendingRegistrations;
+    }
+
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Returns the number of applications with the given status.
+     * @param status The application status
+     * @return Number of applications
+     */
+    public int getApplicationCount(ApplicationStatus status) {
+        return applicationsByStatus[status.ordinal()];
+    }
+
+    /**
+     * Returns the total number of applications for the project.
+     * @return Number of applications
+     */
+    public int getTotalApplications() {
+        return Arrays.stream(applicationsByStatus).sum();
+    }
+
+    /**
+     * Returns the number of booked units of a flat type.
+     * @param flatType The flat type
+     * @return Number of booked units
+     */
+    public int getBookedUnits(FlatType flatType) {
+        return bookedUnits[flatType.ordinal()];
+    }
+
+    public int getUnansweredEnquiries() {
+        return unansweredEnquiries;
+    }
+
+    public int getPendingRegistrations() {
+        return pendingRegistrations;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProjectDashboard)) return false;
+        ProjectDashboard other = (ProjectDashboard) o;
+        return projectName.equals(other.projectName)
+            && Arrays.equals(applicationsByStatus, other.applicationsByStatus)
+            && Arrays.equals(bookedUnits, other.bookedUnits)
+            && unansweredEnquiries == other.unansweredEnquiries
+            && pendingRegistrations == other.pendingRegistrations;
+    }
+
+    @Override
+    public int hashCode() {
+        return projectName.hashCode() * 31 + Arrays.hashCode(applicationsByStatus);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Dashboard: ").append(projectName).append("\n");
+        sb.append("  Applications:");
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            if (applicationsByStatus[status.ordinal()] > 0) {
+                sb.append(" ").append(status).append("=").append(applicationsByStatus[status.ordinal()]);
+            }
+        }
+        sb.append(" (total ").append(getTotalApplications()).append(")\n");
+        sb.append("  Booked units:");
+        for (int i = 0; i < bookedUnits.length; i++) {
+            sb.append(" ").append(FlatType.ofOrdinal(i)).append("=").append(bookedUnits[i]);
+        }
+        sb.append("\n  Unanswered enquiries: ").append(unansweredEnquiries);
+        sb.append("\n  Pending officer registrations: ").append(pendingRegistrations);
+        return sb.toString();
+    }
+}
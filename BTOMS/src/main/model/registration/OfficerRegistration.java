@@ -1,13 +1,20 @@
 package main.model.registration;
 
+import main.model.Versioned;
+import main.utils.StringInterner;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.Date;
 
 /**
  * Represents a registration request for an HDB Officer to join a project team.
  */
-public class OfficerRegistration implements Serializable {
+public class OfficerRegistration implements Serializable, Versioned {
     private static final long serialVersionUID = 1L;
+
+    /** Number of committed updates, for optimistic concurrency control. */
+    private long version;
     
     private String registrationId;
     private String officerNRIC;
@@ -26,8 +33,8 @@ public class OfficerRegistration implements Serializable {
      */
     public OfficerRegistration(String registrationId, String officerNRIC, String projectName) {
         this.registrationId = registrationId;
-        this.officerNRIC = officerNRIC;
-        this.projectName = projectName;
+        this.officerNRIC = StringInterner.intern(officerNRIC);
+        this.projectName = StringInterner.intern(projectName);
         this.status = RegistrationStatus.NONE;
         this.registrationDate = new Date();
         this.statusUpdateDate = new Date();
@@ -103,4 +110,31 @@ public class OfficerRegistration implements Serializable {
     public boolean isRejected() {
         return status == RegistrationStatus.REJECTED;
     }
+
+    /**
+     * Returns the number of committed updates of this registration.
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Restores the fields and interns the strings that many registrations share.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        officerNRIC = StringInterner.intern(officerNRIC);
+        projectName = StringInterner.intern(projectName);
+    }
 }
@@ -16,6 +16,9 @@ import main.model.application.ApplicationStatus;
 public class Applicant implements User {
     private static final long serialVersionUID = 1L;
 
+    /** Number of committed updates, for optimistic concurrency control. */
+    private long version;
+
     /**
      * NRIC of the applicant (serves as unique user ID).
      */
@@ -191,4 +194,21 @@ public class Applicant implements User {
         }
     }
 
+    /**
+     * Returns the number of committed updates of this user.
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -20,6 +20,9 @@ import main.utils.DateUtils;
 public class HDBManager implements User {
     private static final long serialVersionUID = 1L;
 
+    /** Number of committed updates, for optimistic concurrency control. */
+    private long version;
+
     /**
      * The NRIC of the manager (serves as user ID).
      */
@@ -168,4 +171,22 @@ public class HDBManager implements User {
             project.getClosingDate()
         );
     }
+
+    /**
+     * Returns the number of committed updates of this user.
+     * @return the version
+     */
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version. Called by repositories only.
+     * @param version the new version
+     */
+    @Override
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -70,6 +70,15 @@ public class HDBOfficer extends Applicant {
         return true;
     }
 
+    /**
+     * Removes a project from the projects this officer is handling.
+     * @param projectName Name of the project
+     * @return true if the officer was handling the project
+     */
+    public boolean removeHandlingProject(String projectName) {
+        return handlingProjects.remove(projectName);
+    }
+
     /**
      * Gets all projects this officer is handling.
      * @return List of project names (defensive copy)
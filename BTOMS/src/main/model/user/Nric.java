@@ -0,0 +1,178 @@
+package main.model.user;
+
+import java.io.Serializable;
+
+/**
+ * A validated NRIC packed into a single {@code long}.
+ * <p>
+ * An NRIC is a prefix letter, seven digits and a check letter (e.g. {@code T0222222A}). The
+ * three parts are packed as {@code (prefix * 10,000,000 + digits) * 26 + check}, which fits
+ * in 33 bits and orders the same way as the text. Structures keyed by NRIC can therefore
+ * store a primitive key instead of a nine-character string, and compare keys with one
+ * instruction instead of {@code String.equals}.
+ * </p>
+ * <p>
+ * Parsing ignores surrounding whitespace and letter case, matching how users are looked up
+ * by NRIC. The check letter is stored as given and not verified against the digits.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public final class Nric implements Comparable<Nric>, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** Returned by {@link #pack(String)} for text that is not an NRIC. */
+    public static final long INVALID = -1L;
+
+    private static final int DIGITS = 7;
+    private static final long DIGIT_RANGE = 10_000_000L;
+    private static final int LETTERS = 26;
+
+    private final long value;
+
+    private Nric(long value) {
+        this.value = value;
+    }
+
+    /**
+     * Parses an NRIC.
+     * @param text The NRIC, e.g. {@code S1234567D}
+     * @return The NRIC
+     * @throws IllegalArgumentException if the text is not an NRIC
+     */
+    public static Nric parse(String text) {
+        long value = pack(text);
+        if (value == INVALID) {
+            throw new IllegalArgumentException("Invalid NRIC: " + text);
+        }
+        return new Nric(value);
+    }
+
+    /**
+     * Creates an NRIC from its packed form.
+     * @param value A value from {@link #pack(String)} or {@link #toLong()}
+     * @return The NRIC
+     * @throws IllegalArgumentException if the value is not a packed NRIC
+     */
+    public static Nric valueOf(long value) {
+        if (value < 0 || value >= LETTERS * DIGIT_RANGE * LETTERS) {
+            throw new IllegalArgumentException("Invalid packed NRIC: " + value);
+        }
+        return new Nric(value);
+    }
+
+    /**
+     * Checks whether text is an NRIC.
+     * @param text The text, or null
+     * @return true if {@link #parse(String)} would accept it
+     */
+    public static boolean isValid(String text) {
+        return pack(text) != INVALID;
+    }
+
+    /**
+     * Packs an NRIC into a {@code long} without creating an object.
+     * @param text The NRIC, or null
+     * @return The packed NRIC, or {@link #INVALID} if the text is not an NRIC
+     */
+    public static long pack(String text) {
+        if (text == null) {
+            return INVALID;
+        }
+        int start = 0;
+        int end = text.length();
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start != DIGITS + 2) {
+            return INVALID;
+        }
+        int prefix = letter(text.charAt(start));
+        int check = letter(text.charAt(end - 1));
+        if (prefix < 0 || check < 0) {
+            return INVALID;
+        }
+        long digits = 0;
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return INVALID;
+            }
+            digits = digits * 10 + (c - '0');
+        }
+        return (prefix * DIGIT_RANGE + digits) * LETTERS + check;
+    }
+
+    /**
+     * Converts a packed NRIC back to text.
+     * @param value A value from {@link #pack(String)}
+     * @return The NRIC in upper case
+     */
+    public static String unpack(long value) {
+        char[] text = new char[DIGITS + 2];
+        text[DIGITS + 1] = (char) ('A' + value % LETTERS);
+        long rest = value / LETTERS;
+        for (int i = DIGITS; i >= 1; i--) {
+            text[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        text[0] = (char) ('A' + rest);
+        return new String(text);
+    }
+
+    private static int letter(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+
+    /**
+     * @return The packed form of this NRIC
+     */
+    public long toLong() {
+        return value;
+    }
+
+    /**
+     * @return The prefix letter, e.g. {@code S} or {@code T}
+     */
+    public char getPrefix() {
+        return (char) ('A' + value / LETTERS / DIGIT_RANGE);
+    }
+
+    /**
+     * @return The check letter
+     */
+    public char getCheckLetter() {
+        return (char) ('A' + value % LETTERS);
+    }
+
+    @Override
+    public int compareTo(Nric other) {
+        return Long.compare(value, other.value);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Nric && ((Nric) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+        return unpack(value);
+    }
+}
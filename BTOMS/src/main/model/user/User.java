@@ -1,5 +1,6 @@
 package main.model.user;
 
+import main.model.Versioned;
 import java.io.Serializable;
 
 /**
@@ -24,7 +25,7 @@ import java.io.Serializable;
  * @version 1.0
  * @since 2025-04-16
  */
-public interface User extends Serializable {
+public interface User extends Serializable, Versioned {
 
     /**
      * Returns the unique identifier (NRIC) of this user.
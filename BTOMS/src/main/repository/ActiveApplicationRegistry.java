@@ -0,0 +1,92 @@
+package main.repository;
+
+import main.model.application.Application;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enforces that an applicant has at most one active application.
+ * <p>
+ * Maps each applicant NRIC to the ID of their active (not yet finalized) application in a
+ * {@link ConcurrentHashMap}. A new application first reserves its applicant's slot with an
+ * atomic put-if-absent, so when the same applicant submits several times at once exactly one
+ * submission wins, and checking for an active application is a single lookup instead of a
+ * scan of all applications.
+ * </p>
+ * <p>
+ * The slot is released through {@link RepositoryListener} callbacks when the application
+ * becomes finalized (withdrawn, unsuccessful or booked) or is deleted. Releasing compares the
+ * application ID, so a stale release never frees a newer application's slot.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ActiveApplicationRegistry {
+    /** Active application ID by applicant NRIC. */
+    private final ConcurrentHashMap<String, String> activeByApplicant = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the active applications in the repository and starts listening for changes.
+     * @param applicationRepository Repository of applications
+     */
+    public ActiveApplicationRegistry(ApplicationRepository applicationRepository) {
+        applicationRepository.addListener(new RepositoryListener<Application>() {
+            @Override public void onInsert(Application application) { track(application); }
+            @Override public void onUpdate(Application application) { track(application); }
+            @Override public void onDelete(Application application) {
+                activeByApplicant.remove(application.getApplicantId(), application.getApplicationId());
+            }
+        });
+        for (Application application : applicationRepository.findAll()) {
+            track(application);
+        }
+    }
+
+    /**
+     * Reserves an applicant's slot for a new application.
+     * @param applicantId NRIC of the applicant
+     * @param applicationId ID of the application about to be saved
+     * @return true if the slot was free and is now held by the application, false if the
+     *         applicant already has an active application
+     */
+    public boolean reserve(String applicantId, String applicationId) {
+        return activeByApplicant.putIfAbsent(applicantId, applicationId) == null;
+    }
+
+    /**
+     * Gives up a reservation whose application could not be saved.
+     * @param applicantId NRIC of the applicant
+     * @param applicationId ID of the application that held the slot
+     */
+    public void cancel(String applicantId, String applicationId) {
+        activeByApplicant.remove(applicantId, applicationId);
+    }
+
+    /**
+     * Checks whether an applicant has an active application.
+     * @param applicantId NRIC of the applicant
+     * @return true if the applicant has an active application or a submission in progress
+     */
+    public boolean hasActiveApplication(String applicantId) {
+        return activeByApplicant.containsKey(applicantId);
+    }
+
+    /**
+     * Gets the ID of an applicant's active application.
+     * @param applicantId NRIC of the applicant
+     * @return The application ID, or null if the applicant has no active application
+     */
+    public String getActiveApplicationId(String applicantId) {
+        return activeByApplicant.get(applicantId);
+    }
+
+    private void track(Application application) {
+        if (application.getStatus() == null || !application.getStatus().isFinalized()) {
+            activeByApplicant.putIfAbsent(application.getApplicantId(), application.getApplicationId());
+        } else {
+            activeByApplicant.remove(application.getApplicantId(), application.getApplicationId());
+        }
+    }
+}
@@ -0,0 +1,710 @@
+package main.repository;
+
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.user.Nric;
+import main.utils.LongLongHashMap;
+import main.utils.LongObjectHashMap;
+import main.utils.StringInterner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Off-heap store of finalized (withdrawn, unsuccessful or booked) applications.
+ * <p>
+ * Such applications are rarely read again, but as objects they stay on the heap for the life
+ * of the application and every full collection has to trace them. The archive instead keeps
+ * each one as a binary record ({@link Application#writeTo}) in direct {@link ByteBuffer}
+ * slabs outside the heap. Only three small primitive indexes remain on the heap: record
+ * location by hashed application ID, by packed applicant {@link Nric}, and by project.
+ * Reading an application decodes a fresh copy; changes to the copy only take effect once it
+ * is passed back to the repository.
+ * </p>
+ * <p>
+ * A slab record is its length, the status ordinal (or {@code DEAD} once removed), the packed
+ * applicant NRIC, the application ID and project name, then the application itself. Removing
+ * a record only marks it dead; when dead records take up more than half of the slabs they
+ * are compacted into new ones.
+ * </p>
+ * <p>
+ * The archive persists to an append-only log beside the repository file, written by
+ * {@link #flush()}: added records are appended as they are in the slabs, so loading copies
+ * bytes instead of decoding applications. The repository file stays authoritative for live
+ * applications: an application returned to it is dropped from the archive without a log
+ * entry, and {@link #remove(String, boolean)} logs a removal only when the application is
+ * deleted. The log is rewritten once it is mostly obsolete entries.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ApplicationArchive {
+    /** Size of each direct buffer slab. */
+    static final int SLAB_SIZE = 8 << 20;
+
+    private static final int LOG_MAGIC = 0x41524331; // "ARC1"
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+    private static final byte DEAD = -1;
+    /** Bytes before the record: length, status and packed NRIC. */
+    private static final int HEADER = Integer.BYTES + 1 + Long.BYTES;
+    private static final long NOT_FOUND = -1L;
+    /** Pending log size at which entries are written without waiting for {@link #flush()}. */
+    private static final int PENDING_LIMIT = 1 << 20;
+
+    private final String logPath;
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    /** Write position in the last slab. */
+    private int tail = SLAB_SIZE;
+
+    /** Record location (slab index, offset) by application ID hash. */
+    private final LongLongHashMap byId = new LongLongHashMap();
+    /** Record locations by packed applicant NRIC, oldest first. */
+    private final LongObjectHashMap<Locations> byApplicant = new LongObjectHashMap<>();
+    /** Records whose applicant is not a valid NRIC. */
+    private final Locations unparsedApplicants = new Locations();
+    /** Record locations by interned project name, oldest first. */
+    private final Map<String, Locations> byProject = new HashMap<>();
+
+    private long liveBytes;
+    private long deadBytes;
+
+    /** Log entries not yet written by {@link #flush()}. */
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final DataOutputStream pendingOut = new DataOutputStream(pending);
+    /** IDs with an obsolete ADD entry in the log, which a deletion has to cancel. */
+    private final Set<String> obsoleteInLog = new HashSet<>();
+    private long logBytes;
+    private boolean rewriteLog;
+
+    /** Reused encoding buffer; guarded by this. */
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(256);
+    private final DataOutputStream encodedOut = new DataOutputStream(encoded);
+
+    /**
+     * Opens the archive stored in a log file, loading its records into direct memory.
+     * @param logPath Path of the log, e.g. {@code data/applications.archive}
+     */
+    public ApplicationArchive(String logPath) {
+        this.logPath = logPath;
+        load();
+    }
+
+    /**
+     * Archives an application, replacing an archived one with the same ID.
+     * @param app The application
+     * @return true if archived; false if it cannot be, because a text field is too long or
+     *         its ID hash collides with another archived application, in which case the
+     *         caller keeps it
+     */
+    synchronized boolean add(Application app) {
+        String id = app.getApplicationId();
+        if (app.getStatus() == null) {
+            return false;
+        }
+        String project = app.getProjectName() == null ? "" : app.getProjectName();
+        long existing = byId.get(hash(id), NOT_FOUND);
+        if (existing != NOT_FOUND && !id.equals(readId(existing))) {
+            return false;
+        }
+        int length;
+        try {
+            encoded.reset();
+            encodedOut.writeUTF(id);
+            encodedOut.writeUTF(project);
+            app.writeTo(encodedOut);
+            encodedOut.flush();
+            length = encoded.size();
+        } catch (IOException e) {
+            return false;
+        }
+        if (HEADER + length > SLAB_SIZE) {
+            return false;
+        }
+        if (existing != NOT_FOUND) {
+            unlink(existing, id);
+        }
+        byte status = (byte) app.getStatus().ordinal();
+        long nric = Nric.pack(app.getApplicantId());
+        byte[] record = encoded.toByteArray();
+        store(record, length, status, nric, id, StringInterner.intern(project));
+        obsoleteInLog.remove(id);
+        try {
+            pendingOut.writeByte(ADD);
+            pendingOut.writeInt(HEADER - Integer.BYTES + length);
+            pendingOut.writeByte(status);
+            pendingOut.writeLong(nric);
+            pendingOut.write(record, 0, length);
+        } catch (IOException e) {
+            // Cannot happen writing to memory
+        }
+        flushIfLarge();
+        return true;
+    }
+
+    /**
+     * Gets an archived application.
+     * @param id The application ID
+     * @return A fresh copy of the application, or null if it is not archived
+     */
+    synchronized Application get(String id) {
+        long location = locate(id);
+        return location == NOT_FOUND ? null : decode(location);
+    }
+
+    /**
+     * @param id The application ID
+     * @return true if the application is archived
+     */
+    synchronized boolean contains(String id) {
+        return locate(id) != NOT_FOUND;
+    }
+
+    /**
+     * Removes an application from the archive.
+     * @param id The application ID
+     * @param deleted true if the application is being deleted; false if it returns to the
+     *        repository file, which then supersedes the archived copy
+     * @return true if the application was archived
+     */
+    synchronized boolean remove(String id, boolean deleted) {
+        long location = locate(id);
+        if (location == NOT_FOUND) {
+            if (deleted && obsoleteInLog.remove(id)) {
+                logRemoval(id);
+            }
+            return false;
+        }
+        unlink(location, id);
+        if (deleted) {
+            obsoleteInLog.remove(id);
+            logRemoval(id);
+        } else {
+            obsoleteInLog.add(id);
+        }
+        if (deadBytes > SLAB_SIZE && deadBytes > liveBytes) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Finds the archived applications of an applicant.
+     * @param nric The applicant's NRIC, compared exactly as stored
+     * @return Fresh copies, oldest archived first
+     */
+    synchronized List<Application> findByApplicant(String nric) {
+        if (nric == null) {
+            return new ArrayList<>();
+        }
+        long key = Nric.pack(nric);
+        Locations group = key == Nric.INVALID ? unparsedApplicants : byApplicant.get(key);
+        List<Application> found = new ArrayList<>();
+        if (group != null) {
+            for (int i = 0; i < group.size; i++) {
+                Application app = decode(group.at[i]);
+                if (Objects.equals(app.getApplicantId(), nric)) {
+                    found.add(app);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the archived applications of a project, optionally with one status.
+     * @param projectName The project name
+     * @param status The status, or null for any
+     * @return Fresh copies, oldest archived first
+     */
+    synchronized List<Application> findByProject(String projectName, ApplicationStatus status) {
+        Locations group = byProject.get(projectName == null ? "" : projectName);
+        List<Application> found = new ArrayList<>();
+        if (group != null) {
+            for (int i = 0; i < group.size; i++) {
+                long location = group.at[i];
+                if (status == null || slab(location).get(offset(location) + Integer.BYTES) == status.ordinal()) {
+                    found.add(decode(location));
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the archived applications with a status, filtering on the record header so only
+     * matches are decoded.
+     * @param status The status
+     * @return Fresh copies in storage order
+     */
+    synchronized List<Application> findByStatus(ApplicationStatus status) {
+        List<Application> found = new ArrayList<>();
+        forEachLocation(location -> {
+            if (slab(location).get(offset(location) + Integer.BYTES) == status.ordinal()) {
+                found.add(decode(location));
+            }
+        });
+        return found;
+    }
+
+    /**
+     * Passes a fresh copy of every archived application to an action, one at a time, so a
+     * caller that does not keep them never has the whole archive on the heap.
+     * @param action The action
+     */
+    synchronized void forEach(Consumer<? super Application> action) {
+        forEachLocation(location -> action.accept(decode(location)));
+    }
+
+    /**
+     * @return Number of archived applications
+     */
+    public synchronized int size() {
+        return byId.size();
+    }
+
+    /**
+     * @return Direct memory held by the slabs, in bytes
+     */
+    public synchronized long getOffHeapBytes() {
+        return (long) slabs.size() * SLAB_SIZE;
+    }
+
+    /**
+     * @return Bytes of live records in the slabs
+     */
+    public synchronized long getLiveBytes() {
+        return liveBytes;
+    }
+
+    /**
+     * @return Bytes of removed records awaiting compaction
+     */
+    public synchronized long getDeadBytes() {
+        return deadBytes;
+    }
+
+    /**
+     * Writes the changes since the last flush to the log, rewriting the log instead when it is
+     * mostly obsolete.
+     * @return true if the log is up to date
+     */
+    synchronized boolean flush() {
+        if (!rewriteLog && logBytes > 2 * liveBytes + SLAB_SIZE) {
+            rewriteLog = true;
+        }
+        try {
+            File file = new File(logPath);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            if (rewriteLog || !file.exists()) {
+                rewrite(file);
+            } else if (pending.size() > 0) {
+                try (FileOutputStream out = new FileOutputStream(file, true)) {
+                    pending.writeTo(out);
+                }
+                logBytes += pending.size();
+            }
+            pending.reset();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error saving archive to " + logPath + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d archived applications, %d slabs (%d MB direct), %d KB live, %d KB dead",
+                byId.size(), slabs.size(), getOffHeapBytes() >> 20, liveBytes >> 10, deadBytes >> 10);
+    }
+
+    /**
+     * Appends an encoded record to the slabs and indexes it.
+     */
+    private void store(byte[] record, int length, byte status, long nric, String id, String project) {
+        int size = HEADER + length;
+        if (tail + size > SLAB_SIZE) {
+            slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+            tail = 0;
+        }
+        ByteBuffer slab = slabs.get(slabs.size() - 1);
+        int offset = tail;
+        slab.putInt(offset, length);
+        slab.put(offset + Integer.BYTES, status);
+        slab.putLong(offset + Integer.BYTES + 1, nric);
+        slab.put(offset + HEADER, record, 0, length);
+        tail += size;
+        liveBytes += size;
+
+        long location = ((long) (slabs.size() - 1) << 32) | offset;
+        byId.put(hash(id), location);
+        groupOf(nric, true).add(location);
+        byProject.computeIfAbsent(project, p -> new Locations()).add(location);
+    }
+
+    /**
+     * Marks a record dead and drops it from the indexes.
+     */
+    private void unlink(long location, String id) {
+        ByteBuffer slab = slab(location);
+        int offset = offset(location);
+        long nric = slab.getLong(offset + Integer.BYTES + 1);
+        String project = readProject(location);
+        slab.put(offset + Integer.BYTES, DEAD);
+        int size = HEADER + slab.getInt(offset);
+        liveBytes -= size;
+        deadBytes += size;
+
+        byId.remove(hash(id));
+        Locations group = groupOf(nric, false);
+        if (group != null && group.remove(location) && group.size == 0 && nric != Nric.INVALID) {
+            byApplicant.remove(nric);
+        }
+        Locations projectGroup = byProject.get(project);
+        if (projectGroup != null && projectGroup.remove(location) && projectGroup.size == 0) {
+            byProject.remove(project);
+        }
+    }
+
+    /**
+     * Copies the live records into fresh slabs and rebuilds the indexes. The log is rewritten
+     * on the next flush, since it shares the removed records.
+     */
+    private void compact() {
+        List<ByteBuffer> old = new ArrayList<>(slabs);
+        slabs.clear();
+        tail = SLAB_SIZE;
+        byId.clear();
+        byApplicant.clear();
+        unparsedApplicants.size = 0;
+        byProject.clear();
+        liveBytes = 0;
+        deadBytes = 0;
+        byte[] record = new byte[256];
+        for (ByteBuffer slab : old) {
+            int offset = 0;
+            while (offset + HEADER <= SLAB_SIZE) {
+                int length = slab.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                byte status = slab.get(offset + Integer.BYTES);
+                if (status != DEAD) {
+                    if (record.length < length) {
+                        record = new byte[length];
+                    }
+                    slab.get(offset + HEADER, record, 0, length);
+                    restore(record, length, status, slab.getLong(offset + Integer.BYTES + 1));
+                }
+                offset += HEADER + length;
+            }
+        }
+        rewriteLog = true;
+        pending.reset();
+    }
+
+    /**
+     * Stores a record read back from a slab or the log.
+     */
+    private void restore(byte[] record, int length, byte status, long nric) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record, 0, length));
+            String id = in.readUTF();
+            String project = StringInterner.intern(in.readUTF());
+            long existing = byId.get(hash(id), NOT_FOUND);
+            if (existing != NOT_FOUND) {
+                unlink(existing, id);
+            }
+            store(record, length, status, nric, id, project);
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable archive record: " + e.getMessage());
+        }
+    }
+
+    private void logRemoval(String id) {
+        try {
+            pendingOut.writeByte(REMOVE);
+            pendingOut.writeUTF(id);
+        } catch (IOException e) {
+            // Cannot happen writing to memory
+        }
+        flushIfLarge();
+    }
+
+    /**
+     * Writes the pending entries early once they grow large, e.g. while archiving a whole
+     * repository, so they do not pile up on the heap. Writing archive entries ahead of the
+     * repository file is always safe, since the repository file wins on loading.
+     */
+    private void flushIfLarge() {
+        if (pending.size() >= PENDING_LIMIT) {
+            flush();
+        }
+    }
+
+    /**
+     * Reads the log into the slabs. A truncated last entry, from a crash during a flush, is
+     * ignored.
+     */
+    private void load() {
+        File file = new File(logPath);
+        if (!file.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != LOG_MAGIC) {
+                throw new IOException("not an application archive");
+            }
+            byte[] record = new byte[256];
+            while (true) {
+                int kind = in.read();
+                if (kind < 0) {
+                    break;
+                }
+                if (kind == ADD) {
+                    int length = in.readInt() - (HEADER - Integer.BYTES);
+                    byte status = in.readByte();
+                    long nric = in.readLong();
+                    if (record.length < length) {
+                        record = new byte[length];
+                    }
+                    in.readFully(record, 0, length);
+                    restore(record, length, status, nric);
+                } else if (kind == REMOVE) {
+                    String id = in.readUTF();
+                    long location = locate(id);
+                    if (location != NOT_FOUND) {
+                        unlink(location, id);
+                    }
+                } else {
+                    throw new IOException("corrupt entry");
+                }
+            }
+        } catch (EOFException e) {
+            System.err.println("Ignoring incomplete last entry of " + logPath);
+        } catch (IOException e) {
+            System.err.println("Error loading archive from " + logPath + ": " + e.getMessage());
+        }
+        logBytes = file.length();
+        if (deadBytes > 0) {
+            compact();
+        }
+    }
+
+    /**
+     * Writes every live record to a new log and replaces the old one with it.
+     */
+    private void rewrite(File file) throws IOException {
+        File temp = new File(logPath + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp), 1 << 16))) {
+            out.writeInt(LOG_MAGIC);
+            byte[] record = new byte[256];
+            for (ByteBuffer slab : slabs) {
+                int offset = 0;
+                while (offset + HEADER <= SLAB_SIZE) {
+                    int length = slab.getInt(offset);
+                    if (length == 0) {
+                        break;
+                    }
+                    byte status = slab.get(offset + Integer.BYTES);
+                    if (status != DEAD) {
+                        if (record.length < length) {
+                            record = new byte[length];
+                        }
+                        slab.get(offset + HEADER, record, 0, length);
+                        out.writeByte(ADD);
+                        out.writeInt(HEADER - Integer.BYTES + length);
+                        out.writeByte(status);
+                        out.writeLong(slab.getLong(offset + Integer.BYTES + 1));
+                        out.write(record, 0, length);
+                    }
+                    offset += HEADER + length;
+                }
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        logBytes = file.length();
+        obsoleteInLog.clear();
+        rewriteLog = false;
+    }
+
+    private void forEachLocation(LocationConsumer action) {
+        for (int s = 0; s < slabs.size(); s++) {
+            ByteBuffer slab = slabs.get(s);
+            int offset = 0;
+            while (offset + HEADER <= SLAB_SIZE) {
+                int length = slab.getInt(offset);
+                if (length == 0) {
+                    break;
+                }
+                if (slab.get(offset + Integer.BYTES) != DEAD) {
+                    action.accept(((long) s << 32) | offset);
+                }
+                offset += HEADER + length;
+            }
+        }
+    }
+
+    /**
+     * Finds the record of an ID, checking the stored ID since different IDs may share a hash.
+     */
+    private long locate(String id) {
+        if (id == null) {
+            return NOT_FOUND;
+        }
+        long location = byId.get(hash(id), NOT_FOUND);
+        return location != NOT_FOUND && id.equals(readId(location)) ? location : NOT_FOUND;
+    }
+
+    private Application decode(long location) {
+        try {
+            DataInputStream in = open(location);
+            in.readUTF();
+            in.readUTF();
+            return Application.readFrom(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt archive record at " + Long.toHexString(location), e);
+        }
+    }
+
+    private String readId(long location) {
+        try {
+            return open(location).readUTF();
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt archive record at " + Long.toHexString(location), e);
+        }
+    }
+
+    private String readProject(long location) {
+        try {
+            DataInputStream in = open(location);
+            in.readUTF();
+            return StringInterner.lookup(in.readUTF());
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt archive record at " + Long.toHexString(location), e);
+        }
+    }
+
+    private DataInputStream open(long location) {
+        ByteBuffer slab = slab(location);
+        int offset = offset(location);
+        ByteBuffer record = slab.duplicate();
+        record.limit(offset + HEADER + slab.getInt(offset)).position(offset + HEADER);
+        return new DataInputStream(new BufferInputStream(record));
+    }
+
+    private Locations groupOf(long nric, boolean create) {
+        if (nric == Nric.INVALID) {
+            return unparsedApplicants;
+        }
+        Locations group = byApplicant.get(nric);
+        if (group == null && create) {
+            group = new Locations();
+            byApplicant.put(nric, group);
+        }
+        return group;
+    }
+
+    private ByteBuffer slab(long location) {
+        return slabs.get((int) (location >>> 32));
+    }
+
+    private static int offset(long location) {
+        return (int) location;
+    }
+
+    /**
+     * 64-bit FNV-1a hash of an ID; collisions are caught by comparing the stored ID.
+     */
+    static long hash(String id) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return h;
+    }
+
+    @FunctionalInterface
+    private interface LocationConsumer {
+        void accept(long location);
+    }
+
+    /**
+     * A growable list of record locations.
+     */
+    private static final class Locations {
+        long[] at = new long[2];
+        int size;
+
+        void add(long location) {
+            if (size == at.length) {
+                at = Arrays.copyOf(at, size * 2);
+            }
+            at[size++] = location;
+        }
+
+        boolean remove(long location) {
+            for (int i = 0; i < size; i++) {
+                if (at[i] == location) {
+                    System.arraycopy(at, i + 1, at, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
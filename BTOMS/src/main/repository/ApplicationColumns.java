@@ -0,0 +1,459 @@
+package main.repository;
+
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.project.FlatType;
+import main.model.user.Nric;
+import main.utils.LongLongHashMap;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Column-oriented copy of the applications for analytics queries.
+ * <p>
+ * Each application is one row across a set of primitive arrays: the project as an index into
+ * a dictionary of project names, the applicant as a packed {@link Nric}, the status and flat
+ * type as byte ordinals, and the application date as an epoch day. Counting and
+ * grouping then run as tight loops over a few arrays instead of walking application objects
+ * and their strings and dates; the loops are branch-free and touch only the columns they
+ * need. Scans of large stores are split into chunks that run in parallel.
+ * </p>
+ * <p>
+ * The columns are built from the repository, archived applications included, and kept
+ * current through {@link RepositoryListener} callbacks. Deleting an application moves the
+ * last row into its place, so rows are in no particular order. Rows are found by the 64-bit
+ * hash of the application ID, as in {@link ApplicationArchive}, in a primitive map; the IDs
+ * themselves are not kept, so a row costs 26 bytes of columns and two or three 16-byte map
+ * slots. Two IDs with the same hash would share a row, which is vanishingly unlikely and
+ * could only skew the counts.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ApplicationColumns {
+    /** Rows per chunk of a parallel scan. */
+    public static final int CHUNK_ROWS = 1 << 16;
+    /** Stores with at least this many rows are scanned in parallel. */
+    public static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private static final ApplicationStatus[] STATUSES = ApplicationStatus.values();
+    private static final int STATUS_COUNT = STATUSES.length;
+    /** Flat type code of an application without a recognized flat type. */
+    private static final byte NO_FLAT_TYPE = -1;
+    /** Day code of a missing date; sorts before every real date. */
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Columns, guarded by lock
+    private int[] project = new int[INITIAL_CAPACITY];
+    private long[] applicant = new long[INITIAL_CAPACITY];
+    private byte[] status = new byte[INITIAL_CAPACITY];
+    private byte[] flatType = new byte[INITIAL_CAPACITY];
+    private int[] appliedDay = new int[INITIAL_CAPACITY];
+    /** Hash of the application ID of each row, to re-point the row moved by a removal. */
+    private long[] idHash = new long[INITIAL_CAPACITY];
+    private int rows;
+
+    /** Row of each application, by hash of its ID. */
+    private final LongLongHashMap rowOf = new LongLongHashMap(INITIAL_CAPACITY);
+    /** Project dictionary: code by name and name by code. */
+    private final Map<String, Integer> projectCodes = new HashMap<>();
+    private final List<String> projectNames = new ArrayList<>();
+
+    /**
+     * Builds the columns from the repository and starts following its changes.
+     * @param applicationRepository Repository of applications
+     */
+    public ApplicationColumns(ApplicationRepository applicationRepository) {
+        applicationRepository.addListener(new RepositoryListener<Application>() {
+            @Override public void onInsert(Application application) { put(application); }
+            @Override public void onUpdate(Application application) { put(application); }
+            @Override public void onDelete(Application application) { remove(application.getApplicationId()); }
+        });
+        applicationRepository.forEach(this::put);
+    }
+
+    /**
+     * Counts the applications matching a filter.
+     * @param filter The filter
+     * @return Number of matching applications
+     */
+    public long count(Filter filter) {
+        long total = 0;
+        for (long n : scan(filter, GroupBy.NONE)) {
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * Counts the applications matching a filter by status.
+     * @param filter The filter
+     * @return Count of each status, including zero counts
+     */
+    public Map<ApplicationStatus, Long> countByStatus(Filter filter) {
+        return toStatusMap(scan(filter, GroupBy.NONE), 0);
+    }
+
+    /**
+     * Counts the applications matching a filter by flat type. Applications without a
+     * recognized flat type are not counted.
+     * @param filter The filter
+     * @return Count of each flat type, including zero counts
+     */
+    public Map<FlatType, Long> countByFlatType(Filter filter) {
+        long[] counts = scan(filter, GroupBy.FLAT_TYPE);
+        Map<FlatType, Long> result = new EnumMap<>(FlatType.class);
+        for (FlatType type : FlatType.values()) {
+            long n = 0;
+            int base = (type.ordinal() + 1) * STATUS_COUNT;
+            for (int s = 0; s < STATUS_COUNT; s++) {
+                n += counts[base + s];
+            }
+            result.put(type, n);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the applications matching a filter by project and status.
+     * @param filter The filter
+     * @return Status counts of each project with at least one matching application, by project name
+     */
+    public Map<String, Map<ApplicationStatus, Long>> countByProjectAndStatus(Filter filter) {
+        long[] counts;
+        List<String> names;
+        lock.readLock().lock();
+        try {
+            counts = scan(filter, GroupBy.PROJECT);
+            names = new ArrayList<>(projectNames);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<String, Map<ApplicationStatus, Long>> result = new TreeMap<>();
+        for (int code = 0; code < names.size(); code++) {
+            long n = 0;
+            for (int s = 0; s < STATUS_COUNT; s++) {
+                n += counts[code * STATUS_COUNT + s];
+            }
+            if (n > 0) {
+                result.put(String.valueOf(names.get(code)), toStatusMap(counts, code * STATUS_COUNT));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of applications in the columns
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<ApplicationStatus, Long> toStatusMap(long[] counts, int base) {
+        Map<ApplicationStatus, Long> result = new EnumMap<>(ApplicationStatus.class);
+        for (ApplicationStatus s : STATUSES) {
+            result.put(s, counts[base + s.ordinal()]);
+        }
+        return result;
+    }
+
+    private enum GroupBy { NONE, FLAT_TYPE, PROJECT }
+
+    /**
+     * Computes a histogram of the matching rows by group and status, laid out as
+     * {@code counts[group * STATUS_COUNT + status]}.
+     */
+    private long[] scan(Filter filter, GroupBy groupBy) {
+        lock.readLock().lock();
+        try {
+            int projectCode = -1;
+            if (filter.project != null) {
+                Integer code = projectCodes.get(filter.project);
+                if (code == null) {
+                    return new long[groups(groupBy) * STATUS_COUNT];
+                }
+                projectCode = code;
+            }
+            Scan scan = new Scan(filter, projectCode, groupBy, groups(groupBy));
+            if (filter.toDay < filter.fromDay || (!scan.anyApplicant && scan.applicantKey == Nric.INVALID)) {
+                return new long[scan.width];
+            }
+            int chunks = (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+            if (rows < PARALLEL_THRESHOLD || !filter.parallel || chunks < 2) {
+                return scan.run(0, rows);
+            }
+            // Workers only read the arrays, which this thread's read lock keeps stable
+            return IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> scan.run(c * CHUNK_ROWS, Math.min(rows, (c + 1) * CHUNK_ROWS)))
+                .reduce(ApplicationColumns::merge)
+                .orElseGet(() -> new long[scan.width]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int groups(GroupBy groupBy) {
+        switch (groupBy) {
+            case FLAT_TYPE: return FlatType.count() + 1;
+            case PROJECT: return Math.max(projectNames.size(), 1);
+            default: return 1;
+        }
+    }
+
+    private static long[] merge(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    /**
+     * One scan over a range of rows, with the filter turned into column comparisons.
+     */
+    private final class Scan {
+        final int statusMask;
+        final boolean anyProject;
+        final int projectCode;
+        final boolean anyApplicant;
+        final long applicantKey;
+        final int fromDay;
+        final int daySpan;
+        final GroupBy groupBy;
+        final int width;
+
+        Scan(Filter filter, int projectCode, GroupBy groupBy, int groups) {
+            this.statusMask = filter.statusMask;
+            this.anyProject = projectCode < 0;
+            this.projectCode = projectCode;
+            this.anyApplicant = filter.applicant == null;
+            this.applicantKey = anyApplicant ? 0 : Nric.pack(filter.applicant);
+            this.fromDay = filter.fromDay;
+            // Days in range satisfy 0 <= day - fromDay <= daySpan as unsigned ints
+            this.daySpan = filter.toDay - filter.fromDay;
+            this.groupBy = groupBy;
+            this.width = groups * STATUS_COUNT;
+        }
+
+        long[] run(int from, int to) {
+            long[] counts = new long[width];
+            // Count into ints per chunk; a chunk has fewer rows than Integer.MAX_VALUE
+            int[] local = new int[width];
+            final int[] project = ApplicationColumns.this.project;
+            final long[] applicant = ApplicationColumns.this.applicant;
+            final byte[] status = ApplicationColumns.this.status;
+            final byte[] flatType = ApplicationColumns.this.flatType;
+            final int[] appliedDay = ApplicationColumns.this.appliedDay;
+            final int anyProjectBit = anyProject ? 1 : 0;
+            final int anyApplicantBit = anyApplicant ? 1 : 0;
+            for (int i = from; i < to; i++) {
+                int s = status[i];
+                int match = (statusMask >>> s) & 1;
+                match &= anyProjectBit | (project[i] == projectCode ? 1 : 0);
+                match &= Integer.compareUnsigned(appliedDay[i] - fromDay, daySpan) <= 0 ? 1 : 0;
+                if (anyApplicantBit == 0) {
+                    match &= applicant[i] == applicantKey ? 1 : 0;
+                }
+                int group;
+                switch (groupBy) {
+                    case FLAT_TYPE: group = flatType[i] + 1; break;
+                    case PROJECT: group = project[i]; break;
+                    default: group = 0;
+                }
+                local[group * STATUS_COUNT + s] += match;
+            }
+            for (int i = 0; i < width; i++) {
+                counts[i] = local[i];
+            }
+            return counts;
+        }
+    }
+
+    /**
+     * Selects applications for a query. All conditions are optional and combined with AND.
+     */
+    public static final class Filter {
+        private String project;
+        private String applicant;
+        private int statusMask = (1 << STATUS_COUNT) - 1;
+        private int fromDay = NO_DAY;
+        private int toDay = Integer.MAX_VALUE;
+        private boolean parallel = true;
+
+        private Filter() {
+        }
+
+        /**
+         * @return A filter matching all applications
+         */
+        public static Filter all() {
+            return new Filter();
+        }
+
+        /**
+         * Keeps the applications for one project.
+         * @param projectName Name of the project
+         * @return This filter
+         */
+        public Filter project(String projectName) {
+            this.project = projectName;
+            return this;
+        }
+
+        /**
+         * Keeps the applications of one applicant.
+         * @param applicantNRIC NRIC of the applicant; a value that is not an NRIC matches nothing
+         * @return This filter
+         */
+        public Filter applicant(String applicantNRIC) {
+            this.applicant = applicantNRIC;
+            return this;
+        }
+
+        /**
+         * Keeps the applications with one of the given statuses.
+         * @param statuses The statuses
+         * @return This filter
+         */
+        public Filter status(ApplicationStatus... statuses) {
+            int mask = 0;
+            for (ApplicationStatus s : statuses) {
+                mask |= 1 << s.ordinal();
+            }
+            this.statusMask = mask;
+            return this;
+        }
+
+        /**
+         * Keeps the applications submitted between two dates, inclusive of both days.
+         * Applications without a submission date are excluded once either bound is set.
+         * @param from First day, or null for no lower bound
+         * @param to Last day, or null for no upper bound
+         * @param zone Time zone the days are counted in
+         * @return This filter
+         */
+        public Filter appliedBetween(Date from, Date to, ZoneId zone) {
+            this.fromDay = from == null ? NO_DAY + 1 : epochDay(from, zone);
+            this.toDay = to == null ? Integer.MAX_VALUE : epochDay(to, zone);
+            if (from == null && to == null) {
+                this.fromDay = NO_DAY;
+            }
+            return this;
+        }
+
+        /**
+         * Keeps the applications submitted between two dates in the system time zone.
+         * @param from First day, or null for no lower bound
+         * @param to Last day, or null for no upper bound
+         * @return This filter
+         * @see #appliedBetween(Date, Date, ZoneId)
+         */
+        public Filter appliedBetween(Date from, Date to) {
+            return appliedBetween(from, to, ZoneId.systemDefault());
+        }
+
+        /**
+         * Sets whether large scans may run in parallel; they do by default.
+         * @param parallel false to scan on the calling thread only
+         * @return This filter
+         */
+        public Filter parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+    }
+
+    private static int epochDay(Date date, ZoneId zone) {
+        return (int) date.toInstant().atZone(zone).toLocalDate().toEpochDay();
+    }
+
+    private void put(Application application) {
+        lock.writeLock().lock();
+        try {
+            long key = ApplicationArchive.hash(application.getApplicationId());
+            int i = (int) rowOf.get(key, -1);
+            if (i < 0) {
+                ensureCapacity(rows + 1);
+                i = rows++;
+                rowOf.put(key, i);
+                idHash[i] = key;
+            }
+            project[i] = projectCode(application.getProjectName());
+            applicant[i] = Nric.pack(application.getApplicantId());
+            ApplicationStatus s = application.getStatus() == null ? ApplicationStatus.NONE : application.getStatus();
+            status[i] = (byte) s.ordinal();
+            FlatType type = FlatType.find(application.getFlatType());
+            flatType[i] = type == null ? NO_FLAT_TYPE : (byte) type.ordinal();
+            appliedDay[i] = application.getApplicationDate() == null ? NO_DAY : epochDay(application.getApplicationDate(), zone);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(String applicationId) {
+        lock.writeLock().lock();
+        try {
+            long key = ApplicationArchive.hash(applicationId);
+            int i = (int) rowOf.get(key, -1);
+            if (i < 0) {
+                return;
+            }
+            rowOf.remove(key);
+            int last = --rows;
+            if (i != last) {
+                project[i] = project[last];
+                applicant[i] = applicant[last];
+                status[i] = status[last];
+                flatType[i] = flatType[last];
+                appliedDay[i] = appliedDay[last];
+                idHash[i] = idHash[last];
+                rowOf.put(idHash[i], i);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int projectCode(String projectName) {
+        Integer code = projectCodes.get(projectName);
+        if (code == null) {
+            code = projectNames.size();
+            projectNames.add(projectName);
+            projectCodes.put(projectName, code);
+        }
+        return code;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= idHash.length) {
+            return;
+        }
+        int grown = Math.max(capacity, idHash.length + (idHash.length >> 1));
+        project = Arrays.copyOf(project, grown);
+        applicant = Arrays.copyOf(applicant, grown);
+        status = Arrays.copyOf(status, grown);
+        flatType = Arrays.copyOf(flatType, grown);
+        appliedDay = Arrays.copyOf(appliedDay, grown);
+        idHash = Arrays.copyOf(idHash, grown);
+    }
+}
@@ -2,14 +2,37 @@ package main.repository;
 
 import main.model.application.Application;
 import main.model.application.ApplicationStatus;
+import main.utils.StringInterner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
  * Repository class for managing {@link Application} entities with file-based persistence.
  * Provides CRUD operations and application-specific queries.
  * Uses project name as the unique project identifier.
+ * <p>
+ * Finalized applications (withdrawn, unsuccessful or booked) are moved out of the heap into an
+ * {@link ApplicationArchive} as soon as they are saved in that state, and on startup. The
+ * queries below return archived and live applications alike, archived ones first; an archived
+ * application is returned as a fresh copy, so it must be passed to {@link #update} for changes
+ * to it to take effect, which moves it back to the heap until it is finalized again.
+ * </p>
  * 
  * @author Your Name
  * @version 1.0
@@ -17,11 +40,69 @@ import java.util.stream.Collectors;
  */
 public class ApplicationRepository extends FileBasedRepository<Application, String> {
 
+    /** Applications in order of submission. */
+    public static final PageSort<Application> BY_DATE =
+        PageSort.by("application date", a -> PageSort.dateKey(a.getApplicationDate()));
+    /** Applications of each project in order of submission; partitioned by project name. */
+    public static final PageSort<Application> BY_PROJECT =
+        PageSort.partitioned("project", Application::getProjectName, a -> PageSort.dateKey(a.getApplicationDate()));
+
+    /** Live applications by applicant NRIC. */
+    private final NricIndex<Application> byApplicant = new NricIndex<>(this, Application::getApplicantId);
+
+    /** Finalized applications, kept off the heap. */
+    private final ApplicationArchive archive;
+
     /**
      * Constructs an ApplicationRepository with the default data file path.
      */
     public ApplicationRepository() {
         super("data/applications.dat");
+        this.archive = new ApplicationArchive("data/applications.archive");
+        // The repository file wins over a stale archived copy, e.g. after a crash between the two writes
+        for (Application app : entities) {
+            archive.remove(app.getApplicationId(), false);
+        }
+        if (archiveFinalized(entities) > 0) {
+            saveToFile();
+        } else {
+            archive.flush();
+        }
+    }
+
+    /**
+     * Returns the archive holding the finalized applications, for its statistics.
+     * @return The archive
+     */
+    public ApplicationArchive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Lists all applications, decoding the archived ones.
+     * @return New list of the archived applications followed by the live ones
+     */
+    @Override
+    public List<Application> findAll() {
+        if (archive == null) {
+            return super.findAll(); // Listeners created during construction
+        }
+        List<Application> all = new ArrayList<>(archive.size() + entities.size());
+        archive.forEach(all::add);
+        all.addAll(entities);
+        return all;
+    }
+
+    /**
+     * Visits all applications, decoding the archived ones one at a time instead of listing
+     * them all first.
+     * @param action Called with each archived application, then each live one
+     */
+    void forEach(Consumer<? super Application> action) {
+        if (archive != null) {
+            archive.forEach(action);
+        }
+        super.findAll().forEach(action);
     }
 
     /**
@@ -34,7 +115,7 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
         return entities.stream()
                 .filter(app -> app.getApplicationId().equals(id))
                 .findFirst()
-                .orElse(null);
+                .orElseGet(() -> archive.get(id));
     }
 
     /**
@@ -44,11 +125,15 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      */
     @Override
     public boolean save(Application application) {
-        if (findById(application.getApplicationId()) != null) {
-            return false; // Application with this ID already exists
-        }
-        entities.add(application);
-        return saveToFile();
+        return write(() -> {
+            if (findById(application.getApplicationId()) != null) {
+                return false; // Application with this ID already exists
+            }
+            entities.add(application);
+            fireInserted(application);
+            archiveFinalized(List.of(application));
+            return saveToFile();
+        });
     }
 
     /**
@@ -58,12 +143,18 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      */
     @Override
     public boolean update(Application application) {
-        entities.removeIf(a -> a.getApplicationId().equals(application.getApplicationId()));
-        boolean added = entities.add(application);
-        if (added) {
-            return saveToFile(); // <-- persist changes after update
-        }
-        return false;
+        return write(() -> {
+            reattach(application.getApplicationId(), () -> archive.get(application.getApplicationId()));
+            archive.remove(application.getApplicationId(), false);
+            entities.removeIf(a -> a.getApplicationId().equals(application.getApplicationId()));
+            boolean added = entities.add(application);
+            if (added) {
+                fireUpdated(application);
+                archiveFinalized(List.of(application));
+                return saveToFile(); // <-- persist changes after update
+            }
+            return false;
+        });
     }
 
     /**
@@ -73,11 +164,93 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      */
     @Override
     public boolean delete(String id) {
-        boolean removed = entities.removeIf(app -> app.getApplicationId().equals(id));
-        if (removed) {
-            return saveToFile();
+        return write(() -> {
+            Application removed = findById(id);
+            if (removed == null) {
+                return false;
+            }
+            if (archive.remove(id, true) || entities.remove(removed)) {
+                fireDeleted(removed);
+                return saveToFile();
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Deletes several applications, archived or live, and persists once.
+     * @param ids The application IDs
+     * @return true if nothing had to be deleted or the deletions were saved
+     */
+    @Override
+    public boolean deleteAll(Collection<String> ids) {
+        return write(() -> {
+            boolean archivedRemoved = false;
+            for (String id : new HashSet<>(ids)) {
+                Application archived = archive.get(id);
+                if (archived != null && archive.remove(id, true)) {
+                    fireDeleted(archived);
+                    archivedRemoved = true;
+                }
+            }
+            int live = entities.size();
+            boolean saved = super.deleteAll(ids);
+            if (archivedRemoved && entities.size() == live) {
+                return saveToFile(); // Only archived applications went; the base class did not save
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Persists the live applications, after the archive so that a crash in between leaves an
+     * application in both files rather than in neither.
+     * @return true if both were saved
+     */
+    @Override
+    protected boolean saveToFile() {
+        boolean archived = archive.flush();
+        return super.saveToFile() && archived;
+    }
+
+    /**
+     * Moves the finalized applications among some to the archive, removing them from the
+     * stored applications in one pass. Listeners are not told, since the applications still
+     * exist; only the heap-resident indexes and change snapshots drop them.
+     * @param applications The applications to consider
+     * @return Number of applications moved
+     */
+    private int archiveFinalized(Collection<Application> applications) {
+        Set<String> moved = new HashSet<>();
+        for (Application app : applications) {
+            if (app.getStatus() != null && app.getStatus().isFinalized() && archive.add(app)) {
+                moved.add(app.getApplicationId());
+                byApplicant.remove(app);
+                detach(app);
+            }
+        }
+        if (!moved.isEmpty()) {
+            entities.removeIf(app -> moved.contains(app.getApplicationId()));
+        }
+        return moved.size();
+    }
+
+    /**
+     * Copies an application through its compact record form ({@link Application#writeTo}),
+     * which is several times cheaper than Java serialization. Copies are made for every
+     * change while the repository publishes to a bus with subscribers.
+     * @param application The application to copy
+     * @return The copy
+     */
+    @Override
+    public Application copyOf(Application application) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            application.writeTo(new DataOutputStream(bytes));
+            return Application.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException e) {
+            return super.copyOf(application);
         }
-        return false;
     }
 
     /**
@@ -97,9 +270,9 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      * @return The Application if found, or {@code null} otherwise.
      */
     public Application findByApplicantAndProject(String applicantNRIC, String projectName) {
-        return entities.stream()
-            .filter(app -> app.getApplicantId().equals(applicantNRIC) && 
-                          app.getProjectName().equals(projectName))
+        String project = StringInterner.lookup(projectName);
+        return findByApplicant(applicantNRIC).stream()
+            .filter(app -> StringInterner.same(app.getProjectName(), project))
             .reduce((first, second) -> second)  // Keep the last element
             .orElse(null);
     }
@@ -111,9 +284,9 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      * @return List of Applications submitted by the applicant.
      */
     public List<Application> findByApplicant(String applicantNRIC) {
-        return entities.stream()
-                .filter(app -> app.getApplicantId().equals(applicantNRIC))
-                .collect(Collectors.toList());
+        List<Application> found = archive.findByApplicant(applicantNRIC);
+        found.addAll(byApplicant.find(applicantNRIC));
+        return found;
     }
 
     /**
@@ -122,9 +295,12 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      * @return List of Applications for the project.
      */
     public List<Application> findByProject(String projectName) {
-        return entities.stream()
-                .filter(app -> app.getProjectName().equals(projectName))
-                .collect(Collectors.toList());
+        String project = StringInterner.lookup(projectName);
+        List<Application> found = archive.findByProject(project, null);
+        entities.stream()
+                .filter(app -> StringInterner.same(app.getProjectName(), project))
+                .forEach(found::add);
+        return found;
     }
 
     /**
@@ -133,9 +309,12 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      * @return List of Applications with the given status.
      */
     public List<Application> findByStatus(ApplicationStatus status) {
-        return entities.stream()
+        List<Application> found = status != null && status.isFinalized()
+                ? archive.findByStatus(status) : new ArrayList<>();
+        entities.stream()
                 .filter(app -> app.getStatus() == status)
-                .collect(Collectors.toList());
+                .forEach(found::add);
+        return found;
     }
 
     /**
@@ -149,16 +328,72 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Updates or inserts a batch of applications and persists once.
+     * <p>
+     * Performs a keyed merge: the batch is indexed by application ID, existing entries are
+     * replaced in a single pass over the stored applications, and any remaining ones are
+     * appended. This runs in O(n + m) instead of one scan per batch item.
+     * If the same ID appears more than once in the batch, the last occurrence wins.
+     * </p>
+     * <p>
+     * The batch is versioned: each application must be the stored instance or a copy
+     * ({@link #copyOf(Application)}) made since its last committed update. If any was read
+     * before a later update, nothing is changed.
+     * </p>
+     * @param applications The applications to merge.
+     * @return {@code true} if the batch was persisted successfully, {@code false} otherwise.
+     * @throws VersionConflictException if an application was updated since it was read
+     */
     public boolean batchUpdate(List<Application> applications) {
-        try {
-            applications.forEach(app -> {
-                entities.removeIf(a -> a.getApplicationId().equals(app.getApplicationId()));
-                entities.add(app);
-            });
-            return saveToFile(); // <-- persist batch updates
-        } catch (Exception e) {
-            return false;
+        if (applications.isEmpty()) {
+            return true;
+        }
+        return write(() -> {
+            checkVersions(applications);
+            try {
+                Map<String, Application> pending = new LinkedHashMap<>();
+                for (Application app : applications) {
+                    pending.put(app.getApplicationId(), app);
+                    reattach(app.getApplicationId(), () -> archive.get(app.getApplicationId()));
+                    archive.remove(app.getApplicationId(), false);
+                }
+                entities.replaceAll(existing -> {
+                    Application replacement = pending.remove(existing.getApplicationId());
+                    return replacement != null ? replacement : existing;
+                });
+                entities.addAll(pending.values());
+                applications.forEach(this::fireUpdated);
+                archiveFinalized(applications);
+                return saveToFile(); // <-- persist batch updates
+            } catch (Exception e) {
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Looks up several applications by ID in a single pass.
+     * @param ids The application IDs to look up.
+     * @return Map of application ID to Application for the IDs that were found.
+     */
+    public Map<String, Application> findAllById(Collection<String> ids) {
+        Set<String> wanted = new HashSet<>(ids);
+        Map<String, Application> found = new HashMap<>();
+        for (Application app : entities) {
+            if (wanted.contains(app.getApplicationId())) {
+                found.put(app.getApplicationId(), app);
+            }
+        }
+        for (String id : wanted) {
+            if (!found.containsKey(id)) {
+                Application archived = archive.get(id);
+                if (archived != null) {
+                    found.put(id, archived);
+                }
+            }
         }
+        return found;
     }
 
      /**
@@ -168,14 +403,59 @@ public class ApplicationRepository extends FileBasedRepository<Application, Stri
      * @return List of matching applications
      */
     public List<Application> findByProjectAndStatus(String projectName, ApplicationStatus status) {
-        return entities.stream()
+        String project = StringInterner.lookup(projectName);
+        List<Application> found = status != null && status.isFinalized()
+            ? archive.findByProject(project, status) : new ArrayList<>();
+        entities.stream()
             .filter(app -> 
-                app.getProjectName().equals(projectName) && 
+                StringInterner.same(app.getProjectName(), project) && 
                 app.getStatus() == status
             )
-            .collect(Collectors.toList());
+            .forEach(found::add);
+        return found;
+    }
+
+    /**
+     * Lists one page of applications, merging archived applications into the live page index.
+     * <p>
+     * Archived applications are not in the page index; the ones after the cursor are found by
+     * decoding the project's archived applications (or all of them for an unpartitioned sort)
+     * and keeping the first {@code limit} in sort order. Paging into history therefore costs a
+     * pass over the archived records instead of a seek.
+     * </p>
+     */
+    @Override
+    public Page<Application> page(String partition, String after, int limit, PageSort<Application> sort) {
+        Page<Application> live = super.page(partition, after, limit, sort);
+        if (archive.size() == 0) {
+            return live;
+        }
+        PageSort<Application> index = sort.ascending();
+        Comparator<String> order = sort.isDescending() ? Comparator.reverseOrder() : Comparator.naturalOrder();
+        String prefix = partition == null ? null : PageSort.partitionPrefix(partition);
+        TreeMap<String, Application> merged = new TreeMap<>(order);
+        for (Application app : live.getItems()) {
+            merged.put(index.indexKey(app, app.getApplicationId()), app);
+        }
+        // Set when a candidate falls off the end, meaning another page follows
+        boolean[] more = { live.hasNext() };
+        Consumer<Application> offer = app -> {
+            String key = index.indexKey(app, app.getApplicationId());
+            if ((prefix != null && !key.startsWith(prefix)) || (after != null && order.compare(key, after) <= 0)) {
+                return;
+            }
+            merged.put(key, app);
+            if (merged.size() > limit) {
+                merged.pollLastEntry();
+                more[0] = true;
+            }
+        };
+        if (partition != null && index == BY_PROJECT) {
+            archive.findByProject(StringInterner.lookup(partition), null).forEach(offer);
+        } else {
+            archive.forEach(offer);
+        }
+        String next = more[0] && !merged.isEmpty() ? merged.lastKey() : null;
+        return new Page<>(new ArrayList<>(merged.values()), next);
     }
-    
-    
-    
 }
@@ -0,0 +1,82 @@
+package main.repository;
+
+import main.model.application.Application;
+import main.model.enquiry.Enquiry;
+import main.model.project.Project;
+import main.model.registration.OfficerRegistration;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A closed project together with its applications, enquiries and officer registrations, as
+ * moved to cold storage by {@link ProjectArchiver}.
+ * <p>
+ * Instances are read back from an archive file on demand, e.g. to report on the project,
+ * and are not connected to the repositories: changing them changes nothing stored.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ArchivedProject {
+    private final Project project;
+    private final List<Application> applications;
+    private final List<Enquiry> enquiries;
+    private final List<OfficerRegistration> registrations;
+    private final Date archivedAt;
+
+    /**
+     * Creates an archived project.
+     * @param project The project
+     * @param applications Its applications
+     * @param enquiries Its enquiries
+     * @param registrations Its officer registrations
+     * @param archivedAt When it was archived
+     */
+    ArchivedProject(Project project, List<Application> applications, List<Enquiry> enquiries,
+                    List<OfficerRegistration> registrations, Date archivedAt) {
+        this.project = project;
+        this.applications = Collections.unmodifiableList(applications);
+        this.enquiries = Collections.unmodifiableList(enquiries);
+        this.registrations = Collections.unmodifiableList(registrations);
+        this.archivedAt = archivedAt;
+    }
+
+    /**
+     * @return The project
+     */
+    public Project getProject() {
+        return project;
+    }
+
+    /**
+     * @return The project's applications
+     */
+    public List<Application> getApplications() {
+        return applications;
+    }
+
+    /**
+     * @return The project's enquiries
+     */
+    public List<Enquiry> getEnquiries() {
+        return enquiries;
+    }
+
+    /**
+     * @return The project's officer registrations
+     */
+    public List<OfficerRegistration> getRegistrations() {
+        return registrations;
+    }
+
+    /**
+     * @return When the project was archived
+     */
+    public Date getArchivedAt() {
+        return archivedAt;
+    }
+}
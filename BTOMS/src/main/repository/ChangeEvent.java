@@ -0,0 +1,110 @@
+package main.repository;
+
+/**
+ * A change made through a {@link FileBasedRepository}, as delivered by a {@link ChangeEventBus}.
+ * <p>
+ * The before and after states are private copies taken when the change was published, so
+ * they are not affected by later in-place modifications of the stored entity. For an
+ * {@link Type#INSERT} the before state is null; for a {@link Type#DELETE} the after state
+ * is null. An update of an entity that the repository had not seen before (e.g. through a
+ * batch upsert) also has a null before state.
+ * </p>
+ *
+ * @param <T> The type of entity that changed
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ChangeEvent<T> {
+
+    /**
+     * Kind of change.
+     */
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    private final long sequence;
+    private final long timestamp;
+    private final Type type;
+    private final Object entityId;
+    private final T before;
+    private final T after;
+
+    /**
+     * Constructs an event. Events are created by {@link ChangeEventBus#publish}.
+     */
+    ChangeEvent(long sequence, Type type, Object entityId, T before, T after) {
+        this.sequence = sequence;
+        this.timestamp = System.currentTimeMillis();
+        this.type = type;
+        this.entityId = entityId;
+        this.before = before;
+        this.after = after;
+    }
+
+    /**
+     * Returns the bus-wide sequence number of this event. Events of one repository are
+     * numbered in the order the changes were made.
+     * @return Sequence number, starting at 1
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns when the change was published.
+     * @return Time in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Returns the kind of change.
+     * @return Insert, update or delete
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Returns the ID of the changed entity as reported by its repository.
+     * @return The entity ID
+     */
+    public Object getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * Returns the state of the entity before the change.
+     * @return Copy of the previous state, or null for inserts and unknown entities
+     */
+    public T getBefore() {
+        return before;
+    }
+
+    /**
+     * Returns the state of the entity after the change.
+     * @return Copy of the new state, or null for deletes
+     */
+    public T getAfter() {
+        return after;
+    }
+
+    /**
+     * Returns the most recent known state of the entity.
+     * @return The after state, or the before state for deletes
+     */
+    public T getEntity() {
+        return after != null ? after : before;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + entityId;
+    }
+}
@@ -0,0 +1,487 @@
+package main.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * In-process bus carrying {@link ChangeEvent}s from repositories to subscribers.
+ * <p>
+ * Every subscriber has its own bounded queue and a daemon worker thread that drains the
+ * queue in batches and hands each batch to the subscriber's handler. By default publishing
+ * never blocks: if a subscriber's queue is full, the event is dropped for that subscriber
+ * only and counted, so a slow subscriber cannot hold up repository writes or other
+ * subscribers. A subscriber that keeps derived state, such as the notification outbox and
+ * the dashboard counters, passes a resync callback: after a drop, its worker discards the
+ * queued events and calls the callback to rebuild that state from the repositories, then
+ * carries on with the events published since. Handlers of such subscribers must ignore
+ * events older than the state they already hold, which the entity versions tell.
+ * </p>
+ * <p>
+ * Subscribers that must see every event instead subscribe with {@link Overflow#BLOCK};
+ * publishing then waits for room in their queue. Publishers wait their turn outside the
+ * bus monitor, so a full queue holds up only the publishers of events for that subscriber,
+ * which still receives them in sequence order. Each {@link Subscription} exposes its queue
+ * depth, high-water mark and delivered/dropped counts so backpressure can be monitored.
+ * </p>
+ * <p>
+ * Repositories attached with {@link FileBasedRepository#publishTo(ChangeEventBus)} publish
+ * the changes of an operation once they have been saved and the repository's write lock
+ * has been released, and only copy the states of entities whose type has subscribers.
+ * Derived state that reads must see immediately (indexes, caches consulted by admission
+ * checks) is kept by synchronous {@link RepositoryListener}s instead.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ChangeEventBus {
+    /** Default capacity of a subscriber queue. */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    /** Default maximum number of events handed to a handler at once. */
+    public static final int DEFAULT_MAX_BATCH = 64;
+
+    /**
+     * What publishing does when a subscriber's queue is full.
+     */
+    public enum Overflow {
+        /** Drop the event for that subscriber and count it. */
+        DROP,
+        /** Wait until the subscriber has made room. */
+        BLOCK
+    }
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final List<Consumer<Boolean>> activationListeners = new CopyOnWriteArrayList<>();
+    private long sequence;
+
+    /**
+     * Subscribes to changes of one entity type with the default queue capacity and batch size.
+     * @param name Name of the subscriber, used for its worker thread and metrics
+     * @param entityType Type of entity of interest (subtypes included)
+     * @param handler Receives batches of events in publication order
+     * @param <T> The entity type
+     * @return The subscription
+     */
+    public <T> Subscription subscribe(String name, Class<T> entityType, Consumer<List<ChangeEvent<T>>> handler) {
+        return subscribe(name, entityType, DEFAULT_QUEUE_CAPACITY, DEFAULT_MAX_BATCH, Overflow.DROP, handler);
+    }
+
+    /**
+     * Subscribes to changes of one entity type without a resync callback.
+     * @param name Name of the subscriber, used for its worker thread and metrics
+     * @param entityType Type of entity of interest (subtypes included)
+     * @param queueCapacity Maximum number of undelivered events; further events are dropped
+     * @param maxBatch Maximum number of events handed to the handler at once
+     * @param overflow What publishing does when the queue is full
+     * @param handler Receives batches of events in publication order
+     * @param <T> The entity type
+     * @return The subscription
+     * @throws IllegalArgumentException if the capacity or batch size is not positive
+     */
+    public <T> Subscription subscribe(String name, Class<T> entityType, int queueCapacity, int maxBatch,
+                                      Overflow overflow, Consumer<List<ChangeEvent<T>>> handler) {
+        return subscribe(name, entityType, queueCapacity, maxBatch, overflow, handler, null);
+    }
+
+    /**
+     * Subscribes to changes of one entity type.
+     * @param name Name of the subscriber, used for its worker thread and metrics
+     * @param entityType Type of entity of interest (subtypes included)
+     * @param queueCapacity Maximum number of undelivered events; further events are dropped
+     * @param maxBatch Maximum number of events handed to the handler at once
+     * @param overflow What publishing does when the queue is full
+     * @param handler Receives batches of events in publication order
+     * @param resync Rebuilds the subscriber's state after events were dropped, or null
+     * @param <T> The entity type
+     * @return The subscription
+     * @throws IllegalArgumentException if the capacity or batch size is not positive
+     */
+    public <T> Subscription subscribe(String name, Class<T> entityType, int queueCapacity, int maxBatch,
+                                      Overflow overflow, Consumer<List<ChangeEvent<T>>> handler,
+                                      Runnable resync) {
+        if (queueCapacity <= 0 || maxBatch <= 0) {
+            throw new IllegalArgumentException("Queue capacity and batch size must be positive");
+        }
+        Subscription subscription = new Subscription(name, entityType, queueCapacity, maxBatch, overflow,
+            handler, resync);
+        synchronized (this) {
+            subscriptions.add(subscription);
+        }
+        activationListeners.forEach(listener -> listener.accept(true));
+        subscription.worker.start();
+        return subscription;
+    }
+
+    /**
+     * Returns whether anyone is subscribed, i.e. whether publishing has any effect.
+     * @return true if there is at least one subscription
+     */
+    public boolean hasSubscribers() {
+        return !subscriptions.isEmpty();
+    }
+
+    /**
+     * Returns whether anyone is subscribed to changes of an entity's type.
+     * @param entity The entity
+     * @return true if publishing a change of the entity has any effect
+     */
+    public boolean isSubscribed(Object entity) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.entityType.isInstance(entity)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the current subscriptions, e.g. to report their metrics.
+     * @return Snapshot of the subscriptions
+     */
+    public List<Subscription> getSubscriptions() {
+        return new ArrayList<>(subscriptions);
+    }
+
+    /**
+     * Publishes a change to every subscriber interested in the entity's type.
+     * Events that do not fit in a subscriber's queue are dropped for that subscriber, or
+     * waited for if it subscribed with {@link Overflow#BLOCK}.
+     * <p>
+     * The event is numbered, and its place in each blocking subscriber's queue reserved,
+     * under the bus monitor; the wait for room happens after the monitor is released.
+     * </p>
+     * @param type Kind of change
+     * @param entityId ID of the changed entity
+     * @param before Copy of the previous state, or null
+     * @param after Copy of the new state, or null
+     * @param <T> The entity type
+     */
+    public <T> void publish(ChangeEvent.Type type, Object entityId, T before, T after) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        ChangeEvent<T> event;
+        List<Subscription> blocking = null;
+        long[] turns = null;
+        synchronized (this) {
+            event = new ChangeEvent<>(++sequence, type, entityId, before, after);
+            Object entity = event.getEntity();
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.entityType.isInstance(entity)) {
+                    continue;
+                }
+                if (subscription.overflow == Overflow.DROP) {
+                    subscription.offer(event);
+                } else {
+                    if (blocking == null) {
+                        blocking = new ArrayList<>();
+                        turns = new long[subscriptions.size()];
+                    }
+                    turns[blocking.size()] = subscription.nextTurn++;
+                    blocking.add(subscription);
+                }
+            }
+        }
+        if (blocking != null) {
+            for (int i = 0; i < blocking.size(); i++) {
+                blocking.get(i).offerInTurn(event, turns[i]);
+            }
+        }
+    }
+
+    /**
+     * Registers a callback told when a subscription is added ({@code true}) or the last
+     * one is removed ({@code false}).
+     */
+    void addActivationListener(Consumer<Boolean> listener) {
+        activationListeners.add(listener);
+    }
+
+    private void remove(Subscription subscription) {
+        boolean deactivated;
+        synchronized (this) {
+            deactivated = subscriptions.remove(subscription) && subscriptions.isEmpty();
+        }
+        if (deactivated) {
+            activationListeners.forEach(listener -> listener.accept(false));
+        }
+    }
+
+    /**
+     * A subscriber's queue, worker thread and delivery metrics.
+     */
+    public final class Subscription {
+        private final String name;
+        private final Class<?> entityType;
+        private final int capacity;
+        private final int maxBatch;
+        private final Overflow overflow;
+        private final Consumer<List<ChangeEvent<?>>> handler;
+        private final Runnable resync;
+        private final BlockingQueue<ChangeEvent<?>> queue;
+        private final Thread worker;
+        private volatile boolean running = true;
+
+        /** Next turn handed to a publisher of a blocking subscription; guarded by the bus. */
+        private long nextTurn;
+        /** Turn of the publisher allowed to queue its event next; guarded by turnLock. */
+        private long currentTurn;
+        private final Object turnLock = new Object();
+
+        /** Dropped count when the last resync started; written by the worker only. */
+        private volatile long resyncedDrops;
+
+        private final AtomicLong accepted = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong discarded = new AtomicLong();
+        private final AtomicInteger highWaterMark = new AtomicInteger();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private <T> Subscription(String name, Class<T> entityType, int capacity, int maxBatch,
+                                 Overflow overflow, Consumer<List<ChangeEvent<T>>> handler, Runnable resync) {
+            this.name = name;
+            this.entityType = entityType;
+            this.capacity = capacity;
+            this.maxBatch = maxBatch;
+            this.overflow = overflow;
+            // Only events whose entity is a T are queued
+            this.handler = (Consumer) handler;
+            this.resync = resync;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.worker = new Thread(this::run, "change-events-" + name);
+            this.worker.setDaemon(true);
+        }
+
+        private void offer(ChangeEvent<?> event) {
+            if (!queue.offer(event)) {
+                if (overflow == Overflow.DROP || !awaitRoom(event)) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+            }
+            accepted.incrementAndGet();
+            highWaterMark.accumulateAndGet(queue.size(), Math::max);
+        }
+
+        /**
+         * Queues an event of a blocking subscription once the publishers of earlier events
+         * have queued theirs, so events are queued in sequence order.
+         * @param turn The turn reserved when the event was numbered
+         */
+        private void offerInTurn(ChangeEvent<?> event, long turn) {
+            boolean interrupted = false;
+            synchronized (turnLock) {
+                while (currentTurn != turn) {
+                    try {
+                        turnLock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            try {
+                if (interrupted) {
+                    // Keeps the interruption and drops the event in awaitRoom if the queue is full
+                    Thread.currentThread().interrupt();
+                }
+                offer(event);
+            } finally {
+                synchronized (turnLock) {
+                    currentTurn++;
+                    turnLock.notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Waits for room in the queue of a blocking subscription.
+         * @return false if the subscription was closed or the publisher interrupted meanwhile
+         */
+        private boolean awaitRoom(ChangeEvent<?> event) {
+            try {
+                while (running) {
+                    if (queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return false;
+        }
+
+        private void run() {
+            while (running) {
+                if (resync != null && dropped.get() != resyncedDrops) {
+                    resync();
+                    continue;
+                }
+                List<ChangeEvent<?>> batch = new ArrayList<>(Math.min(maxBatch, capacity));
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+                try {
+                    handler.accept(batch);
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                    System.err.println("Change event subscriber " + name + " failed: " + e.getMessage());
+                }
+                batches.incrementAndGet();
+                processed.addAndGet(batch.size());
+            }
+        }
+
+        /**
+         * Discards the queued events, which the rebuilt state includes, and calls the resync
+         * callback. Events dropped meanwhile cause another resync.
+         */
+        private void resync() {
+            long drops = dropped.get();
+            List<ChangeEvent<?>> stale = new ArrayList<>();
+            queue.drainTo(stale);
+            discarded.addAndGet(stale.size());
+            try {
+                resync.run();
+            } catch (RuntimeException e) {
+                failures.incrementAndGet();
+                System.err.println("Change event subscriber " + name + " failed to resync: " + e.getMessage());
+            }
+            resyncedDrops = drops;
+        }
+
+        /**
+         * Stops delivery and removes the subscription from the bus. Queued events are discarded.
+         */
+        public void close() {
+            running = false;
+            worker.interrupt();
+            remove(this);
+        }
+
+        /**
+         * Waits until every accepted event has been handled or discarded by a resync, and
+         * any resync made necessary by dropped events has completed.
+         * @param timeout Maximum time to wait
+         * @param unit Unit of the timeout
+         * @return true if the queue was drained, false on timeout or interruption
+         */
+        public boolean awaitIdle(long timeout, TimeUnit unit) {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (processed.get() + discarded.get() < accepted.get()
+                    || (resync != null && dropped.get() != resyncedDrops)) {
+                if (System.nanoTime() >= deadline || !running) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns the name the subscriber was registered with.
+         * @return Subscriber name
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the maximum number of events the queue holds.
+         * @return Queue capacity
+         */
+        public int getCapacity() {
+            return capacity;
+        }
+
+        /**
+         * Returns the number of events waiting in the queue.
+         * @return Current queue depth
+         */
+        public int getQueueDepth() {
+            return queue.size();
+        }
+
+        /**
+         * Returns the largest queue depth observed.
+         * @return High-water mark of the queue
+         */
+        public int getHighWaterMark() {
+            return highWaterMark.get();
+        }
+
+        /**
+         * Returns the number of events queued for this subscriber.
+         * @return Accepted event count
+         */
+        public long getAccepted() {
+            return accepted.get();
+        }
+
+        /**
+         * Returns the number of events dropped because the queue was full.
+         * @return Dropped event count
+         */
+        public long getDropped() {
+            return dropped.get();
+        }
+
+        /**
+         * Returns the number of events handed to the handler, including failed batches.
+         * @return Delivered event count
+         */
+        public long getDelivered() {
+            return processed.get();
+        }
+
+        /**
+         * Returns the number of batches handed to the handler.
+         * @return Batch count
+         */
+        public long getBatches() {
+            return batches.get();
+        }
+
+        /**
+         * Returns the number of queued events discarded by resyncs instead of being handled.
+         * @return Discarded event count
+         */
+        public long getDiscarded() {
+            return discarded.get();
+        }
+
+        /**
+         * Returns the number of batches whose handler threw an exception.
+         * @return Failed batch count
+         */
+        public long getFailures() {
+            return failures.get();
+        }
+
+        @Override
+        public String toString() {
+            return name + ": queue " + getQueueDepth() + "/" + capacity + " (max " + getHighWaterMark() + ")"
+                + ", accepted " + getAccepted() + ", delivered " + getDelivered()
+                + ", dropped " + getDropped() + ", discarded " + getDiscarded() + ", batches " + getBatches() + ", failures " + getFailures();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package main.repository;
+
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.enquiry.Enquiry;
+import main.model.project.FlatType;
+import main.model.project.ProjectDashboard;
+import main.model.registration.OfficerRegistration;
+import main.model.registration.RegistrationStatus;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materialized per-project dashboard counters, maintained incrementally.
+ * <p>
+ * The counters are built once from the application, enquiry and officer registration
+ * repositories and then kept up to date from their {@link ChangeEvent}s, so dashboard
+ * queries are O(1) instead of scanning the repositories and the counting does not run on
+ * the writer's thread. This class remembers what each entity last contributed (project,
+ * status, flat type) and moves that contribution when an event brings a new state, so
+ * applying the same state twice changes nothing. Events carrying an older version than the
+ * remembered contribution are ignored. Reads first wait briefly for events still queued,
+ * so a manager sees the effect of their own decisions.
+ * </p>
+ * <p>
+ * The subscriptions drop events rather than hold up the repositories when their queues are
+ * full; after a drop the counters are rebuilt from the repositories.
+ * </p>
+ * <p>
+ * {@link #verify()} rebuilds the counters from scratch and reports any difference.
+ * </p>
+ */
+public class DashboardAggregates {
+    private static final int STATUS_COUNT = ApplicationStatus.values().length;
+
+    /** Capacity of the change event queues. */
+    private static final int EVENT_QUEUE_CAPACITY = 128 * 1024;
+
+    /** Longest a read waits for queued changes to be applied. */
+    private static final long READ_WAIT_MILLIS = 1000;
+
+    private final ApplicationRepository applicationRepository;
+    private final EnquiryRepository enquiryRepository;
+    private final OfficerRegistrationRepository registrationRepository;
+
+    /** Counters per project name. */
+    private Map<String, Counters> counters = new HashMap<>();
+
+    /** Last known contribution of each entity, keyed by entity ID. */
+    private Map<String, Contribution> applications = new HashMap<>();
+    private Map<String, Contribution> enquiries = new HashMap<>();
+    private Map<String, Contribution> registrations = new HashMap<>();
+
+    /** Subscriptions to the changes of the three repositories; empty for a scratch copy. */
+    private final List<ChangeEventBus.Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * Builds the aggregates from the given repositories and starts following their changes.
+     * <p>
+     * The subscriptions are made before the counters are built, so no change falls between
+     * the two; an event for a state the build already counted, or an older one, changes nothing.
+     * </p>
+     * @param bus The bus the repositories publish to
+     * @param applicationRepository Repository of applications
+     * @param enquiryRepository Repository of enquiries
+     * @param registrationRepository Repository of officer registrations
+     */
+    public DashboardAggregates(ChangeEventBus bus,
+                               ApplicationRepository applicationRepository,
+                               EnquiryRepository enquiryRepository,
+                               OfficerRegistrationRepository registrationRepository) {
+        this.applicationRepository = applicationRepository;
+        this.enquiryRepository = enquiryRepository;
+        this.registrationRepository = registrationRepository;
+
+        subscriptions.add(bus.subscribe("dashboard-applications", Application.class,
+            EVENT_QUEUE_CAPACITY, ChangeEventBus.DEFAULT_MAX_BATCH, ChangeEventBus.Overflow.DROP, events -> {
+                for (ChangeEvent<Application> event : events) {
+                    if (event.getType() == ChangeEvent.Type.DELETE) {
+                        removeApplication((String) event.getEntityId());
+                    } else {
+                        applyApplication(event.getAfter());
+                    }
+                }
+            }, this::rebuild));
+        subscriptions.add(bus.subscribe("dashboard-enquiries", Enquiry.class,
+            EVENT_QUEUE_CAPACITY, ChangeEventBus.DEFAULT_MAX_BATCH, ChangeEventBus.Overflow.DROP, events -> {
+                for (ChangeEvent<Enquiry> event : events) {
+                    if (event.getType() == ChangeEvent.Type.DELETE) {
+                        removeEnquiry((String) event.getEntityId());
+                    } else {
+                        applyEnquiry(event.getAfter());
+                    }
+                }
+            }, this::rebuild));
+        subscriptions.add(bus.subscribe("dashboard-registrations", OfficerRegistration.class,
+            EVENT_QUEUE_CAPACITY, ChangeEventBus.DEFAULT_MAX_BATCH, ChangeEventBus.Overflow.DROP, events -> {
+                for (ChangeEvent<OfficerRegistration> event : events) {
+                    if (event.getType() == ChangeEvent.Type.DELETE) {
+                        removeRegistration((String) event.getEntityId());
+                    } else {
+                        applyRegistration(event.getAfter());
+                    }
+                }
+            }, this::rebuild));
+        rebuild();
+    }
+
+    /**
+     * Returns the dashboard of a project, after applying the changes already published.
+     * @param projectName Name of the project
+     * @return Snapshot of the project's counters (all zero if the project has no activity)
+     */
+    public ProjectDashboard getDashboard(String projectName) {
+        awaitPublishedChanges();
+        return currentDashboard(projectName);
+    }
+
+    private synchronized ProjectDashboard currentDashboard(String projectName) {
+        Counters c = counters.get(projectName);
+        if (c == null) {
+            c = new Counters();
+        }
+        return c.toDashboard(projectName);
+    }
+
+    /**
+     * Discards all counters and rebuilds them from the repositories.
+     */
+    public synchronized void rebuild() {
+        counters = new HashMap<>();
+        applications = new HashMap<>();
+        enquiries = new HashMap<>();
+        registrations = new HashMap<>();
+        applicationRepository.findAll().forEach(this::applyApplication);
+        enquiryRepository.findAll().forEach(this::applyEnquiry);
+        registrationRepository.findAll().forEach(this::applyRegistration);
+    }
+
+    /**
+     * Rebuilds the counters from the repositories into a scratch copy and compares them
+     * with the incrementally maintained ones. The maintained counters are left unchanged.
+     * @return Human-readable description of each difference; empty if consistent
+     */
+    public List<String> verify() {
+        awaitPublishedChanges();
+        DashboardAggregates fresh = new DashboardAggregates(this);
+        List<String> diffs = new ArrayList<>();
+        synchronized (this) {
+            TreeSet<String> projects = new TreeSet<>(counters.keySet());
+            projects.addAll(fresh.counters.keySet());
+            for (String project : projects) {
+                ProjectDashboard expected = fresh.currentDashboard(project);
+                ProjectDashboard actual = currentDashboard(project);
+                if (!expected.equals(actual)) {
+                    diffs.add("Expected " + expected + "\nbut maintained " + actual);
+                }
+            }
+        }
+        return diffs;
+    }
+
+    /**
+     * Creates an unregistered scratch copy rebuilt from the same repositories.
+     */
+    private DashboardAggregates(DashboardAggregates source) {
+        this.applicationRepository = source.applicationRepository;
+        this.enquiryRepository = source.enquiryRepository;
+        this.registrationRepository = source.registrationRepository;
+        rebuild();
+    }
+
+    /**
+     * Waits, up to {@link #READ_WAIT_MILLIS} per repository, for queued change events to be applied.
+     */
+    private void awaitPublishedChanges() {
+        for (ChangeEventBus.Subscription subscription : subscriptions) {
+            subscription.awaitIdle(READ_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void applyApplication(Application app) {
+        FlatType type = FlatType.find(app.getFlatType());
+        Contribution next = new Contribution(app.getProjectName(),
+            app.getStatus() == null ? -1 : app.getStatus().ordinal(),
+            app.getStatus() == ApplicationStatus.BOOKED && type != null ? type.ordinal() : -1, app.getVersion());
+        apply(applications, app.getApplicationId(), next, this::countApplication);
+    }
+
+    private synchronized void removeApplication(String applicationId) {
+        move(applications.remove(applicationId), null, this::countApplication);
+    }
+
+    private synchronized void applyEnquiry(Enquiry enquiry) {
+        Contribution next = new Contribution(enquiry.getProjectName(), enquiry.hasReply() ? 0 : 1, -1,
+            enquiry.getVersion());
+        apply(enquiries, enquiry.getEnquiryId(), next, this::countEnquiry);
+    }
+
+    private synchronized void removeEnquiry(String enquiryId) {
+        move(enquiries.remove(enquiryId), null, this::countEnquiry);
+    }
+
+    private synchronized void applyRegistration(OfficerRegistration reg) {
+        Contribution next = new Contribution(reg.getProjectName(),
+            reg.getStatus() == RegistrationStatus.PENDING ? 1 : 0, -1, reg.getVersion());
+        apply(registrations, reg.getRegistrationId(), next, this::countRegistration);
+    }
+
+    private synchronized void removeRegistration(String registrationId) {
+        move(registrations.remove(registrationId), null, this::countRegistration);
+    }
+
+    /**
+     * Replaces an entity's contribution by one of a state at least as recent.
+     */
+    private void apply(Map<String, Contribution> contributions, String id, Contribution next, Counter counter) {
+        Contribution previous = contributions.get(id);
+        if (previous != null && next.version < previous.version) {
+            return;
+        }
+        contributions.put(id, next);
+        move(previous, next, counter);
+    }
+
+    /**
+     * Replaces a previous contribution by a new one (either may be null).
+     */
+    private void move(Contribution previous, Contribution next, Counter counter) {
+        if (Objects.equals(previous, next)) {
+            return;
+        }
+        if (previous != null) {
+            counter.add(countersFor(previous.project), previous, -1);
+        }
+        if (next != null) {
+            counter.add(countersFor(next.project), next, 1);
+        }
+    }
+
+    private Counters countersFor(String projectName) {
+        return counters.computeIfAbsent(projectName, p -> new Counters());
+    }
+
+    private void countApplication(Counters c, Contribution contribution, int delta) {
+        if (contribution.state >= 0) {
+            c.applicationsByStatus[contribution.state] += delta;
+        }
+        if (contribution.flatType >= 0) {
+            c.bookedUnits[contribution.flatType] += delta;
+        }
+    }
+
+    private void countEnquiry(Counters c, Contribution contribution, int delta) {
+        c.unansweredEnquiries += contribution.state * delta;
+    }
+
+    private void countRegistration(Counters c, Contribution contribution, int delta) {
+        c.pendingRegistrations += contribution.state * delta;
+    }
+
+    /**
+     * Applies a contribution to a project's counters with the given sign.
+     */
+    private interface Counter {
+        void add(Counters counters, Contribution contribution, int delta);
+    }
+
+    /**
+     * What one entity contributes to the counters: its project, a state value
+     * (status ordinal, or 1/0 for unanswered/pending) and a booked flat type ordinal (or -1).
+     * The version of the entity state it was taken from does not take part in equality.
+     */
+    private static final class Contribution {
+        final String project;
+        final int state;
+        final int flatType;
+        final long version;
+
+        Contribution(String project, int state, int flatType, long version) {
+            this.project = project;
+            this.state = state;
+            this.flatType = flatType;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Contribution)) return false;
+            Contribution other = (Contribution) o;
+            return state == other.state && flatType == other.flatType && Objects.equals(project, other.project);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(project, state, flatType);
+        }
+    }
+
+    /**
+     * Mutable counters of one project.
+     */
+    private static final class Counters {
+        final int[] applicationsByStatus = new int[STATUS_COUNT];
+        final int[] bookedUnits = new int[FlatType.count()];
+        int unansweredEnquiries;
+        int pendingRegistrations;
+
+        ProjectDashboard toDashboard(String projectName) {
+            return new ProjectDashboard(projectName, applicationsByStatus, bookedUnits,
+                unansweredEnquiries, pendingRegistrations);
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package main.repository;
+
+import main.model.enquiry.Enquiry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Groups near-duplicate unanswered enquiries of a project so they can be answered with one reply.
+ * <p>
+ * Each unanswered enquiry is reduced to a MinHash signature of {@value #NUM_HASHES} values over
+ * its word and word-pair shingles (tokenized like {@link EnquirySearchIndex}). The fraction of
+ * equal signature values estimates the Jaccard similarity of two enquiries. Locality-sensitive
+ * hashing splits the signature into {@value #BANDS} bands of {@value #ROWS} rows; only
+ * enquiries sharing a band become candidates, so clustering a project is linear in the number
+ * of its enquiries rather than quadratic. Candidates at least as similar as the threshold are
+ * joined with a union-find structure, so clusters are transitive.
+ * </p>
+ * <p>
+ * Signatures are computed when an enquiry is created or edited and dropped when it is answered
+ * or deleted, through {@link RepositoryListener} callbacks.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class EnquiryDuplicateDetector {
+    /** Number of MinHash values per signature. */
+    public static final int NUM_HASHES = 64;
+    /** Number of LSH bands; with {@value #ROWS} rows each, pairs above about 0.5 similarity collide. */
+    public static final int BANDS = 16;
+    /** Signature values per band. */
+    public static final int ROWS = NUM_HASHES / BANDS;
+    /** Default minimum estimated Jaccard similarity for two enquiries to be grouped. */
+    public static final double DEFAULT_SIMILARITY = 0.6;
+
+    /** Multipliers and offsets of the hash functions, fixed so signatures are reproducible. */
+    private static final long[] HASH_A = new long[NUM_HASHES];
+    private static final long[] HASH_B = new long[NUM_HASHES];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            HASH_A[i] = random.nextLong() | 1L;
+            HASH_B[i] = random.nextLong();
+        }
+    }
+
+    /** Unanswered enquiries with their signatures, grouped by project name and keyed by enquiry ID. */
+    private final Map<String, Map<String, Signed>> byProject = new HashMap<>();
+    /** Project of each tracked enquiry, by enquiry ID. */
+    private final Map<String, String> projectOf = new HashMap<>();
+
+    /**
+     * Computes signatures for the unanswered enquiries in the repository and starts listening for changes.
+     * @param enquiryRepository Repository of enquiries
+     */
+    public EnquiryDuplicateDetector(EnquiryRepository enquiryRepository) {
+        enquiryRepository.findAll().forEach(this::track);
+        enquiryRepository.addListener(new RepositoryListener<Enquiry>() {
+            @Override public void onInsert(Enquiry enquiry) { track(enquiry); }
+            @Override public void onUpdate(Enquiry enquiry) { track(enquiry); }
+            @Override public void onDelete(Enquiry enquiry) { untrack(enquiry.getEnquiryId()); }
+        });
+    }
+
+    /**
+     * Finds groups of similar unanswered enquiries in a project using the default threshold.
+     * @param projectName Name of the project
+     * @return Groups of at least two enquiries, largest first
+     * @see #findClusters(String, double)
+     */
+    public List<List<Enquiry>> findClusters(String projectName) {
+        return findClusters(projectName, DEFAULT_SIMILARITY);
+    }
+
+    /**
+     * Finds groups of similar unanswered enquiries in a project.
+     * @param projectName Name of the project
+     * @param minSimilarity Minimum estimated Jaccard similarity (0 to 1) for two enquiries to be linked
+     * @return Groups of at least two enquiries, largest first; each group in submission order
+     */
+    public synchronized List<List<Enquiry>> findClusters(String projectName, double minSimilarity) {
+        Map<String, Signed> tracked = byProject.get(projectName);
+        if (tracked == null || tracked.size() < 2) {
+            return Collections.emptyList();
+        }
+        Signed[] items = tracked.values().toArray(new Signed[0]);
+        Arrays.sort(items, (a, b) -> a.enquiry.getEnquiryDate().compareTo(b.enquiry.getEnquiryDate()));
+        int minMatches = (int) Math.ceil(minSimilarity * NUM_HASHES);
+
+        int[] parent = new int[items.length];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            Map<Long, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < items.length; i++) {
+                buckets.computeIfAbsent(bandKey(items[i].signature, band), k -> new ArrayList<>()).add(i);
+            }
+            for (List<Integer> bucket : buckets.values()) {
+                if (bucket.size() > 1) {
+                    linkBucket(bucket, items, minMatches, parent);
+                }
+            }
+        }
+
+        Map<Integer, List<Enquiry>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            groups.computeIfAbsent(find(parent, i), r -> new ArrayList<>()).add(items[i].enquiry);
+        }
+        List<List<Enquiry>> clusters = new ArrayList<>();
+        for (List<Enquiry> group : groups.values()) {
+            if (group.size() > 1) {
+                clusters.add(group);
+            }
+        }
+        clusters.sort((a, b) -> Integer.compare(b.size(), a.size()));
+        return clusters;
+    }
+
+    /**
+     * Links the similar members of an LSH bucket. Each pass compares the remaining members with
+     * one pivot, so a bucket of true duplicates costs one comparison per member.
+     */
+    private static void linkBucket(List<Integer> bucket, Signed[] items, int minMatches, int[] parent) {
+        List<Integer> remaining = bucket;
+        while (remaining.size() > 1) {
+            int pivot = remaining.get(0);
+            List<Integer> unmatched = new ArrayList<>();
+            for (int k = 1; k < remaining.size(); k++) {
+                int other = remaining.get(k);
+                if (find(parent, pivot) == find(parent, other)) {
+                    continue;
+                }
+                if (matches(items[pivot].signature, items[other].signature) >= minMatches) {
+                    parent[find(parent, other)] = find(parent, pivot);
+                } else {
+                    unmatched.add(other);
+                }
+            }
+            remaining = unmatched;
+        }
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static int matches(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return equal;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long key = band;
+        for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+            key = key * 0x9E3779B97F4A7C15L + signature[i];
+        }
+        return key;
+    }
+
+    /**
+     * Computes the MinHash signature of a text over its word and word-pair shingles.
+     * @return The signature, or null if the text has no words
+     */
+    static int[] signature(String text) {
+        List<String> tokens = EnquirySearchIndex.tokenize(text);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        for (int t = 0; t < tokens.size(); t++) {
+            addShingle(signature, tokens.get(t).hashCode());
+            if (t + 1 < tokens.size()) {
+                addShingle(signature, tokens.get(t).hashCode() * 31 + tokens.get(t + 1).hashCode() + 0x3C6EF372);
+            }
+        }
+        return signature;
+    }
+
+    private static void addShingle(int[] signature, int shingle) {
+        long x = shingle * 0xC2B2AE3D27D4EB4FL;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            int h = (int) ((x * HASH_A[i] + HASH_B[i]) >>> 33);
+            if (h < signature[i]) {
+                signature[i] = h;
+            }
+        }
+    }
+
+    private synchronized void track(Enquiry enquiry) {
+        untrack(enquiry.getEnquiryId());
+        if (enquiry.hasReply()) {
+            return;
+        }
+        int[] signature = signature(enquiry.getEnquiryText());
+        if (signature == null) {
+            return;
+        }
+        byProject.computeIfAbsent(enquiry.getProjectName(), p -> new HashMap<>())
+            .put(enquiry.getEnquiryId(), new Signed(enquiry, signature));
+        projectOf.put(enquiry.getEnquiryId(), enquiry.getProjectName());
+    }
+
+    private synchronized void untrack(String enquiryId) {
+        String project = projectOf.remove(enquiryId);
+        if (project != null) {
+            Map<String, Signed> tracked = byProject.get(project);
+            tracked.remove(enquiryId);
+            if (tracked.isEmpty()) {
+                byProject.remove(project);
+            }
+        }
+    }
+
+    /**
+     * An enquiry with its signature.
+     */
+    private static final class Signed {
+        final Enquiry enquiry;
+        final int[] signature;
+
+        Signed(Enquiry enquiry, int[] signature) {
+            this.enquiry = enquiry;
+            this.signature = signature;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package main.repository;
 
 import main.model.enquiry.Enquiry;
+import main.utils.StringInterner;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.Iterator;
 
@@ -14,6 +19,19 @@ import java.util.Iterator;
  * @since 2025-04-20
  */
 public class EnquiryRepository extends FileBasedRepository<Enquiry, String> {
+
+    /** Enquiries in order of submission. */
+    public static final PageSort<Enquiry> BY_DATE =
+        PageSort.by("enquiry date", e -> PageSort.dateKey(e.getEnquiryDate()));
+    /** Enquiries of each project in order of submission; partitioned by project name. */
+    public static final PageSort<Enquiry> BY_PROJECT =
+        PageSort.partitioned("project", Enquiry::getProjectName, e -> PageSort.dateKey(e.getEnquiryDate()));
+    /** Enquiries of each applicant in order of submission; partitioned by applicant NRIC. */
+    public static final PageSort<Enquiry> BY_APPLICANT =
+        PageSort.partitioned("applicant", Enquiry::getApplicantId, e -> PageSort.dateKey(e.getEnquiryDate()));
+
+    /** Enquiries by applicant NRIC. */
+    private final NricIndex<Enquiry> byApplicant = new NricIndex<>(this, Enquiry::getApplicantId);
     
     /**
      * Constructs the EnquiryRepository with the default data file.
@@ -42,11 +60,14 @@ public class EnquiryRepository extends FileBasedRepository<Enquiry, String> {
      */
     @Override
     public boolean save(Enquiry enquiry) {
-        if (findById(enquiry.getEnquiryId()) != null) {
-            return false; // Enquiry with this ID already exists
-        }
-        entities.add(enquiry);
-        return saveToFile();
+        return write(() -> {
+            if (findById(enquiry.getEnquiryId()) != null) {
+                return false; // Enquiry with this ID already exists
+            }
+            entities.add(enquiry);
+            fireInserted(enquiry);
+            return saveToFile();
+        });
     }
     
     /**
@@ -56,13 +77,16 @@ public class EnquiryRepository extends FileBasedRepository<Enquiry, String> {
      */
     @Override
     public boolean update(Enquiry enquiry) {
-        for (int i = 0; i < entities.size(); i++) {
-            if (entities.get(i).getEnquiryId().equals(enquiry.getEnquiryId())) {
-                entities.set(i, enquiry);
-                return saveToFile();
+        return write(() -> {
+            for (int i = 0; i < entities.size(); i++) {
+                if (entities.get(i).getEnquiryId().equals(enquiry.getEnquiryId())) {
+                    entities.set(i, enquiry);
+                    fireUpdated(enquiry);
+                    return saveToFile();
+                }
             }
-        }
-        return false; // Enquiry not found
+            return false; // Enquiry not found
+        });
     }
     
     /**
@@ -73,15 +97,54 @@ public class EnquiryRepository extends FileBasedRepository<Enquiry, String> {
     @Override
     public boolean delete(String id) {
         if (id == null) return false;
-        Iterator<Enquiry> iter = entities.iterator();
-        while (iter.hasNext()) {
-            Enquiry e = iter.next();
-            if (e.getEnquiryId().equals(id)) {
-                iter.remove();
-                return saveToFile();
+        return write(() -> {
+            Iterator<Enquiry> iter = entities.iterator();
+            while (iter.hasNext()) {
+                Enquiry e = iter.next();
+                if (e.getEnquiryId().equals(id)) {
+                    iter.remove();
+                    fireDeleted(e);
+                    return saveToFile();
+                }
             }
+            return false;
+        });
+    }
+
+    /**
+     * Updates a batch of existing enquiries and persists once.
+     * <p>
+     * Nothing is changed if any enquiry in the batch is not stored in the repository, or if
+     * any was read before a later committed update: each enquiry must be the stored instance
+     * or a copy ({@link #copyOf(Object)}) made since its last update.
+     * </p>
+     * @param enquiries The enquiries with updated details.
+     * @return true if all enquiries were updated and persisted, false otherwise.
+     * @throws VersionConflictException if an enquiry was updated since it was read
+     */
+    public boolean batchUpdate(List<Enquiry> enquiries) {
+        if (enquiries.isEmpty()) {
+            return true;
         }
-        return false;
+        return write(() -> {
+            Set<String> stored = new HashSet<>();
+            for (Enquiry e : entities) {
+                stored.add(e.getEnquiryId());
+            }
+            for (Enquiry e : enquiries) {
+                if (!stored.contains(e.getEnquiryId())) {
+                    return false;
+                }
+            }
+            checkVersions(enquiries);
+            Map<String, Enquiry> pending = new LinkedHashMap<>();
+            for (Enquiry e : enquiries) {
+                pending.put(e.getEnquiryId(), e);
+            }
+            entities.replaceAll(existing -> pending.getOrDefault(existing.getEnquiryId(), existing));
+            pending.values().forEach(this::fireUpdated);
+            return saveToFile();
+        });
     }
 
     /**
@@ -102,9 +165,7 @@ public class EnquiryRepository extends FileBasedRepository<Enquiry, String> {
      * @return List of Enquiry objects submitted by the applicant.
      */
     public List<Enquiry> findByApplicant(String applicantNRIC) {
-        return entities.stream()
-                .filter(enquiry -> enquiry.getApplicantId().equals(applicantNRIC))
-                .collect(Collectors.toList());
+        return byApplicant.find(applicantNRIC);
     }
     
     /**
@@ -113,8 +174,9 @@ public class EnquiryRepository extends FileBasedRepository<Enquiry, String> {
      * @return List of Enquiry objects for the specified project.
      */
     public List<Enquiry> findByProject(String projectName) {
+        String project = StringInterner.lookup(projectName);
         return entities.stream()
-                .filter(enquiry -> enquiry.getProjectName().equals(projectName))
+                .filter(enquiry -> StringInterner.same(enquiry.getProjectName(), project))
                 .collect(Collectors.toList());
     }
     
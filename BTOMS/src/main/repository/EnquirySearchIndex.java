@@ -0,0 +1,374 @@
+package main.repository;
+
+import main.model.enquiry.Enquiry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory full-text index over the enquiry and reply texts of all enquiries.
+ * <p>
+ * Texts are split into lowercase alphanumeric tokens (common English stop words and
+ * single characters are dropped). Every indexed version of an enquiry gets an increasing
+ * document number, so each token's posting list is append-only and stored as variable-length
+ * deltas of document numbers followed by the term frequency, typically two bytes per posting.
+ * When an enquiry is updated, replied to or deleted its old document is marked dead, and
+ * the index is compacted once dead documents outnumber live ones.
+ * </p>
+ * <p>
+ * {@link #search(String, String, Boolean, int)} ranks enquiries matching any of the query
+ * terms with BM25 and can be restricted to one project and to answered or unanswered
+ * enquiries. The index is kept up to date through {@link RepositoryListener} callbacks.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class EnquirySearchIndex {
+    /** BM25 term frequency saturation. */
+    private static final float K1 = 1.2f;
+    /** BM25 document length normalisation. */
+    private static final float B = 0.75f;
+    /** Minimum number of dead documents before compaction is considered. */
+    private static final int MIN_COMPACT_DEAD = 1024;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from",
+        "has", "have", "how", "i", "if", "in", "is", "it", "me", "my", "of", "on", "or", "so", "that",
+        "the", "there", "this", "to", "was", "we", "what", "when", "where", "which", "will", "with",
+        "you", "your");
+
+    private final EnquiryRepository enquiryRepository;
+
+    /** Posting list of each term. */
+    private Map<String, PostingList> postings;
+    /** Document number of the live version of each enquiry, by enquiry ID. */
+    private Map<String, Integer> docByEnquiry;
+    /** Per-document data, indexed by document number. */
+    private List<Enquiry> docEnquiries;
+    private int[] docProject;
+    private int[] docLength;
+    private BitSet live;
+    private BitSet answered;
+    private int docCount;
+    private int liveCount;
+    private long liveLength;
+
+    /** Project names numbered for compact per-document storage. */
+    private final Map<String, Integer> projectIds = new HashMap<>();
+
+    /**
+     * Builds the index from the repository and starts listening for changes.
+     * @param enquiryRepository Repository of enquiries
+     */
+    public EnquirySearchIndex(EnquiryRepository enquiryRepository) {
+        this.enquiryRepository = enquiryRepository;
+        rebuild();
+        enquiryRepository.addListener(new RepositoryListener<Enquiry>() {
+            @Override public void onInsert(Enquiry enquiry) { index(enquiry); }
+            @Override public void onUpdate(Enquiry enquiry) { index(enquiry); }
+            @Override public void onDelete(Enquiry enquiry) { remove(enquiry.getEnquiryId()); }
+        });
+    }
+
+    /**
+     * Discards the index and rebuilds it from the repository.
+     */
+    public synchronized void rebuild() {
+        rebuildFrom(enquiryRepository.findAll());
+    }
+
+    /**
+     * Searches enquiries by keywords.
+     * @param query Keywords; enquiries matching more (and rarer) keywords rank higher
+     * @param projectName Only return enquiries about this project, or null for all projects
+     * @param answered true for answered only, false for unanswered only, null for both
+     * @param limit Maximum number of results
+     * @return Matching enquiries, best match first; empty if the query has no searchable terms
+     */
+    public synchronized List<Enquiry> search(String query, String projectName, Boolean answered, int limit) {
+        List<String> terms = new ArrayList<>(countTerms(query).keySet());
+        if (terms.isEmpty() || limit <= 0 || liveCount == 0) {
+            return Collections.emptyList();
+        }
+        int project = -1;
+        if (projectName != null) {
+            Integer id = projectIds.get(projectName);
+            if (id == null) {
+                return Collections.emptyList();
+            }
+            project = id;
+        }
+
+        float[] scores = new float[docCount];
+        int[] touched = new int[64];
+        int touchedCount = 0;
+        float avgLength = (float) liveLength / liveCount;
+        for (String term : terms) {
+            PostingList list = postings.get(term);
+            if (list == null) {
+                continue;
+            }
+            // Document frequencies include dead documents until the next compaction
+            int df = Math.min(list.docFrequency, liveCount);
+            float idf = (float) Math.log(1 + (liveCount - df + 0.5) / (df + 0.5));
+            byte[] bytes = list.bytes;
+            int pos = 0;
+            int doc = 0;
+            while (pos < list.size) {
+                // Decode the document delta and the term frequency
+                int delta = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = bytes[pos++];
+                    delta |= (b & 0x7F) << shift;
+                    if (b >= 0) break;
+                }
+                int tf = 0;
+                for (int shift = 0; ; shift += 7) {
+                    byte b = bytes[pos++];
+                    tf |= (b & 0x7F) << shift;
+                    if (b >= 0) break;
+                }
+                doc += delta;
+                if (!live.get(doc)
+                        || (project >= 0 && docProject[doc] != project)
+                        || (answered != null && this.answered.get(doc) != answered)) {
+                    continue;
+                }
+                if (scores[doc] == 0) {
+                    if (touchedCount == touched.length) {
+                        touched = Arrays.copyOf(touched, touchedCount * 2);
+                    }
+                    touched[touchedCount++] = doc;
+                }
+                float norm = K1 * (1 - B + B * docLength[doc] / avgLength);
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        return topResults(scores, touched, touchedCount, limit);
+    }
+
+    /**
+     * Returns the number of enquiries currently indexed.
+     * @return Number of live documents
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * Selects the highest-scoring documents with a bounded min-heap.
+     */
+    private List<Enquiry> topResults(float[] scores, int[] docs, int count, int limit) {
+        int[] heap = new int[Math.min(limit, count)];
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = docs[i];
+            if (heapSize < heap.length) {
+                heap[heapSize] = doc;
+                siftUp(heap, heapSize++, scores);
+            } else if (better(doc, heap[0], scores)) {
+                heap[0] = doc;
+                siftDown(heap, heapSize, scores);
+            }
+        }
+        Enquiry[] result = new Enquiry[heapSize];
+        while (heapSize > 0) {
+            result[--heapSize] = docEnquiries.get(heap[0]);
+            heap[0] = heap[heapSize];
+            siftDown(heap, heapSize, scores);
+        }
+        return Arrays.asList(result);
+    }
+
+    /**
+     * Orders documents by score, then older documents first.
+     */
+    private static boolean better(int a, int b, float[] scores) {
+        return scores[a] > scores[b] || (scores[a] == scores[b] && a < b);
+    }
+
+    private static void siftUp(int[] heap, int i, float[] scores) {
+        int doc = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], doc, scores)) break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = doc;
+    }
+
+    private static void siftDown(int[] heap, int size, float[] scores) {
+        if (size == 0) return;
+        int doc = heap[0];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && better(heap[child], heap[child + 1], scores)) child++;
+            if (!better(doc, heap[child], scores)) break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = doc;
+    }
+
+    private synchronized void index(Enquiry enquiry) {
+        Integer previous = docByEnquiry.get(enquiry.getEnquiryId());
+        if (previous != null) {
+            kill(previous);
+        }
+        addDocument(enquiry);
+        compactIfNeeded();
+    }
+
+    private synchronized void remove(String enquiryId) {
+        Integer previous = docByEnquiry.remove(enquiryId);
+        if (previous != null) {
+            kill(previous);
+            compactIfNeeded();
+        }
+    }
+
+    private void kill(int doc) {
+        live.clear(doc);
+        liveCount--;
+        liveLength -= docLength[doc];
+    }
+
+    private void addDocument(Enquiry enquiry) {
+        int doc = docCount++;
+        if (doc == docProject.length) {
+            int capacity = Math.max(16, doc * 2);
+            docProject = Arrays.copyOf(docProject, capacity);
+            docLength = Arrays.copyOf(docLength, capacity);
+        }
+        Map<String, Integer> terms = countTerms(enquiry.getEnquiryText());
+        countTerms(enquiry.getReplyText()).forEach((term, tf) -> terms.merge(term, tf, Integer::sum));
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : terms.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), t -> new PostingList()).add(doc, entry.getValue());
+            length += entry.getValue();
+        }
+        docEnquiries.add(enquiry);
+        docProject[doc] = projectIds.computeIfAbsent(enquiry.getProjectName(), p -> projectIds.size());
+        docLength[doc] = length;
+        live.set(doc);
+        answered.set(doc, enquiry.hasReply());
+        docByEnquiry.put(enquiry.getEnquiryId(), doc);
+        liveCount++;
+        liveLength += length;
+    }
+
+    /**
+     * Rebuilds the index from the live documents once dead documents outnumber them.
+     */
+    private void compactIfNeeded() {
+        int dead = docCount - liveCount;
+        if (dead >= MIN_COMPACT_DEAD && dead > liveCount) {
+            List<Enquiry> current = new ArrayList<>(liveCount);
+            for (int doc = live.nextSetBit(0); doc >= 0; doc = live.nextSetBit(doc + 1)) {
+                current.add(docEnquiries.get(doc));
+            }
+            rebuildFrom(current);
+        }
+    }
+
+    private void rebuildFrom(List<Enquiry> enquiries) {
+        postings = new HashMap<>();
+        docByEnquiry = new HashMap<>();
+        docEnquiries = new ArrayList<>(enquiries.size());
+        docProject = new int[Math.max(16, enquiries.size())];
+        docLength = new int[docProject.length];
+        live = new BitSet();
+        answered = new BitSet();
+        docCount = 0;
+        liveCount = 0;
+        liveLength = 0;
+        for (Enquiry enquiry : enquiries) {
+            addDocument(enquiry);
+        }
+    }
+
+    /**
+     * Splits text into lowercase alphanumeric tokens, dropping stop words and single
+     * characters, and counts each token.
+     * @param text The text (may be null)
+     * @return Token counts in order of first occurrence
+     */
+    static Map<String, Integer> countTerms(String text) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String token : tokenize(text)) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Splits text into lowercase alphanumeric tokens, dropping stop words and single characters.
+     * @param text The text (may be null)
+     * @return The tokens in text order
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean tokenChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                if (i - start > 1) {
+                    String token = lower.substring(start, i);
+                    if (!STOP_WORDS.contains(token)) {
+                        tokens.add(token);
+                    }
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Append-only list of (document, term frequency) pairs, stored as variable-length
+     * integers with document numbers delta-encoded.
+     */
+    private static final class PostingList {
+        byte[] bytes = new byte[8];
+        int size;
+        int lastDoc;
+        int docFrequency;
+
+        void add(int doc, int tf) {
+            if (bytes.length - size < 10) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            writeVarInt(doc - lastDoc);
+            writeVarInt(tf);
+            lastDoc = doc;
+            docFrequency++;
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,360 @@
+package main.repository;
+
+import main.model.enquiry.Enquiry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-project queues of unanswered enquiries, oldest first, with claim leases.
+ * <p>
+ * The queues are maintained through {@link RepositoryListener} callbacks: an enquiry joins its
+ * project's queue when created and leaves it when answered or deleted, so listing unanswered
+ * enquiries does not scan the repository. Each queue is a {@link ConcurrentSkipListSet}
+ * ordered by submission time, and every enquiry has a reply deadline {@link #getDeadline(Enquiry)
+ * (SLA)} a fixed time after submission.
+ * </p>
+ * <p>
+ * An officer claims an enquiry before answering it. A claim is a lease that expires on its own
+ * after the lease time, so an abandoned claim does not block the enquiry for long. Claims are
+ * kept in a {@link ConcurrentHashMap} and updated atomically per enquiry, so officers working
+ * concurrently never hold the same enquiry and never block each other on a shared lock.
+ * Claimed enquiries leave a separate per-project set of available enquiries, from which
+ * {@link #claimNext(String, String)} takes the oldest; expired claims are returned to it in
+ * expiry order the next time anyone claims.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class EnquiryWorkQueue {
+    /** Default time an officer may hold a claim before it expires. */
+    public static final long DEFAULT_LEASE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    /** Default time within which an enquiry should be answered. */
+    public static final long DEFAULT_SLA_MILLIS = TimeUnit.DAYS.toMillis(3);
+
+    private static final Comparator<Item> BY_AGE =
+        Comparator.comparingLong((Item item) -> item.submitted).thenComparing(item -> item.enquiryId);
+
+    private static final Comparator<Lease> BY_EXPIRY =
+        Comparator.comparingLong((Lease lease) -> lease.expiresAt).thenComparingLong(lease -> lease.serial);
+
+    private final long leaseMillis;
+    private final long slaMillis;
+
+    /** All unanswered enquiries per project. */
+    private final Map<String, ConcurrentSkipListSet<Item>> queues = new ConcurrentHashMap<>();
+    /** Unanswered enquiries per project that are not claimed, so claimNext need not skip claimed ones. */
+    private final Map<String, ConcurrentSkipListSet<Item>> available = new ConcurrentHashMap<>();
+    private final Map<String, Item> items = new ConcurrentHashMap<>();
+    /** Current claim per enquiry ID; the only authority on who holds an enquiry. */
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+    /** Issued leases by expiry time, used to return expired claims to the available set. */
+    private final ConcurrentSkipListSet<Lease> expiring = new ConcurrentSkipListSet<>(BY_EXPIRY);
+    private final AtomicLong leaseSerial = new AtomicLong();
+
+    /**
+     * Creates the queues with the default lease time and SLA.
+     * @param enquiryRepository Repository of enquiries
+     */
+    public EnquiryWorkQueue(EnquiryRepository enquiryRepository) {
+        this(enquiryRepository, DEFAULT_LEASE_MILLIS, DEFAULT_SLA_MILLIS);
+    }
+
+    /**
+     * Creates the queues from the unanswered enquiries in the repository and starts listening for changes.
+     * @param enquiryRepository Repository of enquiries
+     * @param leaseMillis Time a claim lasts unless renewed
+     * @param slaMillis Time after submission by which an enquiry should be answered
+     * @throws IllegalArgumentException if a duration is not positive
+     */
+    public EnquiryWorkQueue(EnquiryRepository enquiryRepository, long leaseMillis, long slaMillis) {
+        if (leaseMillis <= 0 || slaMillis <= 0) {
+            throw new IllegalArgumentException("Lease time and SLA must be positive");
+        }
+        this.leaseMillis = leaseMillis;
+        this.slaMillis = slaMillis;
+        enquiryRepository.findAll().forEach(this::track);
+        enquiryRepository.addListener(new RepositoryListener<Enquiry>() {
+            @Override public void onInsert(Enquiry enquiry) { track(enquiry); }
+            @Override public void onUpdate(Enquiry enquiry) { track(enquiry); }
+            @Override public void onDelete(Enquiry enquiry) { untrack(enquiry.getEnquiryId()); }
+        });
+    }
+
+    /**
+     * Returns the unanswered enquiries of a project, oldest first.
+     * @param projectName Name of the project
+     * @return Unanswered enquiries, including claimed ones
+     */
+    public List<Enquiry> getUnanswered(String projectName) {
+        ConcurrentSkipListSet<Item> queue = queues.get(projectName);
+        if (queue == null) {
+            return Collections.emptyList();
+        }
+        List<Enquiry> result = new ArrayList<>(queue.size());
+        for (Item item : queue) {
+            result.add(item.enquiry);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the unanswered enquiries of all projects, oldest first.
+     * @return Unanswered enquiries, including claimed ones
+     */
+    public List<Enquiry> getUnanswered() {
+        List<Item> all = new ArrayList<>(items.values());
+        all.sort(BY_AGE);
+        List<Enquiry> result = new ArrayList<>(all.size());
+        for (Item item : all) {
+            result.add(item.enquiry);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of unanswered enquiries of a project whose deadline has passed.
+     * @param projectName Name of the project
+     * @return Number of overdue enquiries
+     */
+    public int countOverdue(String projectName) {
+        ConcurrentSkipListSet<Item> queue = queues.get(projectName);
+        if (queue == null) {
+            return 0;
+        }
+        long cutoff = System.currentTimeMillis() - slaMillis;
+        int overdue = 0;
+        // The queue is ordered by age, so the overdue enquiries come first
+        for (Item item : queue) {
+            if (item.submitted >= cutoff) break;
+            overdue++;
+        }
+        return overdue;
+    }
+
+    /**
+     * Returns the time by which an enquiry should be answered.
+     * @param enquiry The enquiry
+     * @return Submission time plus the SLA
+     */
+    public Date getDeadline(Enquiry enquiry) {
+        return new Date(submittedAt(enquiry) + slaMillis);
+    }
+
+    /**
+     * Claims the oldest unanswered enquiry of a project that nobody else holds.
+     * @param projectName Name of the project
+     * @param officerId NRIC of the claiming officer
+     * @return The claimed enquiry, or null if every unanswered enquiry is claimed
+     */
+    public Enquiry claimNext(String projectName, String officerId) {
+        expireLeases();
+        ConcurrentSkipListSet<Item> candidates = available.get(projectName);
+        if (candidates == null) {
+            return null;
+        }
+        for (Item item : candidates) {
+            if (claim(item, officerId)) {
+                return item.enquiry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Claims an unanswered enquiry, or renews the caller's existing claim.
+     * @param enquiryId ID of the enquiry
+     * @param officerId NRIC of the claiming officer
+     * @return true if the caller now holds the claim, false if the enquiry is not queued
+     *         or someone else holds an unexpired claim on it
+     */
+    public boolean claim(String enquiryId, String officerId) {
+        expireLeases();
+        Item item = items.get(enquiryId);
+        return item != null && claim(item, officerId);
+    }
+
+    /**
+     * Atomically takes or renews the lease of an item. Only one caller can replace a missing
+     * or expired lease, so two officers never hold the same enquiry.
+     */
+    private boolean claim(Item item, String officerId) {
+        long now = System.currentTimeMillis();
+        Lease mine = new Lease(item, officerId, now + leaseMillis, leaseSerial.incrementAndGet());
+        Lease lease = leases.compute(item.enquiryId, (id, current) ->
+            current == null || current.expiresAt <= now || current.holderId.equals(officerId) ? mine : current);
+        if (lease != mine) {
+            return false;
+        }
+        expiring.add(mine);
+        removeFromSet(available, item);
+        if (items.get(item.enquiryId) != item) {
+            // Answered or deleted while claiming
+            leases.remove(item.enquiryId, mine);
+            expiring.remove(mine);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives up a claim held by the caller.
+     * @param enquiryId ID of the enquiry
+     * @param officerId NRIC of the officer releasing the claim
+     * @return true if the caller held the claim
+     */
+    public boolean release(String enquiryId, String officerId) {
+        Lease lease = leases.get(enquiryId);
+        if (lease == null || !lease.holderId.equals(officerId) || !leases.remove(enquiryId, lease)) {
+            return false;
+        }
+        expiring.remove(lease);
+        makeAvailable(enquiryId);
+        return true;
+    }
+
+    /**
+     * Returns the enquiries of expired claims to the available sets.
+     */
+    private void expireLeases() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            Lease first;
+            try {
+                first = expiring.first();
+            } catch (NoSuchElementException e) {
+                return;
+            }
+            if (first.expiresAt > now) {
+                return;
+            }
+            // Fails if the lease was renewed, released or taken over in the meantime
+            if (expiring.remove(first) && leases.remove(first.item.enquiryId, first)) {
+                makeAvailable(first.item.enquiryId);
+            }
+        }
+    }
+
+    /**
+     * Checks whether someone other than the given user holds an unexpired claim on an enquiry.
+     * @param enquiryId ID of the enquiry
+     * @param userId NRIC of the user about to act on the enquiry
+     * @return true if the enquiry is claimed by someone else
+     */
+    public boolean isClaimedByOther(String enquiryId, String userId) {
+        Lease lease = leases.get(enquiryId);
+        return lease != null && lease.expiresAt > System.currentTimeMillis() && !lease.holderId.equals(userId);
+    }
+
+    /**
+     * Returns who holds an unexpired claim on an enquiry.
+     * @param enquiryId ID of the enquiry
+     * @return NRIC of the holder, or null if the enquiry is not claimed
+     */
+    public String getClaimHolder(String enquiryId) {
+        Lease lease = leases.get(enquiryId);
+        return lease != null && lease.expiresAt > System.currentTimeMillis() ? lease.holderId : null;
+    }
+
+    private void track(Enquiry enquiry) {
+        if (enquiry.hasReply()) {
+            untrack(enquiry.getEnquiryId());
+            return;
+        }
+        Item item = new Item(enquiry, submittedAt(enquiry));
+        Item previous = items.put(item.enquiryId, item);
+        if (previous != null) {
+            removeFromSet(queues, previous);
+            removeFromSet(available, previous);
+        }
+        queues.computeIfAbsent(item.projectName, p -> new ConcurrentSkipListSet<>(BY_AGE)).add(item);
+        makeAvailable(item.enquiryId);
+    }
+
+    private void untrack(String enquiryId) {
+        Item previous = items.remove(enquiryId);
+        if (previous != null) {
+            removeFromSet(queues, previous);
+            removeFromSet(available, previous);
+        }
+        Lease lease = leases.remove(enquiryId);
+        if (lease != null) {
+            expiring.remove(lease);
+        }
+    }
+
+    /**
+     * Adds a queued enquiry to its project's available set unless it is claimed.
+     */
+    private void makeAvailable(String enquiryId) {
+        Item item = items.get(enquiryId);
+        if (item == null) {
+            return;
+        }
+        ConcurrentSkipListSet<Item> set = available.computeIfAbsent(item.projectName, p -> new ConcurrentSkipListSet<>(BY_AGE));
+        set.add(item);
+        // A claim made meanwhile keeps the enquiry; claim() may have run before the add
+        Lease lease = leases.get(enquiryId);
+        if (lease != null && lease.expiresAt > System.currentTimeMillis()) {
+            set.remove(item);
+        }
+    }
+
+    private static void removeFromSet(Map<String, ConcurrentSkipListSet<Item>> sets, Item item) {
+        ConcurrentSkipListSet<Item> set = sets.get(item.projectName);
+        if (set != null) {
+            set.remove(item);
+        }
+    }
+
+    private static long submittedAt(Enquiry enquiry) {
+        return enquiry.getEnquiryDate() != null ? enquiry.getEnquiryDate().getTime() : 0L;
+    }
+
+    /**
+     * A queued enquiry. The project and submission time are captured when queued,
+     * so the item can be found in its queue even if the enquiry is later modified.
+     */
+    private static final class Item {
+        final Enquiry enquiry;
+        final String enquiryId;
+        final String projectName;
+        final long submitted;
+
+        Item(Enquiry enquiry, long submitted) {
+            this.enquiry = enquiry;
+            this.enquiryId = enquiry.getEnquiryId();
+            this.projectName = enquiry.getProjectName();
+            this.submitted = submitted;
+        }
+    }
+
+    /**
+     * A claim on an enquiry by one officer until a point in time.
+     */
+    private static final class Lease {
+        final Item item;
+        final String holderId;
+        final long expiresAt;
+        /** Distinguishes leases expiring in the same millisecond. */
+        final long serial;
+
+        Lease(Item item, String holderId, long expiresAt, long serial) {
+            this.item = item;
+            this.holderId = holderId;
+            this.expiresAt = expiresAt;
+            this.serial = serial;
+        }
+    }
+}
@@ -1,8 +1,26 @@
 package main.repository;
 
+import main.model.Versioned;
+
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * An abstract generic repository class for file-based persistence using Java serialization.
@@ -10,6 +28,13 @@ import java.util.List;
  * Provides base CRUD operations and handles persistence through object serialization.
  * Subclasses must implement entity-specific ID handling via {@link #getEntityId(Object)}.
  * </p>
+ * <p>
+ * Every committed update increments the entity's {@link Versioned version}. Writes are
+ * serialized, but a plain {@code update} is last-writer-wins: it stores whatever it is given,
+ * even if it was computed from a stale read. Writers that may race use
+ * {@link #update(Versioned, long)} or {@link #modify(Object, Predicate)}, which reject an
+ * update based on a stale read instead of overwriting the other writer's change.
+ * </p>
  *
  * @param <T>  The type of entity managed by this repository
  * @param <ID> The type of unique identifier for the entity
@@ -18,7 +43,7 @@ import java.util.List;
  * @version 1.0
  * @since 2025-04-16
  */
-public abstract class FileBasedRepository<T, ID> implements Repository<T, ID> {
+public abstract class FileBasedRepository<T extends Versioned, ID> implements Repository<T, ID> {
     
     /**
      * In-memory list of entities managed by this repository.
@@ -31,6 +56,56 @@ public abstract class FileBasedRepository<T, ID> implements Repository<T, ID> {
      */
     protected final String filePath;
 
+    /**
+     * Listeners notified of inserts, updates and deletes.
+     */
+    private final List<RepositoryListener<T>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Bus receiving change events, or null if changes are not published.
+     */
+    private volatile ChangeEventBus eventBus;
+
+    /**
+     * Copy of each entity as last published, used as the before state of the next event.
+     * Only kept for entities whose type has subscribers on the bus; null without subscribers.
+     */
+    private Map<ID, T> snapshots;
+    private final Object snapshotLock = new Object();
+
+    /**
+     * Changes not yet published because no save has succeeded since they were made, in
+     * order. Guarded by snapshotLock.
+     */
+    private final List<ChangeEvent<T>> unpublished = new ArrayList<>();
+
+    /**
+     * Saved changes waiting to be published once the write lock is released, in the order
+     * they were made. Drained under publishLock, so events leave in that order.
+     */
+    private final Queue<ChangeEvent<T>> saved = new ConcurrentLinkedQueue<>();
+    private final Object publishLock = new Object();
+
+    /**
+     * Sorted indexes backing {@link #page(String, String, int, PageSort)}, by ascending sort.
+     * Built on first use and kept current by the fire methods; written under their own lock.
+     */
+    private final Map<PageSort<T>, PageIndex<T>> pageIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * Maximum number of attempts {@link #modify(Object, Predicate)} makes before giving up.
+     */
+    public static final int MAX_UPDATE_ATTEMPTS = 10;
+
+    /**
+     * Serializes all writes to this repository, including the version check of versioned
+     * updates. Subclasses hold it around every change they make to the stored entities and the
+     * save that follows, through {@link #write(BooleanSupplier)}. Held only while committing,
+     * not while callers compute their changes.
+     */
+    protected final Object writeLock = new Object();
+    private final AtomicLong versionConflicts = new AtomicLong();
+
     /**
      * Constructs a new repository with specified persistence location.
      * <p>
@@ -83,7 +158,11 @@ public abstract class FileBasedRepository<T, ID> implements Repository<T, ID> {
     /**
      * Persists current entity state to disk.
      * <p>
-     * Overwrites existing file contents completely.
+     * Overwrites existing file contents completely. Once the file is written, the changes
+     * made since the last successful save are handed to {@link #write(BooleanSupplier)} for
+     * publication on the event bus, so subscribers never hear of a change that was not
+     * saved. If saving fails they stay queued and are published with the next successful
+     * save, which includes them.
      * </p>
      *
      * @return true if save succeeded, false if any I/O error occurred
@@ -94,12 +173,36 @@ public abstract class FileBasedRepository<T, ID> implements Repository<T, ID> {
             ensureDataDirectoryExists();
             try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
                 oos.writeObject(entities);
-                return true;
             }
         } catch (IOException e) {
             System.err.println("Error saving data to " + filePath + ": " + e.getMessage());
             return false;
         }
+        synchronized (snapshotLock) {
+            saved.addAll(unpublished);
+            unpublished.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Runs a write holding {@link #writeLock}, then publishes the changes it saved once the
+     * lock is released, so subscribers that make publishing wait do not hold up other
+     * writers. A write nested in another publishes nothing; the outermost one publishes.
+     *
+     * @param operation changes the stored entities and saves them
+     * @return the result of the operation
+     */
+    protected boolean write(BooleanSupplier operation) {
+        try {
+            synchronized (writeLock) {
+                return operation.getAsBoolean();
+            }
+        } finally {
+            if (!Thread.holdsLock(writeLock)) {
+                publishSaved();
+            }
+        }
     }
 
     /**
@@ -112,6 +215,443 @@ public abstract class FileBasedRepository<T, ID> implements Repository<T, ID> {
         return new ArrayList<>(entities);
     }
 
+    /**
+     * Deletes several entities and persists once, instead of rewriting the file for each
+     * entity as {@link #delete(Object)} does. Listeners are notified of every deletion.
+     *
+     * @param ids the IDs of the entities to delete; unknown IDs are ignored
+     * @return true if nothing had to be deleted or the deletions were saved
+     */
+    public boolean deleteAll(Collection<ID> ids) {
+        Set<ID> wanted = new HashSet<>(ids);
+        return write(() -> {
+            List<T> removed = new ArrayList<>();
+            entities.removeIf(entity -> wanted.contains(getEntityId(entity)) && removed.add(entity));
+            if (removed.isEmpty()) {
+                return true;
+            }
+            removed.forEach(this::fireDeleted);
+            return saveToFile();
+        });
+    }
+
+    /**
+     * Registers a listener to be notified of changes to this repository.
+     *
+     * @param listener the listener to add
+     */
+    public void addListener(RepositoryListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a previously added listener.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeListener(RepositoryListener<T> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies listeners and the event bus that an entity was added.
+     *
+     * @param entity the added entity
+     */
+    protected void fireInserted(T entity) {
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onInsert(entity);
+        }
+        reindex(entity);
+        publish(ChangeEvent.Type.INSERT, entity);
+    }
+
+    /**
+     * Notifies listeners and the event bus that an entity was updated.
+     *
+     * @param entity the entity in its new state
+     */
+    protected void fireUpdated(T entity) {
+        entity.setVersion(entity.getVersion() + 1);
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onUpdate(entity);
+        }
+        reindex(entity);
+        publish(ChangeEvent.Type.UPDATE, entity);
+    }
+
+    /**
+     * Notifies listeners and the event bus that an entity was removed.
+     *
+     * @param entity the removed entity
+     */
+    protected void fireDeleted(T entity) {
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onDelete(entity);
+        }
+        unindex(entity);
+        publish(ChangeEvent.Type.DELETE, entity);
+    }
+
+    /**
+     * Updates an entity only if nobody else has committed an update since it was read.
+     * <p>
+     * The caller passes the version the entity had when it was read. The update is
+     * committed, incrementing the version, only if the stored entity still has that
+     * version; the check and the write happen atomically.
+     * </p>
+     *
+     * @param entity the entity in its new state (the stored instance or a modified copy)
+     * @param expectedVersion the version the caller read
+     * @return true if the update was committed, false if the entity does not exist or could not be saved
+     * @throws VersionConflictException if the stored entity has a different version
+     */
+    public boolean update(T entity, long expectedVersion) {
+        ID id = getEntityId(entity);
+        return write(() -> {
+            T current = findById(id);
+            if (current == null) {
+                return false;
+            }
+            if (current.getVersion() != expectedVersion) {
+                throw conflict(id, expectedVersion, current.getVersion());
+            }
+            entity.setVersion(expectedVersion);
+            return update(entity);
+        });
+    }
+
+    /**
+     * Applies a change to a copy of an entity and commits it with {@link #update(Versioned, long)},
+     * retrying on version conflicts.
+     * <p>
+     * Each attempt re-reads the entity, so the change always sees the latest committed state
+     * and can decline it (e.g., an enquiry that was answered meanwhile). Attempts back off for
+     * a short random time that grows with each conflict. A change that alters the entity's ID
+     * is committed with {@link #rename(Object, Versioned, long)}.
+     * </p>
+     *
+     * @param id the ID of the entity to change
+     * @param change modifies the copy it is given; returns false to abandon the update
+     * @return true if the change was committed, false if the entity does not exist, the change
+     *         was declined, or it could not be saved
+     * @throws VersionConflictException if every one of {@link #MAX_UPDATE_ATTEMPTS} attempts conflicted
+     */
+    public boolean modify(ID id, Predicate<? super T> change) {
+        for (int attempt = 1; ; attempt++) {
+            T copy;
+            long version;
+            synchronized (writeLock) {
+                T current = findById(id);
+                if (current == null) {
+                    return false;
+                }
+                version = current.getVersion();
+                copy = copyOf(current);
+            }
+            if (!change.test(copy)) {
+                return false;
+            }
+            try {
+                return id.equals(getEntityId(copy)) ? update(copy, version) : rename(id, copy, version);
+            } catch (VersionConflictException e) {
+                if (attempt >= MAX_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+                long maxMicros = 10L << Math.min(attempt, 10);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ThreadLocalRandom.current().nextLong(maxMicros)));
+            }
+        }
+    }
+
+    /**
+     * Replaces an entity with a copy that has a different ID, if nobody else has committed an
+     * update since the copy was made. Repositories whose IDs cannot change do not support it.
+     *
+     * @param id the ID of the stored entity
+     * @param entity the entity in its new state, under its new ID
+     * @param expectedVersion the version the caller read
+     * @return true if the entity was replaced, false if it does not exist, the new ID is taken,
+     *         or it could not be saved
+     * @throws VersionConflictException if the stored entity has a different version
+     * @throws UnsupportedOperationException if the repository's IDs cannot change
+     */
+    protected boolean rename(ID id, T entity, long expectedVersion) {
+        throw new UnsupportedOperationException("The ID of " + id + " cannot be changed");
+    }
+
+    /**
+     * Counts a rejected versioned update and creates the exception reporting it.
+     *
+     * @param id the ID of the entity
+     * @param expectedVersion the version the caller read
+     * @param actualVersion the version currently stored
+     * @return the exception to throw
+     */
+    protected VersionConflictException conflict(ID id, long expectedVersion, long actualVersion) {
+        versionConflicts.incrementAndGet();
+        return new VersionConflictException(id, expectedVersion, actualVersion);
+    }
+
+    /**
+     * Returns the number of versioned updates rejected because of a conflict.
+     *
+     * @return the number of conflicts since the repository was created
+     */
+    public long getVersionConflictCount() {
+        return versionConflicts.get();
+    }
+
+    /**
+     * Checks that every entity of a batch carries the version of the stored entity it
+     * replaces, i.e. that it is the stored instance or a copy made from it since its last
+     * committed update. Entities that are not stored yet are not checked.
+     * Must be called holding {@link #writeLock}, before any entity of the batch is written.
+     *
+     * @param batch the entities about to be written
+     * @throws VersionConflictException if an entity was read before the latest committed update
+     */
+    protected void checkVersions(Collection<? extends T> batch) {
+        for (T entity : batch) {
+            ID id = getEntityId(entity);
+            T current = findById(id);
+            if (current != null && current.getVersion() != entity.getVersion()) {
+                throw conflict(id, entity.getVersion(), current.getVersion());
+            }
+        }
+    }
+
+    /**
+     * Lists one page of entities in the given order, starting after a cursor.
+     *
+     * @param after cursor from the previous page, or null for the first page
+     * @param limit maximum number of entities on the page
+     * @param sort the order to list in, one of the sorts declared by the repository
+     * @return the page
+     * @throws IllegalArgumentException if the limit is not positive
+     */
+    @Override
+    public Page<T> page(String after, int limit, PageSort<T> sort) {
+        return page(null, after, limit, sort);
+    }
+
+    /**
+     * Lists one page of the entities in a partition of a partitioned sort.
+     * <p>
+     * Pages are read from a sorted index by seeking to the cursor, so a request touches
+     * only the entities it returns, however large the repository is.
+     * </p>
+     *
+     * @param partition partition to list (e.g., a project name), or null for all entities
+     * @param after cursor from the previous page, or null for the first page
+     * @param limit maximum number of entities on the page
+     * @param sort the order to list in, one of the sorts declared by the repository
+     * @return the page
+     * @throws IllegalArgumentException if the limit is not positive, a partition is given for an
+     *         unpartitioned sort, or the cursor does not belong to the partition
+     */
+    public Page<T> page(String partition, String after, int limit, PageSort<T> sort) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page size must be positive: " + limit);
+        }
+        if (partition != null && !sort.isPartitioned()) {
+            throw new IllegalArgumentException("Sort " + sort + " is not partitioned");
+        }
+        return pageIndex(sort.ascending()).page(partition, after, limit, sort.isDescending());
+    }
+
+    /**
+     * Returns the index of a sort, building it from the current entities on first use.
+     */
+    private PageIndex<T> pageIndex(PageSort<T> sort) {
+        PageIndex<T> index = pageIndexes.get(sort);
+        if (index != null) {
+            return index;
+        }
+        synchronized (pageIndexes) {
+            index = pageIndexes.get(sort);
+            if (index == null) {
+                index = new PageIndex<>(sort);
+                for (T entity : new ArrayList<>(entities)) {
+                    index.put(getEntityId(entity), entity);
+                }
+                pageIndexes.put(sort, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Drops an entity from the page indexes and the change snapshots without notifying
+     * listeners, for subclasses that move an entity out of {@link #entities} into other
+     * storage without deleting it. No heap copy of the entity is kept afterwards.
+     *
+     * @param entity the entity moved out
+     */
+    protected void detach(T entity) {
+        unindex(entity);
+        synchronized (snapshotLock) {
+            if (snapshots != null) {
+                snapshots.remove(getEntityId(entity));
+            }
+        }
+    }
+
+    /**
+     * Restores the change snapshot of a detached entity that is about to be updated, so the
+     * update's event carries its before state. The stored state is only loaded while changes
+     * are published and no snapshot exists.
+     *
+     * @param id the ID of the entity
+     * @param stored loads the entity from the other storage, or returns null if it is not there
+     */
+    protected void reattach(ID id, Supplier<? extends T> stored) {
+        ChangeEventBus bus = eventBus;
+        synchronized (snapshotLock) {
+            if (bus == null || snapshots == null || snapshots.containsKey(id)) {
+                return;
+            }
+            T before = stored.get();
+            if (before != null && bus.isSubscribed(before)) {
+                snapshots.put(id, before);
+            }
+        }
+    }
+
+    private void reindex(T entity) {
+        synchronized (pageIndexes) {
+            ID id = getEntityId(entity);
+            for (PageIndex<T> index : pageIndexes.values()) {
+                index.put(id, entity);
+            }
+        }
+    }
+
+    private void unindex(T entity) {
+        synchronized (pageIndexes) {
+            ID id = getEntityId(entity);
+            for (PageIndex<T> index : pageIndexes.values()) {
+                index.remove(id);
+            }
+        }
+    }
+
+    /**
+     * Publishes the changes of this repository as {@link ChangeEvent}s on a bus.
+     * <p>
+     * The changes of an operation are published once the operation has saved them. For
+     * entity types with subscribers, the repository keeps a private copy of every entity so
+     * that events carry correct before and after states even when the stored instance was
+     * modified in place. Entities nobody subscribes to are neither copied nor published.
+     * </p>
+     *
+     * @param bus the bus to publish to
+     */
+    public void publishTo(ChangeEventBus bus) {
+        this.eventBus = bus;
+        bus.addActivationListener(this::onBusActivation);
+        if (bus.hasSubscribers()) {
+            onBusActivation(true);
+        }
+    }
+
+    /**
+     * Snapshots the entities that a new subscription makes interesting, or discards the
+     * snapshots when the bus loses its last subscriber. Only {@link #entities} are
+     * snapshotted; detached entities get theirs back from {@link #reattach} when updated.
+     */
+    private void onBusActivation(boolean active) {
+        ChangeEventBus bus = eventBus;
+        synchronized (snapshotLock) {
+            if (!active) {
+                snapshots = null;
+                unpublished.clear();
+                saved.clear();
+                return;
+            }
+            if (snapshots == null) {
+                snapshots = new HashMap<>();
+            }
+            for (T entity : new ArrayList<>(entities)) {
+                ID id = getEntityId(entity);
+                if (bus.isSubscribed(entity) && !snapshots.containsKey(id)) {
+                    snapshots.put(id, copyOf(entity));
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues a change event for publication after the next successful save, if a bus with
+     * subscribers is attached. The before and after states are copied now, while they are known.
+     */
+    private void publish(ChangeEvent.Type type, T entity) {
+        ChangeEventBus bus = eventBus;
+        if (bus == null || !bus.isSubscribed(entity)) {
+            return;
+        }
+        ID id = getEntityId(entity);
+        T before;
+        T after;
+        synchronized (snapshotLock) {
+            if (snapshots == null) {
+                return;
+            }
+            if (type == ChangeEvent.Type.DELETE) {
+                before = snapshots.remove(id);
+                after = null;
+                if (before == null) {
+                    before = copyOf(entity);
+                }
+            } else {
+                after = copyOf(entity);
+                before = snapshots.put(id, after);
+            }
+            // The bus numbers the event when it is published
+            unpublished.add(new ChangeEvent<>(0, type, id, before, after));
+        }
+    }
+
+    /**
+     * Publishes the saved changes not yet published, in the order they were made. Returns
+     * once the changes of the calling writer have been published, by it or by another one.
+     */
+    private void publishSaved() {
+        ChangeEventBus bus = eventBus;
+        if (bus == null) {
+            return;
+        }
+        synchronized (publishLock) {
+            ChangeEvent<T> change;
+            while ((change = saved.poll()) != null) {
+                bus.publish(change.getType(), change.getEntityId(), change.getBefore(), change.getAfter());
+            }
+        }
+    }
+
+    /**
+     * Creates a deep copy of an entity through serialization, e.g. to prepare changes that
+     * are committed with a versioned update while the stored entity stays untouched.
+     *
+     * @param entity the entity to copy
+     * @return the copy, or the entity itself if it cannot be serialized
+     */
+    @SuppressWarnings("unchecked")
+    public T copyOf(T entity) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+                oos.writeObject(entity);
+            }
+            try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                return (T) ois.readObject();
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            System.err.println("Error copying entity " + getEntityId(entity) + ": " + e.getMessage());
+            return entity;
+        }
+    }
+
     /**
      * Template method for entity ID extraction.
      * <p>
@@ -0,0 +1,505 @@
+package main.repository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Remembers the results of recent commands by client request ID, so a retried request
+ * returns the original result instead of running the command again.
+ * <p>
+ * Results are kept in a {@link ConcurrentHashMap} for a fixed time and at most
+ * {@code maxEntries} of them, oldest first out. A request that arrives while the same request
+ * is still running waits for that run and shares its result. Commands that throw are not
+ * remembered, so they can be retried.
+ * </p>
+ * <p>
+ * Every result is appended to a log in the data directory before it is returned, so retries
+ * are also recognized after a restart. On startup the log is read back and rewritten with
+ * only the unexpired entries; it is rewritten the same way whenever it has grown to twice
+ * the cache size.
+ * </p>
+ * <p>
+ * Before a command runs, an in-flight marker naming its subject (e.g. the applicant and
+ * project of an application) is logged. A crash after the command took effect but before
+ * its result was logged leaves the marker without a result. The marker is read back on
+ * startup and stays unsettled until the owner of the command calls
+ * {@link #settle(String, Settlement)}, which decides from the state of the subject whether
+ * the command took effect. A retry of an unsettled request runs the command again.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class IdempotencyCache {
+    /** Default log location, next to the repository data files. */
+    public static final String LOG_FILE = "data/commands.log";
+    /** Default time a result is remembered. */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.HOURS.toMillis(24);
+    /** Default maximum number of remembered results. */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    /** Result field of an in-flight marker in the log. */
+    private static final String MARKER = "?";
+
+    private final File logFile;
+    private final long ttlMillis;
+    private final int maxEntries;
+
+    /** Results and running commands by request ID. */
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    /** Commands logged as started but not completed before the last shutdown, by request ID. */
+    private final ConcurrentHashMap<String, Entry> unsettled = new ConcurrentHashMap<>();
+    /** Completed entries in completion order, which is also expiry order. */
+    private final ConcurrentLinkedQueue<Entry> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger completedCount = new AtomicInteger();
+
+    /** Guards the log writer and compaction. */
+    private final Object logLock = new Object();
+    private Writer log;
+    private int logLines;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache logging to {@value #LOG_FILE} with the default limits.
+     * @throws IOException if the log cannot be opened
+     */
+    public IdempotencyCache() throws IOException {
+        this(LOG_FILE, DEFAULT_TTL_MILLIS, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache and loads the unexpired results from its log.
+     * @param logFile Path of the log file
+     * @param ttlMillis Time a result is remembered
+     * @param maxEntries Maximum number of remembered results
+     * @throws IOException if the log cannot be opened
+     */
+    public IdempotencyCache(String logFile, long ttlMillis, int maxEntries) throws IOException {
+        if (ttlMillis <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("TTL and maximum entries must be positive");
+        }
+        this.logFile = new File(logFile);
+        this.ttlMillis = ttlMillis;
+        this.maxEntries = maxEntries;
+        File dataDir = this.logFile.getParentFile();
+        if (dataDir != null && !dataDir.exists()) {
+            dataDir.mkdirs();
+        }
+        load();
+        synchronized (logLock) {
+            compactLog();
+        }
+    }
+
+    /**
+     * Runs a command once per request ID, without a subject to settle it by after a crash.
+     * @param requestId Client-chosen ID that is the same for every retry of one request, or
+     *                  null to run the command without deduplication
+     * @param command Name of the command, to catch an ID reused for a different command
+     * @param action The command
+     * @return The result of the command, from this run or from the original run
+     * @throws IllegalArgumentException if the ID contains line breaks or tabs, or was already
+     *                                  used for a different command
+     * @see #execute(String, String, List, BooleanSupplier)
+     */
+    public boolean execute(String requestId, String command, BooleanSupplier action) {
+        return execute(requestId, command, Collections.emptyList(), action);
+    }
+
+    /**
+     * Runs a command once per request ID.
+     * @param requestId Client-chosen ID that is the same for every retry of one request, or
+     *                  null to run the command without deduplication
+     * @param command Name of the command, to catch an ID reused for a different command
+     * @param subject What the command changes, logged with its in-flight marker and handed
+     *                to the command's {@link Settlement} if the run was interrupted by a crash
+     * @param action The command
+     * @return The result of the command, from this run or from the original run
+     * @throws IllegalArgumentException if the ID contains line breaks or tabs, or was already
+     *                                  used for a different command
+     */
+    public boolean execute(String requestId, String command, List<String> subject, BooleanSupplier action) {
+        if (requestId == null) {
+            return action.getAsBoolean();
+        }
+        if (requestId.isEmpty() || requestId.indexOf('\t') >= 0 || requestId.indexOf('\n') >= 0
+                || requestId.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("Invalid request ID: " + requestId);
+        }
+        // Not settled: whether the original run took effect is unknown, so it runs again
+        unsettled.remove(requestId);
+        while (true) {
+            Entry fresh = new Entry(requestId, command);
+            fresh.subject = subject;
+            Entry existing = entries.putIfAbsent(requestId, fresh);
+            if (existing == null) {
+                misses.increment();
+                return run(fresh, action);
+            }
+            if (existing.isExpired(System.currentTimeMillis(), ttlMillis)) {
+                entries.remove(requestId, existing);
+                continue;
+            }
+            if (!existing.command.equals(command)) {
+                throw new IllegalArgumentException("Request ID " + requestId + " was used for " + existing.command);
+            }
+            hits.increment();
+            try {
+                return existing.result.join();
+            } catch (RuntimeException e) {
+                // The original run failed and was forgotten; run it again
+                entries.remove(requestId, existing);
+            }
+        }
+    }
+
+    private boolean run(Entry entry, BooleanSupplier action) {
+        entry.startedAt = System.currentTimeMillis();
+        synchronized (logLock) {
+            write(entry.toMarkerLine());
+        }
+        boolean result;
+        try {
+            result = action.getAsBoolean();
+        } catch (RuntimeException | Error e) {
+            entries.remove(entry.requestId, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+        entry.value = result;
+        entry.completedAt = System.currentTimeMillis();
+        append(entry);
+        entry.result.complete(result);
+        evict();
+        return result;
+    }
+
+    /**
+     * Settles the commands of one kind that were logged as started but not completed before
+     * the last shutdown, and rewrites the log without the markers of the ones forgotten.
+     * @param command Name of the command
+     * @param settlement Decides from the state of each command's subject what it returned
+     * @return Number of commands settled with a result
+     */
+    public int settle(String command, Settlement settlement) {
+        int settled = 0;
+        for (Entry entry : new ArrayList<>(unsettled.values())) {
+            if (!entry.command.equals(command) || !unsettled.remove(entry.requestId, entry)) {
+                continue;
+            }
+            Boolean result = settlement.settle(entry.subject, entry.startedAt);
+            if (result == null || entries.putIfAbsent(entry.requestId, entry) != null) {
+                continue;
+            }
+            entry.value = result;
+            entry.completedAt = System.currentTimeMillis();
+            entry.result.complete(result);
+            append(entry);
+            settled++;
+        }
+        synchronized (logLock) {
+            compactLog();
+        }
+        evict();
+        return settled;
+    }
+
+    /**
+     * @return Number of commands logged as started whose outcome has not been settled
+     */
+    public int getUnsettledCount() {
+        return unsettled.size();
+    }
+
+    /**
+     * Drops expired results and the oldest results beyond the size limit.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        Entry head;
+        while ((head = completed.peek()) != null
+                && (completedCount.get() > maxEntries || head.isExpired(now, ttlMillis))) {
+            Entry oldest = completed.poll();
+            if (oldest != null) {
+                completedCount.decrementAndGet();
+                entries.remove(oldest.requestId, oldest);
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * Appends a result to the log and marks the entry completed, compacting the log first
+     * once it holds twice the cache size.
+     */
+    private void append(Entry entry) {
+        synchronized (logLock) {
+            if (logLines >= 2 * maxEntries) {
+                compactLog();
+            }
+            write(entry.toLogLine());
+            completed.add(entry);
+            completedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Appends a line to the log and flushes it. Called with {@link #logLock} held.
+     */
+    private void write(String line) {
+        try {
+            if (log == null) {
+                log = openLog(true);
+            }
+            log.write(line);
+            log.flush();
+            logLines++;
+        } catch (IOException e) {
+            System.err.println("Error recording command " + line.substring(0, line.indexOf('\t')) + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the log with the remembered results and the markers of the commands still
+     * running or unsettled. Called with {@link #logLock} held.
+     */
+    private void compactLog() {
+        File temp = new File(logFile.getPath() + ".tmp");
+        int lines = 0;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(temp, false), StandardCharsets.UTF_8))) {
+            for (Entry entry : completed) {
+                writer.write(entry.toLogLine());
+                lines++;
+            }
+            for (Entry entry : entries.values()) {
+                if (entry.completedAt == 0 && entry.startedAt != 0) {
+                    writer.write(entry.toMarkerLine());
+                    lines++;
+                }
+            }
+            for (Entry entry : unsettled.values()) {
+                writer.write(entry.toMarkerLine());
+                lines++;
+            }
+        } catch (IOException e) {
+            System.err.println("Error compacting command log: " + e.getMessage());
+            return;
+        }
+        try {
+            if (log != null) {
+                log.close();
+                log = null;
+            }
+            Files.move(temp.toPath(), logFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            logLines = lines;
+            log = openLog(true);
+        } catch (IOException e) {
+            System.err.println("Error compacting command log: " + e.getMessage());
+        }
+    }
+
+    private Writer openLog(boolean append) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(logFile, append), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the unexpired results and in-flight markers from the log; later lines for the
+     * same ID win, so a marker followed by its result is a completed command.
+     */
+    private void load() {
+        if (!logFile.exists()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Map<String, Entry> loaded = new LinkedHashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(logFile), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                boolean marker = fields.length >= 4 && MARKER.equals(fields[3]);
+                if (fields.length != 4 && !marker) {
+                    continue; // torn last line after a crash
+                }
+                try {
+                    Entry entry = new Entry(fields[0], fields[1]);
+                    if (marker) {
+                        entry.startedAt = Long.parseLong(fields[2]);
+                        List<String> subject = new ArrayList<>();
+                        for (int i = 4; i < fields.length; i++) {
+                            subject.add(unescape(fields[i]));
+                        }
+                        entry.subject = subject;
+                        if (now - entry.startedAt >= ttlMillis) {
+                            loaded.remove(entry.requestId);
+                            continue;
+                        }
+                    } else {
+                        entry.completedAt = Long.parseLong(fields[2]);
+                        entry.value = Boolean.parseBoolean(fields[3]);
+                        entry.result.complete(entry.value);
+                        if (entry.isExpired(now, ttlMillis)) {
+                            continue;
+                        }
+                    }
+                    loaded.remove(entry.requestId);
+                    loaded.put(entry.requestId, entry);
+                } catch (NumberFormatException e) {
+                    // skip a corrupt line
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading command log: " + e.getMessage());
+        }
+        List<Entry> live = new ArrayList<>();
+        for (Entry entry : loaded.values()) {
+            if (entry.completedAt == 0) {
+                unsettled.put(entry.requestId, entry);
+            } else {
+                live.add(entry);
+            }
+        }
+        for (Entry entry : live.subList(Math.max(0, live.size() - maxEntries), live.size())) {
+            entries.put(entry.requestId, entry);
+            completed.add(entry);
+            completedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return Number of requests answered from the cache, including ones that waited for a running original
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of requests that ran their command
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return Number of results dropped because they expired or the cache was full
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return Number of results currently remembered
+     */
+    public int size() {
+        return completedCount.get();
+    }
+
+    @Override
+    public String toString() {
+        long hitCount = getHitCount();
+        long total = hitCount + getMissCount();
+        return String.format("IdempotencyCache[size=%d/%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d]",
+            size(), maxEntries, hitCount, getMissCount(), total == 0 ? 0.0 : 100.0 * hitCount / total, getEvictionCount());
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n").replace("\r", "\\r");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Decides the result of a command that was interrupted by a crash.
+     */
+    @FunctionalInterface
+    public interface Settlement {
+        /**
+         * @param subject The subject the command was run with
+         * @param startedAt When the command started, in milliseconds since the epoch
+         * @return The result the command returned if it took effect, or null if it did not,
+         *         in which case a retry runs it again
+         */
+        Boolean settle(List<String> subject, long startedAt);
+    }
+
+    /**
+     * A remembered or running command.
+     */
+    private static final class Entry {
+        final String requestId;
+        final String command;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+        /** What the command changes, for settling it after a crash. */
+        volatile List<String> subject = Collections.emptyList();
+        /** Start time; 0 until the command runs, or for results loaded from the log. */
+        volatile long startedAt;
+        /** Completion time; 0 while running. */
+        volatile long completedAt;
+        /** The result once completed. */
+        volatile boolean value;
+
+        Entry(String requestId, String command) {
+            this.requestId = requestId;
+            this.command = command;
+        }
+
+        boolean isExpired(long now, long ttlMillis) {
+            return completedAt != 0 && now - completedAt >= ttlMillis;
+        }
+
+        String toLogLine() {
+            return requestId + "\t" + command + "\t" + completedAt + "\t" + value + "\n";
+        }
+
+        String toMarkerLine() {
+            StringBuilder line = new StringBuilder(requestId).append('\t').append(command)
+                .append('\t').append(startedAt).append('\t').append(MARKER);
+            for (String value : subject) {
+                line.append('\t').append(escape(value));
+            }
+            return line.append('\n').toString();
+        }
+    }
+}
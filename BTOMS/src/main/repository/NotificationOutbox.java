@@ -0,0 +1,730 @@
+package main.repository;
+
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.enquiry.Enquiry;
+import main.model.notification.Notification;
+import main.utils.IDGenerator;
+import main.utils.LongLongHashMap;
+import main.utils.NotificationSink;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Durable outbox of applicant notifications with batched background delivery.
+ * <p>
+ * Once {@link #watch(ChangeEventBus) watching} the change events of the repositories,
+ * the outbox records a notification whenever an application becomes SUCCESSFUL,
+ * UNSUCCESSFUL or BOOKED, or an enquiry receives a reply. The bus only carries changes
+ * that have been saved, so applicants are never told of a change that did not persist.
+ * Notifications are appended to an append-only log file on the bus worker, a batch of
+ * events at a time, so they survive a restart even if they have not been delivered yet
+ * and the approval path does not wait for the log.
+ * </p>
+ * <p>
+ * Each such notification also marks, in a durable ledger, the state it was sent for (the
+ * application's status, a hash of the enquiry's reply) and the entity version carrying it.
+ * A change is notified only if it is newer than the ledger's version and its state differs
+ * from the ledger's, so repeated or late events change nothing. The ledger is the marks in
+ * the log replayed over a snapshot taken whenever the log is truncated. On startup, and
+ * whenever the bus dropped events for the outbox, the outbox compares every application and
+ * enquiry with the ledger and records what is missing, so a change saved just before a
+ * crash, whose event never reached the log, is still notified. Ledger keys are 64-bit
+ * hashes of the entity IDs; a collision could only merge the marks of two entities, and is
+ * vanishingly unlikely.
+ * </p>
+ * <p>
+ * A daemon worker reads the log in batches of up to {@value #MAX_BATCH} notifications,
+ * hands each batch to the {@link NotificationSink} and then stores the log offset up to
+ * which delivery succeeded. A failed batch is retried, so delivery is at-least-once.
+ * The log is truncated once everything in it has been delivered and it has grown past
+ * {@value #COMPACT_THRESHOLD} bytes.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class NotificationOutbox {
+    private static final String LOG_FILE = "data/outbox.log";
+    private static final String OFFSET_FILE = "data/outbox.offset";
+    private static final String LEDGER_FILE = "data/outbox.ledger";
+
+    /** Maximum number of notifications handed to the sink at once. */
+    public static final int MAX_BATCH = 4096;
+
+    /** Log size in bytes above which a fully delivered log is truncated. */
+    public static final long COMPACT_THRESHOLD = 1 << 20;
+
+    /** Capacity of the change event queues of the outbox. */
+    private static final int EVENT_QUEUE_CAPACITY = 128 * 1024;
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+    private static final long RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final File logFile;
+    private final File offsetFile;
+    private final File ledgerFile;
+    private final NotificationSink sink;
+
+    /** Last notified state by hashed entity mark, replayed from the ledger file and log; guarded by this. */
+    private final LongLongHashMap ledger = new LongLongHashMap();
+    /** Latest entity version seen for each mark in the ledger; guarded by this. */
+    private final LongLongHashMap versions = new LongLongHashMap();
+    /** Whether a ledger file existed, i.e. the ledger covers every earlier notification; guarded by this. */
+    private boolean ledgerSeeded;
+
+    /** Appends to the log; guarded by this. */
+    private OutputStream out;
+    /** Length of the log including all recorded notifications; guarded by this. */
+    private volatile long recordedOffset;
+    private volatile long recordedCount;
+
+    /** Reader state, only used by the worker thread. */
+    private InputStream in;
+    private byte[] pending = new byte[64 * 1024];
+    private int pendingStart;
+    private int pendingEnd;
+    private long readOffset;
+    private volatile long deliveredOffset;
+    private volatile long deliveredCount;
+
+    private Thread worker;
+    private volatile boolean running;
+
+    /** Subscriptions to application and enquiry changes, once watching. */
+    private final List<ChangeEventBus.Subscription> subscriptions = new ArrayList<>();
+
+    /**
+     * Creates an outbox using the default log, offset and ledger files in the data directory.
+     * @param sink Destination of the notifications
+     * @throws IOException if the log or ledger cannot be read
+     */
+    public NotificationOutbox(NotificationSink sink) throws IOException {
+        this(LOG_FILE, OFFSET_FILE, LEDGER_FILE, sink);
+    }
+
+    /**
+     * Creates an outbox. Delivery resumes from the stored offset when {@link #start()} is called.
+     * @param logFile Path of the outbox log
+     * @param offsetFile Path of the file storing the delivered offset
+     * @param ledgerFile Path of the ledger snapshot
+     * @param sink Destination of the notifications
+     * @throws IOException if the log or ledger cannot be read
+     */
+    public NotificationOutbox(String logFile, String offsetFile, String ledgerFile, NotificationSink sink)
+            throws IOException {
+        this.logFile = new File(logFile);
+        this.offsetFile = new File(offsetFile);
+        this.ledgerFile = new File(ledgerFile);
+        this.sink = sink;
+        File dataDir = this.logFile.getParentFile();
+        if (dataDir != null && !dataDir.exists()) {
+            dataDir.mkdirs();
+        }
+        loadLedger();
+        this.out = new BufferedOutputStream(new FileOutputStream(this.logFile, true), WRITE_BUFFER_SIZE);
+        this.recordedOffset = this.logFile.length();
+        // A log truncated after the offset was stored has nothing left to deliver before its end
+        this.deliveredOffset = Math.min(loadOffset(), recordedOffset);
+        this.readOffset = deliveredOffset;
+    }
+
+    /**
+     * Starts recording notifications for the application and enquiry changes on a bus,
+     * then records those missed while the outbox was not running.
+     * <p>
+     * The subscriptions drop events rather than hold up the repositories when their queue
+     * is full; the outbox then reconciles with the repositories, so no status change goes
+     * unnotified. They are made before the repositories are compared with the ledger, so no
+     * change falls between the two.
+     * </p>
+     * @param bus The bus the application and enquiry repositories publish to
+     * @param applications Repository of applications
+     * @param enquiries Repository of enquiries
+     */
+    public void watch(ChangeEventBus bus, ApplicationRepository applications, EnquiryRepository enquiries) {
+        Runnable resync = () -> reconcile(applications, enquiries);
+        subscriptions.add(bus.subscribe("notification-outbox-applications", Application.class,
+            EVENT_QUEUE_CAPACITY, MAX_BATCH, ChangeEventBus.Overflow.DROP, this::onApplicationChanges, resync));
+        subscriptions.add(bus.subscribe("notification-outbox-enquiries", Enquiry.class,
+            EVENT_QUEUE_CAPACITY, MAX_BATCH, ChangeEventBus.Overflow.DROP, this::onEnquiryChanges, resync));
+        reconcile(applications, enquiries);
+    }
+
+    /**
+     * Records a notification for every application and enquiry whose state was not notified.
+     * <p>
+     * Without a ledger file, i.e. the first time the outbox runs on existing data, the
+     * current states are only marked as notified, so applicants are not told again of
+     * decisions made before the outbox existed.
+     * </p>
+     * @param applications Repository of applications
+     * @param enquiries Repository of enquiries
+     */
+    public void reconcile(ApplicationRepository applications, EnquiryRepository enquiries) {
+        boolean silent;
+        synchronized (this) {
+            silent = !ledgerSeeded;
+        }
+        for (Application app : applications.findAll()) {
+            noteApplication(app, silent);
+        }
+        for (Enquiry enquiry : enquiries.findAll()) {
+            noteEnquiry(enquiry, silent);
+        }
+        flush();
+        if (silent) {
+            synchronized (this) {
+                ledgerSeeded = storeLedger();
+            }
+        }
+    }
+
+    /**
+     * Waits until the change events received so far have been recorded in the log.
+     * @param timeout Maximum time to wait per subscription
+     * @param unit Unit of the timeout
+     * @return true if all events were recorded, false on timeout or interruption
+     */
+    public boolean awaitRecorded(long timeout, TimeUnit unit) {
+        for (ChangeEventBus.Subscription subscription : subscriptions) {
+            if (!subscription.awaitIdle(timeout, unit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void onApplicationChanges(List<ChangeEvent<Application>> events) {
+        for (ChangeEvent<Application> event : events) {
+            if (event.getAfter() != null) {
+                noteApplication(event.getAfter(), false);
+            }
+        }
+        flush();
+    }
+
+    private void onEnquiryChanges(List<ChangeEvent<Enquiry>> events) {
+        for (ChangeEvent<Enquiry> event : events) {
+            if (event.getAfter() != null) {
+                noteEnquiry(event.getAfter(), false);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Notifies the applicant of an application's status if it is SUCCESSFUL, UNSUCCESSFUL or
+     * BOOKED and the ledger holds another, older state for the application.
+     * @param silent Only mark the status in the ledger
+     */
+    private void noteApplication(Application app, boolean silent) {
+        ApplicationStatus status = app.getStatus();
+        if (status == null) {
+            return;
+        }
+        String subject;
+        String message;
+        switch (status) {
+            case SUCCESSFUL:
+                subject = "Application successful";
+                message = "Your application for " + app.getProjectName() + " was successful. You may now book a flat.";
+                break;
+            case UNSUCCESSFUL:
+                subject = "Application unsuccessful";
+                message = "Your application for " + app.getProjectName() + " was unsuccessful.";
+                break;
+            case BOOKED:
+                subject = "Flat booked";
+                message = "Your " + app.getFlatType() + " flat in " + app.getProjectName() + " has been booked.";
+                break;
+            default:
+                return;
+        }
+        note("application:" + app.getApplicationId(), status.ordinal(), app.getVersion(), silent,
+            app.getApplicantId(), subject, message);
+    }
+
+    /**
+     * Notifies the applicant of an enquiry's reply if the ledger holds another, older reply.
+     * @param silent Only mark the reply in the ledger
+     */
+    private void noteEnquiry(Enquiry enquiry, boolean silent) {
+        if (!enquiry.hasReply()) {
+            return;
+        }
+        note("enquiry:" + enquiry.getEnquiryId(), ApplicationArchive.hash(enquiry.getReplyText()),
+            enquiry.getVersion(), silent, enquiry.getApplicantId(), "Enquiry answered",
+            "Your enquiry about " + enquiry.getProjectName() + " was answered: " + enquiry.getReplyText());
+    }
+
+    /**
+     * Records a notification and marks its state in the ledger, unless the ledger already
+     * holds that state or a newer version for the mark. Checking and recording are atomic,
+     * so concurrent events and a reconciliation notify a state once.
+     */
+    private void note(String mark, long state, long version, boolean silent,
+                      String recipientId, String subject, String message) {
+        long key = ApplicationArchive.hash(mark);
+        synchronized (this) {
+            if (ledger.containsKey(key)) {
+                if (version <= versions.get(key, -1)) {
+                    return;
+                }
+                if (ledger.get(key, 0) == state) {
+                    versions.put(key, version);
+                    return;
+                }
+            }
+            if (silent) {
+                ledger.put(key, state);
+                versions.put(key, version);
+            } else {
+                append(recipientId, subject, message, mark, state, version);
+            }
+        }
+    }
+
+    /**
+     * Records a notification in the outbox log. Returns once the notification has been
+     * written to the log; delivery happens later on the worker thread.
+     * @param recipientId NRIC of the recipient
+     * @param subject Short subject line
+     * @param message Message text
+     * @return true if the notification was recorded, false if the log could not be written
+     */
+    public boolean record(String recipientId, String subject, String message) {
+        return append(recipientId, subject, message, null, 0, 0) && flush();
+    }
+
+    /**
+     * Appends a notification to the log buffer. Notifications detected from change events
+     * are flushed once per batch of events, so a batch update costs one write to the log
+     * instead of one per notification. A notification for an entity's state carries the
+     * ledger mark on the same line, so the two are written together.
+     * @param mark Ledger mark of the entity, or null
+     * @param state State marked for the entity
+     * @param version Version of the entity in that state
+     */
+    private boolean append(String recipientId, String subject, String message, String mark, long state,
+                           long version) {
+        String line = IDGenerator.nextId() + "\t" + escape(recipientId) + "\t" + System.currentTimeMillis()
+            + "\t" + escape(subject) + "\t" + escape(message)
+            + (mark != null ? "\t" + escape(mark) + "\t" + state + "\t" + version : "") + "\n";
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        synchronized (this) {
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                System.err.println("Error recording notification for " + recipientId + ": " + e.getMessage());
+                return false;
+            }
+            recordedOffset += bytes.length;
+            recordedCount++;
+            if (mark != null) {
+                long key = ApplicationArchive.hash(mark);
+                ledger.put(key, state);
+                versions.put(key, version);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes buffered notifications to the log and wakes the delivery worker.
+     * @return true if the log was written, false on an I/O error
+     */
+    public boolean flush() {
+        synchronized (this) {
+            try {
+                out.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing notification outbox: " + e.getMessage());
+                return false;
+            }
+        }
+        Thread w = worker;
+        if (w != null) {
+            LockSupport.unpark(w);
+        }
+        return true;
+    }
+
+    /**
+     * Starts the delivery worker.
+     * @throws IllegalStateException if the worker is already running
+     */
+    public synchronized void start() {
+        if (running) {
+            throw new IllegalStateException("Notification outbox already started");
+        }
+        running = true;
+        worker = new Thread(this::run, "notification-outbox");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the delivery worker. Undelivered notifications stay in the log.
+     */
+    public void stop() {
+        running = false;
+        Thread w = worker;
+        if (w != null) {
+            LockSupport.unpark(w);
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Waits until every recorded notification has been delivered.
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     * @return true if everything was delivered, false on timeout or interruption
+     */
+    public boolean awaitDelivered(long timeout, TimeUnit unit) {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (deliveredOffset < recordedOffset) {
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of notifications recorded since this outbox was created.
+     * @return Recorded notification count
+     */
+    public long getRecordedCount() {
+        return recordedCount;
+    }
+
+    /**
+     * Returns the number of notifications delivered since this outbox was created.
+     * @return Delivered notification count
+     */
+    public long getDeliveredCount() {
+        return deliveredCount;
+    }
+
+    private void run() {
+        while (running) {
+            List<Notification> batch;
+            try {
+                batch = readBatch();
+            } catch (IOException e) {
+                System.err.println("Error reading notification outbox: " + e.getMessage());
+                LockSupport.parkNanos(RETRY_DELAY_NANOS);
+                continue;
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(IDLE_WAIT_NANOS);
+                continue;
+            }
+            while (!deliver(batch)) {
+                if (!running) {
+                    return;
+                }
+                LockSupport.parkNanos(RETRY_DELAY_NANOS);
+            }
+            deliveredCount += batch.size();
+            deliveredOffset = readOffset;
+            storeOffset(readOffset);
+            compactIfDrained();
+        }
+        closeReader();
+    }
+
+    private boolean deliver(List<Notification> batch) {
+        try {
+            sink.deliver(batch);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Error delivering notifications, will retry: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Reads up to {@value #MAX_BATCH} complete log lines after the read offset.
+     */
+    private List<Notification> readBatch() throws IOException {
+        if (in == null) {
+            in = new FileInputStream(logFile);
+            long skipped = 0;
+            while (skipped < readOffset) {
+                long n = in.skip(readOffset - skipped);
+                if (n <= 0) break;
+                skipped += n;
+            }
+            pendingStart = pendingEnd = 0;
+        }
+        List<Notification> batch = new ArrayList<>();
+        while (batch.size() < MAX_BATCH) {
+            int newline = -1;
+            for (int i = pendingStart; i < pendingEnd; i++) {
+                if (pending[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            if (newline >= 0) {
+                String line = new String(pending, pendingStart, newline - pendingStart, StandardCharsets.UTF_8);
+                readOffset += newline + 1 - pendingStart;
+                pendingStart = newline + 1;
+                Notification notification = parse(line);
+                if (notification != null) {
+                    batch.add(notification);
+                }
+                continue;
+            }
+            // Keep the incomplete line and read more of the log
+            if (pendingStart > 0) {
+                System.arraycopy(pending, pendingStart, pending, 0, pendingEnd - pendingStart);
+                pendingEnd -= pendingStart;
+                pendingStart = 0;
+            }
+            if (pendingEnd == pending.length) {
+                pending = Arrays.copyOf(pending, pending.length * 2);
+            }
+            int n = in.read(pending, pendingEnd, pending.length - pendingEnd);
+            if (n <= 0) {
+                break;
+            }
+            pendingEnd += n;
+        }
+        return batch;
+    }
+
+    /**
+     * Truncates the log if it is large and everything in it has been delivered.
+     */
+    private void compactIfDrained() {
+        if (deliveredOffset < COMPACT_THRESHOLD || pendingStart != pendingEnd) {
+            return;
+        }
+        synchronized (this) {
+            // The ledger snapshot must hold the marks of the log before the log is dropped
+            if (recordedOffset != deliveredOffset || !storeLedger()) {
+                return;
+            }
+            try {
+                out.close();
+                out = new BufferedOutputStream(new FileOutputStream(logFile, false), WRITE_BUFFER_SIZE);
+            } catch (IOException e) {
+                System.err.println("Error compacting notification outbox: " + e.getMessage());
+                return;
+            }
+            closeReader();
+            recordedOffset = 0;
+            readOffset = 0;
+            deliveredOffset = 0;
+        }
+        storeOffset(0);
+    }
+
+    private void closeReader() {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Nothing more to read
+            }
+            in = null;
+        }
+    }
+
+    /**
+     * Loads the ledger snapshot, if there is one, and replays the marks of the complete
+     * lines of the log over it.
+     */
+    private void loadLedger() throws IOException {
+        if (ledgerFile.exists()) {
+            try (DataInputStream data = new DataInputStream(new BufferedInputStream(new FileInputStream(ledgerFile)))) {
+                int count = data.readInt();
+                for (int i = 0; i < count; i++) {
+                    long key = data.readLong();
+                    ledger.put(key, data.readLong());
+                    versions.put(key, data.readLong());
+                }
+            } catch (EOFException e) {
+                throw new IOException("Truncated outbox ledger " + ledgerFile, e);
+            }
+            ledgerSeeded = true;
+        }
+        if (!logFile.exists()) {
+            return;
+        }
+        byte[] log = Files.readAllBytes(logFile.toPath());
+        int start = 0;
+        for (int i = 0; i < log.length; i++) {
+            if (log[i] == '\n') {
+                String[] fields = new String(log, start, i - start, StandardCharsets.UTF_8).split("\t", -1);
+                if (fields.length == 8) {
+                    try {
+                        long key = ApplicationArchive.hash(unescape(fields[5]));
+                        long state = Long.parseLong(fields[6]);
+                        versions.put(key, Long.parseLong(fields[7]));
+                        ledger.put(key, state);
+                    } catch (NumberFormatException e) {
+                        // Malformed entries are reported when they are delivered
+                    }
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Writes the ledger snapshot, replacing the file atomically. Must hold this.
+     * @return true if the snapshot was written
+     */
+    private boolean storeLedger() {
+        File temp = new File(ledgerFile.getPath() + ".tmp");
+        try (DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)))) {
+            data.writeInt(ledger.size());
+            IOException[] failure = new IOException[1];
+            ledger.forEach((key, value) -> {
+                try {
+                    data.writeLong(key);
+                    data.writeLong(value);
+                    data.writeLong(versions.get(key, 0));
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } catch (IOException e) {
+            System.err.println("Error storing outbox ledger: " + e.getMessage());
+            return false;
+        }
+        try {
+            Files.move(temp.toPath(), ledgerFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error storing outbox ledger: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private long loadOffset() {
+        if (!offsetFile.exists()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(offsetFile.toPath()), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Error reading outbox offset, redelivering from the start: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Stores the delivered offset, replacing the offset file atomically.
+     */
+    private void storeOffset(long offset) {
+        File temp = new File(offsetFile.getPath() + ".tmp");
+        try {
+            Files.write(temp.toPath(), Long.toString(offset).getBytes(StandardCharsets.UTF_8));
+            Files.move(temp.toPath(), offsetFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error storing outbox offset: " + e.getMessage());
+        }
+    }
+
+    private static Notification parse(String line) {
+        String[] fields = line.split("\t", -1);
+        // Notifications for an entity's state carry its ledger mark, state and version in three more fields
+        if (fields.length != 5 && fields.length != 8) {
+            System.err.println("Skipping malformed outbox entry: " + line);
+            return null;
+        }
+        try {
+            return new Notification(Long.parseLong(fields[0]), unescape(fields[1]),
+                new Date(Long.parseLong(fields[2])), unescape(fields[3]), unescape(fields[4]));
+        } catch (NumberFormatException e) {
+            System.err.println("Skipping malformed outbox entry: " + line);
+            return null;
+        }
+    }
+
+    private static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        int first = 0;
+        while (first < text.length() && "\\\t\n\r".indexOf(text.charAt(first)) < 0) {
+            first++;
+        }
+        if (first == text.length()) {
+            return text;
+        }
+        StringBuilder sb = new StringBuilder(text.length() + 8).append(text, 0, first);
+        for (int i = first; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\t': sb.append("\\t"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String text) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' && i + 1 < text.length()) {
+                char next = text.charAt(++i);
+                switch (next) {
+                    case 't': sb.append('\t'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    default: sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
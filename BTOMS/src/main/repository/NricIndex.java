@@ -0,0 +1,141 @@
+package main.repository;
+
+import main.model.Versioned;
+import main.model.user.Nric;
+import main.utils.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Secondary index of a repository's entities by an NRIC field, e.g. applications by
+ * applicant.
+ * <p>
+ * Entities are grouped by the packed {@link Nric} in a {@link LongObjectHashMap}, so finding
+ * a person's entities is one primitive hash lookup instead of a scan comparing every
+ * entity's NRIC string. The index follows the repository through a {@link RepositoryListener};
+ * the NRIC field must not change after an entity is saved. Entities whose field is not a
+ * valid NRIC are kept in a separate list that is scanned instead.
+ * </p>
+ *
+ * @param <T> The type of entity indexed
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class NricIndex<T extends Versioned> {
+    private final FileBasedRepository<T, ?> repository;
+    private final Function<? super T, String> nricOf;
+    /** Entities by packed NRIC, each list in insertion order. Guarded by this. */
+    private final LongObjectHashMap<List<T>> byNric;
+    /** Entities whose NRIC field does not parse. Guarded by this. */
+    private final List<T> unparsed = new ArrayList<>();
+
+    /**
+     * Indexes the entities already in a repository and starts following its changes.
+     * @param repository The repository
+     * @param nricOf The NRIC field of an entity
+     */
+    public NricIndex(FileBasedRepository<T, ?> repository, Function<? super T, String> nricOf) {
+        this.repository = repository;
+        this.nricOf = nricOf;
+        List<T> existing = repository.findAll();
+        this.byNric = new LongObjectHashMap<>(existing.size());
+        for (T entity : existing) {
+            add(entity);
+        }
+        repository.addListener(new RepositoryListener<T>() {
+            @Override public void onInsert(T entity) { add(entity); }
+            @Override public void onUpdate(T entity) { replace(entity); }
+            @Override public void onDelete(T entity) { remove(entity); }
+        });
+    }
+
+    /**
+     * Finds the entities with an NRIC, compared exactly as stored.
+     * @param nric The NRIC
+     * @return The entities in the order they were added; empty if none
+     */
+    public synchronized List<T> find(String nric) {
+        if (nric == null) {
+            return Collections.emptyList();
+        }
+        long key = Nric.pack(nric);
+        List<T> candidates = key == Nric.INVALID ? unparsed : byNric.get(key);
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        List<T> found = new ArrayList<>(candidates.size());
+        for (T entity : candidates) {
+            // Packing ignores case and whitespace; the stored value must still match exactly
+            if (Objects.equals(nricOf.apply(entity), nric)) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    private synchronized void add(T entity) {
+        List<T> group = groupOf(entity, true);
+        group.add(entity);
+    }
+
+    private synchronized void replace(T entity) {
+        List<T> group = groupOf(entity, true);
+        int i = indexOf(group, entity);
+        if (i >= 0) {
+            group.set(i, entity);
+        } else {
+            group.add(entity);
+        }
+    }
+
+    /**
+     * Drops an entity from the index; also used by repositories that move an entity to other
+     * storage without deleting it.
+     */
+    synchronized void remove(T entity) {
+        List<T> group = groupOf(entity, false);
+        if (group == null) {
+            return;
+        }
+        int i = indexOf(group, entity);
+        if (i >= 0) {
+            group.remove(i);
+        }
+        long key = Nric.pack(nricOf.apply(entity));
+        if (group.isEmpty() && key != Nric.INVALID) {
+            byNric.remove(key);
+        }
+    }
+
+    private List<T> groupOf(T entity, boolean create) {
+        long key = Nric.pack(nricOf.apply(entity));
+        if (key == Nric.INVALID) {
+            return unparsed;
+        }
+        List<T> group = byNric.get(key);
+        if (group == null && create) {
+            group = new ArrayList<>(2);
+            byNric.put(key, group);
+        }
+        return group;
+    }
+
+    /**
+     * Finds an entity in a group by ID, since updates may replace the instance.
+     */
+    private int indexOf(List<T> group, T entity) {
+        Object id = repository.getEntityId(entity);
+        for (int i = 0; i < group.size(); i++) {
+            if (group.get(i) == entity || Objects.equals(repository.getEntityId(group.get(i)), id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
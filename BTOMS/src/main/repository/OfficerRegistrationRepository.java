@@ -1,6 +1,7 @@
 package main.repository;
 
 import main.model.registration.OfficerRegistration;
+import main.utils.StringInterner;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -9,6 +10,20 @@ import java.util.stream.Collectors;
  * Uses project name as the unique project identifier.
  */
 public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRegistration, String> {
+
+    /** Registrations in order of submission. */
+    public static final PageSort<OfficerRegistration> BY_DATE =
+        PageSort.by("registration date", r -> PageSort.dateKey(r.getRegistrationDate()));
+    /**
+     * Registrations of each project and status in order of submission; partitioned by
+     * {@code PageSort.partition(projectName, status)}.
+     */
+    public static final PageSort<OfficerRegistration> BY_PROJECT_AND_STATUS =
+        PageSort.partitioned("project and status", r -> PageSort.partition(r.getProjectName(), r.getStatus()),
+            r -> PageSort.dateKey(r.getRegistrationDate()));
+
+    /** Registrations by officer NRIC. */
+    private final NricIndex<OfficerRegistration> byOfficer = new NricIndex<>(this, OfficerRegistration::getOfficerNRIC);
     
     /**
      * Initializes the repository with the specified data file.
@@ -37,11 +52,14 @@ public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRe
      */
     @Override
     public boolean save(OfficerRegistration registration) {
-        if (findById(registration.getRegistrationId()) != null) {
-            return false;
-        }
-        entities.add(registration);
-        return saveToFile();
+        return write(() -> {
+            if (findById(registration.getRegistrationId()) != null) {
+                return false;
+            }
+            entities.add(registration);
+            fireInserted(registration);
+            return saveToFile();
+        });
     }
     
     /**
@@ -51,13 +69,16 @@ public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRe
      */
     @Override
     public boolean update(OfficerRegistration registration) {
-        for (int i = 0; i < entities.size(); i++) {
-            if (entities.get(i).getRegistrationId().equals(registration.getRegistrationId())) {
-                entities.set(i, registration);
-                return saveToFile();
+        return write(() -> {
+            for (int i = 0; i < entities.size(); i++) {
+                if (entities.get(i).getRegistrationId().equals(registration.getRegistrationId())) {
+                    entities.set(i, registration);
+                    fireUpdated(registration);
+                    return saveToFile();
+                }
             }
-        }
-        return false;
+            return false;
+        });
     }
     
     /**
@@ -67,11 +88,14 @@ public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRe
      */
     @Override
     public boolean delete(String id) {
-        boolean removed = entities.removeIf(reg -> reg.getRegistrationId().equals(id));
-        if (removed) {
-            return saveToFile();
-        }
-        return false;
+        return write(() -> {
+            OfficerRegistration removed = findById(id);
+            if (removed != null && entities.remove(removed)) {
+                fireDeleted(removed);
+                return saveToFile();
+            }
+            return false;
+        });
     }
     
     /**
@@ -93,9 +117,9 @@ public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRe
      * @return Matching OfficerRegistration or null
      */
     public OfficerRegistration findByOfficerAndProject(String officerNRIC, String projectName) {
-        return entities.stream()
-                .filter(reg -> reg.getOfficerNRIC().equals(officerNRIC) && 
-                              reg.getProjectName().equals(projectName))
+        String project = StringInterner.lookup(projectName);
+        return byOfficer.find(officerNRIC).stream()
+                .filter(reg -> StringInterner.same(reg.getProjectName(), project))
                 .findFirst()
                 .orElse(null);
     }
@@ -106,9 +130,7 @@ public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRe
      * @return List of OfficerRegistrations for the officer
      */
     public List<OfficerRegistration> findByOfficer(String officerNRIC) {
-        return entities.stream()
-                .filter(reg -> reg.getOfficerNRIC().equals(officerNRIC))
-                .collect(Collectors.toList());
+        return byOfficer.find(officerNRIC);
     }
     
     /**
@@ -117,8 +139,9 @@ public class OfficerRegistrationRepository extends FileBasedRepository<OfficerRe
      * @return List of OfficerRegistrations for the project
      */
     public List<OfficerRegistration> findByProjectName(String projectName) {
+        String project = StringInterner.lookup(projectName);
         return entities.stream()
-                .filter(reg -> reg.getProjectName().equals(projectName))
+                .filter(reg -> StringInterner.same(reg.getProjectName(), project))
                 .collect(Collectors.toList());
     }
     
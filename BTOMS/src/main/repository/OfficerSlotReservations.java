@@ -0,0 +1,196 @@
+package main.repository;
+
+import main.model.project.Project;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reserves HDB Officer slots of projects so concurrent approvals cannot overfill a project.
+ * <p>
+ * Each project has a counter of free slots that approvals decrement with compare-and-set
+ * before doing any other work, so once a project is full further approvals are turned away
+ * immediately and without locking. An officer can take part in only one approval at a time,
+ * which makes the date-overlap check against the officer's other projects safe.
+ * </p>
+ * <p>
+ * A {@link Reservation} is then either committed, which applies the approval while holding
+ * the project's lock, or rolled back, which returns the slot. The counter always equals the
+ * project's remaining slots minus the outstanding reservations; it follows every committed
+ * change to the project, the approvals' own and others (e.g., a manager editing the number
+ * of slots), through a {@link RepositoryListener}, ignoring states older than one it has
+ * already seen.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class OfficerSlotReservations {
+    /** Slot counters by project name, created on first reservation. */
+    private final ConcurrentHashMap<String, ProjectSlots> byProject = new ConcurrentHashMap<>();
+    /** Reservation each officer is currently part of, by officer NRIC. */
+    private final ConcurrentHashMap<String, Reservation> officersInFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Creates the reservations and starts following changes to projects.
+     * @param projectRepository Repository of projects
+     */
+    public OfficerSlotReservations(ProjectRepository projectRepository) {
+        projectRepository.addListener(new RepositoryListener<Project>() {
+            @Override public void onUpdate(Project project) {
+                ProjectSlots slots = byProject.get(project.getProjectName());
+                if (slots != null) {
+                    slots.sync(project);
+                }
+            }
+            @Override public void onDelete(Project project) {
+                byProject.remove(project.getProjectName());
+            }
+        });
+    }
+
+    /**
+     * Reserves one officer slot of a project for an officer.
+     * @param project The project
+     * @param officerNRIC NRIC of the officer
+     * @return The reservation, or null if the project has no free slot or the officer is
+     *         already part of another approval
+     */
+    public Reservation reserve(Project project, String officerNRIC) {
+        ProjectSlots slots = byProject.computeIfAbsent(project.getProjectName(), name -> new ProjectSlots(project));
+        Reservation reservation = new Reservation(slots, officerNRIC);
+        if (officersInFlight.putIfAbsent(officerNRIC, reservation) != null) {
+            return null;
+        }
+        if (!slots.take()) {
+            officersInFlight.remove(officerNRIC, reservation);
+            return null;
+        }
+        return reservation;
+    }
+
+    /**
+     * Applies an approval for a reservation while holding its project's lock, then ends the
+     * reservation. Approvals of the same project are committed one at a time. The approval
+     * must commit the project through the repository, whose listener brings the counter up
+     * to date before the reservation's hold is released.
+     * @param reservation The reservation from {@link #reserve(Project, String)}
+     * @param apply Performs the approval; returns false (after undoing its changes) on failure
+     * @return The result of {@code apply}, or false if the reservation has already ended
+     */
+    public boolean commit(Reservation reservation, BooleanSupplier apply) {
+        ProjectSlots slots = reservation.slots;
+        synchronized (slots.commitLock) {
+            if (reservation.ended.get()) {
+                return false;
+            }
+            try {
+                return apply.getAsBoolean();
+            } finally {
+                end(reservation);
+            }
+        }
+    }
+
+    /**
+     * Ends a reservation without applying it, returning its slot.
+     * @param reservation The reservation from {@link #reserve(Project, String)}
+     */
+    public void rollback(Reservation reservation) {
+        end(reservation);
+    }
+
+    /**
+     * Gets the number of slots of a project that can still be reserved.
+     * @param project The project
+     * @return Free slots not held by outstanding reservations
+     */
+    public int getAvailableSlots(Project project) {
+        ProjectSlots slots = byProject.get(project.getProjectName());
+        return slots != null ? slots.available.get() : project.getRemainingOfficerSlots();
+    }
+
+    /**
+     * Releases the officer and the reservation's hold on the counter. A committed approval
+     * is by then recorded in the project's remaining slots, so the counter stays balanced.
+     */
+    private void end(Reservation reservation) {
+        if (reservation.ended.compareAndSet(false, true)) {
+            reservation.slots.available.incrementAndGet();
+            officersInFlight.remove(reservation.officerNRIC, reservation);
+        }
+    }
+
+    /**
+     * A slot held for an officer until it is committed or rolled back.
+     */
+    public static final class Reservation {
+        private final ProjectSlots slots;
+        private final String officerNRIC;
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Reservation(ProjectSlots slots, String officerNRIC) {
+            this.slots = slots;
+            this.officerNRIC = officerNRIC;
+        }
+
+        /**
+         * @return NRIC of the officer the slot is held for
+         */
+        public String getOfficerNRIC() {
+            return officerNRIC;
+        }
+    }
+
+    /**
+     * Slot counter of one project.
+     */
+    private static final class ProjectSlots {
+        /** Remaining slots of the project minus outstanding reservations. */
+        final AtomicInteger available;
+        /**
+         * Held while an approval commits. Separate from the monitor guarding the counter,
+         * which the repository's listener takes while the project is being written.
+         */
+        final Object commitLock = new Object();
+        /** Remaining slots of the project when last synchronized; guarded by this. */
+        private int seenRemaining;
+        /** Version of the project when last synchronized; guarded by this. */
+        private long seenVersion;
+
+        ProjectSlots(Project project) {
+            this.seenRemaining = project.getRemainingOfficerSlots();
+            this.seenVersion = project.getVersion();
+            this.available = new AtomicInteger(seenRemaining);
+        }
+
+        boolean take() {
+            while (true) {
+                int free = available.get();
+                if (free <= 0) {
+                    return false;
+                }
+                if (available.compareAndSet(free, free - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * Applies a change in the project's remaining slots to the counter, unless the
+         * project is older than the state last applied.
+         */
+        synchronized void sync(Project project) {
+            if (project.getVersion() < seenVersion) {
+                return;
+            }
+            seenVersion = project.getVersion();
+            int remaining = project.getRemainingOfficerSlots();
+            available.addAndGet(remaining - seenRemaining);
+            seenRemaining = remaining;
+        }
+    }
+}
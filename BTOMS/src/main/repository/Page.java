@@ -0,0 +1,61 @@
+package main.repository;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * <p>
+ * The next page is requested by passing {@link #getNextCursor()} as the {@code after}
+ * argument of {@link Repository#page(String, int, PageSort)}. Cursors are opaque and only
+ * valid for the sort (and partition) that produced them.
+ * </p>
+ *
+ * @param <T> The type of entity listed
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public final class Page<T> {
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * Creates a page.
+     * @param items Entities on this page, in sort order
+     * @param nextCursor Cursor of the last item if more items follow, otherwise null
+     */
+    Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * @return The entities on this page, in sort order
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return The cursor to pass as {@code after} for the next page, or null if this is the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * @return true if more items follow this page
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * @return true if this page has no items
+     */
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+}
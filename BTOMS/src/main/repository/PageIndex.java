@@ -0,0 +1,109 @@
+package main.repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted index backing one {@link PageSort} of a repository.
+ * <p>
+ * Entities are kept in a skip list keyed by their index key, so a page is read by seeking to
+ * the cursor and walking forward; only the entries of the page are touched. Because controllers
+ * modify stored entities in place before calling update, the index remembers the key each
+ * entity was filed under and moves it when its key, or even its ID (a renamed project),
+ * changes. Writers are serialized by the owning repository; readers need no lock.
+ * </p>
+ *
+ * @param <T> The type of entity indexed
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+final class PageIndex<T> {
+    private final PageSort<T> sort;
+    private final ConcurrentSkipListMap<String, T> entries = new ConcurrentSkipListMap<>();
+    /** Index key each entity is currently filed under, by entity ID. */
+    private final Map<Object, String> keyOf = new HashMap<>();
+    /** ID each stored instance was filed under, to notice IDs changed in place. */
+    private final Map<T, Object> idOf = new IdentityHashMap<>();
+
+    PageIndex(PageSort<T> sort) {
+        this.sort = sort;
+    }
+
+    /**
+     * Adds an entity or refiles it under its current key.
+     */
+    void put(Object id, T entity) {
+        Object previousId = idOf.put(entity, id);
+        if (previousId != null && !previousId.equals(id)) {
+            remove(previousId);
+        }
+        String key = sort.indexKey(entity, id);
+        String previous = keyOf.put(id, key);
+        if (previous != null && !previous.equals(key)) {
+            T replaced = entries.remove(previous);
+            if (replaced != null && replaced != entity) {
+                idOf.remove(replaced);
+            }
+        }
+        T replaced = entries.put(key, entity);
+        if (replaced != null && replaced != entity) {
+            idOf.remove(replaced);
+        }
+    }
+
+    /**
+     * Removes an entity.
+     */
+    void remove(Object id) {
+        String previous = keyOf.remove(id);
+        if (previous != null) {
+            T entity = entries.remove(previous);
+            if (entity != null && id.equals(idOf.get(entity))) {
+                idOf.remove(entity);
+            }
+        }
+    }
+
+    /**
+     * Reads one page.
+     * @param partition Partition to list, or null for all entities
+     * @param after Cursor of the previous page, or null for the first page
+     * @param limit Maximum number of items
+     * @param descending Whether to list the largest keys first
+     * @return The page
+     * @throws IllegalArgumentException if the cursor does not belong to the partition
+     */
+    Page<T> page(String partition, String after, int limit, boolean descending) {
+        NavigableMap<String, T> range = entries;
+        if (partition != null) {
+            String prefix = PageSort.partitionPrefix(partition);
+            if (after != null && !after.startsWith(prefix)) {
+                throw new IllegalArgumentException("Cursor does not belong to partition " + partition);
+            }
+            String end = prefix.substring(0, prefix.length() - 1) + (char) (PageSort.SEPARATOR + 1);
+            range = entries.subMap(prefix, true, end, false);
+        }
+        if (after != null) {
+            range = descending ? range.headMap(after, false) : range.tailMap(after, false);
+        }
+        if (descending) {
+            range = range.descendingMap();
+        }
+        ArrayList<T> items = new ArrayList<>(Math.min(limit, 64));
+        String lastKey = null;
+        for (Map.Entry<String, T> entry : range.entrySet()) {
+            if (items.size() == limit) {
+                return new Page<>(items, lastKey);
+            }
+            items.add(entry.getValue());
+            lastKey = entry.getKey();
+        }
+        return new Page<>(items, null);
+    }
+}
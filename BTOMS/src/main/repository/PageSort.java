@@ -0,0 +1,168 @@
+package main.repository;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * A sort order for keyset pagination.
+ * <p>
+ * A sort maps each entity to a string sort key; entities are ordered by that key and then by
+ * ID, so the order is total and a page boundary can be resumed from the last key seen. A
+ * partitioned sort additionally groups entities by a partition value (e.g., project name) so
+ * that one partition can be paged on its own.
+ * </p>
+ * <p>
+ * Repositories declare their sorts as constants. Each sort is backed by a sorted index that
+ * the repository builds on first use and keeps current as entities change; a sort and its
+ * {@link #reversed()} order share the same index.
+ * </p>
+ *
+ * @param <T> The type of entity sorted
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public final class PageSort<T> {
+    /** Separates partition, sort key and ID in index keys; sorts before every other character. */
+    static final char SEPARATOR = '\u0000';
+    /** Separates the parts of a composite partition value. */
+    private static final char PART_SEPARATOR = '\u001F';
+
+    private final String name;
+    private final Function<? super T, String> partition;
+    private final Function<? super T, String> key;
+    private final PageSort<T> ascending;
+
+    private PageSort(String name, Function<? super T, String> partition, Function<? super T, String> key,
+                     PageSort<T> ascending) {
+        this.name = name;
+        this.partition = partition;
+        this.key = key;
+        this.ascending = ascending == null ? this : ascending;
+    }
+
+    /**
+     * Creates an ascending sort over a whole repository.
+     * @param name Name of the sort, for messages
+     * @param key Sort key of an entity, e.g. {@link #dateKey(Date)} of its creation date
+     * @return The sort
+     */
+    public static <T> PageSort<T> by(String name, Function<? super T, String> key) {
+        return new PageSort<>(name, null, key, null);
+    }
+
+    /**
+     * Creates an ascending sort grouped by a partition value.
+     * @param name Name of the sort, for messages
+     * @param partition Partition value of an entity, e.g. its project name
+     * @param key Sort key of an entity within its partition
+     * @return The sort
+     */
+    public static <T> PageSort<T> partitioned(String name, Function<? super T, String> partition,
+                                              Function<? super T, String> key) {
+        return new PageSort<>(name, partition, key, null);
+    }
+
+    /**
+     * @return The same sort in the opposite direction, backed by the same index
+     */
+    public PageSort<T> reversed() {
+        return isDescending() ? ascending : new PageSort<>(name + " (descending)", partition, key, this);
+    }
+
+    /**
+     * @return The name of this sort
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true if this sort is grouped by a partition value
+     */
+    public boolean isPartitioned() {
+        return partition != null;
+    }
+
+    /**
+     * @return true if this sort lists the largest keys first
+     */
+    public boolean isDescending() {
+        return ascending != this;
+    }
+
+    /**
+     * @return The ascending form of this sort, which identifies its index
+     */
+    PageSort<T> ascending() {
+        return ascending;
+    }
+
+    /**
+     * Computes the index key of an entity: partition, sort key and ID joined by {@link #SEPARATOR}.
+     */
+    String indexKey(T entity, Object id) {
+        String sortKey = key.apply(entity) + SEPARATOR + id;
+        if (partition == null) {
+            return sortKey;
+        }
+        return partitionPrefix(partition.apply(entity)) + sortKey;
+    }
+
+    /**
+     * @return The prefix shared by the index keys of a partition
+     */
+    static String partitionPrefix(String partitionValue) {
+        return (partitionValue == null ? "" : partitionValue) + SEPARATOR;
+    }
+
+    /**
+     * Converts a date into a sort key that orders chronologically. A missing date sorts first.
+     * @param date The date, or null
+     * @return The sort key
+     */
+    public static String dateKey(Date date) {
+        if (date == null) {
+            return "";
+        }
+        long value = date.getTime() ^ Long.MIN_VALUE;
+        char[] digits = new char[16];
+        for (int i = 15; i >= 0; i--) {
+            digits[i] = Character.forDigit((int) (value & 0xF), 16);
+            value >>>= 4;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Converts text into a case-insensitive sort key. Missing text sorts first.
+     * @param text The text, or null
+     * @return The sort key
+     */
+    public static String textKey(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Joins several values into one partition value, e.g. a project name and a status.
+     * @param parts The values
+     * @return The partition value
+     */
+    public static String partition(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < parts.length; i++) {
+            if (i > 0) {
+                value.append(PART_SEPARATOR);
+            }
+            value.append(parts[i]);
+        }
+        return value.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,378 @@
+package main.repository;
+
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.enquiry.Enquiry;
+import main.model.project.Project;
+import main.model.registration.OfficerRegistration;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves long-closed projects, with their applications, enquiries and officer registrations,
+ * out of the repositories into compressed per-project files under {@code data/archive/}.
+ * <p>
+ * Archived projects are no longer loaded on startup, so startup time and resident memory
+ * shrink with the archived share. An archive file is a gzip stream of a small header (name,
+ * manager, closing date, NRICs of the applicants who booked a flat) followed by the
+ * serialized project and its lists; the header lets {@link #findArchivedByManager(String)}
+ * and {@link #hasBooked(String)} answer without reading whole files, and
+ * {@link #load(String)} rehydrates the full graph on demand, e.g. for reports.
+ * </p>
+ * <p>
+ * A project is archived only if its application closing date is before the cutoff and none
+ * of its applications is still in progress. Each file is complete on disk before anything
+ * is removed from the repositories, and an existing archive is never overwritten.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ProjectArchiver {
+    /** Default number of days after closing before a project is archived. */
+    public static final int DEFAULT_RETENTION_DAYS = 365;
+
+    private static final int FILE_MAGIC = 0x50524A42; // "PRJB"
+    /** Magic number of archives written before the header listed the booked applicants. */
+    private static final int FILE_MAGIC_V1 = 0x50524A41; // "PRJA"
+    private static final String SUFFIX = ".gz";
+
+    private final ProjectRepository projectRepository;
+    private final ApplicationRepository applicationRepository;
+    private final EnquiryRepository enquiryRepository;
+    private final OfficerRegistrationRepository registrationRepository;
+    private final File directory;
+    /** Names of the archived projects. */
+    private final Set<String> archived = ConcurrentHashMap.newKeySet();
+    /** NRICs of applicants with a BOOKED application in an archived project; built on first use. */
+    private Set<String> bookedApplicants;
+
+    /**
+     * Creates an archiver storing its files in {@code data/archive/}.
+     * @param projectRepository Repository of projects
+     * @param applicationRepository Repository of applications
+     * @param enquiryRepository Repository of enquiries
+     * @param registrationRepository Repository of officer registrations
+     */
+    public ProjectArchiver(ProjectRepository projectRepository, ApplicationRepository applicationRepository,
+                           EnquiryRepository enquiryRepository, OfficerRegistrationRepository registrationRepository) {
+        this(projectRepository, applicationRepository, enquiryRepository, registrationRepository, "data/archive");
+    }
+
+    /**
+     * Creates an archiver storing its files in a directory.
+     * @param projectRepository Repository of projects
+     * @param applicationRepository Repository of applications
+     * @param enquiryRepository Repository of enquiries
+     * @param registrationRepository Repository of officer registrations
+     * @param directory Directory of the archive files
+     */
+    public ProjectArchiver(ProjectRepository projectRepository, ApplicationRepository applicationRepository,
+                           EnquiryRepository enquiryRepository, OfficerRegistrationRepository registrationRepository,
+                           String directory) {
+        this.projectRepository = projectRepository;
+        this.applicationRepository = applicationRepository;
+        this.enquiryRepository = enquiryRepository;
+        this.registrationRepository = registrationRepository;
+        this.directory = new File(directory);
+        File[] files = this.directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                archived.add(URLDecoder.decode(name.substring(0, name.length() - SUFFIX.length()), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    /**
+     * Archives the projects that closed more than {@link #DEFAULT_RETENTION_DAYS} days ago.
+     * @return Names of the projects archived
+     */
+    public List<String> archiveClosedProjects() {
+        return archiveClosedBefore(new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(DEFAULT_RETENTION_DAYS)));
+    }
+
+    /**
+     * Archives the projects whose application closing date is before a cutoff and whose
+     * applications are all finalized, removing them and their data from the repositories.
+     * <p>
+     * All archive files are written first; the repositories are then each updated and saved
+     * once, however many projects are archived.
+     * </p>
+     * @param cutoff Projects closing before this date are archived
+     * @return Names of the projects archived
+     */
+    public List<String> archiveClosedBefore(Date cutoff) {
+        List<String> names = new ArrayList<>();
+        List<String> applicationIds = new ArrayList<>();
+        List<String> enquiryIds = new ArrayList<>();
+        List<String> registrationIds = new ArrayList<>();
+        for (Project project : projectRepository.findAll()) {
+            String name = project.getProjectName();
+            if (project.getClosingDate() == null || !project.getClosingDate().before(cutoff)) {
+                continue;
+            }
+            List<Application> applications = applicationRepository.findByProject(name);
+            if (applications.stream().anyMatch(app -> app.getStatus() == null || !app.getStatus().isFinalized())) {
+                continue; // Still being processed
+            }
+            if (archived.contains(name)) {
+                System.err.println("Not archiving project " + name + ": an archive with that name already exists");
+                continue;
+            }
+            List<Enquiry> enquiries = enquiryRepository.findByProject(name);
+            List<OfficerRegistration> registrations = registrationRepository.findByProjectName(name);
+            try {
+                write(project, applications, enquiries, registrations);
+            } catch (IOException e) {
+                System.err.println("Error archiving project " + name + ": " + e.getMessage());
+                continue;
+            }
+            archived.add(name);
+            addBooked(bookedIn(applications));
+            names.add(name);
+            applications.forEach(app -> applicationIds.add(app.getApplicationId()));
+            enquiries.forEach(enquiry -> enquiryIds.add(enquiry.getEnquiryId()));
+            registrations.forEach(registration -> registrationIds.add(registration.getRegistrationId()));
+        }
+        if (!names.isEmpty()) {
+            // Non-short-circuit, so a failure in one repository does not keep data in the others
+            boolean saved = applicationRepository.deleteAll(applicationIds)
+                    & enquiryRepository.deleteAll(enquiryIds)
+                    & registrationRepository.deleteAll(registrationIds)
+                    & projectRepository.deleteAll(names);
+            if (!saved) {
+                System.err.println("Archived projects could not all be removed from the repositories");
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @param projectName The project name
+     * @return true if the project has been archived
+     */
+    public boolean isArchived(String projectName) {
+        return projectName != null && archived.contains(projectName);
+    }
+
+    /**
+     * @return true if no project has been archived
+     */
+    public boolean isEmpty() {
+        return archived.isEmpty();
+    }
+
+    /**
+     * Checks whether an applicant booked a flat in an archived project.
+     * <p>
+     * The first call reads the booked applicants from the header of every archive; later
+     * calls are a set lookup.
+     * </p>
+     * @param applicantNRIC The applicant's NRIC
+     * @return true if the applicant has a BOOKED application in an archived project
+     */
+    public boolean hasBooked(String applicantNRIC) {
+        return bookedIndex().contains(applicantNRIC);
+    }
+
+    /**
+     * Lists the archived projects of a manager, reading only the header of each archive.
+     * @param managerNRIC The manager's NRIC
+     * @return Names of the manager's archived projects, sorted
+     */
+    public List<String> findArchivedByManager(String managerNRIC) {
+        Set<String> names = new TreeSet<>();
+        for (String name : archived) {
+            try (ObjectInputStream in = open(name)) {
+                if (readHeader(in).managerNRIC.equals(managerNRIC)) {
+                    names.add(name);
+                }
+            } catch (IOException e) {
+                System.err.println("Error reading archive of project " + name + ": " + e.getMessage());
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    /**
+     * Rehydrates an archived project with its applications, enquiries and registrations.
+     * @param projectName The project name
+     * @return The archived project, or null if the project is not archived or its archive
+     *         cannot be read
+     */
+    public ArchivedProject load(String projectName) {
+        if (!isArchived(projectName)) {
+            return null;
+        }
+        try (ObjectInputStream in = open(projectName)) {
+            Date archivedAt = new Date(readHeader(in).archivedAt);
+            Project project = (Project) in.readObject();
+            @SuppressWarnings("unchecked")
+            List<Application> applications = (List<Application>) in.readObject();
+            @SuppressWarnings("unchecked")
+            List<Enquiry> enquiries = (List<Enquiry>) in.readObject();
+            @SuppressWarnings("unchecked")
+            List<OfficerRegistration> registrations = (List<OfficerRegistration>) in.readObject();
+            return new ArchivedProject(project, applications, enquiries, registrations, archivedAt);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            System.err.println("Error reading archive of project " + projectName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the archive of a project to a temporary file and moves it into place, so a
+     * crash never leaves a partial archive under the project's name.
+     */
+    private void write(Project project, List<Application> applications, List<Enquiry> enquiries,
+                       List<OfficerRegistration> registrations) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("cannot create " + directory);
+        }
+        File file = fileOf(project.getProjectName());
+        File temp = new File(directory, file.getName() + ".tmp");
+        try (ObjectOutputStream out = new ObjectOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(new FileOutputStream(temp), 1 << 16)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeUTF(project.getProjectName());
+            out.writeUTF(project.getManagerInCharge() == null ? "" : project.getManagerInCharge());
+            out.writeLong(project.getClosingDate().getTime());
+            out.writeLong(System.currentTimeMillis());
+            List<String> booked = bookedIn(applications);
+            out.writeInt(booked.size());
+            for (String nric : booked) {
+                out.writeUTF(nric);
+            }
+            out.writeObject(project);
+            out.writeObject(new ArrayList<>(applications));
+            out.writeObject(new ArrayList<>(enquiries));
+            out.writeObject(new ArrayList<>(registrations));
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Opens an archive at its header, to be read with {@link #readHeader(ObjectInputStream)}.
+     */
+    private ObjectInputStream open(String projectName) throws IOException {
+        return new ObjectInputStream(new GZIPInputStream(
+                new BufferedInputStream(new FileInputStream(fileOf(projectName)), 1 << 16)));
+    }
+
+    /**
+     * Reads the header of an archive, leaving the stream at the serialized project.
+     * @throws IOException if the stream is not a project archive or cannot be read
+     */
+    private static Header readHeader(ObjectInputStream in) throws IOException {
+        int magic = in.readInt();
+        if (magic != FILE_MAGIC && magic != FILE_MAGIC_V1) {
+            throw new IOException("not a project archive");
+        }
+        in.readUTF(); // Project name
+        String managerNRIC = in.readUTF();
+        in.readLong(); // Closing date
+        long archivedAt = in.readLong();
+        List<String> booked = null;
+        if (magic == FILE_MAGIC) {
+            int count = in.readInt();
+            booked = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                booked.add(in.readUTF());
+            }
+        }
+        return new Header(managerNRIC, archivedAt, booked);
+    }
+
+    /**
+     * Returns the booked applicants of all archived projects, reading them on first use.
+     * Archives written before headers listed them are read in full instead.
+     */
+    private synchronized Set<String> bookedIndex() {
+        if (bookedApplicants == null) {
+            Set<String> booked = ConcurrentHashMap.newKeySet();
+            for (String name : archived) {
+                try (ObjectInputStream in = open(name)) {
+                    Header header = readHeader(in);
+                    if (header.bookedApplicants != null) {
+                        booked.addAll(header.bookedApplicants);
+                        continue;
+                    }
+                } catch (IOException e) {
+                    System.err.println("Error reading archive of project " + name + ": " + e.getMessage());
+                    continue;
+                }
+                ArchivedProject project = load(name);
+                if (project != null) {
+                    booked.addAll(bookedIn(project.getApplications()));
+                }
+            }
+            bookedApplicants = booked;
+        }
+        return bookedApplicants;
+    }
+
+    /**
+     * Adds newly archived booked applicants to the index, if it has been built.
+     */
+    private synchronized void addBooked(List<String> nrics) {
+        if (bookedApplicants != null) {
+            bookedApplicants.addAll(nrics);
+        }
+    }
+
+    /**
+     * Lists the distinct NRICs of the applicants with a BOOKED application, sorted.
+     */
+    private static List<String> bookedIn(List<Application> applications) {
+        Set<String> booked = new TreeSet<>();
+        for (Application application : applications) {
+            if (application.getStatus() == ApplicationStatus.BOOKED) {
+                booked.add(application.getApplicantId());
+            }
+        }
+        return new ArrayList<>(booked);
+    }
+
+    private File fileOf(String projectName) {
+        return new File(directory, URLEncoder.encode(projectName, StandardCharsets.UTF_8) + SUFFIX);
+    }
+
+    /**
+     * The header of an archive file.
+     */
+    private static final class Header {
+        final String managerNRIC;
+        final long archivedAt;
+        /** Null in archives written before headers listed the booked applicants. */
+        final List<String> bookedApplicants;
+
+        Header(String managerNRIC, long archivedAt, List<String> bookedApplicants) {
+            this.managerNRIC = managerNRIC;
+            this.archivedAt = archivedAt;
+            this.bookedApplicants = bookedApplicants;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package main.repository;
+
+import main.model.project.FlatType;
+import main.model.project.Neighborhood;
+import main.model.project.Project;
+
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Typed search criteria for projects, executed by {@link ProjectRepository#find(ProjectQuery)}.
+ * <p>
+ * Criteria are set with the fluent methods below (unset criteria do not constrain the
+ * result) and compiled once into a single {@link Predicate} per search, instead of
+ * re-interpreting a filter map for every project. The repository uses its neighborhood
+ * index and its visible/open view to narrow the candidates when the query allows it.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     List&lt;Project&gt; result = projectRepository.find(
+ *         new ProjectQuery().inNeighborhood(Neighborhood.YISHUN).offering(FlatType.THREE_ROOM).open());
+ * </pre>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ProjectQuery {
+
+    /**
+     * Application period status of a project relative to the current time.
+     */
+    public enum Status {
+        /** The current time is within the application period (inclusive). */
+        OPEN,
+        /** The current time is outside the application period. */
+        CLOSED
+    }
+
+    private Neighborhood neighborhood;
+    private FlatType flatType;
+    private Status status;
+    private Boolean visible;
+    private boolean unsatisfiable;
+
+    /**
+     * Restricts the query to one neighborhood.
+     * @param neighborhood The neighborhood
+     * @return this query
+     */
+    public ProjectQuery inNeighborhood(Neighborhood neighborhood) {
+        this.neighborhood = neighborhood;
+        return this;
+    }
+
+    /**
+     * Restricts the query to projects offering a flat type.
+     * @param flatType The flat type
+     * @return this query
+     */
+    public ProjectQuery offering(FlatType flatType) {
+        this.flatType = flatType;
+        return this;
+    }
+
+    /**
+     * Restricts the query by application period status.
+     * @param status OPEN or CLOSED
+     * @return this query
+     */
+    public ProjectQuery withStatus(Status status) {
+        this.status = status;
+        return this;
+    }
+
+    /**
+     * Restricts the query to projects currently open for application.
+     * @return this query
+     */
+    public ProjectQuery open() {
+        return withStatus(Status.OPEN);
+    }
+
+    /**
+     * Restricts the query by visibility.
+     * @param visible true for visible projects only, false for hidden projects only
+     * @return this query
+     */
+    public ProjectQuery visible(boolean visible) {
+        this.visible = visible;
+        return this;
+    }
+
+    /**
+     * @return The required neighborhood, or null if any
+     */
+    public Neighborhood getNeighborhood() {
+        return neighborhood;
+    }
+
+    /**
+     * @return The flat type that must be offered, or null if any
+     */
+    public FlatType getFlatType() {
+        return flatType;
+    }
+
+    /**
+     * @return The required application period status, or null if any
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return The required visibility, or null if any
+     */
+    public Boolean getVisible() {
+        return visible;
+    }
+
+    /**
+     * Returns whether the query can never match, e.g. because a filter value
+     * passed to {@link #fromMap(Map)} was not recognised.
+     * @return true if no project can match
+     */
+    public boolean isUnsatisfiable() {
+        return unsatisfiable;
+    }
+
+    /**
+     * Compiles the criteria into a single predicate.
+     * Time-dependent criteria are evaluated against the time of compilation.
+     * @return Predicate matching the projects selected by this query
+     */
+    public Predicate<Project> compile() {
+        if (unsatisfiable) {
+            return project -> false;
+        }
+        Predicate<Project> compiled = project -> true;
+        if (neighborhood != null) {
+            Neighborhood n = neighborhood;
+            compiled = compiled.and(project -> project.getNeighborhood() == n);
+        }
+        if (flatType != null) {
+            FlatType t = flatType;
+            compiled = compiled.and(project -> project.offers(t));
+        }
+        if (visible != null) {
+            boolean v = visible;
+            compiled = compiled.and(project -> project.isVisible() == v);
+        }
+        if (status != null) {
+            long now = System.currentTimeMillis();
+            boolean wantOpen = status == Status.OPEN;
+            compiled = compiled.and(project -> isOpenAt(project, now) == wantOpen);
+        }
+        return compiled;
+    }
+
+    /**
+     * Checks whether the application period of a project contains the given time (inclusive).
+     */
+    private static boolean isOpenAt(Project project, long now) {
+        return project.getOpeningDate() != null && project.getClosingDate() != null
+            && now >= project.getOpeningDate().getTime()
+            && now <= project.getClosingDate().getTime();
+    }
+
+    /**
+     * Builds a query from the filter map used by the project search screens.
+     * <p>
+     * Recognised keys are {@code "neighborhood"} (name), {@code "flatType"} (e.g. "3-Room"),
+     * {@code "status"} ("open" or "closed") and {@code "visible"} (Boolean). Unknown keys and
+     * unknown status values are ignored; an unknown neighborhood or flat type makes the
+     * query match nothing, as the map-based filters did.
+     * </p>
+     * @param filters Map of filter criteria (may be null)
+     * @return The equivalent query
+     */
+    public static ProjectQuery fromMap(Map<String, Object> filters) {
+        ProjectQuery query = new ProjectQuery();
+        if (filters == null) {
+            return query;
+        }
+        for (Map.Entry<String, Object> entry : filters.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+                case "neighborhood":
+                    try {
+                        query.inNeighborhood(Neighborhood.fromString((String) value));
+                    } catch (IllegalArgumentException e) {
+                        query.unsatisfiable = true;
+                    }
+                    break;
+                case "flatType":
+                    FlatType type = FlatType.find((String) value);
+                    if (type == null) {
+                        query.unsatisfiable = true;
+                    } else {
+                        query.offering(type);
+                    }
+                    break;
+                case "status":
+                    if ("open".equalsIgnoreCase((String) value)) query.withStatus(Status.OPEN);
+                    if ("closed".equalsIgnoreCase((String) value)) query.withStatus(Status.CLOSED);
+                    break;
+                case "visible":
+                    query.visible((Boolean) value);
+                    break;
+                default:
+                    break; // Ignore unknown filters
+            }
+        }
+        return query;
+    }
+}
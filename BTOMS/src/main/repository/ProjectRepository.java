@@ -1,22 +1,36 @@
 package main.repository;
 
+import main.model.project.Neighborhood;
 import main.model.project.Project;
 import main.utils.Loader.ProjectLoader;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Repository class for managing Project entities, using project name as the unique identifier.
  */
 public class ProjectRepository extends FileBasedRepository<Project, String> {
+    /** Projects by name. */
+    public static final PageSort<Project> BY_NAME = PageSort.by("name", p -> PageSort.textKey(p.getProjectName()));
+    /** Projects by opening date. */
+    public static final PageSort<Project> BY_OPENING_DATE =
+        PageSort.by("opening date", p -> PageSort.dateKey(p.getOpeningDate()));
     private static final String CSV_FILE = "ProjectList.csv";
     private static final String DATA_FILE = "data/projects.dat";
     private final UserRepository userRepository;
+    private final VisibleProjectCache visibleProjectCache;
+
+    /** Projects grouped by neighborhood, rebuilt lazily after any change; null when stale. */
+    private volatile Map<Neighborhood, List<Project>> neighborhoodIndex;
 
     /**
      * Creates a ProjectRepository with dependency on UserRepository for manager lookups.
@@ -25,6 +39,7 @@ public class ProjectRepository extends FileBasedRepository<Project, String> {
     public ProjectRepository(UserRepository userRepository) {
         super(DATA_FILE);
         this.userRepository = userRepository;
+        this.visibleProjectCache = new VisibleProjectCache(this);
         ensureDataDirectoryExists();
     }
 
@@ -58,27 +73,76 @@ public class ProjectRepository extends FileBasedRepository<Project, String> {
      */
     @Override
     public boolean save(Project project) {
-        if (findById(project.getProjectName()) != null) {
-            return false; // Project with this name already exists
-        }
-        entities.add(project);
-        return saveToFile();
+        return write(() -> {
+            if (findById(project.getProjectName()) != null) {
+                return false; // Project with this name already exists
+            }
+            entities.add(project);
+            onProjectsChanged();
+            fireInserted(project);
+            return saveToFile();
+        });
     }
 
     /**
      * Updates an existing project in the repository.
+     * <p>
+     * Unlike the other repositories, a project read before the latest committed update is
+     * rejected rather than stored, since it would silently undo that update (e.g., give back
+     * a flat that was just booked). Writers that may race use
+     * {@link #modify(Object, Predicate)}.
+     * </p>
      * @param project The Project with updated details
      * @return true if updated successfully, false if project not found
+     * @throws VersionConflictException if the project is stale
      */
     @Override
     public boolean update(Project project) {
-        for (int i = 0; i < entities.size(); i++) {
-            if (entities.get(i).getProjectName().equals(project.getProjectName())) {
-                entities.set(i, project);
-                return saveToFile();
+        return write(() -> {
+            for (int i = 0; i < entities.size(); i++) {
+                Project current = entities.get(i);
+                if (current.getProjectName().equals(project.getProjectName())) {
+                    if (current != project && current.getVersion() != project.getVersion()) {
+                        throw conflict(project.getProjectName(), project.getVersion(), current.getVersion());
+                    }
+                    entities.set(i, project);
+                    onProjectsChanged();
+                    fireUpdated(project);
+                    return saveToFile();
+                }
             }
-        }
-        return false;
+            return false;
+        });
+    }
+
+    /**
+     * Renames a project by replacing it with a renamed copy, if nobody else has committed an
+     * update since the copy was made. Subscribers see the old name deleted and the new one
+     * inserted.
+     * @param name The current name of the project
+     * @param project The renamed copy
+     * @param expectedVersion The version the copy was made from
+     * @return true if renamed successfully, false if the project was not found, the new name
+     *         is taken, or the change could not be saved
+     * @throws VersionConflictException if the project was updated since the copy was made
+     */
+    @Override
+    protected boolean rename(String name, Project project, long expectedVersion) {
+        return write(() -> {
+            Project current = findById(name);
+            if (current == null || findById(project.getProjectName()) != null) {
+                return false;
+            }
+            if (current.getVersion() != expectedVersion) {
+                throw conflict(name, expectedVersion, current.getVersion());
+            }
+            entities.set(entities.indexOf(current), project);
+            project.setVersion(expectedVersion + 1);
+            onProjectsChanged();
+            fireDeleted(current);
+            fireInserted(project);
+            return saveToFile();
+        });
     }
 
     /**
@@ -88,11 +152,55 @@ public class ProjectRepository extends FileBasedRepository<Project, String> {
      */
     @Override
     public boolean delete(String name) {
-        boolean removed = entities.removeIf(project -> project.getProjectName().equals(name));
-        if (removed) {
-            return saveToFile();
+        return write(() -> {
+            Project project = findById(name);
+            if (project != null && entities.remove(project)) {
+                onProjectsChanged();
+                fireDeleted(project);
+                return saveToFile();
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Deletes several projects by name and persists once.
+     * @param names The names of the projects to delete
+     * @return true if nothing had to be deleted or the deletions were saved
+     */
+    @Override
+    public boolean deleteAll(Collection<String> names) {
+        return write(() -> {
+            boolean saved = super.deleteAll(names);
+            onProjectsChanged();
+            return saved;
+        });
+    }
+
+    /**
+     * Invalidates the derived views of the project list after a change.
+     */
+    private void onProjectsChanged() {
+        visibleProjectCache.invalidate();
+        neighborhoodIndex = null;
+    }
+
+    /**
+     * Returns the neighborhood index, rebuilding it if a project changed since it was built.
+     * @return Map of neighborhood to the projects located there
+     */
+    private Map<Neighborhood, List<Project>> neighborhoodIndex() {
+        Map<Neighborhood, List<Project>> index = neighborhoodIndex;
+        if (index == null) {
+            index = new EnumMap<>(Neighborhood.class);
+            for (Project project : entities) {
+                if (project.getNeighborhood() != null) {
+                    index.computeIfAbsent(project.getNeighborhood(), n -> new ArrayList<>()).add(project);
+                }
+            }
+            neighborhoodIndex = index;
         }
-        return false;
+        return index;
     }
 
     /**
@@ -143,28 +251,55 @@ public class ProjectRepository extends FileBasedRepository<Project, String> {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves all projects that are visible and currently open for application.
+     * Served from a maintained view, so repeated calls do not scan the repository.
+     * @return Unmodifiable list of visible projects within their application period
+     */
+    public List<Project> findVisibleOpenProjects() {
+        return visibleProjectCache.getVisibleOpenProjects();
+    }
+
+    /**
+     * Finds the projects matching a typed query.
+     * <p>
+     * The query is compiled once. Candidates are narrowed with the visible/open view when
+     * the query asks for visible, open projects, or with the neighborhood index when it
+     * names a neighborhood; otherwise all projects are scanned.
+     * </p>
+     * @param query The search criteria
+     * @return List of projects matching the query
+     */
+    public List<Project> find(ProjectQuery query) {
+        if (query.isUnsatisfiable()) {
+            return new ArrayList<>();
+        }
+        List<Project> candidates;
+        if (Boolean.TRUE.equals(query.getVisible()) && query.getStatus() == ProjectQuery.Status.OPEN) {
+            candidates = findVisibleOpenProjects();
+        } else if (query.getNeighborhood() != null) {
+            candidates = neighborhoodIndex().getOrDefault(query.getNeighborhood(), Collections.emptyList());
+        } else {
+            candidates = entities;
+        }
+
+        Predicate<Project> predicate = query.compile();
+        List<Project> result = new ArrayList<>();
+        for (Project project : candidates) {
+            if (predicate.test(project)) {
+                result.add(project);
+            }
+        }
+        return result;
+    }
+
     /**
      * Filters projects based on specified criteria.
      * @param filters Map of filter criteria (e.g., neighborhood, flatType)
      * @return List of projects matching the filters
+     * @see ProjectQuery#fromMap(Map)
      */
     public List<Project> findByFilter(Map<String, Object> filters) {
-        List<Project> filteredProjects = new ArrayList<>(entities);
-        
-        if (filters.containsKey("neighborhood")) {
-            String neighborhoodFilter = (String) filters.get("neighborhood");
-            filteredProjects = filteredProjects.stream()
-                    .filter(p -> p.getNeighborhood().toString().equalsIgnoreCase(neighborhoodFilter))
-                    .collect(Collectors.toList());
-        }
-        
-        if (filters.containsKey("flatType")) {
-            String flatType = (String) filters.get("flatType");
-            filteredProjects = filteredProjects.stream()
-                    .filter(p -> p.getFlatTypes().containsKey(flatType))
-                    .collect(Collectors.toList());
-        }
-        
-        return filteredProjects;
+        return find(ProjectQuery.fromMap(filters));
     }
 }
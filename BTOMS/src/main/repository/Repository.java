@@ -65,4 +65,18 @@ public interface Repository<T, ID> {
      * @return {@code true} if the entity was deleted successfully, {@code false} otherwise.
      */
     boolean delete(ID id);
+
+    /**
+     * Lists one page of entities in the given order, starting after a cursor.
+     * <p>
+     * Pass the {@link Page#getNextCursor() cursor} of a page to get the next one. Memory used
+     * per call is bounded by the page size, not by the number of entities.
+     * </p>
+     *
+     * @param after Cursor from the previous page, or {@code null} for the first page.
+     * @param limit Maximum number of entities on the page.
+     * @param sort The order to list in, one of the sorts declared by the repository.
+     * @return The page.
+     */
+    Page<T> page(String after, int limit, PageSort<T> sort);
 }
@@ -0,0 +1,46 @@
+package main.repository;
+
+/**
+ * Callback interface for observing changes made through a {@link FileBasedRepository}.
+ * <p>
+ * Listeners are notified synchronously, after the in-memory entity list has changed and
+ * before the change is written to disk. They are meant for derived state that must be
+ * current as soon as the repository call returns, such as indexes and admission
+ * structures. Consumers that react to changes (notifications, aggregates, audit) subscribe
+ * to a {@link ChangeEventBus} instead, which only delivers saved changes and does not run
+ * on the writer's thread. Since controllers usually modify the stored
+ * instance in place before calling {@code update}, the entity passed to
+ * {@link #onUpdate(Object)} already carries the new state; listeners that need the
+ * previous state must keep their own copy of whatever they derived from it.
+ * </p>
+ *
+ * @param <T> The type of entity observed
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public interface RepositoryListener<T> {
+
+    /**
+     * Called after a new entity has been added.
+     * @param entity The added entity
+     */
+    default void onInsert(T entity) {
+    }
+
+    /**
+     * Called after an entity has been updated. May also be called for an entity that
+     * was not stored before (e.g. by a batch upsert).
+     * @param entity The entity in its new state
+     */
+    default void onUpdate(T entity) {
+    }
+
+    /**
+     * Called after an entity has been removed.
+     * @param entity The removed entity
+     */
+    default void onDelete(T entity) {
+    }
+}
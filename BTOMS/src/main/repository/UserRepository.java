@@ -1,8 +1,16 @@
 package main.repository;
 
+import main.model.user.Nric;
 import main.model.user.User;
+import main.utils.LongObjectHashMap;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -14,16 +22,31 @@ import java.util.stream.Collectors;
  * <p>
  * Data is stored in a file specified by {@code DATA_FILE}. Users are uniquely identified by their NRIC.
  * </p>
+ * <p>
+ * Lookups by NRIC go through an index keyed by the packed {@link Nric}, a primitive
+ * {@code long}, instead of scanning all users. Users whose ID is not a valid NRIC are kept
+ * in a short list that is scanned instead.
+ * </p>
  */
 public class UserRepository extends FileBasedRepository<User, String> {
+    /** Users by name. */
+    public static final PageSort<User> BY_NAME = PageSort.by("name", u -> PageSort.textKey(u.getName()));
     private static final String CSV_FILE = "UserList.csv";
     private static final String DATA_FILE = "data/users.dat";
 
+    /** First user with each packed NRIC, ignoring case and whitespace. Guarded by itself. */
+    private final LongObjectHashMap<User> byNric = new LongObjectHashMap<>();
+    /** Users whose ID is not a valid NRIC. Guarded by {@link #byNric}. */
+    private final List<User> usersWithoutNric = new ArrayList<>();
+
     /**
      * Constructs a new {@code UserRepository} with file-based storage.
      */
     public UserRepository() {
         super(DATA_FILE);
+        for (User user : entities) {
+            index(user);
+        }
     }
 
     /**
@@ -33,6 +56,74 @@ public class UserRepository extends FileBasedRepository<User, String> {
      */
     private void saveWithoutCheck(User user) {
         entities.add(user);
+        index(user);
+    }
+
+    /**
+     * Adds a user to the NRIC index unless an earlier user has the same NRIC.
+     */
+    private void index(User user) {
+        long key = Nric.pack(user.getID());
+        synchronized (byNric) {
+            if (key == Nric.INVALID) {
+                usersWithoutNric.add(user);
+            } else {
+                byNric.putIfAbsent(key, user);
+            }
+        }
+    }
+
+    /**
+     * Points the NRIC index at the replacement of a user.
+     */
+    private void reindex(User previous, User user) {
+        long key = Nric.pack(user.getID());
+        synchronized (byNric) {
+            if (key == Nric.INVALID) {
+                usersWithoutNric.replaceAll(u -> u == previous ? user : u);
+            } else if (byNric.get(key) == previous) {
+                byNric.put(key, user);
+            }
+        }
+    }
+
+    /**
+     * Removes a user from the NRIC index, falling back to the next user with the same NRIC.
+     */
+    private void unindex(User user) {
+        long key = Nric.pack(user.getID());
+        synchronized (byNric) {
+            if (key == Nric.INVALID) {
+                usersWithoutNric.remove(user);
+            } else if (byNric.get(key) == user) {
+                byNric.remove(key);
+                for (User other : entities) {
+                    if (Nric.pack(other.getID()) == key) {
+                        byNric.put(key, other);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the first user whose ID equals an NRIC, ignoring case and surrounding whitespace.
+     */
+    private User lookup(String nric) {
+        long key = Nric.pack(nric);
+        synchronized (byNric) {
+            if (key != Nric.INVALID) {
+                return byNric.get(key);
+            }
+            String trimmedNRIC = nric == null ? null : nric.trim();
+            for (User user : usersWithoutNric) {
+                if (user.getID() != null && user.getID().trim().equalsIgnoreCase(trimmedNRIC)) {
+                    return user;
+                }
+            }
+            return null;
+        }
     }
 
     /**
@@ -43,15 +134,40 @@ public class UserRepository extends FileBasedRepository<User, String> {
      */
     @Override
     public User findById(String id) {
+        if (id == null) return null;
+        User user = lookup(id);
+        if (user != null && id.equals(user.getID())) {
+            return user;
+        }
+        if (user == null) {
+            return null;
+        }
+        // Another user differs only in case or whitespace; compare exactly
         return entities.stream()
-            .filter(user -> {
-                String userId = user.getID();
-                return userId != null && userId.equals(id); // Null-safe check
-            })
+            .filter(u -> id.equals(u.getID()))
             .findFirst()
             .orElse(null);
     }
 
+    /**
+     * Finds several users by their NRIC, with one index lookup per NRIC instead of a scan
+     * of the repository.
+     *
+     * @param ids the NRICs to look up
+     * @return a map of NRIC to {@link User} for the NRICs that were found
+     */
+    public Map<String, User> findAllById(Collection<String> ids) {
+        Set<String> wanted = new HashSet<>(ids);
+        Map<String, User> found = new HashMap<>();
+        for (String id : wanted) {
+            User user = findById(id);
+            if (user != null) {
+                found.put(id, user);
+            }
+        }
+        return found;
+    }
+
     /**
      * Saves a new user to the repository if a user with the same NRIC does not already exist.
      *
@@ -60,11 +176,15 @@ public class UserRepository extends FileBasedRepository<User, String> {
      */
     @Override
     public boolean save(User user) {
-        if (findById(user.getID()) != null) {
-            return false; // User with this NRIC already exists
-        }
-        entities.add(user);
-        return saveToFile();
+        return write(() -> {
+            if (findById(user.getID()) != null) {
+                return false; // User with this NRIC already exists
+            }
+            entities.add(user);
+            index(user);
+            fireInserted(user);
+            return saveToFile();
+        });
     }
 
     /**
@@ -75,13 +195,17 @@ public class UserRepository extends FileBasedRepository<User, String> {
      */
     @Override
     public boolean update(User user) {
-        for (int i = 0; i < entities.size(); i++) {
-            if (entities.get(i).getID().equals(user.getID())) {
-                entities.set(i, user);
-                return saveToFile();
+        return write(() -> {
+            for (int i = 0; i < entities.size(); i++) {
+                if (entities.get(i).getID().equals(user.getID())) {
+                    User previous = entities.set(i, user);
+                    reindex(previous, user);
+                    fireUpdated(user);
+                    return saveToFile();
+                }
             }
-        }
-        return false; // User not found
+            return false; // User not found
+        });
     }
 
     /**
@@ -92,11 +216,15 @@ public class UserRepository extends FileBasedRepository<User, String> {
      */
     @Override
     public boolean delete(String nric) {
-        boolean removed = entities.removeIf(user -> user.getID().equals(nric));
-        if (removed) {
-            return saveToFile();
-        }
-        return false;
+        return write(() -> {
+            User user = findById(nric);
+            if (user != null && entities.remove(user)) {
+                unindex(user);
+                fireDeleted(user);
+                return saveToFile();
+            }
+            return false;
+        });
     }
 
     /**
@@ -118,10 +246,8 @@ public class UserRepository extends FileBasedRepository<User, String> {
      * @return the {@link User} matching the credentials, or {@code null} if not found
      */
     public User findByCredentials(String nric, String password) {
-        return entities.stream()
-                .filter(user -> user.getID().equals(nric) && user.getPassword().equals(password))
-                .findFirst()
-                .orElse(null);
+        User user = findById(nric);
+        return user != null && user.getPassword().equals(password) ? user : null;
     }
 
     /**
@@ -144,11 +270,7 @@ public class UserRepository extends FileBasedRepository<User, String> {
      */
     public User findByNRIC(String nric) {
         if (nric == null) return null;
-        String trimmedNRIC = nric.trim();
-        return entities.stream()
-            .filter(user -> user.getID() != null && user.getID().trim().equalsIgnoreCase(trimmedNRIC))
-            .findFirst()
-            .orElse(null);
+        return lookup(nric);
     }
 
     /**
@@ -0,0 +1,56 @@
+package main.repository;
+
+/**
+ * Thrown when a versioned update finds that the entity was changed by someone else since
+ * the caller read it.
+ * <p>
+ * The caller should re-read the entity, reapply its change and try again, or use
+ * {@link FileBasedRepository#modify(Object, java.util.function.Predicate)}, which does so.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class VersionConflictException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Object entityId;
+    private final long expectedVersion;
+    private final long actualVersion;
+
+    /**
+     * Creates the exception.
+     * @param entityId ID of the entity
+     * @param expectedVersion Version the caller read
+     * @param actualVersion Version currently stored
+     */
+    public VersionConflictException(Object entityId, long expectedVersion, long actualVersion) {
+        super("Entity " + entityId + " was modified concurrently: expected version "
+            + expectedVersion + " but found " + actualVersion);
+        this.entityId = entityId;
+        this.expectedVersion = expectedVersion;
+        this.actualVersion = actualVersion;
+    }
+
+    /**
+     * @return ID of the entity
+     */
+    public Object getEntityId() {
+        return entityId;
+    }
+
+    /**
+     * @return Version the caller read
+     */
+    public long getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    /**
+     * @return Version currently stored
+     */
+    public long getActualVersion() {
+        return actualVersion;
+    }
+}
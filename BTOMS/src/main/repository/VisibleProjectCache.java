@@ -0,0 +1,121 @@
+package main.repository;
+
+import main.model.project.Project;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintained view of the projects that are currently visible and open for application.
+ * <p>
+ * The view is rebuilt lazily on the first read after it has been invalidated. It is
+ * invalidated whenever a project is created, edited, deleted or has its visibility toggled
+ * (all of which go through {@link ProjectRepository}), and automatically at the next
+ * opening or closing date of any visible project via a daemon {@link Timer}.
+ * Between invalidations every read is served from the same immutable snapshot.
+ * </p>
+ */
+public class VisibleProjectCache {
+    private final ProjectRepository projectRepository;
+    private final Timer timer = new Timer("visible-project-cache", true);
+
+    /** Current snapshot, or {@code null} if it must be rebuilt on the next read. */
+    private volatile List<Project> snapshot;
+
+    /** Bumped on every invalidation so a rebuild racing with a write is not published. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /** Pending timer task for the next opening/closing boundary. */
+    private TimerTask boundaryTask;
+
+    /**
+     * Creates a cache over the given repository.
+     * @param projectRepository The repository whose projects are cached
+     */
+    public VisibleProjectCache(ProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    /**
+     * Returns the projects that are visible and whose application period contains the
+     * current time (inclusive on both ends).
+     * @return Unmodifiable list of visible, open projects
+     */
+    public List<Project> getVisibleOpenProjects() {
+        List<Project> current = snapshot;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current;
+    }
+
+    /**
+     * Discards the current snapshot so that the next read rebuilds it.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Rebuilds the snapshot from the repository and schedules the next boundary refresh.
+     * @return The new snapshot
+     */
+    private synchronized List<Project> rebuild() {
+        if (snapshot != null) {
+            return snapshot;
+        }
+        long startGeneration = generation.get();
+        long now = System.currentTimeMillis();
+        long nextBoundary = Long.MAX_VALUE;
+        List<Project> open = new ArrayList<>();
+
+        for (Project project : projectRepository.entities) {
+            if (!project.isVisible()) continue;
+            long opening = project.getOpeningDate().getTime();
+            long closing = project.getClosingDate().getTime();
+            if (now >= opening && now <= closing) {
+                open.add(project);
+            }
+            // Earliest future moment at which this project enters or leaves the view
+            if (opening > now) {
+                nextBoundary = Math.min(nextBoundary, opening);
+            } else if (closing >= now) {
+                nextBoundary = Math.min(nextBoundary, closing + 1);
+            }
+        }
+
+        scheduleRefresh(nextBoundary);
+        List<Project> result = Collections.unmodifiableList(open);
+        if (generation.get() == startGeneration) {
+            snapshot = result;
+        }
+        return result;
+    }
+
+    /**
+     * Replaces any pending boundary task with one that invalidates at the given time.
+     * @param boundary Epoch milliseconds of the next boundary, or {@link Long#MAX_VALUE} for none
+     */
+    private void scheduleRefresh(long boundary) {
+        if (boundaryTask != null) {
+            boundaryTask.cancel();
+            boundaryTask = null;
+        }
+        if (boundary == Long.MAX_VALUE) {
+            return;
+        }
+        boundaryTask = new TimerTask() {
+            @Override
+            public void run() {
+                invalidate();
+            }
+        };
+        timer.schedule(boundaryTask, new Date(boundary));
+    }
+}
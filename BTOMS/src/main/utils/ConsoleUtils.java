@@ -1,7 +1,12 @@
 package main.utils;
 
 import java.io.Console;
+import java.util.List;
 import java.util.Scanner;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+import main.repository.Page;
 
 /**
  * Utility class for console input and validation.
@@ -15,6 +20,9 @@ import java.util.Scanner;
 public class ConsoleUtils {
     private static final Scanner scanner = new Scanner(System.in);
 
+    /** Number of rows shown per page of a paged listing. */
+    public static final int PAGE_SIZE = 20;
+
     /**
      * Reads an integer from the user within a specified range, with validation.
      * @param prompt The prompt to display to the user.
@@ -67,6 +75,33 @@ public class ConsoleUtils {
         return scanner.nextLine().trim();
     }
 
+    /**
+     * Shows a listing one page at a time, asking before fetching each next page.
+     * @param pages Fetches the page after a cursor (null for the first) with at most the given number of items.
+     * @param display Displays the items of one page.
+     * @return true if at least one item was shown, false if the listing is empty.
+     */
+    public static <T> boolean pageThrough(BiFunction<String, Integer, Page<T>> pages, Consumer<List<T>> display) {
+        Page<T> page = pages.apply(null, PAGE_SIZE);
+        if (page.isEmpty()) {
+            return false;
+        }
+        while (true) {
+            display.accept(page.getItems());
+            if (!page.hasNext()) {
+                return true;
+            }
+            String input = readOptionalInput("Press N for the next page, or Enter to continue: ");
+            if (!input.equalsIgnoreCase("N")) {
+                return true;
+            }
+            page = pages.apply(page.getNextCursor(), PAGE_SIZE);
+            if (page.isEmpty()) {
+                return true;
+            }
+        }
+    }
+
     /**
      * Asks the user to confirm an action (Y/N).
      * @param prompt The confirmation prompt.
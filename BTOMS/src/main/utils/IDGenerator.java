@@ -1,58 +1,168 @@
 package main.utils;
 
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Utility class for generating unique IDs
+ * <p>
+ * IDs are generated Snowflake-style as a 64-bit value made of a millisecond timestamp
+ * (41 bits, relative to {@link #EPOCH}), a node id (10 bits) and a per-millisecond
+ * sequence (12 bits). The last issued value is kept in an {@link AtomicLong} and advanced
+ * with a CAS loop, so IDs are unique and strictly increasing within a process without
+ * locking. When the sequence of a millisecond is exhausted, or the clock moves backwards,
+ * the generator borrows the next millisecond instead of waiting or repeating.
+ * </p>
+ * <p>
+ * For display the 64-bit value is rendered in the existing prefix format
+ * {@code PREFIX-<epoch millis>-<6 hex digits of node and sequence>}, e.g.
+ * {@code APP-1744761600000-00002a}, and can be parsed back with {@link #parseId(String)}.
+ * The node id is read from the {@code btoms.nodeId} system property (default 0).
+ * </p>
  * @author Your Team
  * @version 1.0
  */
 public class IDGenerator {
+    /** Custom epoch (2025-01-01T00:00:00Z) the timestamp bits are relative to. */
+    public static final long EPOCH = 1735689600000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int TIMESTAMP_SHIFT = NODE_BITS + SEQUENCE_BITS;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+    private static final long LOW_MASK = (1L << TIMESTAMP_SHIFT) - 1;
+
+    /** Node id of this process, already shifted into position. */
+    private static final long NODE = readNodeId() << SEQUENCE_BITS;
+
+    /** Last ID handed out; the next ID is always strictly greater. */
+    private static final AtomicLong lastId = new AtomicLong();
+
     /**
      * Generates a unique project ID
      * @return A unique project ID
      */
     public static String generateProjectId() {
-        return "PROJ-" + System.currentTimeMillis() + "-" + getRandomSuffix();
+        return toDisplayId("PROJ", nextId());
     }
-    
+
     /**
      * Generates a unique application ID
      * @return A unique application ID
      */
     public static String generateApplicationId() {
-        return "APP-" + System.currentTimeMillis() + "-" + getRandomSuffix();
+        return toDisplayId("APP", nextId());
     }
-    
+
     /**
      * Generates a unique enquiry ID
      * @return A unique enquiry ID
      */
     public static String generateEnquiryId() {
-        return "ENQ-" + System.currentTimeMillis() + "-" + getRandomSuffix();
+        return toDisplayId("ENQ", nextId());
     }
-    
+
     /**
      * Generates a unique registration ID
      * @return A unique registration ID
      */
     public static String generateRegistrationId() {
-        return "REG-" + System.currentTimeMillis() + "-" + getRandomSuffix();
+        return toDisplayId("REG", nextId());
     }
-    
+
     /**
      * Generates a unique receipt ID
      * @return A unique receipt ID
      */
     public static String generateReceiptId() {
-        return "REC-" + System.currentTimeMillis() + "-" + getRandomSuffix();
+        return toDisplayId("REC", nextId());
     }
-    
+
+    /**
+     * Generates the next ID in its compact 64-bit form.
+     * IDs are time-ordered and strictly increasing across all threads of this process.
+     * @return A unique 64-bit ID
+     */
+    public static long nextId() {
+        while (true) {
+            long last = lastId.get();
+            long now = System.currentTimeMillis() - EPOCH;
+            long lastTimestamp = last >>> TIMESTAMP_SHIFT;
+            long next;
+            if (now > lastTimestamp) {
+                next = (now << TIMESTAMP_SHIFT) | NODE;
+            } else if ((last & MAX_SEQUENCE) < MAX_SEQUENCE) {
+                // Same millisecond (or clock went backwards): bump the sequence
+                next = last + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond
+                next = ((lastTimestamp + 1) << TIMESTAMP_SHIFT) | NODE;
+            }
+            if (lastId.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Formats a 64-bit ID for display with the given prefix.
+     * @param prefix The ID prefix (e.g., "APP")
+     * @param id The 64-bit ID
+     * @return The display form, e.g. {@code APP-1744761600000-00002a}
+     */
+    public static String toDisplayId(String prefix, long id) {
+        long millis = (id >>> TIMESTAMP_SHIFT) + EPOCH;
+        String low = Long.toHexString(id & LOW_MASK);
+        StringBuilder sb = new StringBuilder(prefix.length() + 22);
+        sb.append(prefix).append('-').append(millis).append('-');
+        for (int i = low.length(); i < 6; i++) {
+            sb.append('0');
+        }
+        return sb.append(low).toString();
+    }
+
+    /**
+     * Parses a display ID produced by this generator back to its 64-bit form.
+     * @param displayId The display ID, e.g. {@code APP-1744761600000-00002a}
+     * @return The 64-bit ID
+     * @throws IllegalArgumentException if the ID was not produced by this generator
+     */
+    public static long parseId(String displayId) {
+        int last = displayId == null ? -1 : displayId.lastIndexOf('-');
+        int first = last <= 0 ? -1 : displayId.lastIndexOf('-', last - 1);
+        if (first < 0) {
+            throw new IllegalArgumentException("Invalid ID format: " + displayId);
+        }
+        try {
+            long millis = Long.parseLong(displayId.substring(first + 1, last));
+            long low = Long.parseLong(displayId.substring(last + 1), 16);
+            if (millis < EPOCH || low > LOW_MASK) {
+                throw new IllegalArgumentException("Invalid ID format: " + displayId);
+            }
+            return ((millis - EPOCH) << TIMESTAMP_SHIFT) | low;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid ID format: " + displayId, e);
+        }
+    }
+
     /**
-     * Generates a random suffix for IDs
-     * @return A random 4-character suffix
+     * Reads the node id from the {@code btoms.nodeId} system property.
+     * @return The node id, or 0 if unset or invalid
      */
-    private static String getRandomSuffix() {
-        return UUID.randomUUID().toString().substring(0, 4);
+    private static long readNodeId() {
+        String value = System.getProperty("btoms.nodeId");
+        if (value == null) {
+            return 0;
+        }
+        try {
+            long node = Long.parseLong(value.trim());
+            if (node >= 0 && node <= MAX_NODE) {
+                return node;
+            }
+        } catch (NumberFormatException ignored) {
+            // fall through to the warning below
+        }
+        System.out.println("Invalid btoms.nodeId '" + value + "', using node 0.");
+        return 0;
     }
 }
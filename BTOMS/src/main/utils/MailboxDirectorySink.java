@@ -0,0 +1,61 @@
+package main.utils;
+
+import main.model.notification.Notification;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Notification sink that appends each applicant's notifications to a mailbox file
+ * {@code <directory>/<NRIC>.txt}. Stands in for an e-mail or SMS gateway.
+ * <p>
+ * Each batch is grouped by recipient so every mailbox file is opened once per batch.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class MailboxDirectorySink implements NotificationSink {
+    private final File directory;
+
+    /**
+     * Creates a sink writing to the given directory, which is created if needed.
+     * @param directory Mailbox directory (e.g., "mailbox")
+     */
+    public MailboxDirectorySink(String directory) {
+        this.directory = new File(directory);
+    }
+
+    @Override
+    public void deliver(List<Notification> batch) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Cannot create mailbox directory " + directory);
+        }
+        Map<String, List<Notification>> byRecipient = new LinkedHashMap<>();
+        for (Notification notification : batch) {
+            byRecipient.computeIfAbsent(notification.getRecipientId(), r -> new ArrayList<>()).add(notification);
+        }
+        for (Map.Entry<String, List<Notification>> entry : byRecipient.entrySet()) {
+            File mailbox = new File(directory, entry.getKey().replaceAll("[^A-Za-z0-9_-]", "_") + ".txt");
+            try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(mailbox, true), StandardCharsets.UTF_8))) {
+                for (Notification notification : entry.getValue()) {
+                    writer.write("[" + DateUtils.formatDateTime(notification.getCreatedDate()) + "] "
+                        + notification.getSubject());
+                    writer.newLine();
+                    writer.write("  " + notification.getMessage());
+                    writer.newLine();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package main.utils;
+
+import main.model.notification.Notification;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination to which the notification outbox delivers notifications.
+ * <p>
+ * Delivery is at-least-once: if {@link #deliver(List)} throws, the whole batch is offered
+ * again later, so a sink may see a notification more than once after a failure.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public interface NotificationSink {
+
+    /**
+     * Delivers a batch of notifications.
+     * @param batch Notifications in the order they were recorded
+     * @throws IOException if the batch could not be delivered
+     */
+    void deliver(List<Notification> batch) throws IOException;
+}
@@ -0,0 +1,141 @@
+package main.utils;
+
+import main.model.application.Application;
+import main.model.project.FlatType;
+import main.model.user.Applicant;
+import main.model.user.MaritalStatus;
+
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * Typed filter criteria for applicant reports.
+ * <p>
+ * Criteria are set with the fluent methods below (unset criteria do not constrain the
+ * report) and compiled once into a single predicate over an application and its
+ * applicant, instead of re-interpreting a filter map for every row.
+ * </p>
+ *
+ * <p>Example usage:</p>
+ * <pre>
+ *     ReportFilter filter = new ReportFilter().maritalStatus(MaritalStatus.MARRIED).ageBetween(21, 35);
+ *     ReportGenerator.generate(project, applications, filter, userRepository, writer);
+ * </pre>
+ *
+ * @author Your Team
+ * @version 1.0
+ */
+public class ReportFilter {
+    private MaritalStatus maritalStatus;
+    private FlatType flatType;
+    private Integer ageMin;
+    private Integer ageMax;
+    private boolean unsatisfiable;
+
+    /**
+     * Restricts the report to applicants with the given marital status.
+     * @param maritalStatus The marital status
+     * @return this filter
+     */
+    public ReportFilter maritalStatus(MaritalStatus maritalStatus) {
+        this.maritalStatus = maritalStatus;
+        return this;
+    }
+
+    /**
+     * Restricts the report to applications for the given flat type.
+     * @param flatType The flat type
+     * @return this filter
+     */
+    public ReportFilter flatType(FlatType flatType) {
+        this.flatType = flatType;
+        return this;
+    }
+
+    /**
+     * Restricts the report to applicants within an age range (inclusive).
+     * @param min Minimum age, or null for no lower bound
+     * @param max Maximum age, or null for no upper bound
+     * @return this filter
+     */
+    public ReportFilter ageBetween(Integer min, Integer max) {
+        this.ageMin = min;
+        this.ageMax = max;
+        return this;
+    }
+
+    /**
+     * Compiles the criteria into a single predicate.
+     * @return Predicate over an application and its (non-null) applicant
+     */
+    public BiPredicate<Application, Applicant> compile() {
+        if (unsatisfiable) {
+            return (app, applicant) -> false;
+        }
+        BiPredicate<Application, Applicant> compiled = (app, applicant) -> true;
+        if (maritalStatus != null) {
+            MaritalStatus status = maritalStatus;
+            compiled = compiled.and((app, applicant) -> applicant.getMaritalStatus() == status);
+        }
+        if (flatType != null) {
+            FlatType type = flatType;
+            compiled = compiled.and((app, applicant) -> FlatType.find(app.getFlatType()) == type);
+        }
+        if (ageMin != null) {
+            int min = ageMin;
+            compiled = compiled.and((app, applicant) -> applicant.getAge() >= min);
+        }
+        if (ageMax != null) {
+            int max = ageMax;
+            compiled = compiled.and((app, applicant) -> applicant.getAge() <= max);
+        }
+        return compiled;
+    }
+
+    /**
+     * Builds a filter from the map collected by the report screens.
+     * <p>
+     * Recognised keys are {@code "maritalStatus"} (e.g. "Married"), {@code "flatType"}
+     * (e.g. "3-Room"), {@code "ageMin"} and {@code "ageMax"} (Integer). Unknown keys are
+     * ignored; an unknown marital status or flat type makes the filter match nothing,
+     * as the map-based filters did.
+     * </p>
+     * @param filters Map of filter criteria (may be null)
+     * @return The equivalent filter
+     */
+    public static ReportFilter fromMap(Map<String, Object> filters) {
+        ReportFilter filter = new ReportFilter();
+        if (filters == null) {
+            return filter;
+        }
+        for (Map.Entry<String, Object> entry : filters.entrySet()) {
+            Object value = entry.getValue();
+            switch (entry.getKey()) {
+                case "maritalStatus":
+                    try {
+                        filter.maritalStatus(MaritalStatus.fromString((String) value));
+                    } catch (IllegalArgumentException e) {
+                        filter.unsatisfiable = true;
+                    }
+                    break;
+                case "flatType":
+                    FlatType type = FlatType.find((String) value);
+                    if (type == null) {
+                        filter.unsatisfiable = true;
+                    } else {
+                        filter.flatType(type);
+                    }
+                    break;
+                case "ageMin":
+                    filter.ageMin = (Integer) value;
+                    break;
+                case "ageMax":
+                    filter.ageMax = (Integer) value;
+                    break;
+                default:
+                    break; // Ignore unknown filters
+            }
+        }
+        return filter;
+    }
+}
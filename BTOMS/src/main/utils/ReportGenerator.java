@@ -4,12 +4,19 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.BiPredicate;
 
 import main.model.project.Project;
 import main.model.user.Applicant;
+import main.model.user.User;
 import main.repository.UserRepository;
 import main.model.application.Application;
 
@@ -162,6 +169,12 @@ public class ReportGenerator {
         }
     }
 
+    /** Number of applications whose applicants are resolved per batched lookup. */
+    private static final int LOOKUP_BATCH_SIZE = 1024;
+
+    /** Column widths of the project report, matching "%-20s %-15s %-5d %-10s %-15s". */
+    private static final int[] REPORT_COLUMN_WIDTHS = {20, 15, 5, 10, 15};
+
     /**
      * Generates a formatted report of applicants with flat bookings.
      * 
@@ -174,57 +187,150 @@ public class ReportGenerator {
                                  List<Application> applications, 
                                  Map<String, Object> filters,
                                  UserRepository userRepository) {
-        StringBuilder report = new StringBuilder();
-        
+        StringWriter report = new StringWriter();
+        try {
+            generate(project, applications, filters, userRepository, report);
+        } catch (IOException e) {
+            // StringWriter does not throw
+            throw new UncheckedIOException(e);
+        }
+        return report.toString();
+    }
+
+    /**
+     * Streams a formatted report of applicants with flat bookings to a writer.
+     * <p>
+     * Rows are written as they are produced, so memory use does not grow with the
+     * report size. Applicants are resolved in batches of {@value #LOOKUP_BATCH_SIZE}
+     * applications with a single repository pass per batch, and each applicant is
+     * resolved once for both filtering and output. Applications whose applicant
+     * cannot be found are skipped.
+     * </p>
+     * 
+     * @param project The project to generate the report for
+     * @param applications List of applications to include
+     * @param filters Map of filters to apply (e.g., "maritalStatus", "flatType")
+     * @param userRepository Repository used to resolve applicants
+     * @param out Writer receiving the report; it is not closed
+     * @return The number of applicant rows written
+     * @throws IOException if writing to {@code out} fails
+     */
+    public static int generate(Project project,
+                                List<Application> applications,
+                                Map<String, Object> filters,
+                                UserRepository userRepository,
+                                Writer out) throws IOException {
+        return generate(project, applications, ReportFilter.fromMap(filters), userRepository, out);
+    }
+
+    /**
+     * Streams a formatted report of applicants with flat bookings to a writer,
+     * applying a typed filter that is compiled once for the whole report.
+     * 
+     * @param project The project to generate the report for
+     * @param applications List of applications to include
+     * @param reportFilter Filter criteria for the rows
+     * @param userRepository Repository used to resolve applicants
+     * @param out Writer receiving the report; it is not closed
+     * @return The number of applicant rows written
+     * @throws IOException if writing to {@code out} fails
+     * @see #generate(Project, List, Map, UserRepository, Writer)
+     */
+    public static int generate(Project project,
+                                List<Application> applications,
+                                ReportFilter reportFilter,
+                                UserRepository userRepository,
+                                Writer out) throws IOException {
+        BiPredicate<Application, Applicant> filter = reportFilter.compile();
+        int rows = 0;
+
         // Header
-        report.append("Project Report: ").append(project.getProjectName()).append("\n");
-        report.append("Neighborhood: ").append(project.getNeighborhood()).append("\n\n");
-        report.append(String.format("%-20s %-15s %-5s %-10s %-15s\n", 
-                                   "Applicant", "NRIC", "Age", "Status", "Flat Type"));
-        report.append("------------------------------------------------------------\n");
+        out.write("Project Report: " + project.getProjectName() + "\n");
+        out.write("Neighborhood: " + project.getNeighborhood() + "\n\n");
+        writeReportRow(out, "Applicant", "NRIC", "Age", "Status", "Flat Type");
+        out.write("------------------------------------------------------------\n");
 
-        // Filtered applications
-        applications.stream()
-            .filter(app -> passesFilters(app, filters, userRepository))
-            .forEach(app -> {
-                Applicant applicant = (Applicant) userRepository.findById(app.getApplicantId());
-                report.append(String.format("%-20s %-15s %-5d %-10s %-15s\n",
+        // Filtered applications, resolving applicants one batch at a time
+        for (int from = 0; from < applications.size(); from += LOOKUP_BATCH_SIZE) {
+            List<Application> batch = applications.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, applications.size()));
+            Set<String> applicantIds = new HashSet<>();
+            for (Application app : batch) {
+                applicantIds.add(app.getApplicantId());
+            }
+            Map<String, User> applicants = userRepository.findAllById(applicantIds);
+
+            for (Application app : batch) {
+                User user = applicants.get(app.getApplicantId());
+                if (!(user instanceof Applicant)) continue;
+                Applicant applicant = (Applicant) user;
+                if (!filter.test(app, applicant)) continue;
+                writeReportRow(out,
                     applicant.getName(),
                     applicant.getID(),
-                    applicant.getAge(),
-                    applicant.getMaritalStatus(),
-                    app.getFlatType()));
-            });
+                    Integer.toString(applicant.getAge()),
+                    String.valueOf(applicant.getMaritalStatus()),
+                    app.getFlatType());
+                rows++;
+            }
+        }
+        out.flush();
+        return rows;
+    }
 
-        return report.toString();
+    /**
+     * Writes one report row, left-justifying each value in its column
+     * (equivalent to {@code String.format("%-20s %-15s %-5d %-10s %-15s\n", ...)}).
+     */
+    private static void writeReportRow(Writer out, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            String value = String.valueOf(values[i]);
+            if (i > 0) out.write(' ');
+            out.write(value);
+            for (int pad = value.length(); pad < REPORT_COLUMN_WIDTHS[i]; pad++) {
+                out.write(' ');
+            }
+        }
+        out.write('\n');
     }
 
-    private static boolean passesFilters(Application app, 
-                                    Map<String, Object> filters,
-                                    UserRepository userRepository) {
-    return filters.entrySet().stream().allMatch(entry -> {
-        String key = entry.getKey();
-        Object value = entry.getValue();
-        
-        // Fetch applicant from repository
-        Applicant applicant = (Applicant)userRepository.findById(app.getApplicantId());
-        if (applicant == null) return false; // Skip if applicant not found
+    /**
+     * Creates a new timestamped report file path in the reports directory.
+     * @param prefix File name prefix (e.g., "project_Acacia_Breeze")
+     * @return The path of the report file, or null if the reports directory cannot be created
+     */
+    public static String newReportFilePath(String prefix) {
+        return newReportFilePath(prefix, reportTimestamp());
+    }
 
-        switch (key) {
-            case "maritalStatus":
-                return applicant.getMaritalStatus().toString().equalsIgnoreCase((String) value);
-            case "flatType":
-                return app.getFlatType().equalsIgnoreCase((String) value);
-            case "ageMin":
-                return applicant.getAge() >= (Integer) value;
-            case "ageMax":
-                return applicant.getAge() <= (Integer) value;
-            default:
-                return true; // Ignore unknown filters
+    /**
+     * Creates a report file path in the reports directory with a given timestamp,
+     * so that a batch of reports can share one timestamp.
+     * <p>
+     * Characters that are not safe in file names are replaced by underscores. When that
+     * changes the prefix, a hash of the original prefix is appended, so that e.g. the
+     * reports of projects "A B" and "A_B" in one batch do not overwrite each other.
+     * </p>
+     * @param prefix File name prefix (e.g., "project_Acacia_Breeze")
+     * @param timestamp Timestamp from {@link #reportTimestamp()}
+     * @return The path of the report file, or null if the reports directory cannot be created
+     */
+    public static String newReportFilePath(String prefix, String timestamp) {
+        if (!ensureReportsDirectoryExists()) {
+            return null;
         }
-    });
-
+        String name = prefix.replaceAll("[^A-Za-z0-9_-]", "_");
+        if (!name.equals(prefix)) {
+            name += "_" + String.format("%08x", prefix.hashCode());
+        }
+        return "reports/" + name + "_" + timestamp + ".txt";
+    }
 
+    /**
+     * Returns the current time formatted for use in report file names.
+     * @return Timestamp such as {@code 17-04-2025_14-30-00}
+     */
+    public static String reportTimestamp() {
+        return DateUtils.formatDateTime(new Date()).replace("/", "-").replace(":", "-").replace(" ", "_");
     }
     
     /**
@@ -234,7 +340,8 @@ public class ReportGenerator {
     private static boolean ensureReportsDirectoryExists() {
         File reportsDir = new File("reports");
         if (!reportsDir.exists()) {
-            return reportsDir.mkdir();
+            // Another thread may create it concurrently
+            return reportsDir.mkdir() || reportsDir.isDirectory();
         }
         return true;
     }
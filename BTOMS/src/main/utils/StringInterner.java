@@ -0,0 +1,113 @@
+package main.utils;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Shares one instance among equal strings that many entities repeat, such as project
+ * names, NRICs, officer names and flat types.
+ * <p>
+ * Entities intern these fields when they are created, changed or deserialized, so a million
+ * applications to the same project hold one copy of its name instead of a million. The pool
+ * holds its strings weakly: a string that no entity uses any more is garbage collected and
+ * drops out of the pool. Lookups are spread over independently locked stripes so loading
+ * threads rarely contend.
+ * </p>
+ * <p>
+ * Because the stored fields are interned, comparing them against an interned value usually
+ * succeeds on reference equality; {@link #same(String, String)} also rejects most unequal
+ * strings by their cached hash code before comparing characters.
+ * </p>
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public final class StringInterner {
+    private static final int STRIPES = 64;
+
+    /** Canonical strings by value; the map values are weak too so they do not pin their keys. */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Map<String, WeakReference<String>>[] POOLS = new Map[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            POOLS[i] = new WeakHashMap<>();
+        }
+    }
+
+    private StringInterner() {
+        // Utility class; not instantiable
+    }
+
+    /**
+     * Gets the shared instance equal to a string, adding the string to the pool if it has none.
+     * @param value The string, or null
+     * @return The shared instance, or null if the string is null
+     */
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, WeakReference<String>> pool = poolFor(value);
+        synchronized (pool) {
+            WeakReference<String> ref = pool.get(value);
+            String canonical = ref == null ? null : ref.get();
+            if (canonical == null) {
+                pool.put(value, new WeakReference<>(value));
+                canonical = value;
+            }
+            return canonical;
+        }
+    }
+
+    /**
+     * Gets the shared instance equal to a string without adding to the pool, for search
+     * arguments that should compare by reference but not be kept.
+     * @param value The string, or null
+     * @return The shared instance, or the string itself if it has none
+     */
+    public static String lookup(String value) {
+        if (value == null) {
+            return null;
+        }
+        Map<String, WeakReference<String>> pool = poolFor(value);
+        synchronized (pool) {
+            WeakReference<String> ref = pool.get(value);
+            String canonical = ref == null ? null : ref.get();
+            return canonical != null ? canonical : value;
+        }
+    }
+
+    /**
+     * Compares two strings, taking the shortcut when they are the same interned instance.
+     * @param a A string, or null
+     * @param b A string, or null
+     * @return true if the strings are equal
+     */
+    public static boolean same(String a, String b) {
+        if (a == b) {
+            return true;
+        }
+        return a != null && b != null && a.hashCode() == b.hashCode() && a.equals(b);
+    }
+
+    /**
+     * @return Number of strings currently in the pool
+     */
+    public static int size() {
+        int size = 0;
+        for (Map<String, WeakReference<String>> pool : POOLS) {
+            synchronized (pool) {
+                size += pool.size();
+            }
+        }
+        return size;
+    }
+
+    private static Map<String, WeakReference<String>> poolFor(String value) {
+        int h = value.hashCode();
+        return POOLS[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
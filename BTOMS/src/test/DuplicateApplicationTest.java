@@ -0,0 +1,147 @@
+package test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import main.controller.ApplicationController;
+import main.model.application.Application;
+import main.model.project.Neighborhood;
+import main.model.project.Project;
+import main.model.user.Applicant;
+import main.model.user.MaritalStatus;
+import main.repository.ApplicationRepository;
+import main.repository.EnquiryRepository;
+import main.repository.OfficerRegistrationRepository;
+import main.repository.ProjectArchiver;
+import main.repository.ProjectRepository;
+import main.repository.UserRepository;
+
+/**
+ * Concurrency test for the single-active-application rule of
+ * {@link ApplicationController#applyForProject(String, String, String)}.
+ * <p>
+ * In each round, every applicant submits the same application from many threads at
+ * once. Exactly one submission per applicant must succeed, and the repository must then
+ * hold exactly one active application per applicant. The manager then rejects those
+ * applications, which must release the applicants' slots for the next round. Run from an
+ * empty scratch directory, since the repositories are written relative to it:
+ * </p>
+ * <pre>
+ *     java -cp out test.DuplicateApplicationTest [applicants] [threadsPerApplicant] [rounds]
+ * </pre>
+ * Defaults are 200 applicants, 16 concurrent submissions each and 3 rounds. The exit
+ * status is non-zero if any check fails.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class DuplicateApplicationTest {
+    private static final String MANAGER = "T0000001A";
+    private static final String PROJECT = "Hammer Court";
+
+    public static void main(String[] args) throws Exception {
+        int applicants = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        UserRepository users = new UserRepository();
+        ProjectRepository projects = new ProjectRepository(users);
+        ApplicationRepository applications = new ApplicationRepository();
+        Map<String, Integer> units = new HashMap<>();
+        units.put("2-Room", applicants);
+        Project project = new Project(PROJECT, Neighborhood.BISHAN, units, units,
+            new Date(0), new Date(Long.MAX_VALUE / 2), MANAGER, "Manager", 5);
+        project.setVisible(true);
+        projects.save(project);
+        List<String> nrics = new ArrayList<>();
+        for (int i = 0; i < applicants; i++) {
+            String nric = String.format("S%07dA", i);
+            users.save(new Applicant(nric, "Applicant " + i, "password", 30, MaritalStatus.MARRIED));
+            nrics.add(nric);
+        }
+        ProjectArchiver archiver = new ProjectArchiver(projects, applications,
+            new EnquiryRepository(), new OfficerRegistrationRepository());
+        ApplicationController controller = new ApplicationController(applications, projects, users, archiver);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads * 4);
+        int failures = 0;
+        for (int round = 1; round <= rounds; round++) {
+            AtomicIntegerArray wins = new AtomicIntegerArray(applicants);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> submissions = new ArrayList<>();
+            for (int i = 0; i < applicants; i++) {
+                int applicant = i;
+                for (int t = 0; t < threads; t++) {
+                    submissions.add(pool.submit(() -> {
+                        start.await();
+                        if (controller.applyForProject(nrics.get(applicant), PROJECT, "2-Room")) {
+                            wins.incrementAndGet(applicant);
+                        }
+                        return null;
+                    }));
+                }
+            }
+            // The controller prints a line for every refused submission
+            PrintStream out = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            long begin = System.nanoTime();
+            start.countDown();
+            try {
+                for (Future<?> submission : submissions) {
+                    submission.get();
+                }
+            } finally {
+                System.setOut(out);
+            }
+            long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+
+            int roundFailures = 0;
+            List<String> toReject = new ArrayList<>();
+            for (int i = 0; i < applicants; i++) {
+                List<Application> active = new ArrayList<>();
+                for (Application application : applications.findByApplicant(nrics.get(i))) {
+                    if (!application.getStatus().isFinalized()) {
+                        active.add(application);
+                    }
+                }
+                if (wins.get(i) != 1 || active.size() != 1) {
+                    System.out.println("FAIL: round " + round + ", " + nrics.get(i) + ": " + wins.get(i)
+                        + " successful submission(s), " + active.size() + " active application(s)");
+                    roundFailures++;
+                }
+                active.forEach(application -> toReject.add(application.getApplicationId()));
+            }
+            System.out.println("Round " + round + ": " + applicants * threads + " submissions in "
+                + elapsedMs + " ms, " + roundFailures + " failure(s)");
+            failures += roundFailures;
+
+            // Rejecting must release the slots for the next round
+            for (String applicationId : toReject) {
+                if (!controller.rejectApplication(applicationId, MANAGER)) {
+                    System.out.println("FAIL: could not reject " + applicationId);
+                    failures++;
+                }
+            }
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " check(s)");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+}
@@ -0,0 +1,176 @@
+package test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import main.model.enquiry.Enquiry;
+import main.repository.EnquiryDuplicateDetector;
+import main.repository.EnquiryRepository;
+
+/**
+ * Accuracy test for {@link EnquiryDuplicateDetector}.
+ * <p>
+ * Each topic is an enquiry of random housing words, submitted once as written and several
+ * more times as paraphrases: with a greeting or a closing added, a different case, and one
+ * word replaced by a synonym or left out. Unrelated enquiries are drawn from the same
+ * vocabulary. Every pair of enquiries of one topic is a true duplicate pair; every other
+ * pair is not. The pairs placed in a common cluster by
+ * {@link EnquiryDuplicateDetector#findClusters(String)} must reach the minimum precision and
+ * recall. Run from an empty scratch directory, since the repository is written relative to it:
+ * </p>
+ * <pre>
+ *     java -cp out test.EnquiryDuplicateDetectorTest [topics] [paraphrasesPerTopic] [unrelated] [seed]
+ * </pre>
+ * Defaults are 60 topics with 3 paraphrases each, 200 unrelated enquiries and seed 1. The
+ * exit status is non-zero if precision or recall falls below its minimum.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class EnquiryDuplicateDetectorTest {
+    private static final String PROJECT = "Echo Gardens";
+    private static final double MIN_PRECISION = 0.95;
+    private static final double MIN_RECALL = 0.90;
+    private static final int WORDS_PER_TOPIC = 12;
+
+    private static final String[] VOCABULARY = {
+        "flat", "room", "kitchen", "balcony", "toilet", "bedroom", "storey", "lift", "carpark", "void",
+        "deck", "corridor", "window", "facade", "ceiling", "flooring", "tiles", "renovation", "contractor",
+        "defects", "warranty", "keys", "collection", "appointment", "completion", "construction", "delay",
+        "schedule", "ballot", "queue", "number", "priority", "scheme", "grant", "subsidy", "income",
+        "loan", "mortgage", "downpayment", "deposit", "option", "fee", "refund", "cancellation",
+        "withdrawal", "penalty", "eligibility", "citizen", "spouse", "fiance", "parents", "children",
+        "single", "married", "widowed", "divorced", "occupation", "period", "resale", "ethnic", "quota",
+        "neighbourhood", "school", "clinic", "market", "hawker", "park", "mrt", "station", "bus",
+        "interchange", "shuttle", "noise", "sunlight", "orientation", "view", "block", "unit", "stack",
+        "price", "valuation", "lease", "tenure", "upgrading", "maintenance", "conservancy", "charges",
+        "town", "council", "pets", "dog", "cat", "bicycle", "parking", "season", "lot", "elderly",
+    };
+
+    private static final Map<String, String> SYNONYMS = new HashMap<>();
+    static {
+        String[][] pairs = {
+            {"flat", "apartment"}, {"room", "chamber"}, {"toilet", "bathroom"}, {"lift", "elevator"},
+            {"delay", "postponement"}, {"fee", "charge"}, {"refund", "reimbursement"}, {"price", "cost"},
+            {"children", "kids"}, {"market", "supermarket"}, {"station", "stop"}, {"unit", "home"},
+            {"keys", "key"}, {"appointment", "booking"}, {"grant", "allowance"}, {"parents", "folks"},
+        };
+        for (String[] pair : pairs) {
+            SYNONYMS.put(pair[0], pair[1]);
+        }
+    }
+
+    private static final String[] GREETINGS = {"Hello,", "Hi there,", "Dear officer,", "Good morning."};
+    private static final String[] CLOSINGS = {"Thank you.", "Please advise.", "Many thanks!", "Regards."};
+
+    public static void main(String[] args) throws Exception {
+        int topics = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int paraphrases = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int unrelated = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        EnquiryRepository enquiries = new EnquiryRepository();
+        EnquiryDuplicateDetector detector = new EnquiryDuplicateDetector(enquiries);
+
+        // Topic of each enquiry ID; unrelated enquiries have topic -1
+        Map<String, Integer> topicOf = new HashMap<>();
+        List<String[]> texts = new ArrayList<>();
+        for (int t = 0; t < topics; t++) {
+            String[] words = randomWords(random);
+            texts.add(new String[] {String.valueOf(t), String.join(" ", words) + "?"});
+            for (int p = 0; p < paraphrases; p++) {
+                texts.add(new String[] {String.valueOf(t), paraphrase(words, random)});
+            }
+        }
+        for (int u = 0; u < unrelated; u++) {
+            texts.add(new String[] {"-1", String.join(" ", randomWords(random)) + "?"});
+        }
+        // Submission order must not group the topics
+        for (int i = texts.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String[] swap = texts.get(i);
+            texts.set(i, texts.get(j));
+            texts.set(j, swap);
+        }
+
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        for (int i = 0; i < texts.size(); i++) {
+            String id = "ENQ" + i;
+            enquiries.save(new Enquiry(id, String.format("S%07dA", i), PROJECT, texts.get(i)[1]));
+            topicOf.put(id, Integer.parseInt(texts.get(i)[0]));
+        }
+        List<List<Enquiry>> clusters = detector.findClusters(PROJECT);
+        System.setOut(console);
+
+        long truePairs = (long) topics * (paraphrases + 1) * paraphrases / 2;
+        long predicted = 0;
+        long correct = 0;
+        for (List<Enquiry> cluster : clusters) {
+            for (int i = 0; i < cluster.size(); i++) {
+                for (int j = i + 1; j < cluster.size(); j++) {
+                    predicted++;
+                    int a = topicOf.get(cluster.get(i).getEnquiryId());
+                    if (a >= 0 && a == topicOf.get(cluster.get(j).getEnquiryId())) {
+                        correct++;
+                    }
+                }
+            }
+        }
+        double precision = predicted == 0 ? 1.0 : (double) correct / predicted;
+        double recall = truePairs == 0 ? 1.0 : (double) correct / truePairs;
+        System.out.printf("%d enquiries, %d clusters: %d of %d predicted pairs correct, %d true pairs%n",
+            texts.size(), clusters.size(), correct, predicted, truePairs);
+        System.out.printf("precision %.3f (min %.2f), recall %.3f (min %.2f)%n",
+            precision, MIN_PRECISION, recall, MIN_RECALL);
+
+        if (precision < MIN_PRECISION || recall < MIN_RECALL) {
+            System.out.println("FAILED");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+
+    /**
+     * Picks {@value #WORDS_PER_TOPIC} distinct words of the vocabulary.
+     */
+    private static String[] randomWords(SplittableRandom random) {
+        List<String> pool = new ArrayList<>(List.of(VOCABULARY));
+        String[] words = new String[WORDS_PER_TOPIC];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = pool.remove(random.nextInt(pool.size()));
+        }
+        return words;
+    }
+
+    /**
+     * Rewrites a topic the way another applicant might ask the same question: one word
+     * replaced by a synonym or left out, and a greeting, a closing or a different case.
+     */
+    private static String paraphrase(String[] words, SplittableRandom random) {
+        List<String> rewritten = new ArrayList<>(List.of(words));
+        int position = random.nextInt(rewritten.size());
+        String synonym = SYNONYMS.get(rewritten.get(position));
+        if (synonym != null) {
+            rewritten.set(position, synonym);
+        } else {
+            rewritten.remove(position);
+        }
+        String text = String.join(" ", rewritten) + "?";
+        switch (random.nextInt(3)) {
+            case 0:
+                return GREETINGS[random.nextInt(GREETINGS.length)] + " " + text;
+            case 1:
+                return text + " " + CLOSINGS[random.nextInt(CLOSINGS.length)];
+            default:
+                return text.toUpperCase();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package test;
+
+import java.util.Arrays;
+
+import main.utils.IDGenerator;
+
+/**
+ * Multi-threaded uniqueness test for {@link IDGenerator}.
+ * <p>
+ * Several threads draw IDs concurrently; each thread's IDs must be strictly increasing,
+ * and all IDs together must be distinct. A sample of display IDs must parse back to the
+ * same 64-bit value. Run with enough heap for 8 bytes per ID:
+ * </p>
+ * <pre>
+ *     java -Xmx1g -cp out test.IDGeneratorTest [threads] [idsPerThread]
+ * </pre>
+ * Defaults are 8 threads of 4,000,000 IDs (32 million in total). The exit status is
+ * non-zero if any check fails.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class IDGeneratorTest {
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 4_000_000;
+
+        long[][] drawn = new long[threads][perThread];
+        boolean[] ordered = new boolean[threads];
+        Thread[] workers = new Thread[threads];
+        long start = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            final int index = t;
+            workers[t] = new Thread(() -> {
+                long[] ids = drawn[index];
+                boolean increasing = true;
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = IDGenerator.nextId();
+                    if (i > 0 && ids[i] <= ids[i - 1]) {
+                        increasing = false;
+                    }
+                }
+                ordered[index] = increasing;
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        int failures = 0;
+        for (int t = 0; t < threads; t++) {
+            if (!ordered[t]) {
+                System.out.println("FAIL: IDs of thread " + t + " are not strictly increasing");
+                failures++;
+            }
+        }
+
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(drawn[t], 0, all, t * perThread, perThread);
+            drawn[t] = null;
+        }
+        Arrays.sort(all);
+        int duplicates = 0;
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                duplicates++;
+            }
+        }
+        if (duplicates > 0) {
+            System.out.println("FAIL: " + duplicates + " duplicate IDs");
+            failures++;
+        }
+
+        for (int i = 0; i < all.length; i += Math.max(1, all.length / 10_000)) {
+            String display = IDGenerator.toDisplayId("APP", all[i]);
+            if (IDGenerator.parseId(display) != all[i]) {
+                System.out.println("FAIL: " + display + " does not parse back to " + all[i]);
+                failures++;
+                break;
+            }
+        }
+
+        System.out.println(all.length + " IDs from " + threads + " threads in " + elapsedMs + " ms, "
+                + duplicates + " duplicates");
+        if (failures > 0) {
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+}
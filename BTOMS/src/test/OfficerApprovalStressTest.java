@@ -0,0 +1,250 @@
+package test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.controller.OfficerRegistrationController;
+import main.model.project.FlatType;
+import main.model.project.Neighborhood;
+import main.model.project.Project;
+import main.model.registration.OfficerRegistration;
+import main.model.registration.RegistrationStatus;
+import main.model.user.HDBOfficer;
+import main.model.user.MaritalStatus;
+import main.repository.ApplicationRepository;
+import main.repository.OfficerRegistrationRepository;
+import main.repository.ProjectRepository;
+import main.repository.UserRepository;
+import main.utils.DateUtils;
+
+/**
+ * Stress test for concurrent approvals by
+ * {@link OfficerRegistrationController#approveRegistration(String, String)}.
+ * <p>
+ * Projects come in pairs with overlapping application periods and different managers,
+ * each with a few officer slots. Every officer registers for two such pairs, so approvals
+ * compete both for the slots of a project and, across managers, for the officer. Several
+ * threads per manager then approve all pending registrations of the manager's projects at
+ * once, while one thread per project keeps booking its flats. Afterwards no project may
+ * have more officers than slots, the slots, officers and approved registrations of each
+ * project must agree, no registration may be approved twice, no officer may handle two
+ * overlapping projects, and no booking may have been lost. Run from an empty scratch
+ * directory, since the repositories are written relative to it:
+ * </p>
+ * <pre>
+ *     java -cp out test.OfficerApprovalStressTest [officers] [slotsPerProject] [threadsPerManager]
+ * </pre>
+ * Defaults are 100 officers, 3 slots per project and 4 threads for each of the 10
+ * managers of 20 projects. The exit status is non-zero if any check fails.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class OfficerApprovalStressTest {
+    private static final int MANAGERS = 10;
+    private static final int PROJECTS = 2 * MANAGERS;
+    private static final int UNITS = 1000;
+
+    public static void main(String[] args) throws Exception {
+        int officers = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int slots = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        int threadsPerManager = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+
+        UserRepository users = new UserRepository();
+        ProjectRepository projects = new ProjectRepository(users);
+        ApplicationRepository applications = new ApplicationRepository();
+        OfficerRegistrationRepository registrations = new OfficerRegistrationRepository();
+        OfficerRegistrationController controller =
+            new OfficerRegistrationController(registrations, projects, users, applications);
+
+        // Projects 2w and 2w+1 share application window w and have different managers
+        Map<String, String> managerOf = new HashMap<>();
+        for (int p = 0; p < PROJECTS; p++) {
+            String name = "Project " + p;
+            String manager = String.format("T%07dM", p % MANAGERS);
+            Map<String, Integer> units = new HashMap<>();
+            units.put("2-Room", UNITS);
+            projects.save(new Project(name, Neighborhood.values()[p % Neighborhood.values().length], units, units,
+                windowDay(p / 2, 0), windowDay(p / 2, 20), manager, "Manager", slots));
+            managerOf.put(name, manager);
+        }
+        for (int o = 0; o < officers; o++) {
+            String nric = String.format("S%07dO", o);
+            users.save(new HDBOfficer(nric, "Officer " + o, "password", 30, MaritalStatus.SINGLE));
+            int first = o % MANAGERS;
+            int second = (o * 7 + 3) % MANAGERS;
+            if (second == first) {
+                second = (first + 1) % MANAGERS;
+            }
+            for (int window : new int[] { first, second }) {
+                for (int p = 2 * window; p <= 2 * window + 1; p++) {
+                    if (!controller.registerOfficerForProject(nric, "Project " + p)) {
+                        System.out.println("FAIL: " + nric + " could not register for Project " + p);
+                        System.exit(1);
+                    }
+                }
+            }
+        }
+        System.out.println(officers + " officers registered for " + registrations.findAll().size()
+            + " places in " + PROJECTS + " projects with " + slots + " slot(s) each");
+
+        Map<String, AtomicInteger> approvals = new ConcurrentHashMap<>();
+        AtomicInteger attempts = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(MANAGERS * threadsPerManager + PROJECTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int m = 0; m < MANAGERS; m++) {
+            String manager = String.format("T%07dM", m);
+            List<String> pending = new ArrayList<>();
+            for (OfficerRegistration registration : registrations.findAll()) {
+                if (managerOf.get(registration.getProjectName()).equals(manager)) {
+                    pending.add(registration.getRegistrationId());
+                }
+            }
+            for (int t = 0; t < threadsPerManager; t++) {
+                List<String> order = new ArrayList<>(pending);
+                Collections.shuffle(order, new Random(m * 31L + t));
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (String registrationId : order) {
+                        attempts.incrementAndGet();
+                        if (controller.approveRegistration(registrationId, manager)) {
+                            approvals.computeIfAbsent(registrationId, id -> new AtomicInteger()).incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+        }
+        // Flats are booked with versioned updates that approvals must not overwrite
+        AtomicInteger approving = new AtomicInteger(workers.size());
+        AtomicInteger[] booked = new AtomicInteger[PROJECTS];
+        List<Future<?>> bookers = new ArrayList<>();
+        for (int p = 0; p < PROJECTS; p++) {
+            String name = "Project " + p;
+            AtomicInteger count = booked[p] = new AtomicInteger();
+            bookers.add(pool.submit(() -> {
+                start.await();
+                while (approving.get() > 0 && count.get() < UNITS) {
+                    if (projects.modify(name, latest -> latest.decrementFlatCount(FlatType.TWO_ROOM))) {
+                        count.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        // The controller prints a line for every refused approval
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } finally {
+                    approving.decrementAndGet();
+                }
+            }
+            for (Future<?> booker : bookers) {
+                booker.get();
+            }
+        } finally {
+            System.setOut(out);
+        }
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        System.out.println(attempts.get() + " approval attempts by " + MANAGERS * threadsPerManager
+            + " threads in " + elapsedMs + " ms, " + approvals.size() + " approved, "
+            + Arrays.stream(booked).mapToInt(AtomicInteger::get).sum() + " flats booked meanwhile");
+
+        int failures = 0;
+        for (Map.Entry<String, AtomicInteger> approval : approvals.entrySet()) {
+            if (approval.getValue().get() != 1) {
+                System.out.println("FAIL: " + approval.getKey() + " approved " + approval.getValue().get() + " times");
+                failures++;
+            }
+        }
+        int approved = 0;
+        for (int p = 0; p < PROJECTS; p++) {
+            Project project = projects.findByName("Project " + p);
+            List<String> approvedOfficers = new ArrayList<>();
+            for (OfficerRegistration registration : registrations.findByProjectName(project.getProjectName())) {
+                if (registration.getStatus() == RegistrationStatus.APPROVED) {
+                    approvedOfficers.add(registration.getOfficerNRIC());
+                }
+            }
+            approved += approvedOfficers.size();
+            if (project.remaining(FlatType.TWO_ROOM) != UNITS - booked[p].get()) {
+                System.out.println("FAIL: " + project.getProjectName() + " has " + project.remaining(FlatType.TWO_ROOM)
+                    + " flat(s) left after " + booked[p].get() + " of " + UNITS + " were booked");
+                failures++;
+            }
+            List<String> assigned = project.getOfficers();
+            if (assigned.size() > slots
+                    || assigned.size() != approvedOfficers.size()
+                    || !assigned.containsAll(approvedOfficers)
+                    || project.getRemainingOfficerSlots() != slots - assigned.size()) {
+                System.out.println("FAIL: " + project.getProjectName() + " has " + assigned.size() + " officer(s), "
+                    + approvedOfficers.size() + " approved registration(s) and "
+                    + project.getRemainingOfficerSlots() + " of " + slots + " slot(s) left");
+                failures++;
+            }
+        }
+        if (approved != approvals.size()) {
+            System.out.println("FAIL: " + approved + " registrations approved but " + approvals.size() + " approvals reported");
+            failures++;
+        }
+        for (int o = 0; o < officers; o++) {
+            HDBOfficer officer = (HDBOfficer) users.findById(String.format("S%07dO", o));
+            List<String> handling = officer.getHandlingProjects();
+            for (int i = 0; i < handling.size(); i++) {
+                for (int j = i + 1; j < handling.size(); j++) {
+                    Project a = projects.findByName(handling.get(i));
+                    Project b = projects.findByName(handling.get(j));
+                    if (DateUtils.isDateRangeOverlapping(a.getOpeningDate(), a.getClosingDate(),
+                            b.getOpeningDate(), b.getClosingDate())) {
+                        System.out.println("FAIL: " + officer.getID() + " handles overlapping "
+                            + a.getProjectName() + " and " + b.getProjectName());
+                        failures++;
+                    }
+                }
+            }
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " check(s)");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+
+    /**
+     * Returns a day of an application window; windows are 30 days apart and do not overlap.
+     */
+    private static Date windowDay(int window, int day) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(2030, Calendar.JANUARY, 1);
+        calendar.add(Calendar.DAY_OF_YEAR, window * 30 + day);
+        return calendar.getTime();
+    }
+}
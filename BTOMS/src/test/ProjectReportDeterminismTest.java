@@ -0,0 +1,169 @@
+package test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import main.controller.ProjectController;
+import main.model.application.Application;
+import main.model.application.ApplicationStatus;
+import main.model.project.Neighborhood;
+import main.model.project.Project;
+import main.model.user.Applicant;
+import main.model.user.MaritalStatus;
+import main.repository.ApplicationRepository;
+import main.repository.EnquiryRepository;
+import main.repository.OfficerRegistrationRepository;
+import main.repository.ProjectArchiver;
+import main.repository.ProjectRepository;
+import main.repository.UserRepository;
+
+/**
+ * Determinism test for {@link ProjectController#generateAllProjectReports(String, Map)}.
+ * <p>
+ * One manager gets pairs of projects whose names differ only in characters that are not
+ * safe in file names ("Block 1" and "Block_1"), each with booked applicants; half of the
+ * projects are archived. All reports are then generated in parallel, with and without a
+ * filter, and every report file must have exactly the content of the sequential
+ * {@link ProjectController#generateProjectReport(String, Map)} for its project, in a file
+ * of its own. Run from an empty scratch directory, since the repositories and reports are
+ * written relative to it:
+ * </p>
+ * <pre>
+ *     java -cp out test.ProjectReportDeterminismTest [projectPairs] [applicantsPerProject]
+ * </pre>
+ * Defaults are 12 pairs of projects with 300 applicants each. The exit status is non-zero
+ * if any check fails.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class ProjectReportDeterminismTest {
+    private static final String MANAGER = "T0000001A";
+
+    public static void main(String[] args) throws IOException {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int applicants = args.length > 1 ? Integer.parseInt(args[1]) : 300;
+
+        UserRepository users = new UserRepository();
+        ProjectRepository projects = new ProjectRepository(users);
+        ApplicationRepository applications = new ApplicationRepository();
+        EnquiryRepository enquiries = new EnquiryRepository();
+        OfficerRegistrationRepository registrations = new OfficerRegistrationRepository();
+        ProjectArchiver archiver = new ProjectArchiver(projects, applications, enquiries, registrations);
+        ProjectController controller = new ProjectController(projects, users, applications, enquiries, archiver);
+
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < pairs; i++) {
+            names.add("Block " + i);
+            names.add("Block_" + i);
+        }
+        Date longAgo = date(2000);
+        Date future = date(2100);
+        int nric = 0;
+        for (int p = 0; p < names.size(); p++) {
+            String name = names.get(p);
+            Map<String, Integer> units = new HashMap<>();
+            units.put("2-Room", applicants);
+            units.put("3-Room", applicants);
+            // Every other pair has closed long ago and is archived below
+            Date closing = (p / 2) % 2 == 0 ? longAgo : future;
+            projects.save(new Project(name, Neighborhood.values()[p % Neighborhood.values().length], units, units,
+                longAgo, closing, MANAGER, "Manager", 5));
+            for (int a = 0; a < applicants; a++, nric++) {
+                String id = String.format("S%07dZ", nric);
+                MaritalStatus status = nric % 3 == 0 ? MaritalStatus.SINGLE : MaritalStatus.MARRIED;
+                users.save(new Applicant(id, "Applicant " + nric, "password", 35 + nric % 30, status));
+                Application application = new Application("APP" + nric, id, name, users);
+                application.setFlatType(a % 2 == 0 ? "2-Room" : "3-Room");
+                application.setStatus(ApplicationStatus.BOOKED);
+                applications.save(application);
+            }
+        }
+        List<String> archived = archiver.archiveClosedBefore(date(2010));
+        System.out.println("Created " + names.size() + " projects, archived " + archived.size());
+
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("flatType", "3-Room");
+        int failures = check(controller, names, new HashMap<>()) + check(controller, names, filter);
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " check(s)");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+
+    /**
+     * Generates all reports once and compares each file with the sequential report.
+     * @return Number of failed checks
+     */
+    private static int check(ProjectController controller, List<String> names, Map<String, Object> filters)
+            throws IOException {
+        long start = System.nanoTime();
+        String summaryPath = controller.generateAllProjectReports(MANAGER, filters);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        if (summaryPath == null) {
+            System.out.println("FAIL: no summary written for filters " + filters);
+            return 1;
+        }
+        List<String> lines = Files.readAllLines(Paths.get(summaryPath), StandardCharsets.UTF_8);
+        Map<String, String> reportFiles = new HashMap<>();
+        for (String line : lines.subList(3, lines.size())) {
+            int arrow = line.indexOf(" -> ");
+            int colon = line.lastIndexOf(": ", arrow);
+            if (arrow < 0 || colon < 0) {
+                System.out.println("FAIL: unexpected summary line: " + line);
+                return 1;
+            }
+            reportFiles.put(line.substring(0, colon), line.substring(arrow + 4));
+        }
+
+        int failures = 0;
+        if (reportFiles.size() != names.size()) {
+            System.out.println("FAIL: summary lists " + reportFiles.size() + " of " + names.size() + " projects");
+            failures++;
+        }
+        Set<String> paths = new HashSet<>(reportFiles.values());
+        if (paths.size() != reportFiles.size()) {
+            System.out.println("FAIL: " + (reportFiles.size() - paths.size()) + " report file(s) shared by several projects");
+            failures++;
+        }
+        for (String name : names) {
+            String path = reportFiles.get(name);
+            if (path == null) {
+                continue;
+            }
+            String parallel = new String(Files.readAllBytes(Paths.get(path)), StandardCharsets.UTF_8);
+            String sequential = controller.generateProjectReport(name, filters);
+            if (!parallel.equals(sequential)) {
+                System.out.println("FAIL: report of " + name + " in " + path + " differs from the sequential report");
+                failures++;
+            }
+        }
+        for (String path : paths) {
+            Files.deleteIfExists(Path.of(path));
+        }
+        Files.deleteIfExists(Path.of(summaryPath));
+        System.out.println(names.size() + " reports with filters " + filters + " in " + elapsedMs + " ms");
+        return failures;
+    }
+
+    private static Date date(int year) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, Calendar.JANUARY, 1);
+        return calendar.getTime();
+    }
+}
@@ -0,0 +1,273 @@
+package test;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import main.controller.AdmissionController;
+import main.controller.AdmissionRejectedException;
+import main.controller.ApplicationController;
+import main.controller.CommandGateway;
+import main.controller.EnquiriesController;
+import main.controller.HDBOfficerController;
+import main.model.project.Neighborhood;
+import main.model.project.Project;
+import main.model.user.Applicant;
+import main.model.user.MaritalStatus;
+import main.repository.ApplicationRepository;
+import main.repository.EnquiryRepository;
+import main.repository.IdempotencyCache;
+import main.repository.OfficerRegistrationRepository;
+import main.repository.ProjectArchiver;
+import main.repository.ProjectRepository;
+import main.repository.UserRepository;
+
+/**
+ * Surge simulation for the admission control of
+ * {@link CommandGateway#applyForProject(String, String, String, String, java.util.function.IntConsumer)}.
+ * <p>
+ * A project opens and every applicant applies through the gateway at the same moment, with
+ * the application endpoint limited to a small rate, burst and waiting room. Every
+ * application must be admitted or turned away with an {@link AdmissionRejectedException};
+ * the admissions must never outpace the token bucket over any interval; the positions told
+ * to each waiting applicant must only go down; and the admitted, shed and timed-out counts
+ * must match what the applicants saw and what the repository holds. The applicants that were
+ * turned away then retry with the same request IDs, after which every applicant must have
+ * exactly one application. Run from an empty scratch directory, since the repositories are
+ * written relative to it:
+ * </p>
+ * <pre>
+ *     java -cp out test.SurgeAdmissionTest [applicants] [permitsPerSecond] [burst] [queueCapacity]
+ * </pre>
+ * Defaults are 400 applicants admitted at 50 per second with a burst of 20 and a waiting room
+ * of 150. The exit status is non-zero if any check fails.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class SurgeAdmissionTest {
+    private static final String MANAGER = "T0000001A";
+    private static final String PROJECT = "Surge Heights";
+    private static final long MAX_WAIT_MILLIS = 30_000;
+    /** Allowance for the delay between an admission and the moment it reaches the controller. */
+    private static final long CLOCK_SLACK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    public static void main(String[] args) throws Exception {
+        int applicants = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        double permitsPerSecond = args.length > 1 ? Double.parseDouble(args[1]) : 50;
+        int burst = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int queueCapacity = args.length > 3 ? Integer.parseInt(args[3]) : 150;
+
+        UserRepository users = new UserRepository();
+        ProjectRepository projects = new ProjectRepository(users);
+        ApplicationRepository applications = new ApplicationRepository();
+        EnquiryRepository enquiries = new EnquiryRepository();
+        Map<String, Integer> units = new HashMap<>();
+        units.put("2-Room", applicants);
+        Project project = new Project(PROJECT, Neighborhood.BISHAN, units, units,
+            new Date(0), new Date(Long.MAX_VALUE / 2), MANAGER, "Manager", 5);
+        project.setVisible(true);
+        projects.save(project);
+        List<String> nrics = new ArrayList<>();
+        for (int i = 0; i < applicants; i++) {
+            String nric = String.format("S%07dA", i);
+            users.save(new Applicant(nric, "Applicant " + i, "password", 30, MaritalStatus.MARRIED));
+            nrics.add(nric);
+        }
+        ProjectArchiver archiver = new ProjectArchiver(projects, applications, enquiries,
+            new OfficerRegistrationRepository());
+        // Admissions are timed as they reach the controller, before they queue for the repository
+        ConcurrentLinkedQueue<Long> admittedAt = new ConcurrentLinkedQueue<>();
+        ApplicationController controller = new ApplicationController(applications, projects, users, archiver) {
+            @Override
+            public boolean applyForProject(String userNRIC, String projectName, String flatType) {
+                admittedAt.add(System.nanoTime());
+                return super.applyForProject(userNRIC, projectName, flatType);
+            }
+        };
+        CommandGateway gateway = new CommandGateway(
+            controller,
+            new HDBOfficerController(projects, applications, users),
+            new EnquiriesController(enquiries, projects, users),
+            applications, enquiries, new IdempotencyCache());
+        AdmissionController admission = gateway.getAdmissionController();
+        String endpoint = CommandGateway.APPLY_FOR_PROJECT;
+        long configuredAt = System.nanoTime();
+        admission.configure(endpoint, permitsPerSecond, burst, queueCapacity, MAX_WAIT_MILLIS);
+
+        String[] requestIds = new String[applicants];
+        List<Integer>[] positions = newPositionLists(applicants);
+        boolean[] applied = new boolean[applicants];
+        AdmissionRejectedException[] rejected = new AdmissionRejectedException[applicants];
+        ExecutorService pool = Executors.newFixedThreadPool(applicants);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> requests = new ArrayList<>();
+        for (int i = 0; i < applicants; i++) {
+            int applicant = i;
+            requestIds[i] = CommandGateway.newRequestId();
+            requests.add(pool.submit(() -> {
+                start.await();
+                try {
+                    applied[applicant] = gateway.applyForProject(requestIds[applicant], nrics.get(applicant), PROJECT,
+                        "2-Room", position -> positions[applicant].add(position));
+                } catch (AdmissionRejectedException e) {
+                    rejected[applicant] = e;
+                }
+                return null;
+            }));
+        }
+        // The controller prints a line for every application
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> request : requests) {
+                request.get();
+            }
+        } finally {
+            System.setOut(out);
+        }
+        long elapsedMs = (System.nanoTime() - begin) / 1_000_000;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        long admitted = admission.getAdmittedCount(endpoint);
+        long queued = admission.getQueuedCount(endpoint);
+        long shed = admission.getShedCount(endpoint);
+        long timedOut = admission.getTimedOutCount(endpoint);
+        System.out.println(applicants + " applications at once in " + elapsedMs + " ms: " + admitted
+            + " admitted (" + queued + " after waiting), " + shed + " shed, " + timedOut + " timed out");
+
+        int failures = 0;
+        int rejections = 0;
+        int successes = 0;
+        for (int i = 0; i < applicants; i++) {
+            if (rejected[i] != null) {
+                rejections++;
+            } else if (applied[i]) {
+                successes++;
+            } else {
+                System.out.println("FAIL: " + nrics.get(i) + " was admitted but the application failed");
+                failures++;
+            }
+        }
+        if (admitted != admittedAt.size() || shed + timedOut != rejections
+                || applications.findByProject(PROJECT).size() != successes) {
+            System.out.println("FAIL: counts disagree: " + admitted + " admitted for " + admittedAt.size()
+                + " returned, " + (shed + timedOut) + " rejected for " + rejections + " exceptions, "
+                + applications.findByProject(PROJECT).size() + " applications stored for " + successes + " successes");
+            failures++;
+        }
+        if (shed == 0 || queued == 0) {
+            System.out.println("FAIL: the surge neither filled the waiting room nor shed any load");
+            failures++;
+        }
+        if (admission.getQueueLength(endpoint) != 0) {
+            System.out.println("FAIL: " + admission.getQueueLength(endpoint) + " request(s) left in the waiting room");
+            failures++;
+        }
+        failures += checkRate(new ArrayList<>(admittedAt), configuredAt, permitsPerSecond, burst);
+        failures += checkPositions(positions, nrics, queueCapacity);
+
+        // Shed requests did not run, so retrying them with the same IDs applies exactly once
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            for (int i = 0; i < applicants; i++) {
+                if (rejected[i] != null) {
+                    applied[i] = gateway.applyForProject(requestIds[i], nrics.get(i), PROJECT, "2-Room");
+                }
+            }
+        } finally {
+            System.setOut(out);
+        }
+        for (int i = 0; i < applicants; i++) {
+            if (!applied[i] || applications.findByApplicant(nrics.get(i)).size() != 1) {
+                System.out.println("FAIL: " + nrics.get(i) + " has " + applications.findByApplicant(nrics.get(i)).size()
+                    + " application(s) after retrying");
+                failures++;
+            }
+        }
+        System.out.println(admission);
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " check(s)");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+
+    /**
+     * Checks that no interval between two admissions holds more admissions than the bucket
+     * could hand out: its burst plus its rate over the interval, and over the interval since
+     * it was configured.
+     * @return Number of failed checks
+     */
+    private static int checkRate(List<Long> admittedAt, long configuredAt,
+                                 double permitsPerSecond, int burst) {
+        long[] times = admittedAt.stream().mapToLong(Long::longValue).sorted().toArray();
+        double worstRate = 0;
+        for (int i = 0; i < times.length; i++) {
+            for (int j = i; j < times.length; j++) {
+                double seconds = (times[j] - times[i] + CLOCK_SLACK_NANOS) / 1e9;
+                if (j - i + 1 > burst + permitsPerSecond * seconds + 1) {
+                    System.out.println("FAIL: " + (j - i + 1) + " admissions within "
+                        + String.format("%.3f", seconds) + " s at " + permitsPerSecond + "/s with a burst of " + burst);
+                    return 1;
+                }
+            }
+            double sinceConfigured = (times[i] - configuredAt) / 1e9;
+            if (sinceConfigured > 1) {
+                worstRate = Math.max(worstRate, (i + 1 - burst) / sinceConfigured);
+            }
+        }
+        System.out.printf("Admission rate stayed within %.1f/s (limit %.1f/s after a burst of %d)%n",
+            worstRate, permitsPerSecond, burst);
+        return 0;
+    }
+
+    /**
+     * Checks that every waiter was told strictly decreasing positions within the waiting room.
+     * @return Number of failed checks
+     */
+    private static int checkPositions(List<Integer>[] positions, List<String> nrics, int queueCapacity) {
+        int waiters = 0;
+        int updates = 0;
+        for (int i = 0; i < positions.length; i++) {
+            List<Integer> told = positions[i];
+            if (told.isEmpty()) {
+                continue;
+            }
+            waiters++;
+            updates += told.size();
+            for (int k = 0; k < told.size(); k++) {
+                int position = told.get(k);
+                if (position < 1 || position > queueCapacity || (k > 0 && position >= told.get(k - 1))) {
+                    System.out.println("FAIL: " + nrics.get(i) + " was told positions " + told);
+                    return 1;
+                }
+            }
+        }
+        System.out.println(waiters + " waiters were told " + updates + " decreasing positions");
+        return 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer>[] newPositionLists(int count) {
+        List<Integer>[] lists = new List[count];
+        Arrays.setAll(lists, i -> new ArrayList<>());
+        return lists;
+    }
+}
@@ -0,0 +1,174 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import main.model.enquiry.Enquiry;
+import main.repository.EnquiryRepository;
+import main.repository.FileBasedRepository;
+import main.repository.VersionConflictException;
+
+/**
+ * Contention benchmark for the versioned updates of {@link FileBasedRepository}.
+ * <p>
+ * Enquiries hold a counter in their text. Several threads increment randomly chosen
+ * counters, first as blind read-modify-writes through {@link EnquiryRepository#update(Enquiry)}
+ * and then through {@link FileBasedRepository#modify(Object, java.util.function.Predicate)},
+ * over 1, 4 and 64 hot enquiries. Throughput, lost increments and version conflicts are
+ * printed for each run; blind writes are expected to lose increments under contention,
+ * versioned ones must lose none. Finally several officers race to reply to one enquiry:
+ * exactly one reply may be committed, and an update against a stale version must be
+ * rejected. Run from an empty scratch directory, since the repository is written relative
+ * to it:
+ * </p>
+ * <pre>
+ *     java -cp out test.VersionedUpdateContentionTest [threads] [increments] [officers]
+ * </pre>
+ * Defaults are 8 threads sharing 1,600 increments per run and 16 officers. The exit status
+ * is non-zero if any check fails.
+ *
+ * @author Your Name
+ * @version 1.0
+ * @since 2025-04-17
+ */
+public class VersionedUpdateContentionTest {
+    private static final int[] HOT_ENQUIRIES = {1, 4, 64};
+    private static final String PROJECT = "Echo Gardens";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int increments = args.length > 1 ? Integer.parseInt(args[1]) : 1600;
+        int officers = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+        EnquiryRepository enquiries = new EnquiryRepository();
+        int counters = HOT_ENQUIRIES[HOT_ENQUIRIES.length - 1];
+        for (int i = 0; i < counters; i++) {
+            enquiries.save(new Enquiry("ENQ" + i, "S0000001A", PROJECT, "0"));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(threads, officers));
+
+        int failures = 0;
+        for (int hot : HOT_ENQUIRIES) {
+            for (boolean versioned : new boolean[] {false, true}) {
+                for (int i = 0; i < counters; i++) {
+                    enquiries.modify("ENQ" + i, enquiry -> {
+                        enquiry.setEnquiryText("0");
+                        return true;
+                    });
+                }
+                long conflictsBefore = enquiries.getVersionConflictCount();
+                AtomicInteger errors = new AtomicInteger();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> workers = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    int share = increments / threads + (t < increments % threads ? 1 : 0);
+                    SplittableRandom random = new SplittableRandom(t);
+                    workers.add(pool.submit(() -> {
+                        start.await();
+                        for (int k = 0; k < share; k++) {
+                            String id = "ENQ" + random.nextInt(hot);
+                            try {
+                                if (versioned) {
+                                    enquiries.modify(id, enquiry -> {
+                                        enquiry.setEnquiryText(String.valueOf(counter(enquiry) + 1));
+                                        return true;
+                                    });
+                                } else {
+                                    Enquiry copy = enquiries.copyOf(enquiries.findById(id));
+                                    copy.setEnquiryText(String.valueOf(counter(copy) + 1));
+                                    enquiries.update(copy);
+                                }
+                            } catch (VersionConflictException e) {
+                                errors.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    }));
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                for (Future<?> worker : workers) {
+                    worker.get();
+                }
+                long elapsedNanos = System.nanoTime() - begin;
+
+                long sum = 0;
+                for (int i = 0; i < counters; i++) {
+                    sum += counter(enquiries.findById("ENQ" + i));
+                }
+                long conflicts = enquiries.getVersionConflictCount() - conflictsBefore;
+                System.out.printf("hot=%-3d %-10s %d/%d counted, %d lost, %d conflict(s), %d abandoned, %.0f updates/s%n",
+                    hot, versioned ? "versioned" : "blind", sum, increments, increments - sum, conflicts,
+                    errors.get(), increments / (elapsedNanos / 1e9));
+                if (versioned && (sum != increments || errors.get() > 0)) {
+                    System.out.println("FAIL: versioned increments over " + hot + " enquiries lost "
+                        + (increments - sum) + ", abandoned " + errors.get());
+                    failures++;
+                }
+            }
+        }
+
+        // Officers reply to the same enquiry at once; only the first reply may stand
+        enquiries.save(new Enquiry("ENQ-RACE", "S0000001A", PROJECT, "When are the keys collected?"));
+        AtomicInteger committed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> replies = new ArrayList<>();
+        for (int o = 0; o < officers; o++) {
+            String officer = String.format("T%07dO", o);
+            replies.add(pool.submit(() -> {
+                start.await();
+                boolean replied = enquiries.modify("ENQ-RACE", enquiry -> {
+                    if (enquiry.hasReply()) {
+                        return false;
+                    }
+                    enquiry.setReply("Reply from " + officer, officer);
+                    return true;
+                });
+                if (replied) {
+                    committed.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> reply : replies) {
+            reply.get();
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        Enquiry raced = enquiries.findById("ENQ-RACE");
+        System.out.println(officers + " officers replied at once: " + committed.get() + " committed, stored reply by "
+            + raced.getResponderId() + " at version " + raced.getVersion());
+        if (committed.get() != 1 || !raced.getReplyText().equals("Reply from " + raced.getResponderId())) {
+            System.out.println("FAIL: " + committed.get() + " replies committed to one enquiry");
+            failures++;
+        }
+        try {
+            enquiries.update(enquiries.copyOf(raced), raced.getVersion() - 1);
+            System.out.println("FAIL: an update against a stale version was committed");
+            failures++;
+        } catch (VersionConflictException e) {
+            System.out.println("Stale update rejected: " + e.getMessage());
+        }
+
+        if (failures > 0) {
+            System.out.println("FAILED: " + failures + " check(s)");
+            System.exit(1);
+        }
+        System.out.println("PASS");
+    }
+
+    /**
+     * Reads the counter kept in an enquiry's text.
+     */
+    private static int counter(Enquiry enquiry) {
+        return Integer.parseInt(enquiry.getEnquiryText());
+    }
+}